@@ -0,0 +1,46 @@
+package com.auth.config;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.internal.core.specex.ConstantSpeculativeExecutionPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cassandra.DriverConfigLoaderBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Perfil de ejecución del driver de Cassandra para la consulta de estado de voto.
+ *
+ * status-read: lectura de user_votes_log en /status; timeout corto y una
+ * ejecución especulativa en otro nodo si la primera tarda.
+ */
+@Configuration
+public class CassandraProfilesConfig {
+
+    public static final String STATUS_READ = "status-read";
+
+    @Value("${app.auth.cassandra.status-read.consistency:LOCAL_QUORUM}")
+    private String statusReadConsistency;
+
+    @Value("${app.auth.cassandra.status-read.timeout-ms:500}")
+    private long statusReadTimeoutMs;
+
+    @Value("${app.auth.cassandra.status-read.speculative-delay-ms:50}")
+    private long statusReadSpeculativeDelayMs;
+
+    @Value("${app.auth.cassandra.status-read.speculative-max-executions:2}")
+    private int statusReadSpeculativeMaxExecutions;
+
+    @Bean
+    public DriverConfigLoaderBuilderCustomizer executionProfilesCustomizer() {
+        return builder -> builder.startProfile(STATUS_READ)
+                .withString(DefaultDriverOption.REQUEST_CONSISTENCY, statusReadConsistency)
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(statusReadTimeoutMs))
+                .withBoolean(DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, true)
+                .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, ConstantSpeculativeExecutionPolicy.class)
+                .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, statusReadSpeculativeMaxExecutions)
+                .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, Duration.ofMillis(statusReadSpeculativeDelayMs))
+                .endProfile();
+    }
+}
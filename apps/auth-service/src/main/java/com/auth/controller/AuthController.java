@@ -5,7 +5,9 @@ import com.auth.dto.MarkVotedRequest;
 import com.auth.dto.RegisterRequest;
 import com.auth.model.User;
 import com.auth.repository.UserRepository;
+import com.auth.security.JwtPrincipal;
 import com.auth.security.JwtUtil;
+import com.auth.security.UserAccountCache;
 import com.auth.service.AuthService;
 import com.auth.service.VotingStatusService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,6 +56,7 @@ public class AuthController {
         private final VotingStatusService votingStatusService;
         private final RefreshTokenService refreshTokenService;
         private final TokenBlacklistService tokenBlacklistService;
+        private final UserAccountCache userAccountCache;
 
         @Value("${jwt.secret}")
         private String jwtSecret;
@@ -183,24 +186,38 @@ public class AuthController {
                         @AuthenticationPrincipal UserDetails user,
                         @RequestParam(value = "electionId", required = false) UUID electionId) {
 
-                User dbUser = userRepository.findByUsername(user.getUsername())
-                                .orElseThrow(() -> new UsernameNotFoundException(
-                                                "User not found: " + user.getUsername()));
+                // Identidad desde los claims del token; PostgreSQL solo si el principal no viene del JWT
+                UUID userId;
+                String username;
+                Object roles;
+                if (user instanceof JwtPrincipal && ((JwtPrincipal) user).getUserId() != null) {
+                        JwtPrincipal principal = (JwtPrincipal) user;
+                        userId = principal.getUserId();
+                        username = principal.getUsername();
+                        roles = principal.getRoles();
+                } else {
+                        User dbUser = userRepository.findByUsername(user.getUsername())
+                                        .orElseThrow(() -> new UsernameNotFoundException(
+                                                        "User not found: " + user.getUsername()));
+                        userId = dbUser.getId();
+                        username = dbUser.getUsername();
+                        roles = dbUser.getRoles() != null ? dbUser.getRoles() : "USER";
+                }
 
                 // Usar electionId por defecto si no se proporciona
                 UUID targetElectionId = electionId != null ? electionId : UUID.fromString(defaultElectionId);
 
                 // Verificar en Cassandra si ya votó
-                boolean hasVotedInCassandra = votingStatusService.hasUserVoted(dbUser.getId(), targetElectionId);
+                boolean hasVotedInCassandra = votingStatusService.hasUserVoted(userId, targetElectionId);
 
                 log.info("Voting status check for user {}: hasVoted={}",
-                                dbUser.getUsername(), hasVotedInCassandra);
+                                username, hasVotedInCassandra);
 
                 return ResponseEntity.ok(Map.of(
                                 HAS_VOTED, hasVotedInCassandra,
-                                "userId", dbUser.getId().toString(),
-                                "email", dbUser.getUsername(),
-                                "role", dbUser.getRoles() != null ? dbUser.getRoles() : "USER",
+                                "userId", userId.toString(),
+                                "email", username,
+                                "role", roles,
                                 "electionId", targetElectionId.toString(),
                                 "eligible", !hasVotedInCassandra,
                                 "message",
@@ -354,6 +371,7 @@ public class AuthController {
         @SecurityRequirement(name = "bearerAuth")
         public ResponseEntity<Map<String, Object>> logout(
                         HttpServletRequest request,
+                        @AuthenticationPrincipal UserDetails principal,
                         @Valid @RequestBody LogoutRequest logoutRequest) {
 
                 try {
@@ -367,6 +385,11 @@ public class AuthController {
                                 blacklistToken(accessToken);
                         }
 
+                        // El siguiente login vuelve a leer el estado de la cuenta
+                        if (principal != null) {
+                                userAccountCache.invalidate(principal.getUsername());
+                        }
+
                         log.info("User logged out successfully | timestamp={}", System.currentTimeMillis());
 
                         return ResponseEntity.ok(Map.of(
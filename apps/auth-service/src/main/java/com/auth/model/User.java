@@ -1,5 +1,6 @@
 package com.auth.model;
 
+import com.auth.security.UserAccountCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +12,7 @@ import java.util.*;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserAccountCacheInvalidator.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,58 @@
+package com.auth.repository.cassandra;
+
+import com.auth.config.CassandraProfilesConfig;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Lectura de user_votes_log con una sentencia preparada al arrancar.
+ *
+ * Sustituye a la consulta derivada de Spring Data en la verificación de
+ * estado, que se ejecuta en cada /status; usa el perfil status-read si la
+ * sesión lo define.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UserVoteLogCqlRepository {
+
+    static final String SELECT_USER_VOTE =
+            "SELECT vote_id FROM user_votes_log WHERE user_id = ? AND election_id = ?";
+
+    private final CqlSession session;
+
+    private volatile PreparedStatement selectUserVote;
+
+    @PostConstruct
+    void prepareStatements() {
+        try {
+            selectUserVote();
+        } catch (RuntimeException e) {
+            log.warn("Error preparing statement at startup ({}): {}", SELECT_USER_VOTE, e.getMessage());
+        }
+    }
+
+    public boolean existsByUserIdAndElectionId(UUID userId, UUID electionId) {
+        BoundStatement statement = selectUserVote().bind(userId, electionId);
+        if (session.getContext().getConfig().getProfiles().containsKey(CassandraProfilesConfig.STATUS_READ)) {
+            statement = statement.setExecutionProfileName(CassandraProfilesConfig.STATUS_READ);
+        }
+        return session.execute(statement).one() != null;
+    }
+
+    private PreparedStatement selectUserVote() {
+        PreparedStatement prepared = selectUserVote;
+        if (prepared == null) {
+            prepared = session.prepare(SELECT_USER_VOTE);
+            selectUserVote = prepared;
+        }
+        return prepared;
+    }
+}
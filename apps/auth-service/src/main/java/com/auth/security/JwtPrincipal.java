@@ -0,0 +1,112 @@
+package com.auth.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Principal inmutable construido a partir de los claims de un JWT ya
+ * verificado (userId, email, role), sin consultar la base de datos.
+ *
+ * El estado de la cuenta (activa o no) no viaja en el token: si hace falta
+ * comprobarlo, JwtAuthFilter lo consulta en UserAccountCache.
+ */
+public final class JwtPrincipal implements UserDetails {
+
+    private final UUID userId;
+    private final String username;
+    private final Set<String> roles;
+    private final Set<GrantedAuthority> authorities;
+
+    public JwtPrincipal(UUID userId, String username, Set<String> roles) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = Collections.unmodifiableSet(new LinkedHashSet<>(roles));
+        Set<GrantedAuthority> granted = new LinkedHashSet<>();
+        for (String role : this.roles) {
+            String upper = role.toUpperCase();
+            granted.add(new SimpleGrantedAuthority(upper.startsWith("ROLE_") ? upper : "ROLE_" + upper));
+        }
+        this.authorities = Collections.unmodifiableSet(granted);
+    }
+
+    /**
+     * Principal de los claims generados por JwtUtil.generateTokenWithPayload;
+     * sin claim de email se usa el subject y sin roles, USER.
+     */
+    public static JwtPrincipal fromClaims(Claims claims) {
+        String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+        String email = claims.get(JwtUtil.CLAIM_EMAIL, String.class);
+
+        Set<String> roles = new LinkedHashSet<>();
+        Object role = claims.get(JwtUtil.CLAIM_ROLE);
+        if (role instanceof Collection) {
+            for (Object value : (Collection<?>) role) {
+                roles.add(String.valueOf(value));
+            }
+        } else if (role != null) {
+            roles.add(role.toString());
+        }
+        if (roles.isEmpty()) {
+            roles.add("USER");
+        }
+
+        return new JwtPrincipal(userId != null ? UUID.fromString(userId) : null,
+                email != null ? email : claims.getSubject(), roles);
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal[userId=" + userId + ", username=" + username + ", roles=" + roles + "]";
+    }
+}
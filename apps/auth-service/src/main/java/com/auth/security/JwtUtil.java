@@ -31,6 +31,9 @@ public class JwtUtil {
     public static final String CLAIM_ROLE = "role";
     public static final String CLAIM_HAS_VOTED = "hasVoted";
 
+    // El parser es inmutable y seguro entre hilos: se construye una sola vez
+    private volatile JwtParser parser;
+
     /**
      * Genera un token JWT con payload personalizado para el usuario
      */
@@ -130,9 +133,7 @@ public class JwtUtil {
      */
     public Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
+            return parser()
                     .parseClaimsJws(token)
                     .getBody();
         } catch (ExpiredJwtException e) {
@@ -241,6 +242,17 @@ public class JwtUtil {
         }
     }
 
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
     /**
      * Obtiene la clave de firma para JWT
      */
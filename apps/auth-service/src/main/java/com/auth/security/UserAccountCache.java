@@ -0,0 +1,92 @@
+package com.auth.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de las cuentas (UserDetails) con caducidad, para comprobar en cada
+ * petición que la cuenta sigue activa sin ir a PostgreSQL.
+ *
+ * Cada entrada vale app.auth.account-cache.ttl-ms; con max-entries lleno se
+ * descartan primero las caducadas y, si no basta, entradas cualesquiera hasta
+ * quedar en el 90 %. El logout y cualquier cambio de la entidad User
+ * (UserAccountCacheInvalidator) invalidan la entrada del usuario.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserAccountCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    @Value("${app.auth.account-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.auth.account-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * UserDetails del usuario, desde la caché o, si no está o caducó, desde la base de datos.
+     *
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException si el usuario no existe
+     */
+    public UserDetails get(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && now < entry.expiresAtMillis) {
+            return entry.userDetails;
+        }
+
+        UserDetails userDetails =
+                userDetailsService.loadUserByUsername(username);
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(username, new Entry(userDetails, now + ttlMillis));
+        return userDetails;
+    }
+
+    public void invalidate(String username) {
+        if (username != null && entries.remove(username) != null) {
+            log.debug("Account cache entry invalidated for {}", username);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict(long now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> now >= entry.expiresAtMillis);
+
+        int target = maxEntries * 9 / 10;
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final UserDetails userDetails;
+        private final long expiresAtMillis;
+
+        private Entry(UserDetails userDetails, long expiresAtMillis) {
+            this.userDetails = userDetails;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
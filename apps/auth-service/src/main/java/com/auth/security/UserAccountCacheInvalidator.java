@@ -0,0 +1,33 @@
+package com.auth.security;
+
+import com.auth.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de User: cualquier cambio o borrado del usuario (desactivación,
+ * roles, contraseña) invalida su entrada en UserAccountCache.
+ *
+ * Hibernate lo obtiene del contexto de Spring, por eso es un @Component. La
+ * caché se resuelve al invalidar y no al crearlo: Hibernate crea el listener
+ * mientras arranca el EntityManagerFactory, que la caché necesita a través de
+ * UserDetailsServiceImpl y UserRepository (dependencia circular al arrancar).
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAccountCacheInvalidator {
+
+    private final ObjectProvider<UserAccountCache> userAccountCache;
+
+    @PostUpdate
+    @PostRemove
+    public void invalidate(User user) {
+        // El token puede llevar el username o el email según cómo se emitió
+        UserAccountCache cache = userAccountCache.getObject();
+        cache.invalidate(user.getUsername());
+        cache.invalidate(user.getEmail());
+    }
+}
@@ -1,35 +1,50 @@
 package com.auth.security.filter;
 
+import com.auth.security.JwtPrincipal;
 import com.auth.security.JwtUtil;
-import com.auth.security.UserDetailsServiceImpl;
+import com.auth.security.UserAccountCache;
 import com.auth.service.TokenBlacklistService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Autentica las peticiones con Bearer token.
+ *
+ * El token se verifica una sola vez y el principal (JwtPrincipal) se construye
+ * con sus claims, sin consultar PostgreSQL. La lista de revocados (Redis) se
+ * sigue consultando en cada petición. Con app.auth.account-check.enabled se
+ * comprueba además que la cuenta siga activa, contra UserAccountCache.
+ */
 @Component
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserAccountCache userAccountCache;
     private final TokenBlacklistService tokenBlacklistService;
 
+    @Value("${app.auth.account-check.enabled:false}")
+    private boolean accountCheckEnabled;
+
     // Constructor injection
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService,
+    public JwtAuthFilter(JwtUtil jwtUtil, UserAccountCache userAccountCache,
             TokenBlacklistService tokenBlacklistService) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.userAccountCache = userAccountCache;
         this.tokenBlacklistService = tokenBlacklistService;
     }
 
@@ -43,8 +58,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
         String token = null;
+        Claims claims = null;
 
         log.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
@@ -53,19 +68,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             log.debug("Token found: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
 
             try {
-                username = jwtUtil.extractUsername(token);
-                log.debug("Username extracted: {}", username);
+                // Firma y expiración se comprueban aquí, una sola vez
+                claims = jwtUtil.extractAllClaims(token);
             } catch (Exception e) {
-                log.error("Error extracting username from token: {}", e.getMessage());
+                log.error("Error validating token: {}", e.getMessage());
             }
         } else {
             log.debug("No Authorization header or doesn't start with Bearer");
         }
 
-        // Verificar blacklist ANTES de validar el token
-        if (token != null) {
+        if (claims != null) {
+            // Verificar blacklist antes de autenticar
             try {
-                String jti = jwtUtil.extractJti(token);
+                String jti = claims.getId();
                 if (jti != null && tokenBlacklistService.isTokenRevoked(jti)) {
                     log.warn("Token is revoked (JTI: {}): {}", jti,
                             token.substring(0, Math.min(token.length(), 20)) + "...");
@@ -80,21 +95,39 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            log.debug("Username found and no existing authentication, validating token");
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal = JwtPrincipal.fromClaims(claims);
 
-            if (jwtUtil.validateToken(token)) {
-                log.debug("Token is valid, setting authentication for user: {}", username);
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-                        null, userDetails.getAuthorities());
+            if (isAccountUsable(principal.getUsername())) {
+                log.debug("Token is valid, setting authentication for user: {}", principal.getUsername());
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal,
+                        null, principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-            } else {
-                log.warn("Token validation failed for user: {}", username);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Cuenta activa y no bloqueada según UserAccountCache; sin account-check
+     * siempre es true.
+     */
+    private boolean isAccountUsable(String username) {
+        if (!accountCheckEnabled) {
+            return true;
+        }
+        try {
+            UserDetails account = userAccountCache.get(username);
+            if (!account.isEnabled() || !account.isAccountNonLocked()) {
+                log.warn("Account is disabled or locked: {}", username);
+                return false;
+            }
+            return true;
+        } catch (UsernameNotFoundException e) {
+            log.warn("Token user no longer exists: {}", username);
+            return false;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.auth.service;
 
 import com.auth.entity.cassandra.UserVoteLog;
+import com.auth.repository.cassandra.UserVoteLogCqlRepository;
 import com.auth.repository.cassandra.UserVoteLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,7 @@ import java.util.UUID;
 public class VotingStatusService {
 
     private final UserVoteLogRepository userVoteLogRepository;
+    private final UserVoteLogCqlRepository userVoteLogCqlRepository;
 
     @Value("${app.default-election-id:550e8400-e29b-41d4-a716-446655440000}")
     private String defaultElectionId;
@@ -32,7 +34,7 @@ public class VotingStatusService {
             }
 
             // Verificar en Cassandra si existe un log de voto para este usuario
-            boolean hasVoted = userVoteLogRepository.existsByUserIdAndElectionId(userId, electionId);
+            boolean hasVoted = userVoteLogCqlRepository.existsByUserIdAndElectionId(userId, electionId);
 
             log.info("Usuario {} {} ha votado en la eleccion {}",
                     userId, hasVoted ? "SI" : "NO", electionId);
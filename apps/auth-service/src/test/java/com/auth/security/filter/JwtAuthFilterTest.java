@@ -0,0 +1,120 @@
+package com.auth.security.filter;
+
+import com.auth.model.User;
+import com.auth.security.JwtPrincipal;
+import com.auth.security.JwtUtil;
+import com.auth.security.UserAccountCache;
+import com.auth.service.TokenBlacklistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    @Mock
+    private UserAccountCache userAccountCache;
+
+    @Mock
+    private TokenBlacklistService tokenBlacklistService;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthFilter jwtAuthFilter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "testSecretKey1234567890123456789012345678901");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 3_600_000L);
+        jwtAuthFilter = new JwtAuthFilter(jwtUtil, userAccountCache, tokenBlacklistService);
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("juan@example.com")
+                .email("juan@example.com")
+                .fullName("Juan Pérez")
+                .password("encodedPassword")
+                .roles(Set.of("ADMIN"))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFilter_BuildsPrincipalFromClaims() throws Exception {
+        // Given
+        MockHttpServletRequest request = bearer(jwtUtil.generateTokenWithPayload(user, false));
+
+        // When
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(user.getId(), principal.getUserId());
+        assertEquals("juan@example.com", principal.getUsername());
+        assertTrue(principal.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        verifyNoInteractions(userAccountCache);
+    }
+
+    @Test
+    void testFilter_RejectsDisabledAccountWhenCheckEnabled() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jwtAuthFilter, "accountCheckEnabled", true);
+        when(userAccountCache.get("juan@example.com")).thenReturn(
+                new org.springframework.security.core.userdetails.User("juan@example.com", "encodedPassword",
+                        false, true, true, false, Set.of()));
+        MockHttpServletRequest request = bearer(jwtUtil.generateTokenWithPayload(user, false));
+
+        // When
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testFilter_RevokedToken() throws Exception {
+        // Given
+        when(tokenBlacklistService.isTokenRevoked(anyString())).thenReturn(true);
+        MockHttpServletRequest request = bearer(jwtUtil.generateTokenWithPayload(user, false));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        jwtAuthFilter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/voting-status");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -23,22 +23,22 @@ public class GatewayApplication {
 
                 // Users Service - Puerto 8082
                 .route("users-service", r -> r.path("/api/users/**")
-                        .filters(f -> f.rewritePath("/api/users/(?<segment>.*)", "/api/v1/users/${segment}"))
+                        .filters(f -> f.rewritePath("/api/users(?<segment>/?.*)", "/api/v1/users${segment}"))
                         .uri("http://localhost:8082"))
 
                 // Candidates API in Users Service
                 .route("candidates-service", r -> r.path("/api/candidates/**")
-                        .filters(f -> f.rewritePath("/api/candidates/(?<segment>.*)", "/api/v1/candidates/${segment}"))
+                        .filters(f -> f.rewritePath("/api/candidates(?<segment>/?.*)", "/api/v1/candidates${segment}"))
                         .uri("http://localhost:8082"))
 
                 // Votes Service - Puerto 8083
                 .route("votes-service", r -> r.path("/api/votes/**")
-                        .filters(f -> f.rewritePath("/api/votes/(?<segment>.*)", "/api/v1/votes/${segment}"))
+                        .filters(f -> f.rewritePath("/api/votes(?<segment>/?.*)", "/api/v1/votes${segment}"))
                         .uri("http://localhost:8083"))
 
                 // Reports Service - Puerto 8084
                 .route("reports-service", r -> r.path("/api/reports/**")
-                        .filters(f -> f.rewritePath("/api/reports/(?<segment>.*)", "/api/v1/reports/${segment}"))
+                        .filters(f -> f.rewritePath("/api/reports(?<segment>/?.*)", "/api/v1/reports${segment}"))
                         .uri("http://localhost:8084"))
 
                 // Health checks para cada servicio
@@ -7,9 +7,14 @@
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
@@ -54,10 +59,11 @@ public List<CandidateVotesDTO> getVotesByCandidate() {
             // Llamada al endpoint del votes-service para obtener los conteos
             String url = votesServiceUrl + "/api/v1/votes/results/by-candidate";
             
+            // El endpoint de resultados requiere JWT: se reenvía el del usuario que pide el reporte
             ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
                 url,
                 HttpMethod.GET,
-                null,
+                withCallerAuthorization(),
                 new ParameterizedTypeReference<List<Map<String, Object>>>() {}
             );
 
@@ -186,6 +192,25 @@ private Long getTotalRegisteredUsers() {
         }
     }
 
+    /**
+     * Petición con el header Authorization de la petición en curso, si la hay.
+     * 
+     * @return Entidad con el header, o null fuera de una petición HTTP
+     */
+    private HttpEntity<Void> withCallerAuthorization() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String authorization = ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        return new HttpEntity<>(headers);
+    }
+
     /**
      * Convierte un mapa de datos a un DTO de votos por candidato.
      * 
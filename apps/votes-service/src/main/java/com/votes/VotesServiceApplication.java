@@ -3,11 +3,15 @@ package com.votes;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.cassandra.repository.config.EnableCassandraRepositories;
+import org.springframework.data.cassandra.repository.config.EnableReactiveCassandraRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.votes.repository.postgres")
 @EnableCassandraRepositories(basePackages = "com.votes.repository.cassandra")
+@EnableReactiveCassandraRepositories(basePackages = "com.votes.repository.reactive")
+@EnableScheduling
 public class VotesServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,45 @@
+package com.votes.audit;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Ranura reutilizable del anillo de eventos de auditoría.
+ *
+ * subjectId es el usuario en VOTE_REJECTED y el voto en
+ * VOTE_PERSISTED/VOTE_FAILED; VOTE_RECEIVED no lleva sujeto. El usuario solo
+ * aparece en votos rechazados, que no tienen candidato ni fila en votes, así
+ * que ni un evento ni dos cercanos en el tiempo enlazan un usuario con su
+ * candidato.
+ */
+@Getter
+public final class AuditEvent {
+
+    private AuditEventType type;
+    private long timestampMillis;
+    private UUID electionId;
+    private UUID subjectId;
+    private UUID candidateId;
+    private String reason;
+
+    // Secuencia publicada en esta ranura; la escritura volátil hace visibles los campos anteriores
+    private volatile long sequence = -1;
+
+    void set(AuditEventType type, long timestampMillis, UUID electionId, UUID subjectId, UUID candidateId, String reason) {
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+        this.electionId = electionId;
+        this.subjectId = subjectId;
+        this.candidateId = candidateId;
+        this.reason = reason;
+    }
+
+    void publish(long sequence) {
+        this.sequence = sequence;
+    }
+
+    long publishedSequence() {
+        return sequence;
+    }
+}
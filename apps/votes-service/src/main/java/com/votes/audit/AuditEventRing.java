@@ -0,0 +1,92 @@
+package com.votes.audit;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Anillo preasignado de eventos de auditoría: varios productores, un solo consumidor.
+ *
+ * Los productores reservan una secuencia con CAS, rellenan la ranura y la
+ * publican escribiendo la secuencia en ella. El consumidor lee en orden
+ * mientras la ranura siguiente esté publicada. Si el anillo está lleno el
+ * evento se descarta y se cuenta: el camino del voto nunca espera al disco.
+ */
+public final class AuditEventRing {
+
+    private final AuditEvent[] slots;
+    private final int mask;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Siguiente secuencia a consumir; solo la escribe el consumidor
+    private volatile long consumed;
+
+    public AuditEventRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        slots = new AuditEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AuditEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return false si el anillo estaba lleno y el evento se descartó
+     */
+    public boolean publish(AuditEventType type, UUID electionId, UUID subjectId, UUID candidateId, String reason) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        AuditEvent slot = slots[(int) (sequence & mask)];
+        slot.set(type, System.currentTimeMillis(), electionId, subjectId, candidateId, reason);
+        slot.publish(sequence);
+        return true;
+    }
+
+    /**
+     * Entrega al handler hasta max eventos publicados, en orden. Solo debe
+     * llamarlo un hilo; la ranura no debe retenerse después del handler.
+     *
+     * @return eventos entregados
+     */
+    public int drain(Consumer<AuditEvent> handler, int max) {
+        long next = consumed;
+        int drained = 0;
+        while (drained < max) {
+            AuditEvent slot = slots[(int) (next & mask)];
+            if (slot.publishedSequence() != next) {
+                break;
+            }
+            handler.accept(slot);
+            next++;
+            drained++;
+        }
+        if (drained > 0) {
+            consumed = next;
+        }
+        return drained;
+    }
+
+    public long backlog() {
+        return claimed.get() - consumed;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
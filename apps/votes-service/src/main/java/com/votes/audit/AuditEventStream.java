@@ -0,0 +1,267 @@
+package com.votes.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Eventos de auditoría de votación escritos fuera del camino de la petición.
+ *
+ * Los hilos de petición solo publican en un AuditEventRing preasignado; un
+ * hilo escritor lo vacía en archivos NDJSON (un evento por línea) dentro de
+ * app.votes.audit-stream.directory, rotando al superar max-file-bytes y
+ * conservando los últimos max-files archivos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditEventStream {
+
+    public static final String REASON_ALREADY_VOTED = "already_voted";
+    public static final String REASON_INVALID_CANDIDATE = "invalid_candidate";
+    public static final String REASON_WRITE_FAILED = "write_failed";
+    public static final String REASON_OUTCOME_UNKNOWN = "outcome_unknown";
+
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".ndjson";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.audit-stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.audit-stream.capacity:65536}")
+    private int capacity;
+
+    @Value("${app.votes.audit-stream.directory:./data/audit}")
+    private String directory;
+
+    @Value("${app.votes.audit-stream.max-file-bytes:67108864}")
+    private long maxFileBytes;
+
+    @Value("${app.votes.audit-stream.max-files:20}")
+    private int maxFiles;
+
+    private AuditEventRing ring;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Solo los usa el hilo escritor
+    private final StringBuilder line = new StringBuilder(256);
+    private Writer out;
+    private long fileBytes;
+    private Counter writtenCounter;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        ring = new AuditEventRing(capacity);
+        Gauge.builder("votes.audit.backlog", ring, AuditEventRing::backlog)
+                .description("Audit events published and not yet written to disk")
+                .register(meterRegistry);
+        FunctionCounter.builder("votes.audit.dropped", ring, AuditEventRing::dropped)
+                .description("Audit events dropped because the ring buffer was full")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("votes.audit.written")
+                .description("Audit events written to the NDJSON audit files")
+                .register(meterRegistry);
+
+        try {
+            Files.createDirectories(Paths.get(directory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit directory " + directory, e);
+        }
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit event stream writing to {} (ring capacity {})", directory, capacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sin usuario: junto al VOTE_PERSISTED que le sigue enlazaría al usuario con su candidato.
+     */
+    public void voteReceived(UUID electionId) {
+        publish(AuditEventType.VOTE_RECEIVED, electionId, null, null, null);
+    }
+
+    public void voteRejected(UUID userId, UUID electionId, String reason) {
+        publish(AuditEventType.VOTE_REJECTED, electionId, userId, null, reason);
+    }
+
+    public void votePersisted(UUID voteId, UUID electionId, UUID candidateId) {
+        publish(AuditEventType.VOTE_PERSISTED, electionId, voteId, candidateId, null);
+    }
+
+    public void voteFailed(UUID voteId, UUID electionId, String reason) {
+        publish(AuditEventType.VOTE_FAILED, electionId, voteId, null, reason);
+    }
+
+    private void publish(AuditEventType type, UUID electionId, UUID subjectId, UUID candidateId, String reason) {
+        if (enabled) {
+            ring.publish(type, electionId, subjectId, candidateId, reason);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int drained = ring.drain(this::write, DRAIN_BATCH);
+            if (drained > 0) {
+                writtenCounter.increment(drained);
+                continue;
+            }
+            flush();
+            if (!running) {
+                break;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        closeFile();
+    }
+
+    private void write(AuditEvent event) {
+        line.setLength(0);
+        line.append("{\"ts\":").append(event.getTimestampMillis())
+                .append(",\"type\":\"").append(event.getType().name()).append('"');
+        appendField("electionId", event.getElectionId());
+        appendField("subjectId", event.getSubjectId());
+        appendField("candidateId", event.getCandidateId());
+        if (event.getReason() != null) {
+            line.append(",\"reason\":\"");
+            appendEscaped(event.getReason());
+            line.append('"');
+        }
+        line.append("}\n");
+
+        try {
+            if (out == null || fileBytes >= maxFileBytes) {
+                rollFile();
+            }
+            out.append(line);
+            fileBytes += line.length();
+        } catch (IOException e) {
+            log.error("Error writing audit event: {}", e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void appendField(String name, UUID value) {
+        if (value != null) {
+            line.append(",\"").append(name).append("\":\"").append(value).append('"');
+        }
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(' ');
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    private void rollFile() throws IOException {
+        closeFile();
+        Path dir = Paths.get(directory);
+        long id = System.currentTimeMillis();
+        Path file = dir.resolve(FILE_PREFIX + id + FILE_SUFFIX);
+        while (Files.exists(file)) {
+            file = dir.resolve(FILE_PREFIX + (++id) + FILE_SUFFIX);
+        }
+        out = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                StandardCharsets.UTF_8), 64 * 1024);
+        fileBytes = 0;
+        deleteOldFiles(dir);
+    }
+
+    private void deleteOldFiles(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Los nombres llevan milisegundos epoch de la misma longitud: el orden léxico es cronológico
+        Collections.sort(files);
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.error("Error flushing audit file: {}", e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.error("Error closing audit file: {}", e.getMessage());
+        }
+        out = null;
+    }
+}
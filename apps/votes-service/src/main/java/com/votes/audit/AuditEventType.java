@@ -0,0 +1,12 @@
+package com.votes.audit;
+
+public enum AuditEventType {
+    /** Petición de voto recibida (sin usuario) */
+    VOTE_RECEIVED,
+    /** Voto rechazado (ya votó, candidato no válido) */
+    VOTE_REJECTED,
+    /** Voto escrito en Cassandra */
+    VOTE_PERSISTED,
+    /** La escritura del voto falló */
+    VOTE_FAILED
+}
@@ -0,0 +1,57 @@
+package com.votes.config;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.internal.core.metrics.TaggingMetricIdGenerator;
+import com.datastax.oss.driver.internal.metrics.micrometer.MicrometerMetricsFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.cassandra.CqlSessionBuilderCustomizer;
+import org.springframework.boot.autoconfigure.cassandra.DriverConfigLoaderBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Métricas de la sesión del driver de Cassandra publicadas en el
+ * MeterRegistry de Spring (y por tanto en /actuator/prometheus).
+ *
+ * - Sesión: latencia de las peticiones CQL (con histograma agregable),
+ *   timeouts de cliente, nodos conectados y bytes enviados/recibidos.
+ * - Por nodo: peticiones en vuelo, streams disponibles y conexiones abiertas
+ *   del pool, más errores de lectura/escritura y ejecuciones especulativas.
+ *
+ * Los nombres llevan el prefijo cassandra y los nodos van como tag.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.votes.cassandra.metrics.enabled", havingValue = "true")
+public class CassandraMetricsConfig {
+
+    @Bean
+    public DriverConfigLoaderBuilderCustomizer driverMetricsCustomizer() {
+        return builder -> builder
+                .withClass(DefaultDriverOption.METRICS_FACTORY_CLASS, MicrometerMetricsFactory.class)
+                .withClass(DefaultDriverOption.METRICS_ID_GENERATOR_CLASS, TaggingMetricIdGenerator.class)
+                .withString(DefaultDriverOption.METRICS_ID_GENERATOR_PREFIX, "cassandra")
+                .withBoolean(DefaultDriverOption.METRICS_GENERATE_AGGREGABLE_HISTOGRAMS, true)
+                .withStringList(DefaultDriverOption.METRICS_SESSION_ENABLED, List.of(
+                        "cql-requests",
+                        "cql-client-timeouts",
+                        "connected-nodes",
+                        "bytes-sent",
+                        "bytes-received"))
+                .withStringList(DefaultDriverOption.METRICS_NODE_ENABLED, List.of(
+                        "pool.in-flight",
+                        "pool.available-streams",
+                        "pool.open-connections",
+                        "errors.request.write-timeouts",
+                        "errors.request.read-timeouts",
+                        "errors.request.unavailables",
+                        "speculative-executions"));
+    }
+
+    @Bean
+    public CqlSessionBuilderCustomizer driverMetricRegistryCustomizer(MeterRegistry meterRegistry) {
+        return builder -> builder.withMetricRegistry(meterRegistry);
+    }
+}
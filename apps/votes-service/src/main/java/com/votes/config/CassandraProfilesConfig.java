@@ -0,0 +1,115 @@
+package com.votes.config;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.ProgrammaticDriverConfigLoaderBuilder;
+import com.datastax.oss.driver.internal.core.specex.ConstantSpeculativeExecutionPolicy;
+import com.datastax.oss.driver.internal.core.specex.NoSpeculativeExecutionPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cassandra.DriverConfigLoaderBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Perfiles de ejecución del driver de Cassandra para el camino del voto.
+ *
+ * - vote-write: escrituras de votos y reclamos (LWT); consistencia alta, sin
+ *   ejecuciones especulativas.
+ * - vote-dedup-read: lectura de user_votes_log para decidir duplicados;
+ *   timeout corto y una ejecución especulativa en otro nodo si la primera tarda.
+ * - bulk-scan: recorridos para calentar cachés en memoria (VotedUserIndex);
+ *   LOCAL_ONE y timeout largo para no competir con los límites del camino del voto.
+ * - consistent-scan: recorridos y conteos cuyo resultado se persiste o decide
+ *   algo (sellado de auditoría, checkpoints, reconciliación, recuento,
+ *   migración de buckets); LOCAL_QUORUM para ver toda escritura confirmada.
+ *
+ * Lo que no indica perfil sigue usando el perfil por defecto del driver.
+ */
+@Configuration
+public class CassandraProfilesConfig {
+
+    public static final String VOTE_WRITE = "vote-write";
+    public static final String VOTE_DEDUP_READ = "vote-dedup-read";
+    public static final String BULK_SCAN = "bulk-scan";
+    public static final String CONSISTENT_SCAN = "consistent-scan";
+
+    @Value("${app.votes.cassandra.vote-write.consistency:LOCAL_QUORUM}")
+    private String voteWriteConsistency;
+
+    @Value("${app.votes.cassandra.vote-write.timeout-ms:2000}")
+    private long voteWriteTimeoutMs;
+
+    @Value("${app.votes.cassandra.dedup-read.consistency:LOCAL_QUORUM}")
+    private String dedupReadConsistency;
+
+    @Value("${app.votes.cassandra.dedup-read.timeout-ms:500}")
+    private long dedupReadTimeoutMs;
+
+    @Value("${app.votes.cassandra.dedup-read.speculative-delay-ms:50}")
+    private long dedupReadSpeculativeDelayMs;
+
+    @Value("${app.votes.cassandra.dedup-read.speculative-max-executions:2}")
+    private int dedupReadSpeculativeMaxExecutions;
+
+    @Value("${app.votes.cassandra.bulk-scan.consistency:LOCAL_ONE}")
+    private String bulkScanConsistency;
+
+    @Value("${app.votes.cassandra.bulk-scan.timeout-ms:30000}")
+    private long bulkScanTimeoutMs;
+
+    @Value("${app.votes.cassandra.consistent-scan.consistency:LOCAL_QUORUM}")
+    private String consistentScanConsistency;
+
+    @Value("${app.votes.cassandra.consistent-scan.timeout-ms:30000}")
+    private long consistentScanTimeoutMs;
+
+    @Bean
+    public DriverConfigLoaderBuilderCustomizer executionProfilesCustomizer() {
+        return builder -> {
+            writeProfile(builder);
+            dedupReadProfile(builder);
+            bulkScanProfile(builder);
+            consistentScanProfile(builder);
+        };
+    }
+
+    private void writeProfile(ProgrammaticDriverConfigLoaderBuilder builder) {
+        builder.startProfile(VOTE_WRITE)
+                .withString(DefaultDriverOption.REQUEST_CONSISTENCY, voteWriteConsistency)
+                .withString(DefaultDriverOption.REQUEST_SERIAL_CONSISTENCY, "LOCAL_SERIAL")
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(voteWriteTimeoutMs))
+                .withBoolean(DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, true)
+                .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, NoSpeculativeExecutionPolicy.class)
+                .endProfile();
+    }
+
+    private void dedupReadProfile(ProgrammaticDriverConfigLoaderBuilder builder) {
+        builder.startProfile(VOTE_DEDUP_READ)
+                .withString(DefaultDriverOption.REQUEST_CONSISTENCY, dedupReadConsistency)
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(dedupReadTimeoutMs))
+                .withBoolean(DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, true)
+                .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, ConstantSpeculativeExecutionPolicy.class)
+                .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, dedupReadSpeculativeMaxExecutions)
+                .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, Duration.ofMillis(dedupReadSpeculativeDelayMs))
+                .endProfile();
+    }
+
+    private void bulkScanProfile(ProgrammaticDriverConfigLoaderBuilder builder) {
+        builder.startProfile(BULK_SCAN)
+                .withString(DefaultDriverOption.REQUEST_CONSISTENCY, bulkScanConsistency)
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(bulkScanTimeoutMs))
+                .withBoolean(DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, true)
+                .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, NoSpeculativeExecutionPolicy.class)
+                .endProfile();
+    }
+
+    private void consistentScanProfile(ProgrammaticDriverConfigLoaderBuilder builder) {
+        builder.startProfile(CONSISTENT_SCAN)
+                .withString(DefaultDriverOption.REQUEST_CONSISTENCY, consistentScanConsistency)
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(consistentScanTimeoutMs))
+                .withBoolean(DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, true)
+                .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, NoSpeculativeExecutionPolicy.class)
+                .endProfile();
+    }
+}
@@ -0,0 +1,69 @@
+package com.votes.config;
+
+import com.votes.dto.VoteRequest;
+import com.votes.dto.VoteResponse;
+import com.votes.service.ReactiveVotingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.UUID;
+
+import static org.springframework.web.servlet.function.RouterFunctions.route;
+
+/**
+ * Endpoints funcionales del camino reactivo de votación.
+ *
+ * El servicio corre sobre Tomcat, así que se usan las funciones de Spring MVC
+ * con respuestas asíncronas: el hilo del contenedor se libera al devolver el
+ * Mono y la respuesta se escribe cuando este completa.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.votes.reactive.enabled", havingValue = "true")
+public class ReactiveVoteRouter {
+
+    @Value("${app.default-election-id}")
+    private String defaultElectionId;
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveVoteRoutes(ReactiveVotingService reactiveVotingService) {
+        return route()
+                .POST("/api/v1/votes/reactive", request -> {
+                    UUID userId = userId(request);
+                    VoteRequest voteRequest = request.body(VoteRequest.class);
+                    if (voteRequest.getCandidateId() == null) {
+                        return ServerResponse.badRequest().body(VoteResponse.error("Candidate ID is required"));
+                    }
+                    return ServerResponse.async(reactiveVotingService.castVote(userId, voteRequest)
+                            .map(response -> response.isSuccess()
+                                    ? ServerResponse.ok().body(response)
+                                    : response.isOutcomeUnknown()
+                                            ? ServerResponse.accepted().body(response)
+                                            : ServerResponse.badRequest().body(response)));
+                })
+                .GET("/api/v1/votes/reactive/status", request -> {
+                    UUID userId = userId(request);
+                    UUID electionId = request.param("electionId")
+                            .map(UUID::fromString)
+                            .orElse(UUID.fromString(defaultElectionId));
+                    return ServerResponse.async(reactiveVotingService.checkVotingStatus(userId, electionId)
+                            .map(status -> ServerResponse.ok().body(status)));
+                })
+                .build();
+    }
+
+    private static UUID userId(ServerRequest request) {
+        // El filtro JWT deja el UUID del usuario como principal
+        return request.principal()
+                .filter(Authentication.class::isInstance)
+                .map(principal -> (UUID) ((Authentication) principal).getPrincipal())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+    }
+}
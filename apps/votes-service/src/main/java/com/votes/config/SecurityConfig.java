@@ -33,6 +33,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                             "/actuator/**", 
+                            "/api/v1/votes/audit/**",
                             "/swagger-ui/**", 
                             "/v3/api-docs/**",
                             "/swagger-ui.html",
@@ -1,23 +1,49 @@
 package com.votes.controller;
 
+import com.votes.dto.AuditRootResponse;
+import com.votes.dto.CandidateResultResponse;
+import com.votes.dto.IdempotentResponse;
+import com.votes.dto.InclusionProofResponse;
+import com.votes.dto.RecountStatusResponse;
+import com.votes.dto.VoteRateResolution;
+import com.votes.dto.VoteRateResponse;
+import com.votes.dto.VoteReceiptResponse;
+import com.votes.dto.VoteReceiptStatus;
 import com.votes.dto.VoteRequest;
 import com.votes.dto.VoteResponse;
 import com.votes.dto.VotingStatusResponse;
+import com.votes.service.IdempotencyCache;
+import com.votes.service.VoteAuditLog;
+import com.votes.service.VoteImportService;
+import com.votes.service.VoteRateSeries;
+import com.votes.service.VoteRecountService;
+import com.votes.service.VoteIngestionService;
+import com.votes.service.VoteTallyService;
 import com.votes.service.VotingService;
+import com.votes.util.LogSampler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @CrossOrigin(
@@ -35,32 +61,56 @@ import java.util.UUID;
 public class VoteController {
 
     private final VotingService votingService;
+    private final VoteIngestionService voteIngestionService;
+    private final VoteTallyService voteTallyService;
+    private final VoteAuditLog voteAuditLog;
+    private final VoteImportService voteImportService;
+    private final IdempotencyCache idempotencyCache;
+    private final VoteRateSeries voteRateSeries;
+    private final VoteRecountService voteRecountService;
 
     @Value("${app.default-election-id}")
     private String defaultElectionId;
 
+    @Value("${app.votes.logging.debug-sample-rate:100}")
+    private int debugSampleRate;
+
     @PostMapping
     @Operation(summary = "Cast a vote", description = "Register a vote for a candidate")
     @ApiResponse(responseCode = "200", description = "Vote registered successfully")
+    @ApiResponse(responseCode = "202", description = "Vote accepted for asynchronous processing (receipt returned), or write outcome unknown (check the voting status)")
     @ApiResponse(responseCode = "400", description = "Invalid request or user already voted")
     @ApiResponse(responseCode = "401", description = "Unauthorized")
-    public ResponseEntity<VoteResponse> castVote(
+    @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress")
+    @ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different request")
+    @ApiResponse(responseCode = "503", description = "Vote queue is full, or the original request with the same Idempotency-Key failed")
+    public ResponseEntity<?> castVote(
             @Valid @RequestBody VoteRequest voteRequest,
+            @Parameter(description = "Client-generated key; retries with the same key return the original response")
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
 
         try {
             UUID userId = (UUID) authentication.getPrincipal();
-            log.info("Vote request received from user: {} for candidate: {}", 
-                userId, voteRequest.getCandidateId());
-
-            VoteResponse response = votingService.castVote(userId, voteRequest);
+            if (log.isDebugEnabled() && LogSampler.sample(debugSampleRate)) {
+                log.debug("Vote request received from user: {} for candidate: {}",
+                        userId, voteRequest.getCandidateId());
+            }
 
-            if (response.isSuccess()) {
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.badRequest().body(response);
+            if (idempotencyKey != null && idempotencyCache.isEnabled()) {
+                if (!IdempotencyCache.isValidKey(idempotencyKey)) {
+                    return ResponseEntity.badRequest().body(VoteResponse.error("Invalid " + IdempotencyCache.HEADER));
+                }
+                String fingerprint = voteRequest.getCandidateId() + "|" + voteRequest.getElectionId();
+                IdempotentResponse response = idempotencyCache.execute(userId, idempotencyKey, fingerprint,
+                        () -> processVote(userId, voteRequest));
+                return ResponseEntity.status(response.getStatus())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(response.getBody());
             }
 
+            return processVote(userId, voteRequest);
+
         } catch (Exception e) {
             log.error("Error processing vote request", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -68,6 +118,14 @@ public class VoteController {
         }
     }
 
+    @GetMapping("/receipts/{voteId}")
+    @Operation(summary = "Check vote receipt", description = "Check the processing status of an asynchronously accepted vote")
+    @ApiResponse(responseCode = "200", description = "Receipt status retrieved successfully")
+    @ApiResponse(responseCode = "401", description = "Unauthorized")
+    public ResponseEntity<VoteReceiptResponse> getReceipt(@PathVariable UUID voteId) {
+        return ResponseEntity.ok(voteIngestionService.getReceipt(voteId));
+    }
+
     @GetMapping("/status")
     @Operation(summary = "Check voting status", description = "Check if the current user has already voted")
     @ApiResponse(responseCode = "200", description = "Voting status retrieved successfully")
@@ -79,7 +137,9 @@ public class VoteController {
 
         try {
             UUID userId = (UUID) authentication.getPrincipal();
-            log.info("Checking voting status for user: {}", userId);
+            if (log.isDebugEnabled() && LogSampler.sample(debugSampleRate)) {
+                log.debug("Checking voting status for user: {}", userId);
+            }
 
             if (electionId == null) {
                 electionId = UUID.fromString(defaultElectionId);
@@ -95,10 +155,195 @@ public class VoteController {
         }
     }
 
+    @GetMapping("/results/by-candidate")
+    @Operation(summary = "Results by candidate", description = "Vote count per candidate, served from the in-memory tally. Supports If-None-Match")
+    @ApiResponse(responseCode = "200", description = "Results retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Results have not changed since the given ETag")
+    @ApiResponse(responseCode = "404", description = "Election has no active candidates")
+    public ResponseEntity<List<CandidateResultResponse>> getResultsByCandidate(
+            @Parameter(description = "Election ID (optional, uses default if not provided)")
+            @RequestParam(required = false) UUID electionId,
+            WebRequest request) {
+
+        if (electionId == null) {
+            electionId = UUID.fromString(defaultElectionId);
+        }
+
+        Optional<VoteTallyService.TallySnapshot> found = voteTallyService.getResults(electionId);
+        if (!found.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        VoteTallyService.TallySnapshot snapshot = found.get();
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).body(snapshot.getResults());
+    }
+
+    @GetMapping("/stats/rate")
+    @Operation(summary = "Vote rate", description = "Votes per second or per minute over a time range (turnout over time)")
+    @ApiResponse(responseCode = "200", description = "Rate series retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid range or resolution")
+    @ApiResponse(responseCode = "503", description = "Vote rate series disabled")
+    public ResponseEntity<VoteRateResponse> getVoteRate(
+            @Parameter(description = "Election ID (optional, uses default if not provided)")
+            @RequestParam(required = false) UUID electionId,
+            @Parameter(description = "Start of the range (ISO-8601, default: one hour before 'to')")
+            @RequestParam(required = false) Instant from,
+            @Parameter(description = "End of the range, exclusive (ISO-8601, default: now)")
+            @RequestParam(required = false) Instant to,
+            @Parameter(description = "SECOND or MINUTE (default)")
+            @RequestParam(defaultValue = "MINUTE") VoteRateResolution resolution) {
+
+        if (!voteRateSeries.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (electionId == null) {
+            electionId = UUID.fromString(defaultElectionId);
+        }
+        if (to == null) {
+            to = Instant.now();
+        }
+        if (from == null) {
+            from = to.minus(Duration.ofHours(1));
+        }
+        return ResponseEntity.ok(voteRateSeries.getRate(electionId, from, to, resolution));
+    }
+
+    @GetMapping("/audit/root")
+    @Operation(summary = "Audit root", description = "Merkle root (RFC 6962) over the vote hashes of an election, covering the minutes before sealedUpTo")
+    @ApiResponse(responseCode = "200", description = "Root retrieved successfully")
+    @ApiResponse(responseCode = "503", description = "Audit tree disabled or still being rebuilt")
+    public ResponseEntity<AuditRootResponse> getAuditRoot(
+            @Parameter(description = "Election ID (optional, uses default if not provided)")
+            @RequestParam(required = false) UUID electionId) {
+
+        if (!voteAuditLog.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (electionId == null) {
+            electionId = UUID.fromString(defaultElectionId);
+        }
+        return ResponseEntity.ok(voteAuditLog.getRoot(electionId));
+    }
+
+    @GetMapping("/audit/proof/{voteId}")
+    @Operation(summary = "Inclusion proof", description = "Audit path proving that a vote hash is included in the current Merkle root")
+    @ApiResponse(responseCode = "200", description = "Proof retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Vote not found in the election tree or its minute not sealed yet")
+    @ApiResponse(responseCode = "503", description = "Audit tree disabled or still being rebuilt")
+    public ResponseEntity<InclusionProofResponse> getInclusionProof(
+            @PathVariable UUID voteId,
+            @Parameter(description = "Election ID (optional, uses default if not provided)")
+            @RequestParam(required = false) UUID electionId) {
+
+        if (!voteAuditLog.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (electionId == null) {
+            electionId = UUID.fromString(defaultElectionId);
+        }
+        return voteAuditLog.getInclusionProof(electionId, voteId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk vote import",
+            description = "Import signed vote records (one JSON per line) and stream one result per line")
+    @ApiResponse(responseCode = "200", description = "Per-line import results")
+    @ApiResponse(responseCode = "503", description = "Vote import disabled")
+    public void importVotes(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!voteImportService.isEnabled()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        voteImportService.importVotes(request.getInputStream(), response.getOutputStream());
+    }
+
+    @PostMapping("/admin/recount")
+    @Operation(summary = "Start recount",
+            description = "Recount an election from the votes table over parallel token ranges and verify every vote hash")
+    @ApiResponse(responseCode = "202", description = "Recount started")
+    @ApiResponse(responseCode = "403", description = "Missing or invalid X-Admin-Token")
+    @ApiResponse(responseCode = "409", description = "A recount is already running")
+    @ApiResponse(responseCode = "503", description = "Recount disabled")
+    public ResponseEntity<RecountStatusResponse> startRecount(
+            @RequestHeader(value = "X-Admin-Token", required = false) String adminToken,
+            @Parameter(description = "Election ID (optional, uses default if not provided)")
+            @RequestParam(required = false) UUID electionId) {
+
+        if (!voteRecountService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!voteRecountService.isAuthorized(adminToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (electionId == null) {
+            electionId = UUID.fromString(defaultElectionId);
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(voteRecountService.start(electionId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/admin/recount")
+    @Operation(summary = "Recount progress",
+            description = "Progress and throughput of the running recount, or the signed report of the last one")
+    @ApiResponse(responseCode = "200", description = "Recount status retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "Missing or invalid X-Admin-Token")
+    @ApiResponse(responseCode = "404", description = "No recount has been started")
+    @ApiResponse(responseCode = "503", description = "Recount disabled")
+    public ResponseEntity<RecountStatusResponse> getRecountStatus(
+            @RequestHeader(value = "X-Admin-Token", required = false) String adminToken) {
+
+        if (!voteRecountService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!voteRecountService.isAuthorized(adminToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return voteRecountService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Check if the votes service is running")
     @ApiResponse(responseCode = "200", description = "Service is healthy")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Votes service is running");
     }
+
+    private ResponseEntity<?> processVote(UUID userId, VoteRequest voteRequest) {
+        if (voteIngestionService.isEnabled()) {
+            VoteReceiptResponse receipt = voteIngestionService.submit(userId, voteRequest);
+            return ResponseEntity.status(receiptHttpStatus(receipt.getStatus())).body(receipt);
+        }
+
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else if (response.isOutcomeUnknown()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } else {
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private HttpStatus receiptHttpStatus(VoteReceiptStatus status) {
+        switch (status) {
+            case PENDING:
+            case RETRYING:
+                return HttpStatus.ACCEPTED;
+            case OVERLOADED:
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            default:
+                return HttpStatus.BAD_REQUEST;
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRootResponse {
+
+    private UUID electionId;
+    private int treeSize;
+    private String rootHash;
+    private Instant sealedUpTo;
+}
@@ -0,0 +1,17 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateResultResponse {
+
+    private UUID candidateId;
+    private String candidateName;
+    private long voteCount;
+}
@@ -0,0 +1,19 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta ya serializada de una petición con Idempotency-Key, junto con la
+ * huella de la petición original para detectar claves reutilizadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentResponse {
+
+    private int status;
+    private String body;
+    private String requestFingerprint;
+}
@@ -0,0 +1,25 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Línea del NDJSON de importación de votos.
+ *
+ * signature es HMAC-SHA256 en hexadecimal, con el secreto del quiosco, de
+ * "userId|electionId|candidateId|votedAt" (votedAt tal como viene, ISO-8601).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportVoteRecord {
+
+    private UUID userId;
+    private UUID electionId;
+    private UUID candidateId;
+    private String votedAt;
+    private String signature;
+}
@@ -0,0 +1,24 @@
+package com.votes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportVoteResult {
+
+    private long line;
+    private ImportVoteStatus status;
+    private UUID voteId;
+    private String message;
+
+    public static ImportVoteResult of(long line, ImportVoteStatus status, String message) {
+        return new ImportVoteResult(line, status, null, message);
+    }
+}
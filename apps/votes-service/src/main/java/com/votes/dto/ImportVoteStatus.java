@@ -0,0 +1,18 @@
+package com.votes.dto;
+
+public enum ImportVoteStatus {
+    /** Voto escrito en Cassandra */
+    IMPORTED,
+    /** El usuario ya tenía un voto en la elección */
+    DUPLICATE,
+    /** Línea que no es un registro válido */
+    INVALID,
+    /** La firma no corresponde al registro */
+    INVALID_SIGNATURE,
+    /** El candidato no está activo en la elección */
+    INVALID_CANDIDATE,
+    /** Cassandra rechazó la escritura y el reclamo del usuario fue liberado */
+    FAILED,
+    /** La escritura agotó el tiempo: el voto pudo registrarse y el reclamo se conserva */
+    UNKNOWN
+}
@@ -0,0 +1,22 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InclusionProofResponse {
+
+    private UUID electionId;
+    private UUID voteId;
+    private int leafIndex;
+    private int treeSize;
+    private String leafHash;
+    private List<String> auditPath;
+    private String rootHash;
+}
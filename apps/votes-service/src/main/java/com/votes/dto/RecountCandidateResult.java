@@ -0,0 +1,24 @@
+package com.votes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecountCandidateResult {
+
+    private UUID candidateId;
+    /** Votos contados recorriendo votes */
+    private long recounted;
+    /** Contador de vote_counts_by_candidate (null si no tiene fila) */
+    private Long counter;
+    /** Conteo en memoria de esta instancia */
+    private Long tally;
+    private boolean discrepancy;
+}
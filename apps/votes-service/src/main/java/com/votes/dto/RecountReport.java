@@ -0,0 +1,44 @@
+package com.votes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Informe del recuento. signature es el HMAC-SHA256 (hex) del JSON del
+ * informe con signature a null (el campo se omite), tal como lo serializa
+ * el servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder(alphabetic = true)
+public class RecountReport {
+
+    private UUID electionId;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rowsScanned;
+    private long votesCounted;
+    private long hashMismatches;
+    private long missingHashes;
+    /** Votos sin hash_version cuyo hash coincide con el formato legado */
+    private long legacyHashes;
+    /**
+     * Votos sin hash_version que no coinciden con ningún formato: su hash se
+     * calculó con los nanosegundos de voted_at que Cassandra descartó
+     */
+    private long unverifiableHashes;
+    /** Primeros votos con hash incorrecto (hasta app.votes.recount.max-reported-mismatches) */
+    private List<UUID> mismatchedVoteIds;
+    private List<RecountCandidateResult> candidates;
+    private boolean discrepancy;
+    private String signature;
+}
@@ -0,0 +1,10 @@
+package com.votes.dto;
+
+public enum RecountState {
+    /** Recorriendo votes */
+    RUNNING,
+    /** Terminado, con el informe firmado */
+    COMPLETED,
+    /** Interrumpido por un error; no hay informe */
+    FAILED
+}
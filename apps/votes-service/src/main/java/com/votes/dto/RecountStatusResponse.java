@@ -0,0 +1,29 @@
+package com.votes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecountStatusResponse {
+
+    private UUID jobId;
+    private UUID electionId;
+    private RecountState state;
+    private int rangesTotal;
+    private int rangesCompleted;
+    private long rowsScanned;
+    private long votesCounted;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    private RecountReport report;
+}
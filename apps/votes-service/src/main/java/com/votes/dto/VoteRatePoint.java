@@ -0,0 +1,16 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteRatePoint {
+
+    private Instant timestamp;
+    private long voteCount;
+}
@@ -0,0 +1,20 @@
+package com.votes.dto;
+
+import java.time.temporal.ChronoUnit;
+
+public enum VoteRateResolution {
+    /** Votos por segundo, solo dentro de la ventana en memoria */
+    SECOND(ChronoUnit.SECONDS),
+    /** Votos por minuto, de memoria o de vote_rate_by_minute */
+    MINUTE(ChronoUnit.MINUTES);
+
+    private final ChronoUnit unit;
+
+    VoteRateResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
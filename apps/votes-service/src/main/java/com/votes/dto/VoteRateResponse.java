@@ -0,0 +1,21 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteRateResponse {
+
+    private UUID electionId;
+    private VoteRateResolution resolution;
+    private Instant from;
+    private Instant to;
+    private List<VoteRatePoint> points;
+}
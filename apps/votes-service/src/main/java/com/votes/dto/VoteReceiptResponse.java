@@ -0,0 +1,37 @@
+package com.votes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteReceiptResponse {
+
+    private UUID voteId;
+    private String voteHash;
+    private VoteReceiptStatus status;
+    private String message;
+    /** Escrituras fallidas hasta ahora (solo con estado RETRYING) */
+    private Integer attempts;
+
+    public static VoteReceiptResponse accepted(UUID voteId, String voteHash) {
+        return new VoteReceiptResponse(voteId, voteHash, VoteReceiptStatus.PENDING, "Vote accepted for processing", null);
+    }
+
+    public static VoteReceiptResponse rejected(VoteReceiptStatus status, String message) {
+        return new VoteReceiptResponse(null, null, status, message, null);
+    }
+
+    public static VoteReceiptResponse of(UUID voteId, VoteReceiptStatus status) {
+        return new VoteReceiptResponse(voteId, null, status, null, null);
+    }
+
+    public static VoteReceiptResponse retrying(UUID voteId, int attempts) {
+        return new VoteReceiptResponse(voteId, null, VoteReceiptStatus.RETRYING, "Vote write failed and is being retried",
+                attempts);
+    }
+}
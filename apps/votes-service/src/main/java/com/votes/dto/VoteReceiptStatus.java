@@ -0,0 +1,18 @@
+package com.votes.dto;
+
+public enum VoteReceiptStatus {
+    /** Voto aceptado y en cola, aún no escrito en Cassandra */
+    PENDING,
+    /** La escritura falló con un error transitorio y se está reintentando (ver attempts) */
+    RETRYING,
+    /** Voto escrito en Cassandra */
+    PERSISTED,
+    /** Cassandra rechazó la escritura de forma definitiva y el reclamo del usuario fue liberado */
+    FAILED,
+    /** El usuario ya había votado en la elección o el candidato no es válido */
+    REJECTED,
+    /** La cola de ingesta está llena */
+    OVERLOADED,
+    /** No hay registro del voto */
+    UNKNOWN
+}
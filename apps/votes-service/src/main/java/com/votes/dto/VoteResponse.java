@@ -18,6 +18,8 @@ public class VoteResponse {
     private Instant votedAt;
     private String message;
     private boolean success;
+    // Escritura sin confirmar: el voto pudo registrarse y debe consultarse el estado antes de reintentar
+    private boolean outcomeUnknown;
     
     public static VoteResponse success(UUID voteId, UUID candidateId, UUID electionId, Instant votedAt) {
         VoteResponse response = new VoteResponse();
@@ -30,6 +32,17 @@ public class VoteResponse {
         return response;
     }
     
+    public static VoteResponse outcomeUnknown(UUID voteId, UUID candidateId, UUID electionId, Instant votedAt) {
+        VoteResponse response = new VoteResponse();
+        response.setVoteId(voteId);
+        response.setCandidateId(candidateId);
+        response.setElectionId(electionId);
+        response.setVotedAt(votedAt);
+        response.setMessage("Vote outcome unknown, check your voting status before retrying");
+        response.setOutcomeUnknown(true);
+        return response;
+    }
+    
     public static VoteResponse error(String message) {
         VoteResponse response = new VoteResponse();
         response.setMessage(message);
@@ -34,4 +34,8 @@ public class Vote {
     
     @Column("metadata")
     private String metadata;
+
+    // Formato de vote_hash (VoteHasher.VERSION); null en filas anteriores a la columna
+    @Column("hash_version")
+    private Integer hashVersion;
 }
@@ -0,0 +1,277 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.votes.config.CassandraProfilesConfig;
+import com.votes.entity.cassandra.VoteByCandidate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * votes_by_candidate con partición (candidate_id, election_id, bucket), para
+ * que los votos de un candidato no se acumulen en una sola partición.
+ *
+ * bucket = franja * shards + shard, donde la franja es voted_at dividido en
+ * intervalos de app.votes.candidate-buckets.slot-interval-ms y el shard sale
+ * del vote_id (app.votes.candidate-buckets.shards). Cada terna (franja,
+ * shards, intervalo) usada se registra una vez en vote_bucket_slots, así las
+ * lecturas enumeran exactamente las particiones existentes y saben qué
+ * intervalo de tiempo cubre cada franja aunque shards o slot-interval-ms
+ * cambien (los buckets que coinciden entre ternas distintas son la misma
+ * partición y se consultan una sola vez).
+ *
+ * Las escrituras empiezan con app.votes.candidate-buckets.enabled; las
+ * lecturas pasan a esta tabla solo con read-enabled, que se activa cuando
+ * CandidateBucketMigration terminó de copiar la tabla original.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BucketedVoteByCandidateRepository {
+
+    static final String INSERT_VOTE_BY_CANDIDATE =
+            "INSERT INTO votes_by_candidate_bucketed (candidate_id, election_id, bucket, vote_id, voted_at) VALUES (?, ?, ?, ?, ?)";
+
+    static final String INSERT_SLOT =
+            "INSERT INTO vote_bucket_slots (election_id, time_slot, shards, slot_interval_ms) VALUES (?, ?, ?, ?)";
+
+    static final String SELECT_SLOTS =
+            "SELECT time_slot, shards, slot_interval_ms FROM vote_bucket_slots WHERE election_id = ?";
+
+    static final String COUNT_BUCKET =
+            "SELECT COUNT(*) FROM votes_by_candidate_bucketed WHERE candidate_id = ? AND election_id = ? AND bucket = ?";
+
+    static final String COUNT_BUCKET_BEFORE =
+            "SELECT COUNT(*) FROM votes_by_candidate_bucketed WHERE candidate_id = ? AND election_id = ? AND bucket = ? AND voted_at < ? ALLOW FILTERING";
+
+    static final String SELECT_BUCKET_VOTE_IDS_BEFORE =
+            "SELECT vote_id FROM votes_by_candidate_bucketed WHERE candidate_id = ? AND election_id = ? AND bucket = ? AND voted_at < ? ALLOW FILTERING";
+
+    static final String SELECT_ALL_LEGACY =
+            "SELECT candidate_id, election_id, vote_id, voted_at FROM votes_by_candidate";
+
+    private static final int SCAN_PAGE_SIZE = 5000;
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+
+    @Value("${app.votes.candidate-buckets.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.candidate-buckets.read-enabled:false}")
+    private boolean readEnabled;
+
+    @Value("${app.votes.candidate-buckets.write-legacy:true}")
+    private boolean writeLegacy;
+
+    @Value("${app.votes.candidate-buckets.shards:8}")
+    private int shards;
+
+    @Value("${app.votes.candidate-buckets.slot-interval-ms:3600000}")
+    private long slotIntervalMillis;
+
+    @Value("${app.votes.candidate-buckets.read-parallelism:32}")
+    private int readParallelism;
+
+    // Ternas ya registradas en vote_bucket_slots por esta instancia ("electionId:slot:shards:interval")
+    private final Set<String> registeredSlots = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Las escrituras de votes_by_candidate van (también) a la tabla con buckets.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Los conteos se leen de la tabla con buckets (solo tras la migración).
+     */
+    public boolean readsBucketed() {
+        return enabled && readEnabled;
+    }
+
+    /**
+     * Si además se sigue escribiendo la tabla original: siempre mientras las
+     * lecturas salgan de ella.
+     */
+    public boolean writesLegacy() {
+        return !readsBucketed() || writeLegacy;
+    }
+
+    public static long bucket(Instant votedAt, UUID voteId, long slotIntervalMillis, int shards) {
+        return timeSlot(votedAt, slotIntervalMillis) * shards + Math.floorMod(voteId.hashCode(), shards);
+    }
+
+    /**
+     * Añade la fila (y el registro de su franja si esta instancia aún no lo
+     * confirmó) a un batch. Tras ejecutarlo con éxito hay que llamar a slotWritten.
+     */
+    void addTo(BatchStatementBuilder batch, VoteByCandidate voteByCandidate) {
+        if (!isSlotRegistered(voteByCandidate)) {
+            batch.addStatement(bindSlot(voteByCandidate));
+        }
+        batch.addStatement(bindRow(voteByCandidate));
+    }
+
+    void slotWritten(VoteByCandidate voteByCandidate) {
+        registeredSlots.add(slotKey(voteByCandidate));
+    }
+
+    public void save(VoteByCandidate voteByCandidate) {
+        BatchStatementBuilder batch = writeBatch();
+        addTo(batch, voteByCandidate);
+        session.execute(batch.build());
+        slotWritten(voteByCandidate);
+    }
+
+    public CompletionStage<AsyncResultSet> saveAsync(VoteByCandidate voteByCandidate) {
+        BatchStatementBuilder batch = writeBatch();
+        addTo(batch, voteByCandidate);
+        return session.executeAsync(batch.build())
+                .thenApply(result -> {
+                    slotWritten(voteByCandidate);
+                    return result;
+                });
+    }
+
+    /**
+     * Cuenta los votos de un candidato consultando en paralelo todas sus
+     * particiones (hasta read-parallelism consultas en vuelo).
+     */
+    public long countVotes(UUID electionId, UUID candidateId) {
+        return countVotes(electionId, candidateId, null);
+    }
+
+    /**
+     * Como countVotes, pero solo los votos con voted_at anterior a before; las
+     * franjas que empiezan en before o después no se consultan.
+     */
+    public long countVotesBefore(UUID electionId, UUID candidateId, Instant before) {
+        return countVotes(electionId, candidateId, before);
+    }
+
+    /**
+     * Entrega el vote_id de cada voto del candidato con voted_at anterior a
+     * before, recorriendo sus particiones una a una.
+     */
+    public void forEachVoteIdBefore(UUID electionId, UUID candidateId, Instant before, Consumer<UUID> consumer) {
+        for (long bucket : buckets(electionId, before)) {
+            BoundStatement statement = statements.withProfile(prepare(SELECT_BUCKET_VOTE_IDS_BEFORE)
+                    .bind(candidateId, electionId, bucket, before)
+                    .setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+            for (Row row : session.execute(statement)) {
+                consumer.accept(row.getUuid("vote_id"));
+            }
+        }
+    }
+
+    private long countVotes(UUID electionId, UUID candidateId, Instant before) {
+        List<Long> buckets = buckets(electionId, before);
+
+        long total = 0;
+        for (int from = 0; from < buckets.size(); from += readParallelism) {
+            List<CompletableFuture<Long>> counts = new ArrayList<>(readParallelism);
+            for (long bucket : buckets.subList(from, Math.min(from + readParallelism, buckets.size()))) {
+                BoundStatement count = before == null
+                        ? prepare(COUNT_BUCKET).bind(candidateId, electionId, bucket)
+                        : prepare(COUNT_BUCKET_BEFORE).bind(candidateId, electionId, bucket, before);
+                counts.add(session.executeAsync(statements.withProfile(count, CassandraProfilesConfig.CONSISTENT_SCAN))
+                        .thenApply(result -> {
+                            Row row = result.one();
+                            return row != null ? row.getLong(0) : 0L;
+                        })
+                        .toCompletableFuture());
+            }
+            for (CompletableFuture<Long> count : counts) {
+                total += count.join();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Buckets de la elección, sin repetir, de las franjas que empiezan antes de
+     * before (todas si es null).
+     */
+    private List<Long> buckets(UUID electionId, Instant before) {
+        Set<Long> bucketSet = new LinkedHashSet<>();
+        BoundStatement slots = statements.withProfile(prepare(SELECT_SLOTS).bind(electionId), CassandraProfilesConfig.CONSISTENT_SCAN);
+        for (Row row : session.execute(slots)) {
+            long slot = row.getLong("time_slot");
+            if (before != null && slot * row.getLong("slot_interval_ms") >= before.toEpochMilli()) {
+                continue;
+            }
+            int slotShards = row.getInt("shards");
+            for (int shard = 0; shard < slotShards; shard++) {
+                bucketSet.add(slot * slotShards + shard);
+            }
+        }
+        return new ArrayList<>(bucketSet);
+    }
+
+    /**
+     * Recorre la tabla votes_by_candidate original por páginas (para migrarla).
+     */
+    public void forEachLegacyRow(Consumer<VoteByCandidate> consumer) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_ALL_LEGACY).bind().setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+        for (Row row : session.execute(statement)) {
+            consumer.accept(new VoteByCandidate(row.getUuid("candidate_id"), row.getUuid("election_id"),
+                    row.getUuid("vote_id"), row.getInstant("voted_at")));
+        }
+    }
+
+    private BatchStatementBuilder writeBatch() {
+        BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.LOGGED).setIdempotence(true);
+        if (statements.hasProfile(CassandraProfilesConfig.VOTE_WRITE)) {
+            batch.setExecutionProfileName(CassandraProfilesConfig.VOTE_WRITE);
+        }
+        return batch;
+    }
+
+    private BoundStatement bindRow(VoteByCandidate voteByCandidate) {
+        return prepare(INSERT_VOTE_BY_CANDIDATE).bind(
+                voteByCandidate.getCandidateId(), voteByCandidate.getElectionId(),
+                bucket(voteByCandidate.getVotedAt(), voteByCandidate.getVoteId(), slotIntervalMillis, shards),
+                voteByCandidate.getVoteId(), voteByCandidate.getVotedAt());
+    }
+
+    private BoundStatement bindSlot(VoteByCandidate voteByCandidate) {
+        return prepare(INSERT_SLOT).bind(voteByCandidate.getElectionId(),
+                timeSlot(voteByCandidate.getVotedAt(), slotIntervalMillis), shards, slotIntervalMillis);
+    }
+
+    private boolean isSlotRegistered(VoteByCandidate voteByCandidate) {
+        return registeredSlots.contains(slotKey(voteByCandidate));
+    }
+
+    private static long timeSlot(Instant votedAt, long slotIntervalMillis) {
+        return Math.floorDiv(votedAt.toEpochMilli(), slotIntervalMillis);
+    }
+
+    private String slotKey(VoteByCandidate voteByCandidate) {
+        return voteByCandidate.getElectionId() + ":" + timeSlot(voteByCandidate.getVotedAt(), slotIntervalMillis)
+                + ":" + shards + ":" + slotIntervalMillis;
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+}
@@ -0,0 +1,49 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.votes.dto.IdempotentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Respuestas de votos con Idempotency-Key en idempotency_keys, con TTL por fila.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyCqlRepository {
+
+    static final String SELECT_RESPONSE =
+            "SELECT status, body, request_fingerprint FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ?";
+
+    static final String INSERT_RESPONSE =
+            "INSERT INTO idempotency_keys (user_id, idempotency_key, status, body, request_fingerprint) VALUES (?, ?, ?, ?, ?) USING TTL ?";
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+
+    public Optional<IdempotentResponse> find(UUID userId, String idempotencyKey) {
+        Row row = session.execute(prepare(SELECT_RESPONSE).bind(userId, idempotencyKey)).one();
+        if (row == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new IdempotentResponse(row.getInt("status"), row.getString("body"),
+                row.getString("request_fingerprint")));
+    }
+
+    public CompletionStage<AsyncResultSet> saveAsync(UUID userId, String idempotencyKey,
+                                                      IdempotentResponse response, int ttlSeconds) {
+        return session.executeAsync(prepare(INSERT_RESPONSE).bind(userId, idempotencyKey, response.getStatus(),
+                response.getBody(), response.getRequestFingerprint(), ttlSeconds));
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+}
@@ -0,0 +1,59 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sentencias preparadas compartidas por los repositorios CQL.
+ *
+ * Los repositorios registran al arrancar las sentencias del camino del voto
+ * (prepareAll), así la primera petición no paga el PREPARE; el resto se
+ * prepara la primera vez que se usa. También asigna los perfiles de ejecución
+ * de CassandraProfilesConfig, solo si la sesión los define (las sesiones
+ * creadas a mano, como las de los benchmarks, siguen con el perfil por defecto).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PreparedStatementRegistry {
+
+    private final CqlSession session;
+
+    private final Map<String, PreparedStatement> preparedStatements = new ConcurrentHashMap<>();
+
+    public PreparedStatement get(String cql) {
+        return preparedStatements.computeIfAbsent(cql, session::prepare);
+    }
+
+    /**
+     * Prepara las sentencias indicadas; un fallo solo se registra y la
+     * sentencia se vuelve a preparar al usarla.
+     */
+    public void prepareAll(String... cqls) {
+        for (String cql : cqls) {
+            try {
+                get(cql);
+            } catch (RuntimeException e) {
+                log.warn("Error preparing statement at startup ({}): {}", cql, e.getMessage());
+            }
+        }
+    }
+
+    public boolean hasProfile(String profileName) {
+        return session.getContext().getConfig().getProfiles().containsKey(profileName);
+    }
+
+    public <S extends Statement<S>> S withProfile(S statement, String profileName) {
+        if (hasProfile(profileName)) {
+            return statement.setExecutionProfileName(profileName);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,89 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.votes.config.CassandraProfilesConfig;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Checkpoints del conteo por candidato en vote_tally_checkpoints.
+ *
+ * Cada checkpoint es el conjunto de filas (election_id, high_water,
+ * candidate_id, vote_count): los votos de cada candidato con voted_at anterior
+ * a high_water. Se escribe en un único batch sobre la partición de la
+ * elección (atómico) y con TTL, así solo quedan los más recientes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TallyCheckpointRepository {
+
+    static final String INSERT_CHECKPOINT =
+            "INSERT INTO vote_tally_checkpoints (election_id, high_water, candidate_id, vote_count) VALUES (?, ?, ?, ?) USING TTL ?";
+
+    static final String SELECT_LATEST_HIGH_WATER =
+            "SELECT high_water FROM vote_tally_checkpoints WHERE election_id = ? LIMIT 1";
+
+    static final String SELECT_CHECKPOINT =
+            "SELECT candidate_id, vote_count FROM vote_tally_checkpoints WHERE election_id = ? AND high_water = ?";
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+
+    @Value("${app.votes.tally-checkpoints.ttl-seconds:604800}")
+    private int ttlSeconds;
+
+    public void save(UUID electionId, Instant highWater, Map<UUID, Long> counts) {
+        BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.LOGGED).setIdempotence(true);
+        if (statements.hasProfile(CassandraProfilesConfig.VOTE_WRITE)) {
+            batch.setExecutionProfileName(CassandraProfilesConfig.VOTE_WRITE);
+        }
+        for (Map.Entry<UUID, Long> count : counts.entrySet()) {
+            batch.addStatement(prepare(INSERT_CHECKPOINT).bind(electionId, highWater, count.getKey(), count.getValue(), ttlSeconds));
+        }
+        session.execute(batch.build());
+    }
+
+    /**
+     * Último checkpoint de la elección (el de mayor high_water), si existe.
+     */
+    public Optional<TallyCheckpoint> findLatest(UUID electionId) {
+        Row latest = session.execute(prepare(SELECT_LATEST_HIGH_WATER).bind(electionId)).one();
+        if (latest == null) {
+            return Optional.empty();
+        }
+        Instant highWater = latest.getInstant("high_water");
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Row row : session.execute(prepare(SELECT_CHECKPOINT).bind(electionId, highWater))) {
+            counts.put(row.getUuid("candidate_id"), row.getLong("vote_count"));
+        }
+        return Optional.of(new TallyCheckpoint(highWater, Collections.unmodifiableMap(counts)));
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+
+    /**
+     * Votos por candidato con voted_at anterior a highWater.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class TallyCheckpoint {
+        private final Instant highWater;
+        private final Map<UUID, Long> counts;
+    }
+}
@@ -0,0 +1,118 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.votes.config.CassandraProfilesConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Conteos de votos por candidato: contadores de vote_counts_by_candidate y
+ * conteo directo sobre votes_by_candidate.
+ *
+ * Las actualizaciones de contadores no son idempotentes: el driver no las
+ * reintenta y un timeout deja el delta en estado desconocido.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteCountRepository {
+
+    static final String INCREMENT_VOTE_COUNT =
+            "UPDATE vote_counts_by_candidate SET vote_count = vote_count + ? WHERE election_id = ? AND candidate_id = ?";
+
+    static final String SELECT_VOTE_COUNTS =
+            "SELECT candidate_id, vote_count FROM vote_counts_by_candidate WHERE election_id = ?";
+
+    static final String COUNT_VOTES_BY_CANDIDATE =
+            "SELECT COUNT(*) FROM votes_by_candidate WHERE candidate_id = ? AND election_id = ?";
+
+    // Filtra dentro de la partición del candidato: recorre las mismas filas que COUNT_VOTES_BY_CANDIDATE
+    static final String COUNT_VOTES_BY_CANDIDATE_BEFORE =
+            "SELECT COUNT(*) FROM votes_by_candidate WHERE candidate_id = ? AND election_id = ? AND voted_at < ? ALLOW FILTERING";
+
+    static final String SELECT_VOTE_IDS_BY_CANDIDATE_BEFORE =
+            "SELECT vote_id FROM votes_by_candidate WHERE candidate_id = ? AND election_id = ? AND voted_at < ? ALLOW FILTERING";
+
+    private static final int SCAN_PAGE_SIZE = 5000;
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+    private final BucketedVoteByCandidateRepository bucketedRepository;
+
+    @PostConstruct
+    void prepareStatements() {
+        statements.prepareAll(INCREMENT_VOTE_COUNT);
+    }
+
+    public CompletionStage<AsyncResultSet> incrementAsync(UUID electionId, UUID candidateId, long delta) {
+        return session.executeAsync(prepare(INCREMENT_VOTE_COUNT).bind(delta, electionId, candidateId));
+    }
+
+    /**
+     * Conteos de una elección por candidato (una sola partición).
+     */
+    public Map<UUID, Long> findCountsByElectionId(UUID electionId) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Row row : session.execute(prepare(SELECT_VOTE_COUNTS).bind(electionId))) {
+            counts.put(row.getUuid("candidate_id"), row.getLong("vote_count"));
+        }
+        return counts;
+    }
+
+    /**
+     * Cuenta las filas de votes_by_candidate de un candidato: una sola partición,
+     * o todos sus buckets en paralelo si las lecturas ya pasaron a la tabla con buckets.
+     */
+    public long countVotesByCandidate(UUID electionId, UUID candidateId) {
+        if (bucketedRepository.readsBucketed()) {
+            return bucketedRepository.countVotes(electionId, candidateId);
+        }
+        Row row = session.execute(statements.withProfile(
+                prepare(COUNT_VOTES_BY_CANDIDATE).bind(candidateId, electionId), CassandraProfilesConfig.CONSISTENT_SCAN)).one();
+        return row != null ? row.getLong(0) : 0;
+    }
+
+    /**
+     * Como countVotesByCandidate, pero solo los votos con voted_at anterior a before.
+     */
+    public long countVotesByCandidateBefore(UUID electionId, UUID candidateId, Instant before) {
+        if (bucketedRepository.readsBucketed()) {
+            return bucketedRepository.countVotesBefore(electionId, candidateId, before);
+        }
+        Row row = session.execute(statements.withProfile(
+                prepare(COUNT_VOTES_BY_CANDIDATE_BEFORE).bind(candidateId, electionId, before), CassandraProfilesConfig.CONSISTENT_SCAN)).one();
+        return row != null ? row.getLong(0) : 0;
+    }
+
+    /**
+     * Como countVotesByCandidateBefore, pero entrega el vote_id de cada fila
+     * contada (por páginas), para saber exactamente qué votos incluye el conteo.
+     */
+    public void forEachVoteIdByCandidateBefore(UUID electionId, UUID candidateId, Instant before, Consumer<UUID> consumer) {
+        if (bucketedRepository.readsBucketed()) {
+            bucketedRepository.forEachVoteIdBefore(electionId, candidateId, before, consumer);
+            return;
+        }
+        BoundStatement statement = statements.withProfile(prepare(SELECT_VOTE_IDS_BY_CANDIDATE_BEFORE)
+                .bind(candidateId, electionId, before)
+                .setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+        for (Row row : session.execute(statement)) {
+            consumer.accept(row.getUuid("vote_id"));
+        }
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+}
@@ -0,0 +1,271 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.votes.config.CassandraProfilesConfig;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.entity.cassandra.Vote;
+import com.votes.entity.cassandra.VoteByCandidate;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Escritura de votos en Cassandra con sentencias CQL preparadas.
+ *
+ * Las tres filas (votes, votes_by_candidate y user_votes_log) se envían en un
+ * único batch LOGGED, en lugar de tres save() independientes a través de
+ * Spring Data. También expone el reclamo del voto con INSERT ... IF NOT EXISTS
+ * sobre user_votes_log, usado como única decisión de duplicado.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteCqlRepository {
+
+    static final String INSERT_VOTE =
+            "INSERT INTO votes (vote_id, candidate_id, election_id, voted_at, vote_hash, metadata, hash_version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_VOTE_BY_CANDIDATE =
+            "INSERT INTO votes_by_candidate (candidate_id, election_id, vote_id, voted_at) VALUES (?, ?, ?, ?)";
+
+    static final String INSERT_USER_VOTE_LOG =
+            "INSERT INTO user_votes_log (user_id, election_id, vote_id, candidate_id, voted_at) VALUES (?, ?, ?, ?, ?)";
+
+    static final String CLAIM_USER_VOTE =
+            "INSERT INTO user_votes_log (user_id, election_id, vote_id, candidate_id, voted_at) VALUES (?, ?, ?, ?, ?) IF NOT EXISTS";
+
+    static final String RELEASE_USER_VOTE =
+            "DELETE FROM user_votes_log WHERE user_id = ? AND election_id = ? IF vote_id = ?";
+
+    static final String SELECT_USER_VOTE =
+            "SELECT vote_id FROM user_votes_log WHERE user_id = ? AND election_id = ?";
+
+    static final String SELECT_ALL_USER_VOTES =
+            "SELECT user_id, election_id, vote_id, candidate_id, voted_at FROM user_votes_log";
+
+    static final String SELECT_ALL_VOTES =
+            "SELECT vote_id, candidate_id, election_id, voted_at, vote_hash, hash_version FROM votes";
+
+    static final String SELECT_VOTES_IN_RANGE =
+            "SELECT vote_id, candidate_id, election_id, voted_at, vote_hash, hash_version FROM votes " +
+            "WHERE token(vote_id) > ? AND token(vote_id) <= ?";
+
+    private static final int SCAN_PAGE_SIZE = 5000;
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+    private final BucketedVoteByCandidateRepository bucketedRepository;
+    private final VoteMinuteRepository voteMinuteRepository;
+
+    @PostConstruct
+    void prepareStatements() {
+        statements.prepareAll(INSERT_VOTE, INSERT_VOTE_BY_CANDIDATE, INSERT_USER_VOTE_LOG,
+                CLAIM_USER_VOTE, RELEASE_USER_VOTE, SELECT_USER_VOTE);
+    }
+
+    /**
+     * Guarda las tres filas del voto en un batch LOGGED idempotente.
+     * Todos los valores se generan antes del envío, por lo que reintentar el
+     * batch produce exactamente las mismas filas.
+     */
+    public void saveAll(Vote vote, VoteByCandidate voteByCandidate, UserVoteLog userVoteLog) {
+        BatchStatement batch = voteBatch(vote, voteByCandidate)
+                .addStatement(bindUserVoteLog(prepare(INSERT_USER_VOTE_LOG), userVoteLog))
+                .build();
+
+        session.execute(batch);
+        bucketedRepository.slotWritten(voteByCandidate);
+    }
+
+    /**
+     * Guarda votes y votes_by_candidate para un voto ya reclamado en user_votes_log.
+     */
+    public void saveClaimedVote(Vote vote, VoteByCandidate voteByCandidate) {
+        session.execute(voteBatch(vote, voteByCandidate).build());
+        bucketedRepository.slotWritten(voteByCandidate);
+    }
+
+    /**
+     * Versión asíncrona de saveClaimedVote, para escribir varios votos en paralelo.
+     */
+    public CompletionStage<AsyncResultSet> saveClaimedVoteAsync(Vote vote, VoteByCandidate voteByCandidate) {
+        return session.executeAsync(voteBatch(vote, voteByCandidate).build())
+                .thenApply(result -> {
+                    bucketedRepository.slotWritten(voteByCandidate);
+                    return result;
+                });
+    }
+
+    /**
+     * Reclama el voto del usuario en la elección con una transacción ligera.
+     *
+     * @return true si la fila se insertó (o ya pertenecía a este mismo voto, por
+     *         ejemplo tras un reintento del driver), false si el usuario ya votó
+     */
+    public boolean claimUserVote(UserVoteLog userVoteLog) {
+        ResultSet result = session.execute(bindClaim(userVoteLog));
+        if (result.wasApplied()) {
+            return true;
+        }
+
+        // Si no se aplicó, la fila devuelta es la existente
+        Row existing = result.one();
+        return existing != null && userVoteLog.getVoteId().equals(existing.getUuid("vote_id"));
+    }
+
+    /**
+     * Versión asíncrona de claimUserVote, para reclamar varios votos en paralelo.
+     */
+    public CompletionStage<Boolean> claimUserVoteAsync(UserVoteLog userVoteLog) {
+        return session.executeAsync(bindClaim(userVoteLog))
+                .thenApply(result -> {
+                    if (result.wasApplied()) {
+                        return true;
+                    }
+                    Row existing = result.one();
+                    return existing != null && userVoteLog.getVoteId().equals(existing.getUuid("vote_id"));
+                });
+    }
+
+    /**
+     * Lectura de deduplicación: si el usuario tiene fila en user_votes_log para la elección.
+     */
+    public boolean hasUserVote(UUID userId, UUID electionId) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_USER_VOTE).bind(userId, electionId), CassandraProfilesConfig.VOTE_DEDUP_READ);
+        return session.execute(statement).one() != null;
+    }
+
+    /**
+     * Libera un reclamo cuando las demás escrituras del voto fallan, solo si la
+     * fila sigue perteneciendo a ese voto.
+     */
+    public void releaseClaim(UserVoteLog userVoteLog) {
+        session.execute(statements.withProfile(prepare(RELEASE_USER_VOTE).bind(
+                userVoteLog.getUserId(), userVoteLog.getElectionId(), userVoteLog.getVoteId()), CassandraProfilesConfig.VOTE_WRITE));
+    }
+
+    /**
+     * Recorre todo user_votes_log por páginas, entregando cada fila.
+     */
+    public void forEachUserVote(Consumer<UserVoteLog> consumer) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_ALL_USER_VOTES).bind().setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.BULK_SCAN);
+        for (Row row : session.execute(statement)) {
+            consumer.accept(new UserVoteLog(row.getUuid("user_id"), row.getUuid("election_id"),
+                    row.getUuid("vote_id"), row.getUuid("candidate_id"), row.getInstant("voted_at")));
+        }
+    }
+
+    /**
+     * Recorre toda la tabla votes por páginas (sin metadata).
+     */
+    public void forEachVote(Consumer<Vote> consumer) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_ALL_VOTES).bind().setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+        for (Row row : session.execute(statement)) {
+            consumer.accept(new Vote(row.getUuid("vote_id"), row.getUuid("candidate_id"), row.getUuid("election_id"),
+                    row.getInstant("voted_at"), row.getString("vote_hash"), null, row.get("hash_version", Integer.class)));
+        }
+    }
+
+    /**
+     * Divide el anillo de tokens en al menos splits rangos contiguos (ninguno
+     * da la vuelta al anillo), para recorrer votes en paralelo.
+     */
+    public List<TokenRange> splitTokenRing(int splits) {
+        TokenMap tokenMap = session.getMetadata().getTokenMap()
+                .orElseThrow(() -> new IllegalStateException("Token metadata is not available"));
+        Set<TokenRange> ringRanges = tokenMap.getTokenRanges();
+        int perRange = Math.max(1, (splits + ringRanges.size() - 1) / ringRanges.size());
+
+        List<TokenRange> ranges = new ArrayList<>();
+        for (TokenRange ringRange : ringRanges) {
+            for (TokenRange split : ringRange.splitEvenly(perRange)) {
+                ranges.addAll(split.unwrap());
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Recorre por páginas las filas de votes cuyo token está en el rango (sin metadata).
+     */
+    public void forEachVoteInRange(TokenRange range, Consumer<Vote> consumer) {
+        BoundStatement statement = prepare(SELECT_VOTES_IN_RANGE).bind()
+                .setToken(0, range.getStart())
+                .setToken(1, range.getEnd())
+                .setPageSize(SCAN_PAGE_SIZE);
+        for (Row row : session.execute(statements.withProfile(statement, CassandraProfilesConfig.CONSISTENT_SCAN))) {
+            consumer.accept(new Vote(row.getUuid("vote_id"), row.getUuid("candidate_id"), row.getUuid("election_id"),
+                    row.getInstant("voted_at"), row.getString("vote_hash"), null, row.get("hash_version", Integer.class)));
+        }
+    }
+
+    /**
+     * Fila de votes más la de votes_by_candidate en la tabla original, la de
+     * buckets o ambas según app.votes.candidate-buckets (y la de votes_by_minute
+     * con app.votes.tally-checkpoints o app.votes.audit).
+     */
+    private BatchStatementBuilder voteBatch(Vote vote, VoteByCandidate voteByCandidate) {
+        BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.LOGGED)
+                .addStatement(bindVote(vote))
+                .setIdempotence(true);
+        if (statements.hasProfile(CassandraProfilesConfig.VOTE_WRITE)) {
+            batch.setExecutionProfileName(CassandraProfilesConfig.VOTE_WRITE);
+        }
+        if (bucketedRepository.writesLegacy()) {
+            batch.addStatement(bindVoteByCandidate(voteByCandidate));
+        }
+        if (bucketedRepository.isEnabled()) {
+            bucketedRepository.addTo(batch, voteByCandidate);
+        }
+        if (voteMinuteRepository.isEnabled()) {
+            voteMinuteRepository.addTo(batch, vote);
+        }
+        return batch;
+    }
+
+    private BoundStatement bindVote(Vote vote) {
+        return prepare(INSERT_VOTE).bind(
+                vote.getVoteId(), vote.getCandidateId(), vote.getElectionId(),
+                vote.getVotedAt(), vote.getVoteHash(), vote.getMetadata(), vote.getHashVersion());
+    }
+
+    private BoundStatement bindVoteByCandidate(VoteByCandidate voteByCandidate) {
+        return prepare(INSERT_VOTE_BY_CANDIDATE).bind(
+                voteByCandidate.getCandidateId(), voteByCandidate.getElectionId(),
+                voteByCandidate.getVoteId(), voteByCandidate.getVotedAt());
+    }
+
+    private BoundStatement bindUserVoteLog(PreparedStatement statement, UserVoteLog userVoteLog) {
+        return statement.bind(
+                userVoteLog.getUserId(), userVoteLog.getElectionId(), userVoteLog.getVoteId(),
+                userVoteLog.getCandidateId(), userVoteLog.getVotedAt());
+    }
+
+    private BoundStatement bindClaim(UserVoteLog userVoteLog) {
+        return statements.withProfile(bindUserVoteLog(prepare(CLAIM_USER_VOTE), userVoteLog), CassandraProfilesConfig.VOTE_WRITE);
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+}
@@ -0,0 +1,313 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.votes.config.CassandraProfilesConfig;
+import com.votes.entity.cassandra.Vote;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Índice de votos por minuto en votes_by_minute, una partición por
+ * (election_id, minuto de voted_at).
+ *
+ * Se escribe junto a votes_by_candidate (en el mismo batch cuando lo hay)
+ * mientras app.votes.tally-checkpoints.enabled o app.votes.audit.enabled está
+ * activo. Permite contar por candidato solo los votos posteriores a un
+ * checkpoint leyendo las particiones de esos minutos, y a VoteAuditLog sellar
+ * cada minuto con los votos de todas las instancias (por eso guarda también
+ * voted_at y vote_hash).
+ *
+ * Un voto es tardío si al escribirse su minuto ya puede estar en un
+ * checkpoint o sellado: voted_at anterior al minuto de (ahora - margen), con
+ * el menor de tally-checkpoints.margin-ms y audit.seal-margin-ms entre los
+ * activos. Pasa con importaciones, el replay del journal o reintentos largos.
+ * Su fila en votes_by_minute lleva late = true y el voto se anota (en el mismo
+ * batch) en late_votes_by_minute, particionada por el minuto en que se
+ * escribió: los checkpoints saben así qué tramos deben recontar y el sellado
+ * lo anexa con los votos del minuto en que se escribió, no con los de su minuto.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteMinuteRepository {
+
+    static final String INSERT_VOTE_BY_MINUTE =
+            "INSERT INTO votes_by_minute (election_id, minute, vote_id, candidate_id, voted_at, vote_hash, late) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_LATE_VOTE =
+            "INSERT INTO late_votes_by_minute (election_id, written_minute, vote_id, candidate_id, voted_at, vote_hash) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String SELECT_LATE_VOTES =
+            "SELECT vote_id, candidate_id, voted_at, vote_hash FROM late_votes_by_minute " +
+            "WHERE election_id = ? AND written_minute = ?";
+
+    static final String SELECT_ALL_LATE_VOTES =
+            "SELECT election_id, written_minute, vote_id FROM late_votes_by_minute";
+
+    static final String SELECT_ANY_LATE_VOTE =
+            "SELECT vote_id FROM late_votes_by_minute WHERE election_id = ? AND written_minute = ? LIMIT 1";
+
+    static final String SELECT_MINUTE =
+            "SELECT candidate_id FROM votes_by_minute WHERE election_id = ? AND minute = ?";
+
+    static final String SELECT_MINUTE_VOTES =
+            "SELECT vote_id, candidate_id FROM votes_by_minute WHERE election_id = ? AND minute = ?";
+
+    static final String SELECT_MINUTE_HASHES =
+            "SELECT vote_id, candidate_id, voted_at, vote_hash, late FROM votes_by_minute WHERE election_id = ? AND minute = ?";
+
+    private static final int SCAN_PAGE_SIZE = 5000;
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+
+    @Value("${app.votes.tally-checkpoints.enabled:false}")
+    private boolean checkpointsEnabled;
+
+    @Value("${app.votes.audit.enabled:false}")
+    private boolean auditEnabled;
+
+    @Value("${app.votes.tally-checkpoints.read-parallelism:32}")
+    private int readParallelism;
+
+    @Value("${app.votes.tally-checkpoints.margin-ms:60000}")
+    private long checkpointMarginMillis;
+
+    @Value("${app.votes.audit.seal-margin-ms:120000}")
+    private long sealMarginMillis;
+
+    public boolean isEnabled() {
+        return checkpointsEnabled || auditEnabled;
+    }
+
+    public static Instant minute(Instant votedAt) {
+        return votedAt.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    void addTo(BatchStatementBuilder batch, Vote vote) {
+        Instant now = Instant.now();
+        boolean late = isLate(vote, now);
+        batch.addStatement(bind(vote, late));
+        if (late) {
+            batch.addStatement(bindLate(vote, now));
+        }
+    }
+
+    public CompletionStage<AsyncResultSet> saveAsync(Vote vote) {
+        return session.executeAsync(statement(vote));
+    }
+
+    public void save(Vote vote) {
+        session.execute(statement(vote));
+    }
+
+    /**
+     * @return true si algún voto tardío de la elección se escribió en los minutos [fromMinute, toMinute)
+     */
+    public boolean hasLateVotes(UUID electionId, Instant fromMinute, Instant toMinute) {
+        AtomicBoolean found = new AtomicBoolean();
+        readMinutes(fromMinute, toMinute, minute -> anyLateVote(electionId, minute), any -> {
+            if (any) {
+                found.set(true);
+            }
+        });
+        return found.get();
+    }
+
+    /**
+     * Votos escritos a tiempo de un minuto de la elección (sin metadata ni
+     * los tardíos), leyendo la partición por páginas.
+     */
+    public List<Vote> findVotes(UUID electionId, Instant minute) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_MINUTE_HASHES).bind(electionId, minute(minute)).setPageSize(SCAN_PAGE_SIZE),
+                CassandraProfilesConfig.CONSISTENT_SCAN);
+        List<Vote> votes = new ArrayList<>();
+        for (Row row : session.execute(statement)) {
+            if (!row.getBoolean("late")) {
+                votes.add(toVote(row, electionId));
+            }
+        }
+        return votes;
+    }
+
+    /**
+     * Votos tardíos de la elección escritos en el minuto indicado.
+     */
+    public List<Vote> findLateVotes(UUID electionId, Instant writtenMinute) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_LATE_VOTES).bind(electionId, minute(writtenMinute)).setPageSize(SCAN_PAGE_SIZE),
+                CassandraProfilesConfig.CONSISTENT_SCAN);
+        List<Vote> votes = new ArrayList<>();
+        for (Row row : session.execute(statement)) {
+            votes.add(toVote(row, electionId));
+        }
+        return votes;
+    }
+
+    /**
+     * Primer minuto de escritura de cada voto tardío, por vote_id, recorriendo
+     * toda la tabla (reconstrucción del árbol de auditoría).
+     */
+    public Map<UUID, Instant> lateVoteMinutes() {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_ALL_LATE_VOTES).bind().setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+        Map<UUID, Instant> minutes = new HashMap<>();
+        for (Row row : session.execute(statement)) {
+            minutes.merge(row.getUuid("vote_id"), row.getInstant("written_minute"),
+                    (current, other) -> current.isBefore(other) ? current : other);
+        }
+        return minutes;
+    }
+
+    /**
+     * Votos por candidato con voted_at en los minutos [fromMinute, toMinute),
+     * leyendo hasta read-parallelism particiones a la vez.
+     */
+    public Map<UUID, Long> countByCandidate(UUID electionId, Instant fromMinute, Instant toMinute) {
+        Map<UUID, Long> counts = new HashMap<>();
+        readMinutes(fromMinute, toMinute, minute -> countMinute(electionId, minute),
+                minuteCounts -> minuteCounts.forEach((candidateId, count) -> counts.merge(candidateId, count, Long::sum)));
+        return counts;
+    }
+
+    /**
+     * Candidato de cada voto (por vote_id) con voted_at en los minutos
+     * [fromMinute, toMinute). Permite saber exactamente qué votos entraron
+     * en un conteo.
+     */
+    public Map<UUID, UUID> candidateByVote(UUID electionId, Instant fromMinute, Instant toMinute) {
+        Map<UUID, UUID> votes = new HashMap<>();
+        readMinutes(fromMinute, toMinute, minute -> readMinuteVotes(electionId, minute), votes::putAll);
+        return votes;
+    }
+
+    private <T> void readMinutes(Instant fromMinute, Instant toMinute,
+                                 Function<Instant, CompletableFuture<T>> read, Consumer<T> merge) {
+        List<Instant> minutes = new ArrayList<>();
+        for (Instant minute = minute(fromMinute); minute.isBefore(toMinute); minute = minute.plus(1, ChronoUnit.MINUTES)) {
+            minutes.add(minute);
+        }
+
+        // Las lecturas corren en paralelo; los resultados se combinan en este hilo
+        for (int from = 0; from < minutes.size(); from += readParallelism) {
+            List<CompletableFuture<T>> reads = new ArrayList<>(readParallelism);
+            for (Instant minute : minutes.subList(from, Math.min(from + readParallelism, minutes.size()))) {
+                reads.add(read.apply(minute));
+            }
+            for (CompletableFuture<T> pending : reads) {
+                merge.accept(pending.join());
+            }
+        }
+    }
+
+    private CompletableFuture<Boolean> anyLateVote(UUID electionId, Instant writtenMinute) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_ANY_LATE_VOTE).bind(electionId, writtenMinute), CassandraProfilesConfig.CONSISTENT_SCAN);
+        return session.executeAsync(statement)
+                .thenApply(result -> result.one() != null)
+                .toCompletableFuture();
+    }
+
+    private CompletableFuture<Map<UUID, Long>> countMinute(UUID electionId, Instant minute) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_MINUTE).bind(electionId, minute).setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+        return session.executeAsync(statement)
+                .thenCompose(result -> countPages(result, new HashMap<>()))
+                .toCompletableFuture();
+    }
+
+    private static CompletionStage<Map<UUID, Long>> countPages(AsyncResultSet result, Map<UUID, Long> counts) {
+        for (Row row : result.currentPage()) {
+            counts.merge(row.getUuid("candidate_id"), 1L, Long::sum);
+        }
+        if (result.hasMorePages()) {
+            return result.fetchNextPage().thenCompose(next -> countPages(next, counts));
+        }
+        return CompletableFuture.completedFuture(counts);
+    }
+
+    private CompletableFuture<Map<UUID, UUID>> readMinuteVotes(UUID electionId, Instant minute) {
+        BoundStatement statement = statements.withProfile(
+                prepare(SELECT_MINUTE_VOTES).bind(electionId, minute).setPageSize(SCAN_PAGE_SIZE), CassandraProfilesConfig.CONSISTENT_SCAN);
+        return session.executeAsync(statement)
+                .thenCompose(result -> votePages(result, new HashMap<>()))
+                .toCompletableFuture();
+    }
+
+    private static CompletionStage<Map<UUID, UUID>> votePages(AsyncResultSet result, Map<UUID, UUID> votes) {
+        for (Row row : result.currentPage()) {
+            votes.put(row.getUuid("vote_id"), row.getUuid("candidate_id"));
+        }
+        if (result.hasMorePages()) {
+            return result.fetchNextPage().thenCompose(next -> votePages(next, votes));
+        }
+        return CompletableFuture.completedFuture(votes);
+    }
+
+    // Un voto tardío se escribe junto a su anotación en un batch LOGGED
+    private Statement<?> statement(Vote vote) {
+        Instant now = Instant.now();
+        if (!isLate(vote, now)) {
+            return statements.withProfile(bind(vote, false), CassandraProfilesConfig.VOTE_WRITE);
+        }
+        BatchStatement batch = BatchStatement.builder(DefaultBatchType.LOGGED)
+                .addStatement(bind(vote, true))
+                .addStatement(bindLate(vote, now))
+                .build();
+        return statements.withProfile(batch, CassandraProfilesConfig.VOTE_WRITE);
+    }
+
+    private boolean isLate(Vote vote, Instant now) {
+        long marginMillis = Long.MAX_VALUE;
+        if (checkpointsEnabled) {
+            marginMillis = checkpointMarginMillis;
+        }
+        if (auditEnabled) {
+            marginMillis = Math.min(marginMillis, sealMarginMillis);
+        }
+        return marginMillis != Long.MAX_VALUE && vote.getVotedAt().isBefore(minute(now.minusMillis(marginMillis)));
+    }
+
+    private BoundStatement bindLate(Vote vote, Instant now) {
+        return prepare(INSERT_LATE_VOTE).bind(vote.getElectionId(), minute(now), vote.getVoteId(),
+                vote.getCandidateId(), vote.getVotedAt(), vote.getVoteHash());
+    }
+
+    private BoundStatement bind(Vote vote, boolean late) {
+        return prepare(INSERT_VOTE_BY_MINUTE).bind(vote.getElectionId(), minute(vote.getVotedAt()),
+                vote.getVoteId(), vote.getCandidateId(), vote.getVotedAt(), vote.getVoteHash(), late);
+    }
+
+    private static Vote toVote(Row row, UUID electionId) {
+        return new Vote(row.getUuid("vote_id"), row.getUuid("candidate_id"), electionId,
+                row.getInstant("voted_at"), row.getString("vote_hash"), null, null);
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+}
@@ -0,0 +1,67 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Votos por minuto en vote_rate_by_minute, particionados por (election_id, day).
+ *
+ * Cada instancia escribe su propia fila por minuto (instance_id como última
+ * columna de clustering) con el valor absoluto, así reescribir un minuto es
+ * idempotente y las lecturas suman todas las instancias.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteRateRepository {
+
+    static final String INSERT_MINUTE =
+            "INSERT INTO vote_rate_by_minute (election_id, day, minute, instance_id, vote_count) VALUES (?, ?, ?, ?, ?)";
+
+    static final String SELECT_MINUTES =
+            "SELECT minute, vote_count FROM vote_rate_by_minute WHERE election_id = ? AND day = ? AND minute >= ? AND minute < ?";
+
+    private final CqlSession session;
+    private final PreparedStatementRegistry statements;
+
+    public CompletionStage<AsyncResultSet> saveMinuteAsync(UUID electionId, Instant minute, String instanceId, long count) {
+        return session.executeAsync(prepare(INSERT_MINUTE).bind(
+                electionId, day(minute), minute, instanceId, count));
+    }
+
+    /**
+     * Votos por minuto en [from, to), sumando todas las instancias; los minutos sin votos no aparecen.
+     */
+    public Map<Instant, Long> findMinutes(UUID electionId, Instant from, Instant to) {
+        Map<Instant, Long> counts = new TreeMap<>();
+        if (!from.isBefore(to)) {
+            return counts;
+        }
+        LocalDate lastDay = day(to.minusMillis(1));
+        for (LocalDate day = day(from); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            for (Row row : session.execute(prepare(SELECT_MINUTES).bind(electionId, day, from, to))) {
+                counts.merge(row.getInstant("minute"), row.getLong("vote_count"), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static LocalDate day(Instant instant) {
+        return instant.atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return statements.get(cql);
+    }
+}
@@ -0,0 +1,27 @@
+package com.votes.repository.postgres;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+/**
+ * Filas que una proyección asíncrona descartó por un error permanente (projection_dead_letters).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectionDeadLetterRepository {
+
+    static final String INSERT_DEAD_LETTER =
+            "INSERT INTO projection_dead_letters (name, user_id, election_id, vote_id, voted_at, error) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(String name, UserVoteLog userVote, String error) {
+        jdbcTemplate.update(INSERT_DEAD_LETTER, name, userVote.getUserId(), userVote.getElectionId(), userVote.getVoteId(),
+                userVote.getVotedAt() != null ? Timestamp.from(userVote.getVotedAt()) : null, error);
+    }
+}
@@ -0,0 +1,36 @@
+package com.votes.repository.postgres;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Marca usuarios como votados en user_voting_status con upserts JDBC en batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserVotingStatusBatchRepository {
+
+    static final String UPSERT_VOTED =
+            "INSERT INTO user_voting_status (user_id, election_id, has_voted, voted_at, created_at, updated_at) " +
+            "VALUES (?, ?, TRUE, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET election_id = EXCLUDED.election_id, has_voted = TRUE, " +
+            "voted_at = EXCLUDED.voted_at, updated_at = CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Proyecta las filas de user_votes_log indicadas sobre user_voting_status.
+     */
+    public void markAllAsVoted(List<UserVoteLog> userVotes) {
+        jdbcTemplate.batchUpdate(UPSERT_VOTED, userVotes, userVotes.size(), (ps, userVote) -> {
+            ps.setObject(1, userVote.getUserId());
+            ps.setObject(2, userVote.getElectionId());
+            ps.setTimestamp(3, Timestamp.from(userVote.getVotedAt()));
+        });
+    }
+}
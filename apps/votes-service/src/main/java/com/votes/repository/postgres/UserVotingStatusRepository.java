@@ -2,8 +2,13 @@ package com.votes.repository.postgres;
 
 import com.votes.entity.postgres.UserVotingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +18,16 @@ public interface UserVotingStatusRepository extends JpaRepository<UserVotingStat
     Optional<UserVotingStatus> findByUserIdAndElectionId(UUID userId, UUID electionId);
     
     boolean existsByUserIdAndElectionIdAndHasVotedTrue(UUID userId, UUID electionId);
+
+    /**
+     * Marca al usuario como votado con un único upsert en su propia transacción.
+     * La clave primaria de user_voting_status es user_id.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_voting_status (user_id, election_id, has_voted, voted_at, created_at, updated_at) " +
+            "VALUES (:userId, :electionId, TRUE, :votedAt, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET election_id = EXCLUDED.election_id, has_voted = TRUE, " +
+            "voted_at = EXCLUDED.voted_at, updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int upsertVoted(@Param("userId") UUID userId, @Param("electionId") UUID electionId, @Param("votedAt") Instant votedAt);
 }
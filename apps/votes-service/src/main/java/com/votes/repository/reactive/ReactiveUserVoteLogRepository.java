@@ -0,0 +1,14 @@
+package com.votes.repository.reactive;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveUserVoteLogRepository extends ReactiveCassandraRepository<UserVoteLog, UUID> {
+
+    Mono<UserVoteLog> findByUserIdAndElectionId(UUID userId, UUID electionId);
+}
@@ -0,0 +1,14 @@
+package com.votes.repository.reactive;
+
+import com.votes.entity.cassandra.VoteByCandidate;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveVoteByCandidateRepository extends ReactiveCassandraRepository<VoteByCandidate, UUID> {
+
+    Flux<VoteByCandidate> findByCandidateIdAndElectionId(UUID candidateId, UUID electionId);
+}
@@ -0,0 +1,11 @@
+package com.votes.repository.reactive;
+
+import com.votes.entity.cassandra.Vote;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveVoteRepository extends ReactiveCassandraRepository<Vote, UUID> {
+}
@@ -0,0 +1,25 @@
+package com.votes.security;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Resultado inmutable de verificar un JWT una sola vez: usuario (subject) y
+ * expiración en milisegundos epoch (Long.MAX_VALUE si el token no trae exp).
+ */
+@Getter
+public final class VerifiedToken {
+
+    private final UUID userId;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(UUID userId, long expiresAtMillis) {
+        this.userId = userId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
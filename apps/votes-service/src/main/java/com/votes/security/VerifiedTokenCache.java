@@ -0,0 +1,133 @@
+package com.votes.security;
+
+import com.votes.util.JwtUtil;
+import com.votes.util.VoteHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens ya verificados, por SHA-256 del token.
+ *
+ * Con app.votes.jwt-cache.enabled las consultas de estado y los votos de una
+ * misma sesión no vuelven a verificar la firma: la entrada vale hasta el exp
+ * del token (como mucho max-ttl-ms). Al llegar a max-entries se descartan
+ * primero las entradas caducadas y, si no basta, entradas cualesquiera hasta
+ * quedar en el 90 %. Sin caché cada petición verifica el token una vez.
+ *
+ * La clave es el hash y no el token para no retener tokens válidos en memoria.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(VerifiedTokenCache::newDigest);
+
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.jwt-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.jwt-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.votes.jwt-cache.max-ttl-ms:3600000}")
+    private long maxTtlMillis;
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("votes.jwt-cache.size", entries, Map::size)
+                .description("Verified JWTs currently cached")
+                .register(meterRegistry);
+        hitCounter = Counter.builder("votes.jwt-cache.requests")
+                .description("JWT verifications served from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missCounter = Counter.builder("votes.jwt-cache.requests")
+                .description("JWT verifications served from the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Token verificado, de la caché o verificando la firma.
+     *
+     * @throws io.jsonwebtoken.JwtException si el token no es válido o expiró
+     * @throws IllegalArgumentException si el token está vacío o su subject no es un UUID
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return jwtUtil.verify(token);
+        }
+
+        long now = System.currentTimeMillis();
+        String key = key(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                hitCounter.increment();
+                return cached;
+            }
+            entries.remove(key, cached);
+        }
+
+        missCounter.increment();
+        // Si el token ya expiró, verify lanza ExpiredJwtException y no se guarda nada
+        VerifiedToken verified = jwtUtil.verify(token);
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(key, new VerifiedToken(verified.getUserId(),
+                Math.min(verified.getExpiresAtMillis(), now + maxTtlMillis)));
+        return verified;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict(long now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.isExpired(now));
+
+        int target = maxEntries * 9 / 10;
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String key(String token) {
+        return VoteHasher.toHex(DIGEST.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.votes.service;
+
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copia votes_by_candidate a votes_by_candidate_bucketed.
+ *
+ * Se lanza al arrancar con app.votes.candidate-buckets.migrate-on-startup, en
+ * segundo plano, con hasta migration-max-in-flight escrituras asíncronas en
+ * vuelo. Las inserciones son idempotentes, así que repetir la migración (o
+ * solaparla con la doble escritura de los votos nuevos) no duplica filas.
+ * Mientras copia, app.votes.candidate-buckets.read-enabled debe seguir
+ * desactivado (los conteos de la tabla con buckets estarían incompletos);
+ * cuando termina sin fallos puede activarse y, después, desactivarse
+ * write-legacy.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateBucketMigration {
+
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+
+    private final BucketedVoteByCandidateRepository bucketedVoteByCandidateRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.candidate-buckets.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${app.votes.candidate-buckets.migration-max-in-flight:256}")
+    private int maxInFlight;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        if (!bucketedVoteByCandidateRepository.isEnabled()) {
+            log.warn("Candidate bucket migration skipped: app.votes.candidate-buckets.enabled is false");
+            return;
+        }
+        if (bucketedVoteByCandidateRepository.readsBucketed()) {
+            throw new IllegalStateException(
+                    "app.votes.candidate-buckets.read-enabled must stay false until the bucket migration has finished");
+        }
+
+        Thread migrator = new Thread(this::migrate, "vote-bucket-migration");
+        migrator.setDaemon(true);
+        migrator.start();
+    }
+
+    void migrate() {
+        Counter migratedCounter = Counter.builder("votes.candidate-buckets.migrated")
+                .description("votes_by_candidate rows copied to the bucketed table")
+                .register(meterRegistry);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong copied = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        long start = System.currentTimeMillis();
+
+        try {
+            bucketedVoteByCandidateRepository.forEachLegacyRow(row -> {
+                if (row.getVotedAt() == null) {
+                    skipped.incrementAndGet();
+                    return;
+                }
+                inFlight.acquireUninterruptibly();
+                bucketedVoteByCandidateRepository.saveAsync(row).whenComplete((result, error) -> {
+                    inFlight.release();
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        log.error("Error copying vote {} to bucketed table: {}", row.getVoteId(), error.getMessage());
+                        return;
+                    }
+                    migratedCounter.increment();
+                    if (copied.incrementAndGet() % PROGRESS_LOG_INTERVAL == 0) {
+                        log.info("Candidate bucket migration: {} rows copied", copied.get());
+                    }
+                });
+            });
+            inFlight.acquireUninterruptibly(maxInFlight);
+
+            log.info("Candidate bucket migration finished in {} ms: {} copied, {} failed, {} skipped without voted_at",
+                    System.currentTimeMillis() - start, copied.get(), failed.get(), skipped.get());
+            if (failed.get() > 0) {
+                log.warn("Candidate bucket migration incomplete: run it again before enabling app.votes.candidate-buckets.read-enabled");
+            }
+        } catch (RuntimeException e) {
+            log.error("Candidate bucket migration aborted after {} rows: {}", copied.get(), e.getMessage(), e);
+        }
+    }
+}
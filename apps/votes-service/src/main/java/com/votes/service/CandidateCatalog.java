@@ -0,0 +1,297 @@
+package com.votes.service;
+
+import com.votes.entity.postgres.Candidate;
+import com.votes.exception.InvalidCandidateException;
+import com.votes.repository.postgres.CandidateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Candidatos activos por elección, en memoria, para validar votos sin
+ * consultar PostgreSQL.
+ *
+ * El catálogo es un mapa inmutable que se reemplaza completo en cada recarga
+ * (programada cada app.votes.candidate-catalog.refresh-interval-ms). Una
+ * elección que no está en el catálogo se carga la primera vez que se consulta;
+ * un candidato desconocido provoca como mucho una recarga de su elección por
+ * app.votes.candidate-catalog.min-reload-interval-ms, para que un candidato
+ * recién creado se acepte sin esperar a la recarga programada.
+ *
+ * Una elección sin candidatos activos no entra en el catálogo: se recuerda en
+ * una caché negativa acotada (max-unknown-elections) durante
+ * min-reload-interval-ms, así un electionId inventado cuesta como mucho una
+ * consulta por intervalo y no se vuelve a consultar en cada recarga. El
+ * catálogo guarda como mucho app.votes.candidate-catalog.max-elections
+ * elecciones: al llegar al límite se descarta la recargada hace más tiempo,
+ * nunca la elección por defecto.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateCatalog {
+
+    private final CandidateRepository candidateRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.candidate-catalog.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.candidate-catalog.min-reload-interval-ms:5000}")
+    private long minReloadIntervalMillis;
+
+    @Value("${app.votes.candidate-catalog.max-elections:64}")
+    private int maxElections;
+
+    @Value("${app.votes.candidate-catalog.max-unknown-elections:1024}")
+    private int maxUnknownElections;
+
+    @Value("${app.default-election-id}")
+    private String defaultElectionId;
+
+    private final AtomicReference<Catalog> catalog = new AtomicReference<>(Catalog.EMPTY);
+
+    // Elecciones sin candidatos activos y cuándo se consultaron (las más antiguas se descartan primero)
+    private final Map<UUID, Long> unknownElections = Collections.synchronizedMap(new LinkedHashMap<UUID, Long>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+            return size() > maxUnknownElections;
+        }
+    });
+
+    private Timer refreshTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        if (!enabled) {
+            return;
+        }
+
+        Gauge.builder("votes.candidate-catalog.age", this, CandidateCatalog::ageMillis)
+                .description("Time since the candidate catalog was last loaded from PostgreSQL")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("votes.candidate-catalog.elections", catalog, ref -> ref.get().candidatesByElection.size())
+                .description("Elections held in the candidate catalog")
+                .register(meterRegistry);
+        refreshTimer = Timer.builder("votes.candidate-catalog.refresh")
+                .description("Time to reload the candidate catalog")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            reload(UUID.fromString(defaultElectionId));
+        } catch (RuntimeException e) {
+            log.error("Error loading candidate catalog for default election: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @throws InvalidCandidateException si el candidato no está activo en la elección
+     */
+    public void validate(UUID electionId, UUID candidateId) {
+        if (enabled && !isActiveCandidate(electionId, candidateId)) {
+            throw new InvalidCandidateException("Candidate is not active in this election");
+        }
+    }
+
+    /**
+     * Consulta solo el catálogo en memoria, sin recargar: un false no es definitivo.
+     */
+    public boolean isCachedActiveCandidate(UUID electionId, UUID candidateId) {
+        Set<UUID> candidates = catalog.get().candidatesByElection.get(electionId);
+        return candidates != null && candidates.contains(candidateId);
+    }
+
+    /**
+     * Puede consultar PostgreSQL si la elección no está cargada o el candidato no aparece.
+     */
+    public boolean isActiveCandidate(UUID electionId, UUID candidateId) {
+        Catalog current = catalog.get();
+        Set<UUID> candidates = current.candidatesByElection.get(electionId);
+        if (candidates != null && candidates.contains(candidateId)) {
+            return true;
+        }
+
+        if (candidates == null && isRecentlyUnknown(electionId)) {
+            return false;
+        }
+
+        // Elección aún no cargada, o candidato quizá creado después de la última carga
+        if (candidates == null || System.currentTimeMillis() - current.reloadedAt(electionId) >= minReloadIntervalMillis) {
+            candidates = reload(electionId).candidatesByElection.get(electionId);
+        }
+        return candidates != null && candidates.contains(candidateId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.candidate-catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refreshTimer.record(() -> {
+                Map<UUID, Set<UUID>> candidatesByElection = new HashMap<>();
+                Set<UUID> emptied = new HashSet<>();
+                for (UUID electionId : catalog.get().candidatesByElection.keySet()) {
+                    Set<UUID> candidates = activeCandidates(electionId);
+                    if (candidates.isEmpty()) {
+                        emptied.add(electionId);
+                    } else {
+                        candidatesByElection.put(electionId, candidates);
+                    }
+                }
+                long now = System.currentTimeMillis();
+                Map<UUID, Long> reloadedAt = new HashMap<>();
+                for (UUID electionId : candidatesByElection.keySet()) {
+                    reloadedAt.put(electionId, now);
+                }
+                // Las elecciones cargadas entretanto se conservan; las que se quedaron sin candidatos salen
+                catalog.updateAndGet(current -> current.merge(candidatesByElection, reloadedAt, now).without(emptied));
+            });
+        } catch (RuntimeException e) {
+            log.error("Error refreshing candidate catalog: {}", e.getMessage());
+        }
+    }
+
+    private synchronized Catalog reload(UUID electionId) {
+        // Otro hilo pudo recargarla mientras este esperaba
+        Catalog current = catalog.get();
+        if (current.candidatesByElection.containsKey(electionId)
+                && System.currentTimeMillis() - current.reloadedAt(electionId) < minReloadIntervalMillis) {
+            return current;
+        }
+        if (!current.candidatesByElection.containsKey(electionId) && isRecentlyUnknown(electionId)) {
+            return current;
+        }
+
+        long start = System.nanoTime();
+        Set<UUID> candidates = activeCandidates(electionId);
+        long now = System.currentTimeMillis();
+        if (refreshTimer != null) {
+            refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (candidates.isEmpty()) {
+            unknownElections.put(electionId, now);
+            return catalog.updateAndGet(latest -> latest.without(Collections.singleton(electionId)));
+        }
+
+        unknownElections.remove(electionId);
+        log.info("Candidate catalog loaded for election {}: {} active candidates", electionId, candidates.size());
+        return catalog.updateAndGet(latest -> evictFor(electionId, latest).merge(
+                Collections.singletonMap(electionId, candidates), Collections.singletonMap(electionId, now), now));
+    }
+
+    private boolean isRecentlyUnknown(UUID electionId) {
+        Long checkedAt = unknownElections.get(electionId);
+        return checkedAt != null && System.currentTimeMillis() - checkedAt < minReloadIntervalMillis;
+    }
+
+    /**
+     * Deja sitio para electionId descartando la elección recargada hace más
+     * tiempo, salvo la elección por defecto.
+     */
+    private Catalog evictFor(UUID electionId, Catalog current) {
+        if (current.candidatesByElection.containsKey(electionId) || current.candidatesByElection.size() < maxElections) {
+            return current;
+        }
+        UUID defaultElection = UUID.fromString(defaultElectionId);
+        UUID oldest = null;
+        for (UUID candidateElection : current.candidatesByElection.keySet()) {
+            if (!candidateElection.equals(defaultElection)
+                    && (oldest == null || current.reloadedAt(candidateElection) < current.reloadedAt(oldest))) {
+                oldest = candidateElection;
+            }
+        }
+        if (oldest == null) {
+            return current;
+        }
+        log.info("Candidate catalog for election {} evicted (limit of {} elections)", oldest, maxElections);
+        return current.without(Collections.singleton(oldest));
+    }
+
+    private Set<UUID> activeCandidates(UUID electionId) {
+        Set<UUID> candidates = new HashSet<>();
+        for (Candidate candidate : candidateRepository.findByElectionIdAndIsActiveTrue(electionId)) {
+            candidates.add(candidate.getId());
+        }
+        return Collections.unmodifiableSet(candidates);
+    }
+
+    double ageMillis() {
+        long loadedAt = catalog.get().loadedAt;
+        return loadedAt == 0 ? 0 : System.currentTimeMillis() - loadedAt;
+    }
+
+    /**
+     * Instantánea inmutable del catálogo.
+     */
+    private static final class Catalog {
+
+        static final Catalog EMPTY = new Catalog(Collections.emptyMap(), Collections.emptyMap(), 0);
+
+        private final Map<UUID, Set<UUID>> candidatesByElection;
+        private final Map<UUID, Long> reloadedAtByElection;
+        private final long loadedAt;
+
+        private Catalog(Map<UUID, Set<UUID>> candidatesByElection, Map<UUID, Long> reloadedAtByElection, long loadedAt) {
+            this.candidatesByElection = candidatesByElection;
+            this.reloadedAtByElection = reloadedAtByElection;
+            this.loadedAt = loadedAt;
+        }
+
+        long reloadedAt(UUID electionId) {
+            Long reloadedAt = reloadedAtByElection.get(electionId);
+            return reloadedAt != null ? reloadedAt : 0;
+        }
+
+        Catalog merge(Map<UUID, Set<UUID>> candidates, Map<UUID, Long> reloadedAt, long now) {
+            Map<UUID, Set<UUID>> mergedCandidates = new HashMap<>(candidatesByElection);
+            mergedCandidates.putAll(candidates);
+            Map<UUID, Long> mergedReloadedAt = new HashMap<>(reloadedAtByElection);
+            mergedReloadedAt.putAll(reloadedAt);
+            return new Catalog(Collections.unmodifiableMap(mergedCandidates),
+                    Collections.unmodifiableMap(mergedReloadedAt), now);
+        }
+
+        Catalog without(Set<UUID> electionIds) {
+            if (Collections.disjoint(candidatesByElection.keySet(), electionIds)) {
+                return this;
+            }
+            Map<UUID, Set<UUID>> remainingCandidates = new HashMap<>(candidatesByElection);
+            remainingCandidates.keySet().removeAll(electionIds);
+            Map<UUID, Long> remainingReloadedAt = new HashMap<>(reloadedAtByElection);
+            remainingReloadedAt.keySet().removeAll(electionIds);
+            return new Catalog(Collections.unmodifiableMap(remainingCandidates),
+                    Collections.unmodifiableMap(remainingReloadedAt), loadedAt);
+        }
+    }
+}
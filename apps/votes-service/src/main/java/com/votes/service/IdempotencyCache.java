@@ -0,0 +1,241 @@
+package com.votes.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votes.dto.IdempotentResponse;
+import com.votes.dto.VoteResponse;
+import com.votes.repository.cassandra.IdempotencyCqlRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de POST /api/v1/votes por Idempotency-Key, para que los
+ * reintentos de un cliente devuelvan la respuesta original sin volver a
+ * consultar ni escribir en las bases de datos.
+ *
+ * Las claves son por usuario y se guardan en un LinkedHashMap en orden de
+ * inserción, acotado a app.votes.idempotency.max-entries y con caducidad
+ * app.votes.idempotency.ttl-ms. Las peticiones concurrentes con la misma clave
+ * esperan a la primera en lugar de ejecutarse otra vez, como mucho
+ * app.votes.idempotency.wait-timeout-ms: si se agota reciben 409 y si la
+ * primera falla reciben 503, ambas sin guardar y reintentables. Con
+ * app.votes.idempotency.cassandra-enabled las respuestas también se guardan en
+ * idempotency_keys, de modo que sobreviven a reinicios y a la expulsión de la
+ * caché, y se comparten entre instancias.
+ *
+ * Las respuestas 5xx no se guardan: el reintento vuelve a ejecutar el voto.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyCqlRepository idempotencyCqlRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.idempotency.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.votes.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${app.votes.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    @Value("${app.votes.idempotency.cassandra-enabled:false}")
+    private boolean cassandraEnabled;
+
+    private Map<String, Entry> entries;
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        Gauge.builder("votes.idempotency.size", entries, Map::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        hitCounter = Counter.builder("votes.idempotency.requests")
+                .description("Requests with an Idempotency-Key")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missCounter = Counter.builder("votes.idempotency.requests")
+                .description("Requests with an Idempotency-Key")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static boolean isValidKey(String idempotencyKey) {
+        return !idempotencyKey.isEmpty() && idempotencyKey.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Devuelve la respuesta guardada para la clave o ejecuta action una sola vez
+     * y guarda su resultado. Una clave reutilizada con otra petición (distinta
+     * huella) recibe 422.
+     */
+    public IdempotentResponse execute(UUID userId, String idempotencyKey, String requestFingerprint,
+                                      Supplier<ResponseEntity<?>> action) {
+        String cacheKey = userId + ":" + idempotencyKey;
+        long now = System.currentTimeMillis();
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(cacheKey);
+            if (entry == null || entry.isExpired(now, ttlMillis)) {
+                // remove + put para que la clave pase al final del orden de inserción
+                entries.remove(cacheKey);
+                entry = new Entry(requestFingerprint, now);
+                entries.put(cacheKey, entry);
+                owner = true;
+                removeExpired(now);
+            }
+        }
+
+        if (!owner) {
+            hitCounter.increment();
+            if (!entry.requestFingerprint.equals(requestFingerprint)) {
+                return mismatch(requestFingerprint);
+            }
+            return await(entry, requestFingerprint);
+        }
+
+        missCounter.increment();
+        try {
+            Optional<IdempotentResponse> stored = cassandraEnabled
+                    ? idempotencyCqlRepository.find(userId, idempotencyKey)
+                    : Optional.empty();
+            if (stored.isPresent()) {
+                entry.response.complete(stored.get());
+                return stored.get().getRequestFingerprint().equals(requestFingerprint)
+                        ? stored.get()
+                        : mismatch(requestFingerprint);
+            }
+
+            IdempotentResponse response = toIdempotentResponse(action.get(), requestFingerprint);
+            entry.response.complete(response);
+            if (response.getStatus() >= 500) {
+                entries.remove(cacheKey, entry);
+            } else if (cassandraEnabled) {
+                store(userId, idempotencyKey, response);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(cacheKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private IdempotentResponse await(Entry entry, String requestFingerprint) {
+        try {
+            return entry.response.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return toIdempotentResponse(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(VoteResponse.error("A request with this Idempotency-Key is still in progress, retry later")),
+                    requestFingerprint);
+        } catch (ExecutionException e) {
+            // La primera petición falló y quitó la clave: el reintento vuelve a ejecutar el voto
+            return unavailable(requestFingerprint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unavailable(requestFingerprint);
+        }
+    }
+
+    private IdempotentResponse unavailable(String requestFingerprint) {
+        return toIdempotentResponse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(VoteResponse.error("The original request with this Idempotency-Key failed, retry later")),
+                requestFingerprint);
+    }
+
+    private void store(UUID userId, String idempotencyKey, IdempotentResponse response) {
+        int ttlSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(ttlMillis));
+        idempotencyCqlRepository.saveAsync(userId, idempotencyKey, response, ttlSeconds)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.warn("Error storing idempotent response in Cassandra: {}", error.getMessage());
+                    }
+                });
+    }
+
+    private IdempotentResponse toIdempotentResponse(ResponseEntity<?> response, String requestFingerprint) {
+        try {
+            return new IdempotentResponse(response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(response.getBody()), requestFingerprint);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize vote response", e);
+        }
+    }
+
+    private IdempotentResponse mismatch(String requestFingerprint) {
+        return toIdempotentResponse(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(VoteResponse.error("Idempotency-Key was already used with a different request")), requestFingerprint);
+    }
+
+    private void removeExpired(long now) {
+        // En orden de inserción las claves caducadas están al principio
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().isExpired(now, ttlMillis)) {
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String requestFingerprint;
+        private final long createdAt;
+        private final CompletableFuture<IdempotentResponse> response = new CompletableFuture<>();
+
+        private Entry(String requestFingerprint, long createdAt) {
+            this.requestFingerprint = requestFingerprint;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return now - createdAt >= ttlMillis;
+        }
+    }
+}
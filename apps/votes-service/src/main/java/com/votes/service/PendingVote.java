@@ -0,0 +1,80 @@
+package com.votes.service;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.entity.cassandra.Vote;
+import com.votes.entity.cassandra.VoteByCandidate;
+import com.votes.util.VoteHasher;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filas de Cassandra de un voto ya generado (id, fecha y hash) y aún no persistido.
+ */
+@Getter
+public class PendingVote {
+
+    private final UUID userId;
+    private final Vote vote;
+    private final VoteByCandidate voteByCandidate;
+    private final UserVoteLog userVoteLog;
+
+    // Secuencia en el journal local (VoteJournal), -1 si no se registró
+    @Setter
+    private long journalSequence = -1;
+
+    // Escrituras en Cassandra fallidas con error transitorio (VoteIngestionService; se lee desde getReceipt)
+    @Setter
+    private volatile int writeAttempts;
+
+    public PendingVote(UUID userId, UUID electionId, UUID candidateId, UUID voteId, Instant votedAt, String voteHash) {
+        this.userId = userId;
+
+        // Voto principal (anónimo)
+        this.vote = new Vote();
+        vote.setVoteId(voteId);
+        vote.setCandidateId(candidateId);
+        vote.setElectionId(electionId);
+        vote.setVotedAt(votedAt);
+        vote.setVoteHash(voteHash);
+        vote.setHashVersion(VoteHasher.VERSION);
+        vote.setMetadata("{}"); // JSON metadata vacío por ahora
+
+        // Conteo por candidato
+        this.voteByCandidate = new VoteByCandidate();
+        voteByCandidate.setCandidateId(candidateId);
+        voteByCandidate.setElectionId(electionId);
+        voteByCandidate.setVoteId(voteId);
+        voteByCandidate.setVotedAt(votedAt);
+
+        // Log de usuario (para verificar duplicados)
+        this.userVoteLog = new UserVoteLog();
+        userVoteLog.setUserId(userId);
+        userVoteLog.setElectionId(electionId);
+        userVoteLog.setVoteId(voteId);
+        userVoteLog.setCandidateId(candidateId);
+        userVoteLog.setVotedAt(votedAt);
+    }
+
+    public UUID getVoteId() {
+        return vote.getVoteId();
+    }
+
+    public UUID getElectionId() {
+        return vote.getElectionId();
+    }
+
+    public UUID getCandidateId() {
+        return vote.getCandidateId();
+    }
+
+    public Instant getVotedAt() {
+        return vote.getVotedAt();
+    }
+
+    public String getVoteHash() {
+        return vote.getVoteHash();
+    }
+}
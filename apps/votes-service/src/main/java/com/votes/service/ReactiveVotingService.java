@@ -0,0 +1,278 @@
+package com.votes.service;
+
+import com.votes.audit.AuditEventStream;
+import com.votes.dto.VoteRequest;
+import com.votes.dto.VoteResponse;
+import com.votes.dto.VotingStatusResponse;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.repository.postgres.UserVotingStatusRepository;
+import com.votes.repository.reactive.ReactiveUserVoteLogRepository;
+import com.votes.repository.reactive.ReactiveVoteByCandidateRepository;
+import com.votes.repository.reactive.ReactiveVoteRepository;
+import com.votes.util.CassandraWriteErrors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Versión no bloqueante de castVote y checkVotingStatus.
+ *
+ * Las lecturas y escrituras de Cassandra usan los repositorios reactivos y no
+ * ocupan hilos mientras esperan; lo único bloqueante (PostgreSQL vía JPA/JDBC
+ * y la liberación de reclamos) se ejecuta en un scheduler acotado del tamaño
+ * del pool de conexiones, con cola limitada.
+ *
+ * En modo reclamo sigue las reglas de VotingService: la fila de votes se
+ * escribe antes que las demás, el reclamo solo se libera si Cassandra la
+ * rechaza y los timeouts se reintentan; si el resultado sigue siendo
+ * desconocido se responde outcomeUnknown conservando el reclamo. Los contadores,
+ * el índice y la auditoría se actualizan en cuanto Cassandra confirma, y un
+ * fallo al escribir user_voting_status no hace fallar la respuesta.
+ */
+@Service
+@ConditionalOnProperty(name = "app.votes.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveVotingService {
+
+    private static final InsertOptions IF_NOT_EXISTS = InsertOptions.builder().withIfNotExists().build();
+
+    private final VotingService votingService;
+    private final ReactiveVoteRepository voteRepository;
+    private final ReactiveVoteByCandidateRepository voteByCandidateRepository;
+    private final BucketedVoteByCandidateRepository bucketedVoteByCandidateRepository;
+    private final VoteMinuteRepository voteMinuteRepository;
+    private final ReactiveUserVoteLogRepository userVoteLogRepository;
+    private final ReactiveCassandraOperations reactiveCassandraOperations;
+    private final VoteCqlRepository voteCqlRepository;
+    private final UserVotingStatusRepository userVotingStatusRepository;
+    private final VoteCountAggregator voteCountAggregator;
+    private final VoteTallyService voteTallyService;
+    private final VotedUserIndex votedUserIndex;
+    private final VotingStatusProjector votingStatusProjector;
+    private final VoteAuditLog voteAuditLog;
+    private final CandidateCatalog candidateCatalog;
+    private final AuditEventStream auditEventStream;
+    private final VoteRateSeries voteRateSeries;
+    private final VoteStageTimers voteStageTimers;
+
+    @Value("${app.votes.claim-mode.enabled:false}")
+    private boolean claimModeEnabled;
+
+    @Value("${app.votes.claim-mode.write-retries:2}")
+    private int claimWriteRetries;
+
+    @Value("${app.votes.reactive.blocking-threads:10}")
+    private int blockingThreads;
+
+    @Value("${app.votes.reactive.blocking-queue-capacity:10000}")
+    private int blockingQueueCapacity;
+
+    private Scheduler blockingScheduler;
+
+    @PostConstruct
+    void start() {
+        blockingScheduler = Schedulers.newBoundedElastic(blockingThreads, blockingQueueCapacity, "votes-blocking");
+    }
+
+    @PreDestroy
+    void stop() {
+        blockingScheduler.dispose();
+    }
+
+    public Mono<VoteResponse> castVote(UUID userId, VoteRequest voteRequest) {
+        UUID electionId = votingService.resolveElectionId(voteRequest.getElectionId());
+        UUID candidateId = voteRequest.getCandidateId();
+        auditEventStream.voteReceived(electionId);
+
+        // Solo un fallo del catálogo en memoria puede consultar PostgreSQL
+        Mono<Boolean> validCandidate = !candidateCatalog.isEnabled() || candidateCatalog.isCachedActiveCandidate(electionId, candidateId)
+                ? Mono.just(true)
+                : blocking(() -> candidateCatalog.isActiveCandidate(electionId, candidateId));
+
+        return validCandidate
+                .flatMap(valid -> {
+                    if (!valid) {
+                        auditEventStream.voteRejected(userId, electionId, AuditEventStream.REASON_INVALID_CANDIDATE);
+                        return Mono.just(VoteResponse.error("Candidate is not active in this election"));
+                    }
+                    return castValidVote(userId, electionId, candidateId);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error casting vote for user {}: {}", userId, e.getMessage(), e);
+                    return Mono.just(VoteResponse.error("Error processing vote: " + e.getMessage()));
+                });
+    }
+
+    private Mono<VoteResponse> castValidVote(UUID userId, UUID electionId, UUID candidateId) {
+        // En modo reclamo lo decide el INSERT ... IF NOT EXISTS
+        Mono<Boolean> alreadyVoted = voteStageTimers.record(VoteStage.DEDUP_CHECK, claimModeEnabled
+                ? Mono.fromSupplier(() -> votedUserIndex.hasVoted(electionId, userId))
+                : hasUserVoted(userId, electionId));
+
+        return alreadyVoted
+                .flatMap(voted -> {
+                    if (voted) {
+                        return Mono.just(alreadyVoted(userId, electionId));
+                    }
+                    PendingVote pendingVote = voteStageTimers.record(VoteStage.HASH,
+                            () -> votingService.prepareVote(userId, electionId, candidateId));
+                    return claimModeEnabled ? saveClaimed(pendingVote) : save(pendingVote);
+                });
+    }
+
+    private VoteResponse alreadyVoted(UUID userId, UUID electionId) {
+        auditEventStream.voteRejected(userId, electionId, AuditEventStream.REASON_ALREADY_VOTED);
+        return VoteResponse.error("User has already voted in this election");
+    }
+
+    public Mono<VotingStatusResponse> checkVotingStatus(UUID userId, UUID electionId) {
+        return hasUserVoted(userId, votingService.resolveElectionId(electionId))
+                .map(voted -> voted ? VotingStatusResponse.hasVoted() : VotingStatusResponse.hasNotVoted());
+    }
+
+    private Mono<Boolean> hasUserVoted(UUID userId, UUID electionId) {
+        if (votedUserIndex.hasVoted(electionId, userId)) {
+            return Mono.just(true);
+        }
+
+        // PostgreSQL primero, Cassandra como respaldo (mismo orden que VotingService)
+        return blocking(() -> userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId))
+                .flatMap(votedInPostgres -> votedInPostgres
+                        ? Mono.just(true)
+                        : userVoteLogRepository.findByUserIdAndElectionId(userId, electionId).hasElement());
+    }
+
+    private Mono<VoteResponse> save(PendingVote pendingVote) {
+        return Mono.when(
+                        voteStageTimers.record(VoteStage.CASSANDRA_VOTES, voteRepository.save(pendingVote.getVote())),
+                        saveVoteByCandidate(pendingVote),
+                        voteStageTimers.record(VoteStage.CASSANDRA_USER_VOTES_LOG,
+                                userVoteLogRepository.save(pendingVote.getUserVoteLog())))
+                .then(Mono.defer(() -> persisted(pendingVote)));
+    }
+
+    private Mono<?> saveVoteByCandidate(PendingVote pendingVote) {
+        Mono<?> legacy = bucketedVoteByCandidateRepository.writesLegacy()
+                ? voteStageTimers.record(VoteStage.CASSANDRA_VOTES_BY_CANDIDATE,
+                        voteByCandidateRepository.save(pendingVote.getVoteByCandidate()))
+                : Mono.empty();
+        Mono<?> bucketed = bucketedVoteByCandidateRepository.isEnabled()
+                ? voteStageTimers.record(VoteStage.CASSANDRA_VOTES_BY_CANDIDATE_BUCKETED,
+                        Mono.fromCompletionStage(() -> bucketedVoteByCandidateRepository.saveAsync(pendingVote.getVoteByCandidate())))
+                : Mono.empty();
+        Mono<?> byMinute = voteMinuteRepository.isEnabled()
+                ? voteStageTimers.record(VoteStage.CASSANDRA_VOTES_BY_MINUTE,
+                        Mono.fromCompletionStage(() -> voteMinuteRepository.saveAsync(pendingVote.getVote())))
+                : Mono.empty();
+        return Mono.when(legacy, bucketed, byMinute);
+    }
+
+    private Mono<VoteResponse> saveClaimed(PendingVote pendingVote) {
+        return voteStageTimers.record(VoteStage.CASSANDRA_CLAIM, claim(pendingVote.getUserVoteLog()))
+                .flatMap(claimed -> {
+                    if (!claimed) {
+                        return Mono.just(alreadyVoted(pendingVote.getUserId(), pendingVote.getElectionId()));
+                    }
+                    return saveClaimedRows(pendingVote)
+                            .flatMap(written -> written
+                                    ? persisted(pendingVote)
+                                    : Mono.just(outcomeUnknown(pendingVote)));
+                });
+    }
+
+    /**
+     * @return false si el resultado de la escritura sigue siendo desconocido (el reclamo se conserva)
+     */
+    private Mono<Boolean> saveClaimedRows(PendingVote pendingVote) {
+        AtomicBoolean voteRowWritten = new AtomicBoolean();
+        return retryTimeouts(voteStageTimers.record(VoteStage.CASSANDRA_VOTES, voteRepository.save(pendingVote.getVote())))
+                .doOnSuccess(vote -> voteRowWritten.set(true))
+                .then(retryTimeouts(Mono.defer(() -> saveVoteByCandidate(pendingVote))))
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    if (!voteRowWritten.get() && CassandraWriteErrors.isRejected(e)) {
+                        // No se aplicó nada: sin liberar el reclamo el usuario quedaría bloqueado sin voto
+                        return blocking(() -> {
+                            voteCqlRepository.releaseClaim(pendingVote.getUserVoteLog());
+                            return true;
+                        }).then(Mono.error(e));
+                    }
+                    log.error("Outcome of vote {} unknown, keeping its claim: {}", pendingVote.getVoteId(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    // Los ids son fijos: repetir una escritura que agotó el tiempo es idempotente
+    private <T> Mono<T> retryTimeouts(Mono<T> write) {
+        return write.retryWhen(Retry.max(claimWriteRetries).filter(CassandraWriteErrors::isTimeout));
+    }
+
+    private VoteResponse outcomeUnknown(PendingVote pendingVote) {
+        auditEventStream.voteFailed(pendingVote.getVoteId(), pendingVote.getElectionId(), AuditEventStream.REASON_OUTCOME_UNKNOWN);
+        return VoteResponse.outcomeUnknown(pendingVote.getVoteId(), pendingVote.getCandidateId(),
+                pendingVote.getElectionId(), pendingVote.getVotedAt());
+    }
+
+    private Mono<Boolean> claim(UserVoteLog userVoteLog) {
+        return reactiveCassandraOperations.insert(userVoteLog, IF_NOT_EXISTS)
+                .map(result -> result.wasApplied() || result.getRows().stream()
+                        .anyMatch(row -> userVoteLog.getVoteId().equals(row.getUuid("vote_id"))));
+    }
+
+    /**
+     * Actualiza los contadores, el índice y la auditoría de un voto ya escrito
+     * en Cassandra y marca al usuario en PostgreSQL.
+     */
+    private Mono<VoteResponse> persisted(PendingVote pendingVote) {
+        auditEventStream.votePersisted(pendingVote.getVoteId(), pendingVote.getElectionId(), pendingVote.getCandidateId());
+        voteCountAggregator.record(pendingVote.getElectionId(), pendingVote.getCandidateId());
+        voteRateSeries.record(pendingVote.getElectionId(), pendingVote.getVotedAt());
+        voteTallyService.record(pendingVote.getElectionId(), pendingVote.getCandidateId(), pendingVote.getVoteId());
+        votedUserIndex.add(pendingVote.getElectionId(), pendingVote.getUserId());
+        voteAuditLog.track(pendingVote.getElectionId());
+
+        VoteResponse response = VoteResponse.success(pendingVote.getVoteId(), pendingVote.getCandidateId(),
+                pendingVote.getElectionId(), pendingVote.getVotedAt());
+        return markUserAsVoted(pendingVote)
+                .thenReturn(response)
+                .onErrorResume(e -> {
+                    // El voto ya está en Cassandra: hasUserVoted sigue respondiendo desde user_votes_log
+                    log.error("Error marking user {} as voted in PostgreSQL: {}", pendingVote.getUserId(), e.getMessage());
+                    return Mono.just(response);
+                });
+    }
+
+    private Mono<Integer> markUserAsVoted(PendingVote pendingVote) {
+        Mono<Integer> upsert = voteStageTimers.record(VoteStage.POSTGRES_STATUS,
+                blocking(() -> userVotingStatusRepository.upsertVoted(
+                        pendingVote.getUserId(), pendingVote.getElectionId(), pendingVote.getVotedAt())));
+        // El proyector espera al journal; con la cola llena se escribe de forma síncrona
+        return votingStatusProjector.isEnabled()
+                ? voteStageTimers.record(VoteStage.POSTGRES_STATUS_ENQUEUE,
+                                blocking(() -> votingStatusProjector.project(pendingVote.getUserVoteLog())))
+                        .flatMap(projected -> projected ? Mono.just(0) : upsert)
+                : upsert;
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(blockingScheduler);
+    }
+}
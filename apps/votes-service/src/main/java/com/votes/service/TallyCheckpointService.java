@@ -0,0 +1,173 @@
+package com.votes.service;
+
+import com.votes.entity.postgres.Candidate;
+import com.votes.repository.cassandra.TallyCheckpointRepository;
+import com.votes.repository.cassandra.TallyCheckpointRepository.TallyCheckpoint;
+import com.votes.repository.cassandra.VoteCountRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.repository.postgres.CandidateRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkpoints periódicos del conteo por candidato para recuperarlo al
+ * arrancar sin recontar votes_by_candidate.
+ *
+ * Cada app.votes.tally-checkpoints.interval-ms, para las elecciones que esta
+ * instancia cuenta, el checkpoint avanza hasta el último minuto cerrado hace
+ * más de margin-ms: al anterior se le suman los votos de votes_by_minute entre
+ * ambos high_water. Solo lee Cassandra (no el conteo en memoria), así que el
+ * resultado es el mismo en todas las instancias y reescribirlo es idempotente.
+ *
+ * Un voto tardío (escrito cuando su minuto ya podía estar por debajo del
+ * high_water, ver VoteMinuteRepository) no entraría en esa suma: si se
+ * escribió alguno entre ambos high_water, el checkpoint se recuenta desde
+ * votes_by_candidate en lugar de sumar. Del mismo modo, recover y
+ * currentCounts no parten de un checkpoint con votos tardíos posteriores.
+ *
+ * Sin checkpoint previo, el primero cuenta votes_by_candidate filtrando por
+ * voted_at anterior al high_water. Los votos escritos sin votes_by_minute (por
+ * ejemplo por instancias anteriores durante un despliegue) y posteriores a ese
+ * primer high_water no entran en el replay: conviene activar
+ * app.votes.tally-checkpoints en todas las instancias antes de que corra.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TallyCheckpointService {
+
+    private final TallyCheckpointRepository tallyCheckpointRepository;
+    private final VoteMinuteRepository voteMinuteRepository;
+    private final VoteCountRepository voteCountRepository;
+    private final CandidateRepository candidateRepository;
+
+    @Value("${app.votes.tally-checkpoints.enabled:false}")
+    private boolean enabled;
+
+    // Votos aún en vuelo: un minuto solo entra en el checkpoint cuando ya no puede recibir más
+    @Value("${app.votes.tally-checkpoints.margin-ms:60000}")
+    private long marginMillis;
+
+    // Último checkpoint conocido de cada elección contada por esta instancia
+    private final Map<UUID, TallyCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Conteo actual de la elección a partir de su último checkpoint más los
+     * votos de votes_by_minute posteriores a él, junto con los vote_id de esos
+     * votos. Vacío si no hay checkpoint; en ese caso la elección se registra
+     * igualmente para el próximo.
+     */
+    public Optional<RecoveredTally> recover(UUID electionId) {
+        Optional<TallyCheckpoint> latest = tallyCheckpointRepository.findLatest(electionId);
+        if (!latest.isPresent()) {
+            checkpoints.putIfAbsent(electionId, new TallyCheckpoint(null, Collections.<UUID, Long>emptyMap()));
+            return Optional.empty();
+        }
+
+        TallyCheckpoint checkpoint = latest.get();
+        checkpoints.put(electionId, checkpoint);
+        Instant nextMinute = Instant.now().truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES);
+        if (voteMinuteRepository.hasLateVotes(electionId, checkpoint.getHighWater(), nextMinute)) {
+            log.info("Late votes written after the tally checkpoint of election {} at {}, recounting",
+                    electionId, checkpoint.getHighWater());
+            return Optional.empty();
+        }
+        Map<UUID, UUID> replayed = voteMinuteRepository.candidateByVote(electionId, checkpoint.getHighWater(), nextMinute);
+        Map<UUID, Long> counts = new HashMap<>(checkpoint.getCounts());
+        replayed.values().forEach(candidateId -> counts.merge(candidateId, 1L, Long::sum));
+
+        log.info("Vote tally for election {} recovered from checkpoint at {} plus {} replayed votes", electionId,
+                checkpoint.getHighWater(), replayed.size());
+        return Optional.of(new RecoveredTally(counts, replayed.keySet()));
+    }
+
+    /**
+     * Como recover, pero sin registrar la elección para próximos checkpoints
+     * (lo usa VoteCountAggregator para conciliar contadores).
+     */
+    public Optional<Map<UUID, Long>> currentCounts(UUID electionId) {
+        return tallyCheckpointRepository.findLatest(electionId)
+                .flatMap(checkpoint -> replayFrom(electionId, checkpoint));
+    }
+
+    private Optional<Map<UUID, Long>> replayFrom(UUID electionId, TallyCheckpoint checkpoint) {
+        Instant nextMinute = Instant.now().truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES);
+        if (voteMinuteRepository.hasLateVotes(electionId, checkpoint.getHighWater(), nextMinute)) {
+            return Optional.empty();
+        }
+        Map<UUID, Long> counts = new HashMap<>(checkpoint.getCounts());
+        voteMinuteRepository.countByCandidate(electionId, checkpoint.getHighWater(), nextMinute)
+                .forEach((candidateId, count) -> counts.merge(candidateId, count, Long::sum));
+        return Optional.of(counts);
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.tally-checkpoints.interval-ms:60000}")
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+        Instant highWater = Instant.now().minusMillis(marginMillis).truncatedTo(ChronoUnit.MINUTES);
+        for (Map.Entry<UUID, TallyCheckpoint> entry : checkpoints.entrySet()) {
+            try {
+                checkpoint(entry.getKey(), entry.getValue(), highWater);
+            } catch (RuntimeException e) {
+                // El siguiente intento parte del mismo checkpoint anterior
+                log.error("Error checkpointing vote tally for election {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    void checkpoint(UUID electionId, TallyCheckpoint previous, Instant highWater) {
+        if (previous.getHighWater() != null && !previous.getHighWater().isBefore(highWater)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Map<UUID, Long> counts;
+        // Sin checkpoint previo, o con votos tardíos escritos desde él: recuento completo
+        if (previous.getHighWater() == null
+                || voteMinuteRepository.hasLateVotes(electionId, previous.getHighWater(), highWater)) {
+            counts = new HashMap<>();
+            for (Candidate candidate : candidateRepository.findByElectionIdAndIsActiveTrue(electionId)) {
+                counts.put(candidate.getId(), voteCountRepository.countVotesByCandidateBefore(electionId, candidate.getId(), highWater));
+            }
+        } else {
+            counts = new HashMap<>(previous.getCounts());
+            voteMinuteRepository.countByCandidate(electionId, previous.getHighWater(), highWater)
+                    .forEach((candidateId, count) -> counts.merge(candidateId, count, Long::sum));
+        }
+
+        tallyCheckpointRepository.save(electionId, highWater, counts);
+        checkpoints.put(electionId, new TallyCheckpoint(highWater, Collections.unmodifiableMap(counts)));
+        log.debug("Vote tally checkpoint for election {} at {} written in {} ms",
+                electionId, highWater, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Conteo recuperado de un checkpoint y los votos repetidos sobre él.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class RecoveredTally {
+        private final Map<UUID, Long> counts;
+        private final Set<UUID> replayedVoteIds;
+    }
+}
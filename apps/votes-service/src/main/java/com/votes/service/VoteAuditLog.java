@@ -0,0 +1,303 @@
+package com.votes.service;
+
+import com.votes.dto.AuditRootResponse;
+import com.votes.dto.InclusionProofResponse;
+import com.votes.entity.cassandra.Vote;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.util.MerkleAccumulator;
+import com.votes.util.VoteHasher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Árbol de Merkle de los hashes de voto, uno por elección.
+ *
+ * Cada voto se anexa como hoja; la raíz se actualiza en O(log n) y las
+ * pruebas de inclusión permiten a un auditor comprobar que un voto forma parte
+ * de la raíz publicada sin recorrer la tabla votes.
+ *
+ * El árbol solo cubre minutos cerrados: cada app.votes.audit.seal-interval-ms
+ * se sellan los minutos que terminaron hace más de seal-margin-ms. Sellar un
+ * minuto anexa, de votes_by_minute (escrita por todas las instancias), los
+ * votos de ese minuto escritos a tiempo y después los votos tardíos escritos
+ * durante ese minuto (late_votes_by_minute: su propio minuto ya podía estar
+ * sellado), cada grupo en orden (voted_at, vote_id). Al arrancar, los minutos
+ * ya cerrados se cargan de votes en el mismo orden, reintentando con espera
+ * exponencial si la carga falla. Así los mismos votos dan la misma raíz y los
+ * mismos índices de hoja tras reiniciar y en cualquier instancia, y las
+ * pruebas ya entregadas siguen verificando.
+ *
+ * Un voto solo tiene prueba cuando está sellado: el minuto de su voted_at o,
+ * si es tardío, el minuto en que se escribió.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteAuditLog {
+
+    private final VoteCqlRepository voteCqlRepository;
+    private final VoteMinuteRepository voteMinuteRepository;
+
+    @Value("${app.votes.audit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.audit.seal-margin-ms:120000}")
+    private long sealMarginMillis;
+
+    @Value("${app.votes.audit.rebuild-retry-base-delay-ms:1000}")
+    private long rebuildRetryBaseDelayMs;
+
+    @Value("${app.votes.audit.rebuild-retry-max-delay-ms:60000}")
+    private long rebuildRetryMaxDelayMs;
+
+    private final Map<UUID, ElectionTree> trees = new ConcurrentHashMap<>();
+
+    // Elecciones con votos persistidos por esta instancia desde el arranque
+    private final Set<UUID> tracked = ConcurrentHashMap.newKeySet();
+
+    // Minutos anteriores a este instante cargados desde votes al arrancar
+    private volatile Instant rebuiltUpTo;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        Thread loader = new Thread(this::loadWithRetry, "vote-audit-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Reintenta la carga con espera exponencial hasta que termina: mientras
+     * tanto los endpoints responden 503 y el sellado no avanza.
+     */
+    void loadWithRetry() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                load(sealWatermark());
+                return;
+            } catch (RuntimeException e) {
+                long delay = Math.min(rebuildRetryMaxDelayMs, rebuildRetryBaseDelayMs << Math.min(attempt - 1, 20));
+                log.error("Error rebuilding vote audit trees (attempt {}), retrying in {} ms: {}",
+                        attempt, delay, e.getMessage(), e);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga desde votes los votos de los minutos anteriores a upTo en el orden
+     * de las hojas; los tardíos (según late_votes_by_minute) van en el minuto
+     * en que se escribieron.
+     *
+     * Por voto solo se retiene su id, voted_at y el hash de hoja (32 bytes);
+     * los árboles se instalan cuando el recorrido terminó, así que un fallo a
+     * mitad no deja hojas a medias para el siguiente intento.
+     */
+    void load(Instant upTo) {
+        long start = System.currentTimeMillis();
+        Map<UUID, Instant> lateMinutes = voteMinuteRepository.lateVoteMinutes();
+        Map<UUID, List<Leaf>> leavesByElection = new HashMap<>();
+        voteCqlRepository.forEachVote(vote -> {
+            if (vote.getVotedAt() == null || vote.getVoteHash() == null) {
+                return;
+            }
+            Instant writtenMinute = lateMinutes.get(vote.getVoteId());
+            Leaf leaf = writtenMinute != null ? Leaf.late(vote, writtenMinute) : Leaf.of(vote);
+            if (leaf.sealedAt.isBefore(upTo)) {
+                leavesByElection.computeIfAbsent(vote.getElectionId(), id -> new ArrayList<>()).add(leaf);
+            }
+        });
+        for (Map.Entry<UUID, List<Leaf>> entry : leavesByElection.entrySet()) {
+            ElectionTree tree = trees.computeIfAbsent(entry.getKey(), id -> new ElectionTree(upTo));
+            tree.appendAll(entry.getValue());
+        }
+        rebuiltUpTo = upTo;
+        ready = true;
+        log.info("Vote audit trees rebuilt up to {} for {} elections in {} ms",
+                upTo, leavesByElection.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Disponible cuando está habilitado y la reconstrucción inicial terminó.
+     */
+    public boolean isAvailable() {
+        return enabled && ready;
+    }
+
+    /**
+     * Registra la elección de un voto persistido para sellar sus minutos; el
+     * voto entra en el árbol al sellarse su minuto.
+     */
+    public void track(UUID electionId) {
+        if (enabled) {
+            tracked.add(electionId);
+        }
+    }
+
+    /**
+     * Sella, en cada elección conocida, los minutos cerrados desde el último sellado.
+     */
+    @Scheduled(fixedDelayString = "${app.votes.audit.seal-interval-ms:10000}")
+    public void seal() {
+        if (enabled && ready) {
+            seal(sealWatermark());
+        }
+    }
+
+    void seal(Instant upTo) {
+        Set<UUID> electionIds = new HashSet<>(trees.keySet());
+        electionIds.addAll(tracked);
+        for (UUID electionId : electionIds) {
+            // Una elección nueva empieza donde terminó la reconstrucción, igual que las demás
+            ElectionTree tree = trees.computeIfAbsent(electionId, id -> new ElectionTree(rebuiltUpTo));
+            try {
+                sealTree(electionId, tree, upTo);
+            } catch (RuntimeException e) {
+                // El siguiente sellado continúa desde el último minuto completo
+                log.error("Error sealing vote audit tree for election {} at {}: {}",
+                        electionId, tree.sealedUpTo, e.getMessage());
+            }
+        }
+    }
+
+    private void sealTree(UUID electionId, ElectionTree tree, Instant upTo) {
+        while (tree.sealedUpTo.isBefore(upTo)) {
+            Instant minute = tree.sealedUpTo;
+            List<Leaf> leaves = new ArrayList<>();
+            for (Vote vote : voteMinuteRepository.findVotes(electionId, minute)) {
+                if (vote.getVotedAt() != null && vote.getVoteHash() != null) {
+                    leaves.add(Leaf.of(vote));
+                }
+            }
+            for (Vote vote : voteMinuteRepository.findLateVotes(electionId, minute)) {
+                if (vote.getVotedAt() != null && vote.getVoteHash() != null) {
+                    leaves.add(Leaf.late(vote, minute));
+                }
+            }
+            synchronized (tree) {
+                tree.appendAll(leaves);
+                tree.sealedUpTo = minute.plus(1, ChronoUnit.MINUTES);
+            }
+        }
+    }
+
+    public AuditRootResponse getRoot(UUID electionId) {
+        ElectionTree tree = trees.get(electionId);
+        if (tree == null) {
+            return new AuditRootResponse(electionId, 0, VoteHasher.toHex(VoteHasher.emptyHash()), rebuiltUpTo);
+        }
+        synchronized (tree) {
+            return new AuditRootResponse(electionId, tree.accumulator.size(), VoteHasher.toHex(tree.accumulator.root()),
+                    tree.sealedUpTo);
+        }
+    }
+
+    public Optional<InclusionProofResponse> getInclusionProof(UUID electionId, UUID voteId) {
+        ElectionTree tree = trees.get(electionId);
+        if (tree == null) {
+            return Optional.empty();
+        }
+        synchronized (tree) {
+            Integer index = tree.leafIndexByVote.get(voteId);
+            if (index == null) {
+                return Optional.empty();
+            }
+            List<String> path = new ArrayList<>();
+            for (byte[] sibling : tree.accumulator.auditPath(index)) {
+                path.add(VoteHasher.toHex(sibling));
+            }
+            return Optional.of(new InclusionProofResponse(electionId, voteId, index, tree.accumulator.size(),
+                    VoteHasher.toHex(tree.accumulator.leaf(index)), path, VoteHasher.toHex(tree.accumulator.root())));
+        }
+    }
+
+    private Instant sealWatermark() {
+        return Instant.now().minusMillis(sealMarginMillis).truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    static final class ElectionTree {
+
+        private final MerkleAccumulator accumulator = new MerkleAccumulator();
+        private final Map<UUID, Integer> leafIndexByVote = new HashMap<>();
+
+        // Primer minuto aún sin sellar (protegido por el propio árbol al escribirlo)
+        private volatile Instant sealedUpTo;
+
+        ElectionTree(Instant sealedUpTo) {
+            this.sealedUpTo = sealedUpTo;
+        }
+
+        // Ordena las hojas (minuto de sellado, tardía, voted_at, vote_id) y las anexa
+        synchronized void appendAll(List<Leaf> leaves) {
+            leaves.sort(Leaf.ORDER);
+            for (Leaf leaf : leaves) {
+                if (!leafIndexByVote.containsKey(leaf.voteId)) {
+                    leafIndexByVote.put(leaf.voteId, accumulator.append(leaf.leafHash));
+                }
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Leaf {
+
+        private static final Comparator<Leaf> ORDER = Comparator.comparing((Leaf leaf) -> leaf.sealedAt)
+                .thenComparing(leaf -> leaf.late)
+                .thenComparing(leaf -> leaf.votedAt)
+                .thenComparing(leaf -> leaf.voteId);
+
+        private final UUID voteId;
+        private final Instant votedAt;
+        // Minuto cuyo sellado anexa la hoja: el de voted_at, o el de escritura si es tardía
+        private final Instant sealedAt;
+        private final boolean late;
+        private final byte[] leafHash;
+
+        static Leaf of(Vote vote) {
+            return new Leaf(vote.getVoteId(), vote.getVotedAt(), VoteMinuteRepository.minute(vote.getVotedAt()), false,
+                    VoteHasher.leafHash(hashBytes(vote.getVoteHash())));
+        }
+
+        static Leaf late(Vote vote, Instant writtenMinute) {
+            return new Leaf(vote.getVoteId(), vote.getVotedAt(), VoteMinuteRepository.minute(writtenMinute), true,
+                    VoteHasher.leafHash(hashBytes(vote.getVoteHash())));
+        }
+
+        private static byte[] hashBytes(String voteHash) {
+            try {
+                return VoteHasher.fromHex(voteHash);
+            } catch (IllegalArgumentException e) {
+                return voteHash.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.NoNodeAvailableException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.votes.repository.cassandra.VoteCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrega los votos persistidos por (elección, candidato) y vuelca los deltas
+ * en vote_counts_by_candidate cada app.votes.counts.flush-interval-ms.
+ *
+ * Un candidato muy votado recibe una sola actualización de contador por
+ * intervalo en lugar de una por voto. Los contadores no son idempotentes: el
+ * delta solo se vuelve a sumar si Cassandra garantiza que la escritura no se
+ * aplicó (UnavailableException, NoNodeAvailableException). Ante un resultado
+ * desconocido (timeouts) el candidato queda pendiente de conciliar.
+ *
+ * La conciliación (cada app.votes.counts.reconcile-interval-ms) corre con el
+ * monitor de flush: vuelca primero los deltas de esta instancia y después
+ * mide el contador y la fuente (checkpoint de TallyCheckpointService más
+ * votes_by_minute, o COUNT sobre votes_by_candidate). Solo corrige cuando dos
+ * pasadas consecutivas dan la misma medida y no hay deltas locales sin volcar:
+ * entre una pasada y otra cada instancia vuelca varias veces, así que una
+ * medida repetida no incluye votos de otras instancias aún sin volcar ni
+ * votos registrados a mitad de la medida. Un candidato que sigue recibiendo
+ * votos queda pendiente hasta que su conteo se estabiliza, y tras corregir se
+ * vuelve a medir hasta confirmar que el contador coincide.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteCountAggregator {
+
+    private final VoteCountRepository voteCountRepository;
+    private final TallyCheckpointService tallyCheckpointService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.counts.enabled:false}")
+    private boolean enabled;
+
+    private final Map<CountKey, LongAdder> deltas = new ConcurrentHashMap<>();
+
+    // Candidatos con un volcado de resultado desconocido y su última medida (vacía si no hay)
+    private final Map<CountKey, Optional<Measurement>> unreconciled = new ConcurrentHashMap<>();
+
+    // Instante (nanoTime) del incremento más antiguo sin volcar, 0 si no hay
+    private final AtomicLong pendingSince = new AtomicLong();
+
+    private Timer flushTimer;
+    private Counter failedCounter;
+    private Counter uncertainCounter;
+    private Counter correctionCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        if (!enabled) {
+            return;
+        }
+
+        Gauge.builder("votes.counts.flush.lag", this, VoteCountAggregator::flushLagMillis)
+                .description("Age of the oldest vote count increment not yet written to Cassandra")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("votes.counts.flush")
+                .description("Time to write pending vote count deltas")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("votes.counts.flush.failed")
+                .description("Vote count deltas that were not applied and were kept for the next flush")
+                .register(meterRegistry);
+        uncertainCounter = Counter.builder("votes.counts.flush.uncertain")
+                .description("Vote count deltas with an unknown outcome, left for reconciliation")
+                .register(meterRegistry);
+        correctionCounter = Counter.builder("votes.counts.reconcile.corrections")
+                .description("Vote counters corrected against the tally source")
+                .register(meterRegistry);
+        Gauge.builder("votes.counts.unreconciled", unreconciled, Map::size)
+                .description("Candidates whose vote counter is waiting for reconciliation")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Suma un voto persistido al conteo pendiente del candidato.
+     */
+    public void record(UUID electionId, UUID candidateId) {
+        if (!enabled) {
+            return;
+        }
+
+        deltas.computeIfAbsent(new CountKey(electionId, candidateId), key -> new LongAdder()).increment();
+        if (pendingSince.get() == 0) {
+            pendingSince.compareAndSet(0, System.nanoTime());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.counts.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flushTimer.record(this::flush);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    synchronized void flush() {
+        long since = pendingSince.getAndSet(0);
+
+        List<CountKey> keys = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        List<CompletableFuture<?>> writes = new ArrayList<>();
+        for (Map.Entry<CountKey, LongAdder> entry : deltas.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+            CountKey key = entry.getKey();
+            keys.add(key);
+            values.add(delta);
+            writes.add(voteCountRepository.incrementAsync(key.electionId, key.candidateId, delta).toCompletableFuture());
+        }
+
+        boolean failed = false;
+        for (int i = 0; i < writes.size(); i++) {
+            try {
+                writes.get(i).join();
+            } catch (RuntimeException e) {
+                CountKey key = keys.get(i);
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                log.error("Error flushing {} votes for candidate {} in election {}: {}",
+                        values.get(i), key.candidateId, key.electionId, cause.getMessage());
+                if (cause instanceof UnavailableException || cause instanceof NoNodeAvailableException) {
+                    // No se aplicó: se reintenta en el siguiente volcado
+                    deltas.computeIfAbsent(key, k -> new LongAdder()).add(values.get(i));
+                    if (failedCounter != null) {
+                        failedCounter.increment();
+                    }
+                    failed = true;
+                } else {
+                    // Pudo aplicarse: volver a sumarlo contaría dos veces
+                    unreconciled.put(key, Optional.empty());
+                    if (uncertainCounter != null) {
+                        uncertainCounter.increment();
+                    }
+                }
+            }
+        }
+
+        if (failed && since != 0) {
+            // El lag sigue contando desde el incremento más antiguo no escrito
+            pendingSince.accumulateAndGet(since, (current, oldest) -> current == 0 ? oldest : Math.min(current, oldest));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.counts.reconcile-interval-ms:30000}")
+    public synchronized void reconcile() {
+        if (!enabled || unreconciled.isEmpty()) {
+            return;
+        }
+
+        // Con el monitor de flush: tras este volcado ningún delta de esta instancia está en vuelo
+        flush();
+
+        // Conteos de la fuente por elección, leídos una vez por pasada
+        Map<UUID, Optional<Map<UUID, Long>>> sources = new HashMap<>();
+        for (CountKey key : new ArrayList<>(unreconciled.keySet())) {
+            try {
+                reconcile(key, sources);
+            } catch (RuntimeException e) {
+                // La siguiente pasada vuelve a medir desde cero
+                unreconciled.computeIfPresent(key, (k, last) -> Optional.empty());
+                log.error("Error reconciling vote count for candidate {} in election {}: {}",
+                        key.candidateId, key.electionId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mide el contador y la fuente del candidato y, si la medida coincide con
+     * la de la pasada anterior, escribe la diferencia (o da el candidato por
+     * conciliado si no la hay).
+     */
+    private void reconcile(CountKey key, Map<UUID, Optional<Map<UUID, Long>>> sources) {
+        long counter = voteCountRepository.findCountsByElectionId(key.electionId).getOrDefault(key.candidateId, 0L);
+        long expected = sourceCount(key, sources);
+        LongAdder pending = deltas.get(key);
+        if (pending != null && pending.sum() != 0) {
+            // Un voto registrado durante la medida: se vuelve a medir en la siguiente pasada
+            unreconciled.put(key, Optional.empty());
+            return;
+        }
+
+        Measurement measurement = new Measurement(expected, counter);
+        Optional<Measurement> last = unreconciled.get(key);
+        if (last == null || !last.equals(Optional.of(measurement))) {
+            unreconciled.put(key, Optional.of(measurement));
+            return;
+        }
+
+        long correction = expected - counter;
+        if (correction == 0) {
+            unreconciled.remove(key);
+            return;
+        }
+        log.warn("Correcting vote counter for candidate {} in election {} by {} (counter {}, source {})",
+                key.candidateId, key.electionId, correction, counter, expected);
+        // Tras corregir se mide de nuevo hasta que dos pasadas confirmen el contador
+        unreconciled.put(key, Optional.empty());
+        voteCountRepository.incrementAsync(key.electionId, key.candidateId, correction).toCompletableFuture().join();
+        if (correctionCounter != null) {
+            correctionCounter.increment();
+        }
+    }
+
+    private long sourceCount(CountKey key, Map<UUID, Optional<Map<UUID, Long>>> sources) {
+        if (tallyCheckpointService.isEnabled()) {
+            Optional<Map<UUID, Long>> counts = sources.computeIfAbsent(key.electionId, tallyCheckpointService::currentCounts);
+            if (counts.isPresent()) {
+                return counts.get().getOrDefault(key.candidateId, 0L);
+            }
+        }
+        return voteCountRepository.countVotesByCandidate(key.electionId, key.candidateId);
+    }
+
+    boolean isUnreconciled(UUID electionId, UUID candidateId) {
+        return unreconciled.containsKey(new CountKey(electionId, candidateId));
+    }
+
+    double flushLagMillis() {
+        long since = pendingSince.get();
+        return since == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class CountKey {
+        private final UUID electionId;
+        private final UUID candidateId;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Measurement {
+        private final long source;
+        private final long counter;
+    }
+}
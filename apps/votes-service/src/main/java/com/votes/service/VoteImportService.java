@@ -0,0 +1,463 @@
+package com.votes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.votes.audit.AuditEventStream;
+import com.votes.dto.ImportVoteRecord;
+import com.votes.dto.ImportVoteResult;
+import com.votes.dto.ImportVoteStatus;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import com.votes.util.CassandraWriteErrors;
+import com.votes.util.VoteHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importación masiva de votos firmados (quioscos sin conexión, digitalización
+ * de papeletas) desde un cuerpo NDJSON en streaming.
+ *
+ * Las líneas se leen de una en una y se agrupan en lotes de
+ * app.votes.import.batch-size; como mucho app.votes.import.parallelism lotes
+ * por importación están en vuelo a la vez, así que la memoria usada no depende
+ * del tamaño del archivo. Cada lote reclama los votos en user_votes_log con
+ * INSERT ... IF NOT EXISTS (la deduplicación) y escribe las demás filas en
+ * paralelo. Los resultados se devuelven por línea, en el orden del archivo, a
+ * medida que terminan los lotes.
+ *
+ * Requiere app.votes.claim-mode.enabled: si el camino del voto escribiera
+ * user_votes_log con un INSERT simple, ese INSERT no respeta el IF NOT EXISTS
+ * de la importación (LWT y escrituras normales sobre la misma fila no se
+ * serializan) y un usuario podría quedar con dos votos.
+ *
+ * Como en el camino del voto, el reclamo solo se libera si Cassandra rechaza
+ * la escritura (QueryValidationException); los timeouts se reintentan y, si
+ * persisten, la línea se informa como UNKNOWN conservando el reclamo.
+ *
+ * Solo se aceptan votos con voted_at dentro de [ahora - max-age-ms,
+ * ahora + max-future-ms]: un voto futuro adelantaría los contadores por
+ * segundo y uno antiguo cae en minutos ya sellados o con checkpoint.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoteImportService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final int EOF = -1;
+    private static final int LINE = 0;
+    private static final int LINE_TOO_LONG = 1;
+
+    private final VotingService votingService;
+    private final VoteCqlRepository voteCqlRepository;
+    private final UserVotingStatusBatchRepository userVotingStatusBatchRepository;
+    private final VotingStatusProjector votingStatusProjector;
+    private final CandidateCatalog candidateCatalog;
+    private final VoteCountAggregator voteCountAggregator;
+    private final VoteTallyService voteTallyService;
+    private final VotedUserIndex votedUserIndex;
+    private final VoteAuditLog voteAuditLog;
+    private final AuditEventStream auditEventStream;
+    private final VoteRateSeries voteRateSeries;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.import.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.claim-mode.enabled:false}")
+    private boolean claimModeEnabled;
+
+    @Value("${app.votes.claim-mode.write-retries:2}")
+    private int writeRetries;
+
+    @Value("${app.votes.import.hmac-secret:}")
+    private String hmacSecret;
+
+    @Value("${app.votes.import.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.votes.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.votes.import.max-line-length:4096}")
+    private int maxLineLength;
+
+    @Value("${app.votes.import.max-age-ms:86400000}")
+    private long maxAgeMillis;
+
+    @Value("${app.votes.import.max-future-ms:5000}")
+    private long maxFutureMillis;
+
+    private ExecutorService executor;
+    private final Map<ImportVoteStatus, Counter> recordCounters = new EnumMap<>(ImportVoteStatus.class);
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (hmacSecret == null || hmacSecret.isEmpty()) {
+            throw new IllegalStateException("app.votes.import.hmac-secret is required when vote import is enabled");
+        }
+        if (!claimModeEnabled) {
+            throw new IllegalStateException("app.votes.claim-mode.enabled is required when vote import is enabled: "
+                    + "every user_votes_log write must be INSERT ... IF NOT EXISTS");
+        }
+
+        for (ImportVoteStatus status : ImportVoteStatus.values()) {
+            recordCounters.put(status, Counter.builder("votes.import.records")
+                    .description("Imported vote records by result")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "vote-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Importa el NDJSON de body y escribe en out una línea de resultado
+     * (ImportVoteResult) por cada línea no vacía de entrada.
+     */
+    public void importVotes(InputStream body, OutputStream out) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectReader recordReader = objectMapper.readerFor(ImportVoteRecord.class);
+        ObjectWriter resultWriter = objectMapper.writerFor(ImportVoteResult.class);
+        Mac mac = newMac();
+
+        Map<ImportVoteStatus, Long> summary = new EnumMap<>(ImportVoteStatus.class);
+        Deque<Future<List<ImportItem>>> inFlight = new ArrayDeque<>();
+        List<ImportItem> batch = new ArrayList<>(batchSize);
+        StringBuilder line = new StringBuilder();
+        long lineNumber = 0;
+        long start = System.currentTimeMillis();
+
+        int read;
+        while ((read = readLine(reader, line)) != EOF) {
+            lineNumber++;
+            if (read == LINE_TOO_LONG) {
+                batch.add(ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID, "Line too long")));
+            } else if (!isBlank(line)) {
+                batch.add(parse(lineNumber, line.toString(), recordReader, mac));
+            }
+
+            if (batch.size() == batchSize) {
+                submit(batch, inFlight, out, resultWriter, summary);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, inFlight, out, resultWriter, summary);
+        }
+        while (!inFlight.isEmpty()) {
+            writeResults(await(inFlight.poll()), out, resultWriter, summary);
+        }
+
+        log.info("Vote import finished: {} lines in {} ms, {}", lineNumber, System.currentTimeMillis() - start, summary);
+    }
+
+    private void submit(List<ImportItem> batch, Deque<Future<List<ImportItem>>> inFlight, OutputStream out,
+                        ObjectWriter resultWriter, Map<ImportVoteStatus, Long> summary) throws IOException {
+        // Ventana acotada: antes de enviar otro lote se espera (y se responde) el más antiguo
+        if (inFlight.size() >= parallelism) {
+            writeResults(await(inFlight.poll()), out, resultWriter, summary);
+        }
+        inFlight.add(executor.submit(() -> writeBatch(batch)));
+    }
+
+    ImportItem parse(long lineNumber, String json, ObjectReader recordReader, Mac mac) {
+        ImportVoteRecord record;
+        try {
+            record = recordReader.readValue(json);
+        } catch (IOException e) {
+            return ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID, "Malformed JSON"));
+        }
+        if (record.getUserId() == null || record.getElectionId() == null || record.getCandidateId() == null
+                || record.getVotedAt() == null || record.getSignature() == null) {
+            return ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID, "Missing fields"));
+        }
+
+        Instant votedAt;
+        try {
+            votedAt = Instant.parse(record.getVotedAt());
+        } catch (DateTimeParseException e) {
+            return ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID, "Invalid votedAt"));
+        }
+        Instant now = Instant.now();
+        if (votedAt.isBefore(now.minusMillis(maxAgeMillis)) || votedAt.isAfter(now.plusMillis(maxFutureMillis))) {
+            return ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID,
+                    "votedAt outside the accepted window"));
+        }
+
+        if (!hasValidSignature(record, mac)) {
+            return ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID_SIGNATURE, "Signature does not match"));
+        }
+        if (candidateCatalog.isEnabled() && !candidateCatalog.isActiveCandidate(record.getElectionId(), record.getCandidateId())) {
+            return ImportItem.resolved(ImportVoteResult.of(lineNumber, ImportVoteStatus.INVALID_CANDIDATE,
+                    "Candidate is not active in this election"));
+        }
+
+        return new ImportItem(lineNumber,
+                votingService.prepareVote(record.getUserId(), record.getElectionId(), record.getCandidateId(), votedAt));
+    }
+
+    List<ImportItem> writeBatch(List<ImportItem> batch) {
+        // 1. Reclamos en user_votes_log, todos en vuelo a la vez
+        List<CompletableFuture<Boolean>> claims = new ArrayList<>(batch.size());
+        for (ImportItem item : batch) {
+            claims.add(item.vote == null ? null
+                    : voteCqlRepository.claimUserVoteAsync(item.vote.getUserVoteLog()).toCompletableFuture());
+        }
+
+        // 2. Filas de votes y votes_by_candidate de los reclamados
+        List<CompletableFuture<?>> writes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ImportItem item = batch.get(i);
+            CompletableFuture<?> write = null;
+            if (item.vote != null) {
+                try {
+                    if (claims.get(i).join()) {
+                        write = voteCqlRepository.saveClaimedVoteAsync(item.vote.getVote(), item.vote.getVoteByCandidate())
+                                .toCompletableFuture();
+                    } else {
+                        item.result = ImportVoteResult.of(item.lineNumber, ImportVoteStatus.DUPLICATE,
+                                "User has already voted in this election");
+                    }
+                } catch (RuntimeException e) {
+                    fail(item, e);
+                }
+            }
+            writes.add(write);
+        }
+
+        List<ImportItem> imported = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ImportItem item = batch.get(i);
+            if (writes.get(i) == null) {
+                continue;
+            }
+            try {
+                awaitWrite(item, writes.get(i));
+                item.result = new ImportVoteResult(item.lineNumber, ImportVoteStatus.IMPORTED, item.vote.getVoteId(), null);
+                imported.add(item);
+            } catch (RuntimeException e) {
+                fail(item, e);
+            }
+        }
+
+        if (!imported.isEmpty()) {
+            recordImported(imported);
+        }
+        return batch;
+    }
+
+    // Reintenta las filas tras un timeout: los ids son fijos, así que repetirlas es idempotente
+    private void awaitWrite(ImportItem item, CompletableFuture<?> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write.join();
+                return;
+            } catch (RuntimeException e) {
+                if (!CassandraWriteErrors.isTimeout(e) || attempt > writeRetries) {
+                    throw e;
+                }
+                log.warn("Timeout writing imported vote at line {} (attempt {}), retrying", item.lineNumber, attempt);
+                write = voteCqlRepository.saveClaimedVoteAsync(item.vote.getVote(), item.vote.getVoteByCandidate())
+                        .toCompletableFuture();
+            }
+        }
+    }
+
+    private void recordImported(List<ImportItem> imported) {
+        List<UserVoteLog> userVotes = new ArrayList<>(imported.size());
+        for (ImportItem item : imported) {
+            PendingVote vote = item.vote;
+            voteCountAggregator.record(vote.getElectionId(), vote.getCandidateId());
+            voteRateSeries.record(vote.getElectionId(), vote.getVotedAt());
+            voteTallyService.record(vote.getElectionId(), vote.getCandidateId(), vote.getVoteId());
+            votedUserIndex.add(vote.getElectionId(), vote.getUserId());
+            voteAuditLog.track(vote.getElectionId());
+            auditEventStream.votePersisted(vote.getVoteId(), vote.getElectionId(), vote.getCandidateId());
+            userVotes.add(vote.getUserVoteLog());
+        }
+
+        if (votingStatusProjector.isEnabled()) {
+            // Las que no caben en la cola del proyector se escriben aquí
+            userVotes = votingStatusProjector.projectAll(userVotes);
+            if (userVotes.isEmpty()) {
+                return;
+            }
+        }
+        // Si falla, hasUserVoted sigue respondiendo desde user_votes_log
+        try {
+            userVotingStatusBatchRepository.markAllAsVoted(userVotes);
+        } catch (RuntimeException e) {
+            log.error("Error marking {} imported users as voted in PostgreSQL: {}", userVotes.size(), e.getMessage());
+        }
+    }
+
+    private void fail(ImportItem item, RuntimeException e) {
+        if (!CassandraWriteErrors.isRejected(e)) {
+            // Pudo aplicarse: liberar el reclamo permitiría un segundo voto del mismo usuario
+            log.error("Outcome of imported vote at line {} unknown, keeping its claim: {}", item.lineNumber, e.getMessage());
+            item.result = new ImportVoteResult(item.lineNumber, ImportVoteStatus.UNKNOWN, item.vote.getVoteId(),
+                    "Write outcome unknown, check the voting status");
+            return;
+        }
+
+        log.error("Imported vote at line {} rejected by Cassandra: {}", item.lineNumber, e.getMessage());
+        item.result = ImportVoteResult.of(item.lineNumber, ImportVoteStatus.FAILED, "Error writing vote");
+        try {
+            // Solo borra la fila si sigue perteneciendo a este voto
+            voteCqlRepository.releaseClaim(item.vote.getUserVoteLog());
+        } catch (RuntimeException releaseError) {
+            log.error("Error releasing claim of vote {}: {}", item.vote.getVoteId(), releaseError.getMessage());
+        }
+    }
+
+    private void writeResults(List<ImportItem> batch, OutputStream out, ObjectWriter resultWriter,
+                              Map<ImportVoteStatus, Long> summary) throws IOException {
+        for (ImportItem item : batch) {
+            ImportVoteStatus status = item.result.getStatus();
+            summary.merge(status, 1L, Long::sum);
+            recordCounters.get(status).increment();
+            out.write(resultWriter.writeValueAsBytes(item.result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private boolean hasValidSignature(ImportVoteRecord record, Mac mac) {
+        byte[] expected = mac.doFinal((record.getUserId() + "|" + record.getElectionId() + "|"
+                + record.getCandidateId() + "|" + record.getVotedAt()).getBytes(StandardCharsets.UTF_8));
+        try {
+            return MessageDigest.isEqual(expected, VoteHasher.fromHex(record.getSignature()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    private int readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        int c = reader.read();
+        if (c == -1) {
+            return EOF;
+        }
+        while (c != -1 && c != '\n') {
+            // El resto de una línea demasiado larga se descarta sin acumularlo
+            if (line.length() < maxLineLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = reader.read();
+        }
+        if (!tooLong && line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return tooLong ? LINE_TOO_LONG : LINE;
+    }
+
+    private static boolean isBlank(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing votes", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error importing vote batch", e.getCause());
+        }
+    }
+
+    /**
+     * Línea de la importación: el voto preparado, o un resultado ya decidido al parsear.
+     */
+    static final class ImportItem {
+
+        private final long lineNumber;
+        private final PendingVote vote;
+        private ImportVoteResult result;
+
+        ImportItem(long lineNumber, PendingVote vote) {
+            this.lineNumber = lineNumber;
+            this.vote = vote;
+        }
+
+        static ImportItem resolved(ImportVoteResult result) {
+            ImportItem item = new ImportItem(result.getLine(), null);
+            item.result = result;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.votes.audit.AuditEventStream;
+import com.votes.dto.VoteReceiptResponse;
+import com.votes.dto.VoteReceiptStatus;
+import com.votes.dto.VoteRequest;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteRepository;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import com.votes.wal.VoteJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingesta asíncrona de votos.
+ *
+ * El voto se valida y se reclama en user_votes_log (INSERT ... IF NOT EXISTS)
+ * en el hilo de la petición, se encola en una cola acotada y se responde con
+ * un recibo. Un pool de escritores vacía la cola en micro-lotes: las filas de
+ * Cassandra de cada lote se envían en paralelo y user_voting_status se
+ * actualiza con un único upsert JDBC en batch.
+ *
+ * Con el journal local habilitado (VoteJournal) cada voto se anexa antes de
+ * responder y se confirma al persistirse; al arrancar se reescriben los votos
+ * que quedaron sin confirmar.
+ *
+ * Un voto aceptado solo se da por fallido si Cassandra lo rechaza de forma
+ * definitiva (QueryValidationException). Ante errores transitorios (timeouts,
+ * nodos no disponibles) vuelve a la cola con espera exponencial, sin confirmarse
+ * en el journal; las escrituras usan ids fijos, así que reintentar es idempotente.
+ * Mientras tanto su recibo es RETRYING con el número de intentos. Como el
+ * reclamo no puede liberarse sin saber si la escritura se aplicó, no hay
+ * límite de reintentos: en su lugar, con queue-capacity votos esperando
+ * reintento se dejan de aceptar votos nuevos (OVERLOADED) hasta que las
+ * escrituras vuelvan a funcionar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoteIngestionService {
+
+    private final VotingService votingService;
+    private final VoteCqlRepository voteCqlRepository;
+    private final VoteRepository voteRepository;
+    private final UserVotingStatusBatchRepository userVotingStatusBatchRepository;
+    private final VoteJournal voteJournal;
+    private final VoteCountAggregator voteCountAggregator;
+    private final VoteTallyService voteTallyService;
+    private final VotedUserIndex votedUserIndex;
+    private final VoteAuditLog voteAuditLog;
+    private final CandidateCatalog candidateCatalog;
+    private final AuditEventStream auditEventStream;
+    private final VoteRateSeries voteRateSeries;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.async-ingestion.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.async-ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.votes.async-ingestion.workers:4}")
+    private int workers;
+
+    @Value("${app.votes.async-ingestion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.votes.async-ingestion.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${app.votes.async-ingestion.retry-base-delay-ms:200}")
+    private long retryBaseDelayMs;
+
+    @Value("${app.votes.async-ingestion.retry-max-delay-ms:30000}")
+    private long retryMaxDelayMs;
+
+    // Votos aceptados aún sin escribir, para sus recibos; al persistirse se consultan en la tabla votes
+    private final Map<UUID, PendingVote> pendingReceipts = new ConcurrentHashMap<>();
+
+    private Map<UUID, VoteReceiptStatus> failedReceipts;
+    private BlockingQueue<PendingVote> queue;
+    private ExecutorService writers;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    // Votos esperando un reintento fuera de la cola
+    private final AtomicInteger retrying = new AtomicInteger();
+
+    private Counter acceptedCounter;
+    private Counter duplicateCounter;
+    private Counter overloadedCounter;
+    private Counter persistedCounter;
+    private Counter failedCounter;
+    private Counter retriedCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        failedReceipts = Collections.synchronizedMap(new LinkedHashMap<UUID, VoteReceiptStatus>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, VoteReceiptStatus> eldest) {
+                return size() > queueCapacity;
+            }
+        });
+
+        Gauge.builder("votes.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Votes accepted and waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("votes.ingestion.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in the ingestion queue")
+                .register(meterRegistry);
+        acceptedCounter = submissions("accepted");
+        duplicateCounter = submissions("duplicate");
+        overloadedCounter = submissions("overloaded");
+        persistedCounter = writes("persisted");
+        failedCounter = writes("failed");
+        retriedCounter = writes("retried");
+        Gauge.builder("votes.ingestion.retrying", retrying, AtomicInteger::get)
+                .description("Accepted votes waiting to retry a failed write")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("votes.ingestion.batch.write")
+                .description("Time to write one micro-batch to Cassandra and PostgreSQL")
+                .register(meterRegistry);
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("vote-write-retry-"));
+
+        if (voteJournal.isEnabled()) {
+            replayJournal();
+        }
+
+        running = true;
+        writers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("vote-writer-"));
+        for (int i = 0; i < workers; i++) {
+            writers.execute(this::drainLoop);
+        }
+        log.info("Async vote ingestion started: queue capacity {}, {} writers, batch size {}",
+                queueCapacity, workers, batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+
+        // Deja de aceptar votos; los escritores terminan de vaciar la cola
+        running = false;
+        retryScheduler.shutdownNow();
+        writers.shutdown();
+        if (!writers.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.error("Async vote ingestion stopped with {} votes still queued", queue.size());
+        }
+        if (retrying.get() > 0) {
+            if (voteJournal.isEnabled()) {
+                log.warn("{} votes waiting to retry will be replayed from the vote journal", retrying.get());
+            } else {
+                log.error("Async vote ingestion stopped with {} votes waiting to retry and no vote journal",
+                        retrying.get());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public VoteReceiptResponse submit(UUID userId, VoteRequest voteRequest) {
+        if (!running) {
+            return VoteReceiptResponse.rejected(VoteReceiptStatus.OVERLOADED, "Vote ingestion is not accepting votes");
+        }
+        if (retrying.get() >= queueCapacity) {
+            // Las escrituras están fallando: no se acumulan más votos en memoria
+            overloadedCounter.increment();
+            return VoteReceiptResponse.rejected(VoteReceiptStatus.OVERLOADED, "Vote writes are failing, retry later");
+        }
+
+        UUID electionId = votingService.resolveElectionId(voteRequest.getElectionId());
+        if (candidateCatalog.isEnabled() && !candidateCatalog.isActiveCandidate(electionId, voteRequest.getCandidateId())) {
+            return VoteReceiptResponse.rejected(VoteReceiptStatus.REJECTED, "Candidate is not active in this election");
+        }
+        if (votedUserIndex.hasVoted(electionId, userId)) {
+            duplicateCounter.increment();
+            return VoteReceiptResponse.rejected(VoteReceiptStatus.REJECTED, "User has already voted in this election");
+        }
+
+        PendingVote pendingVote = votingService.prepareVote(userId, electionId, voteRequest.getCandidateId());
+        if (!voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())) {
+            duplicateCounter.increment();
+            return VoteReceiptResponse.rejected(VoteReceiptStatus.REJECTED, "User has already voted in this election");
+        }
+
+        if (voteJournal.isEnabled()) {
+            // Durable en disco antes de responder 202
+            try {
+                pendingVote.setJournalSequence(voteJournal.append(pendingVote));
+            } catch (RuntimeException e) {
+                log.error("Error appending vote {} to the vote journal: {}", pendingVote.getVoteId(), e.getMessage());
+                voteCqlRepository.releaseClaim(pendingVote.getUserVoteLog());
+                overloadedCounter.increment();
+                return VoteReceiptResponse.rejected(VoteReceiptStatus.OVERLOADED, "Vote journal unavailable, retry later");
+            }
+        }
+
+        pendingReceipts.put(pendingVote.getVoteId(), pendingVote);
+        if (!queue.offer(pendingVote)) {
+            pendingReceipts.remove(pendingVote.getVoteId());
+            acknowledge(pendingVote);
+            voteCqlRepository.releaseClaim(pendingVote.getUserVoteLog());
+            overloadedCounter.increment();
+            return VoteReceiptResponse.rejected(VoteReceiptStatus.OVERLOADED, "Vote queue is full, retry later");
+        }
+
+        acceptedCounter.increment();
+        return VoteReceiptResponse.accepted(pendingVote.getVoteId(), pendingVote.getVoteHash());
+    }
+
+    public VoteReceiptResponse getReceipt(UUID voteId) {
+        PendingVote pendingVote = pendingReceipts.get(voteId);
+        if (pendingVote != null) {
+            int attempts = pendingVote.getWriteAttempts();
+            if (attempts > 0) {
+                return VoteReceiptResponse.retrying(voteId, attempts);
+            }
+            return VoteReceiptResponse.of(voteId, VoteReceiptStatus.PENDING);
+        }
+
+        VoteReceiptStatus status = failedReceipts != null ? failedReceipts.get(voteId) : null;
+        if (status == null) {
+            status = voteRepository.existsById(voteId) ? VoteReceiptStatus.PERSISTED : VoteReceiptStatus.UNKNOWN;
+        }
+        return VoteReceiptResponse.of(voteId, status);
+    }
+
+    private void drainLoop() {
+        List<PendingVote> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingVote first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchTimer.record(() -> writeBatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error writing vote batch: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void writeBatch(List<PendingVote> batch) {
+        // 1. Cassandra: todas las escrituras del lote en vuelo a la vez
+        List<CompletableFuture<?>> writes = new ArrayList<>(batch.size());
+        for (PendingVote pendingVote : batch) {
+            writes.add(voteCqlRepository
+                    .saveClaimedVoteAsync(pendingVote.getVote(), pendingVote.getVoteByCandidate())
+                    .toCompletableFuture());
+        }
+
+        List<PendingVote> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingVote pendingVote = batch.get(i);
+            try {
+                writes.get(i).join();
+                written.add(pendingVote);
+            } catch (RuntimeException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof QueryValidationException) {
+                    log.error("Vote {} rejected by Cassandra: {}", pendingVote.getVoteId(), cause.getMessage());
+                    fail(pendingVote);
+                } else {
+                    log.warn("Error writing vote {} (attempt {}), will retry: {}",
+                            pendingVote.getVoteId(), pendingVote.getWriteAttempts() + 1, cause.getMessage());
+                    scheduleRetry(pendingVote);
+                }
+            }
+        }
+
+        if (written.isEmpty()) {
+            return;
+        }
+
+        // 2. PostgreSQL: un solo upsert en batch; si falla, hasUserVoted sigue respondiendo desde user_votes_log
+        try {
+            userVotingStatusBatchRepository.markAllAsVoted(
+                    written.stream().map(PendingVote::getUserVoteLog).toList());
+        } catch (RuntimeException e) {
+            log.error("Error marking {} users as voted in PostgreSQL: {}", written.size(), e.getMessage());
+        }
+
+        for (PendingVote pendingVote : written) {
+            voteCountAggregator.record(pendingVote.getElectionId(), pendingVote.getCandidateId());
+            voteRateSeries.record(pendingVote.getElectionId(), pendingVote.getVotedAt());
+            voteTallyService.record(pendingVote.getElectionId(), pendingVote.getCandidateId(), pendingVote.getVoteId());
+            votedUserIndex.add(pendingVote.getElectionId(), pendingVote.getUserId());
+            voteAuditLog.track(pendingVote.getElectionId());
+            auditEventStream.votePersisted(pendingVote.getVoteId(), pendingVote.getElectionId(), pendingVote.getCandidateId());
+            pendingReceipts.remove(pendingVote.getVoteId());
+            acknowledge(pendingVote);
+        }
+        persistedCounter.increment(written.size());
+    }
+
+    private void scheduleRetry(PendingVote pendingVote) {
+        int attempt = pendingVote.getWriteAttempts() + 1;
+        pendingVote.setWriteAttempts(attempt);
+        retriedCounter.increment();
+        retrying.incrementAndGet();
+        long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt - 1, 20));
+        schedule(pendingVote, delay);
+    }
+
+    private void schedule(PendingVote pendingVote, long delayMs) {
+        try {
+            retryScheduler.schedule(() -> requeue(pendingVote), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Apagando: el voto sigue sin confirmar en el journal y se reescribe al arrancar
+            log.warn("Vote {} left for journal replay during shutdown", pendingVote.getVoteId());
+        }
+    }
+
+    private void requeue(PendingVote pendingVote) {
+        if (queue.offer(pendingVote)) {
+            retrying.decrementAndGet();
+            return;
+        }
+        // Cola llena: se espera sin contar un nuevo intento
+        schedule(pendingVote, retryMaxDelayMs);
+    }
+
+    private void fail(PendingVote pendingVote) {
+        failedReceipts.put(pendingVote.getVoteId(), VoteReceiptStatus.FAILED);
+        pendingReceipts.remove(pendingVote.getVoteId());
+        acknowledge(pendingVote);
+        failedCounter.increment();
+        auditEventStream.voteFailed(pendingVote.getVoteId(), pendingVote.getElectionId(), AuditEventStream.REASON_WRITE_FAILED);
+        try {
+            voteCqlRepository.releaseClaim(pendingVote.getUserVoteLog());
+        } catch (RuntimeException e) {
+            log.error("Error releasing claim of vote {}: {}", pendingVote.getVoteId(), e.getMessage());
+        }
+    }
+
+    private void acknowledge(PendingVote pendingVote) {
+        if (pendingVote.getJournalSequence() >= 0) {
+            voteJournal.acknowledge(pendingVote.getJournalSequence());
+        }
+    }
+
+    private void replayJournal() {
+        List<PendingVote> unflushed = voteJournal.recover();
+        if (unflushed.isEmpty()) {
+            return;
+        }
+
+        // Los reclamos de user_votes_log ya existen: solo faltan las demás filas
+        log.warn("Replaying {} unflushed votes from the vote journal", unflushed.size());
+        for (PendingVote pendingVote : unflushed) {
+            pendingReceipts.put(pendingVote.getVoteId(), pendingVote);
+        }
+        for (int from = 0; from < unflushed.size(); from += batchSize) {
+            writeBatch(unflushed.subList(from, Math.min(from + batchSize, unflushed.size())));
+        }
+    }
+
+    private Counter submissions(String result) {
+        return Counter.builder("votes.ingestion.submitted")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter writes(String result) {
+        return Counter.builder("votes.ingestion.written")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,188 @@
+package com.votes.service;
+
+import com.votes.dto.VoteRatePoint;
+import com.votes.dto.VoteRateResolution;
+import com.votes.dto.VoteRateResponse;
+import com.votes.repository.cassandra.VoteRateRepository;
+import com.votes.util.SecondCounterRing;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serie temporal de votos por elección (participación a lo largo del día).
+ *
+ * Cada voto suma uno en un SecondCounterRing de app.votes.rate.ring-seconds
+ * segundos. Cada app.votes.rate.rollup-interval-ms los minutos ya cerrados
+ * (más app.votes.rate.rollup-delay-ms de margen) se escriben en
+ * vote_rate_by_minute, una fila por instancia.
+ *
+ * Las consultas por minuto leen de la tabla los minutos ya volcados y de
+ * memoria los posteriores; las consultas por segundo solo cubren la ventana
+ * en memoria. Lo que sale de memoria son los votos de esta instancia.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteRateSeries {
+
+    private static final long SECONDS_PER_MINUTE = 60;
+
+    private final VoteRateRepository voteRateRepository;
+
+    @Value("${app.votes.rate.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.rate.ring-seconds:7200}")
+    private int ringSeconds;
+
+    @Value("${app.votes.rate.rollup-delay-ms:5000}")
+    private long rollupDelayMillis;
+
+    @Value("${app.votes.rate.max-points:10080}")
+    private int maxPoints;
+
+    @Value("${app.votes.rate.instance-id:}")
+    private String instanceId;
+
+    private final Map<UUID, ElectionSeries> series = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() {
+        if (enabled && (instanceId == null || instanceId.isEmpty())) {
+            instanceId = UUID.randomUUID().toString();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(UUID electionId, Instant votedAt) {
+        if (enabled) {
+            series(electionId).ring.increment(votedAt.getEpochSecond());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.rate.rollup-interval-ms:10000}")
+    public void rollup() {
+        if (!enabled) {
+            return;
+        }
+        long nowSecond = System.currentTimeMillis() / 1000;
+        long lastClosedMinute = Math.floorDiv(nowSecond - rollupDelayMillis / 1000, SECONDS_PER_MINUTE) - 1;
+        long oldestMinuteInRing = Math.floorDiv(nowSecond - ringSeconds, SECONDS_PER_MINUTE) + 1;
+
+        for (Map.Entry<UUID, ElectionSeries> entry : series.entrySet()) {
+            ElectionSeries election = entry.getValue();
+            long fromMinute = Math.max(election.rolledUpTo + 1, oldestMinuteInRing);
+            if (fromMinute > lastClosedMinute) {
+                continue;
+            }
+
+            List<CompletableFuture<?>> writes = new ArrayList<>();
+            for (long minute = fromMinute; minute <= lastClosedMinute; minute++) {
+                long count = election.ring.sum(minute * SECONDS_PER_MINUTE, (minute + 1) * SECONDS_PER_MINUTE);
+                if (count > 0) {
+                    writes.add(voteRateRepository.saveMinuteAsync(entry.getKey(),
+                            Instant.ofEpochSecond(minute * SECONDS_PER_MINUTE), instanceId, count).toCompletableFuture());
+                }
+            }
+            try {
+                CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+                election.rolledUpTo = lastClosedMinute;
+            } catch (RuntimeException e) {
+                // Las filas son absolutas: el siguiente volcado reescribe los mismos minutos
+                log.error("Error rolling up vote rate for election {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Votos por segundo o por minuto en [from, to), un punto por intervalo (también los vacíos).
+     *
+     * @throws IllegalArgumentException si el rango no es válido o pide segundos fuera de memoria
+     */
+    public VoteRateResponse getRate(UUID electionId, Instant from, Instant to, VoteRateResolution resolution) {
+        Instant start = from.truncatedTo(resolution.getUnit());
+        Instant end = to.truncatedTo(resolution.getUnit());
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        long step = resolution == VoteRateResolution.SECOND ? 1 : SECONDS_PER_MINUTE;
+        long points = (end.getEpochSecond() - start.getEpochSecond()) / step;
+        if (points > maxPoints) {
+            throw new IllegalArgumentException("Range too large: at most " + maxPoints + " points per request");
+        }
+
+        ElectionSeries election = series.get(electionId);
+        long nowSecond = System.currentTimeMillis() / 1000;
+        long oldestSecondInRing = nowSecond - ringSeconds + 1;
+
+        List<VoteRatePoint> result = new ArrayList<>((int) points);
+        if (resolution == VoteRateResolution.SECOND) {
+            if (start.getEpochSecond() < oldestSecondInRing) {
+                throw new IllegalArgumentException("Per-second rates are only kept for the last " + ringSeconds + " seconds");
+            }
+            for (long second = start.getEpochSecond(); second < end.getEpochSecond(); second++) {
+                result.add(new VoteRatePoint(Instant.ofEpochSecond(second), election != null ? election.ring.count(second) : 0));
+            }
+            return new VoteRateResponse(electionId, resolution, start, end, result);
+        }
+
+        // Minutos ya volcados desde la tabla; el resto desde memoria
+        long firstMemoryMinute = election != null ? election.rolledUpTo + 1 : Long.MAX_VALUE;
+        long startMinute = start.getEpochSecond() / SECONDS_PER_MINUTE;
+        long endMinute = end.getEpochSecond() / SECONDS_PER_MINUTE;
+        long tableEndMinute = Math.min(endMinute, firstMemoryMinute);
+        Map<Instant, Long> stored = startMinute < tableEndMinute
+                ? voteRateRepository.findMinutes(electionId, start, Instant.ofEpochSecond(tableEndMinute * SECONDS_PER_MINUTE))
+                : Collections.emptyMap();
+
+        for (long minute = startMinute; minute < endMinute; minute++) {
+            long second = minute * SECONDS_PER_MINUTE;
+            long count;
+            if (minute < firstMemoryMinute) {
+                Long value = stored.get(Instant.ofEpochSecond(second));
+                count = value != null ? value : 0;
+            } else {
+                count = election.ring.sum(Math.max(second, oldestSecondInRing), second + SECONDS_PER_MINUTE);
+            }
+            result.add(new VoteRatePoint(Instant.ofEpochSecond(second), count));
+        }
+        return new VoteRateResponse(electionId, resolution, start, end, result);
+    }
+
+    private ElectionSeries series(UUID electionId) {
+        ElectionSeries election = series.get(electionId);
+        if (election != null) {
+            return election;
+        }
+        return series.computeIfAbsent(electionId, id -> new ElectionSeries(new SecondCounterRing(ringSeconds),
+                Math.floorDiv(System.currentTimeMillis() / 1000, SECONDS_PER_MINUTE) - 1));
+    }
+
+    private static final class ElectionSeries {
+
+        private final SecondCounterRing ring;
+        // Último minuto (epoch) ya escrito en vote_rate_by_minute por esta instancia
+        private volatile long rolledUpTo;
+
+        private ElectionSeries(SecondCounterRing ring, long rolledUpTo) {
+            this.ring = ring;
+            this.rolledUpTo = rolledUpTo;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votes.dto.CandidateResultResponse;
+import com.votes.dto.RecountCandidateResult;
+import com.votes.dto.RecountReport;
+import com.votes.dto.RecountState;
+import com.votes.dto.RecountStatusResponse;
+import com.votes.entity.cassandra.Vote;
+import com.votes.repository.cassandra.VoteCountRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.util.VoteHasher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recuento independiente de una elección a partir de la tabla votes, sin
+ * usar ningún contador.
+ *
+ * Divide el anillo de tokens en app.votes.recount.splits rangos y los recorre
+ * en paralelo (lecturas paginadas) en un ForkJoinPool de
+ * app.votes.recount.parallelism hilos. Cada rango acumula sus propios totales
+ * por candidato y recalcula el hash de cada voto con VoteHasher (las filas
+ * sin hash_version, con los formatos legados, y se informan aparte); al terminar
+ * se comparan los totales con vote_counts_by_candidate y con el conteo en
+ * memoria, y el informe se firma con HMAC-SHA256
+ * (app.votes.recount.signing-secret).
+ *
+ * Solo corre un recuento a la vez; su progreso se consulta con getStatus y en
+ * las métricas votes.recount.*.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteRecountService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final VoteCqlRepository voteCqlRepository;
+    private final VoteCountRepository voteCountRepository;
+    private final VoteTallyService voteTallyService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.recount.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.recount.admin-token:}")
+    private String adminToken;
+
+    @Value("${app.votes.recount.signing-secret:}")
+    private String signingSecret;
+
+    @Value("${app.votes.recount.splits:1024}")
+    private int splits;
+
+    @Value("${app.votes.recount.parallelism:16}")
+    private int parallelism;
+
+    @Value("${app.votes.recount.max-reported-mismatches:1000}")
+    private int maxReportedMismatches;
+
+    private final AtomicReference<RecountJob> current = new AtomicReference<>();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (adminToken == null || adminToken.isEmpty() || signingSecret == null || signingSecret.isEmpty()) {
+            throw new IllegalStateException(
+                    "app.votes.recount.admin-token and app.votes.recount.signing-secret are required when the recount is enabled");
+        }
+
+        Gauge.builder("votes.recount.rows", current, ref -> ref.get() != null ? ref.get().rowsScanned.sum() : 0)
+                .description("votes rows scanned by the current or last recount")
+                .register(meterRegistry);
+        Gauge.builder("votes.recount.ranges.completed", current, ref -> ref.get() != null ? ref.get().rangesCompleted.get() : 0)
+                .description("Token ranges finished by the current or last recount")
+                .register(meterRegistry);
+        Gauge.builder("votes.recount.throughput", current, ref -> ref.get() != null ? ref.get().rowsPerSecond() : 0)
+                .description("Rows per second scanned by the current or last recount")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Compara el token de administración en tiempo constante.
+     */
+    public boolean isAuthorized(String token) {
+        return token != null && MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lanza el recuento de la elección en segundo plano.
+     *
+     * @throws IllegalStateException si ya hay un recuento en curso
+     */
+    public synchronized RecountStatusResponse start(UUID electionId) {
+        RecountJob running = current.get();
+        if (running != null && running.state == RecountState.RUNNING) {
+            throw new IllegalStateException("A recount is already running for election " + running.electionId);
+        }
+
+        RecountJob job = new RecountJob(UUID.randomUUID(), electionId);
+        current.set(job);
+        Thread recounter = new Thread(() -> run(job), "vote-recount");
+        recounter.setDaemon(true);
+        recounter.start();
+        return job.status();
+    }
+
+    /**
+     * Estado del recuento en curso o del último terminado.
+     */
+    public Optional<RecountStatusResponse> getStatus() {
+        RecountJob job = current.get();
+        return job != null ? Optional.of(job.status()) : Optional.empty();
+    }
+
+    void run(RecountJob job) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<TokenRange> ranges = voteCqlRepository.splitTokenRing(splits);
+            job.rangesTotal = ranges.size();
+            log.info("Recount {} of election {} started over {} token ranges", job.jobId, job.electionId, ranges.size());
+
+            List<Callable<RangeResult>> scans = new ArrayList<>(ranges.size());
+            for (TokenRange range : ranges) {
+                scans.add(() -> scan(job, range));
+            }
+            RangeResult total = new RangeResult();
+            for (Future<RangeResult> scan : pool.invokeAll(scans)) {
+                total.merge(scan.get());
+            }
+
+            job.report = report(job, total);
+            job.finishedAt = Instant.now();
+            job.state = RecountState.COMPLETED;
+            log.info("Recount {} of election {} finished in {} ms: {} rows, {} votes, {} hash mismatches, "
+                            + "{} legacy hashes ({} unverifiable), discrepancy={}",
+                    job.jobId, job.electionId, job.finishedAt.toEpochMilli() - job.startedAt.toEpochMilli(),
+                    job.rowsScanned.sum(), job.votesCounted.sum(), total.hashMismatches,
+                    total.legacyHashes + total.unverifiableHashes, total.unverifiableHashes, job.report.isDiscrepancy());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, e);
+        } catch (ExecutionException e) {
+            fail(job, e.getCause());
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    RangeResult scan(RecountJob job, TokenRange range) {
+        RangeResult result = new RangeResult();
+        voteCqlRepository.forEachVoteInRange(range, vote -> {
+            job.rowsScanned.increment();
+            if (job.electionId.equals(vote.getElectionId())) {
+                job.votesCounted.increment();
+                result.add(vote, maxReportedMismatches);
+            }
+        });
+        job.rangesCompleted.incrementAndGet();
+        return result;
+    }
+
+    private RecountReport report(RecountJob job, RangeResult total) {
+        Map<UUID, Long> counters = voteCountRepository.findCountsByElectionId(job.electionId);
+        Map<UUID, Long> tally = new HashMap<>();
+        try {
+            voteTallyService.getResults(job.electionId).ifPresent(snapshot -> {
+                for (CandidateResultResponse result : snapshot.getResults()) {
+                    tally.put(result.getCandidateId(), result.getVoteCount());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Recount {} could not read the in-memory tally: {}", job.jobId, e.getMessage());
+        }
+
+        TreeSet<UUID> candidateIds = new TreeSet<>(total.counts.keySet());
+        candidateIds.addAll(counters.keySet());
+        candidateIds.addAll(tally.keySet());
+
+        boolean discrepancy = total.hashMismatches > 0 || total.missingHashes > 0;
+        List<RecountCandidateResult> candidates = new ArrayList<>(candidateIds.size());
+        for (UUID candidateId : candidateIds) {
+            long recounted = total.counts.getOrDefault(candidateId, 0L);
+            Long counter = counters.get(candidateId);
+            Long tallied = tally.get(candidateId);
+            boolean differs = (counter != null && counter != recounted) || (tallied != null && tallied != recounted);
+            discrepancy |= differs;
+            candidates.add(new RecountCandidateResult(candidateId, recounted, counter, tallied, differs));
+        }
+
+        List<UUID> mismatched = new ArrayList<>(total.mismatchedVoteIds);
+        Collections.sort(mismatched);
+        if (mismatched.size() > maxReportedMismatches) {
+            mismatched = new ArrayList<>(mismatched.subList(0, maxReportedMismatches));
+        }
+        RecountReport report = new RecountReport(job.electionId, job.startedAt, Instant.now(), job.rowsScanned.sum(),
+                job.votesCounted.sum(), total.hashMismatches, total.missingHashes, total.legacyHashes,
+                total.unverifiableHashes, mismatched, candidates, discrepancy, null);
+        report.setSignature(sign(report));
+        return report;
+    }
+
+    /**
+     * HMAC-SHA256 del JSON del informe sin firma.
+     */
+    String sign(RecountReport report) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return VoteHasher.toHex(mac.doFinal(objectMapper.writeValueAsBytes(report)));
+        } catch (GeneralSecurityException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot sign recount report", e);
+        }
+    }
+
+    private void fail(RecountJob job, Throwable error) {
+        job.error = error.getMessage();
+        job.finishedAt = Instant.now();
+        job.state = RecountState.FAILED;
+        log.error("Recount {} of election {} failed after {} rows: {}",
+                job.jobId, job.electionId, job.rowsScanned.sum(), error.getMessage(), error);
+    }
+
+    static final class RecountJob {
+
+        private final UUID jobId;
+        private final UUID electionId;
+        private final Instant startedAt = Instant.now();
+        private final LongAdder rowsScanned = new LongAdder();
+        private final LongAdder votesCounted = new LongAdder();
+        private final AtomicInteger rangesCompleted = new AtomicInteger();
+        private volatile int rangesTotal;
+        private volatile RecountState state = RecountState.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile RecountReport report;
+
+        RecountJob(UUID jobId, UUID electionId) {
+            this.jobId = jobId;
+            this.electionId = electionId;
+        }
+
+        double rowsPerSecond() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, end.toEpochMilli() - startedAt.toEpochMilli());
+            return rowsScanned.sum() * 1000.0 / millis;
+        }
+
+        RecountStatusResponse status() {
+            return new RecountStatusResponse(jobId, electionId, state, rangesTotal, rangesCompleted.get(),
+                    rowsScanned.sum(), votesCounted.sum(), rowsPerSecond(), startedAt, finishedAt, error, report);
+        }
+    }
+
+    /**
+     * Totales de un rango (o de varios ya combinados), solo de su hilo.
+     */
+    static final class RangeResult {
+
+        private final Map<UUID, Long> counts = new HashMap<>();
+        private final List<UUID> mismatchedVoteIds = new ArrayList<>();
+        private long hashMismatches;
+        // Filas sin hash, fecha o candidato: no se pueden verificar
+        private long missingHashes;
+        // Filas sin hash_version: formato legado verificado, o no verificable por la precisión perdida
+        private long legacyHashes;
+        private long unverifiableHashes;
+
+        void add(Vote vote, int maxReportedMismatches) {
+            if (vote.getCandidateId() != null) {
+                counts.merge(vote.getCandidateId(), 1L, Long::sum);
+            }
+            if (vote.getVoteHash() == null || vote.getVotedAt() == null || vote.getCandidateId() == null) {
+                missingHashes++;
+                return;
+            }
+            String expected = VoteHasher.voteHash(vote.getVoteId(), vote.getCandidateId(), vote.getElectionId(), vote.getVotedAt());
+            if (expected.equals(vote.getVoteHash())) {
+                return;
+            }
+            if (vote.getHashVersion() == null) {
+                verifyLegacy(vote);
+                return;
+            }
+            hashMismatches++;
+            if (mismatchedVoteIds.size() < maxReportedMismatches) {
+                mismatchedVoteIds.add(vote.getVoteId());
+            }
+        }
+
+        /**
+         * Las filas anteriores a hash_version usan el formato de cadena o el
+         * binario sobre voted_at con nanosegundos. Solo se pueden comprobar si
+         * voted_at no tenía fracción por debajo del milisegundo; si no, se
+         * cuentan aparte en lugar de como discrepancia.
+         */
+        private void verifyLegacy(Vote vote) {
+            String legacy = VoteHasher.legacyVoteHash(vote.getVoteId(), vote.getCandidateId(), vote.getElectionId(),
+                    vote.getVotedAt());
+            if (legacy.equals(vote.getVoteHash())) {
+                legacyHashes++;
+            } else {
+                unverifiableHashes++;
+            }
+        }
+
+        void merge(RangeResult other) {
+            other.counts.forEach((candidateId, count) -> counts.merge(candidateId, count, Long::sum));
+            hashMismatches += other.hashMismatches;
+            missingHashes += other.missingHashes;
+            legacyHashes += other.legacyHashes;
+            unverifiableHashes += other.unverifiableHashes;
+            mismatchedVoteIds.addAll(other.mismatchedVoteIds);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.votes.service;
+
+/**
+ * Etapas de castVote medidas por VoteStageTimers (tag stage de votes.cast.stage).
+ */
+public enum VoteStage {
+
+    DEDUP_CHECK("dedup-check"),
+    HASH("hash"),
+    CASSANDRA_CLAIM("cassandra.claim"),
+    CASSANDRA_BATCH("cassandra.batch"),
+    CASSANDRA_VOTES("cassandra.votes"),
+    CASSANDRA_VOTES_BY_CANDIDATE("cassandra.votes-by-candidate"),
+    CASSANDRA_VOTES_BY_CANDIDATE_BUCKETED("cassandra.votes-by-candidate-bucketed"),
+    CASSANDRA_VOTES_BY_MINUTE("cassandra.votes-by-minute"),
+    CASSANDRA_USER_VOTES_LOG("cassandra.user-votes-log"),
+    POSTGRES_STATUS("postgres.status"),
+    POSTGRES_STATUS_ENQUEUE("postgres.status-enqueue");
+
+    private final String tag;
+
+    VoteStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,53 @@
+package com.votes.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers por etapa del camino del voto (votes.cast.stage, tag stage).
+ *
+ * Se registran todos al arrancar para no buscar el timer en cada voto; el
+ * histograma de percentiles se activa desde application.properties
+ * (management.metrics.distribution.percentiles-histogram.votes.cast.stage).
+ * Las llamadas que terminan con excepción también se miden.
+ */
+@Component
+public class VoteStageTimers {
+
+    private final Map<VoteStage, Timer> timers = new EnumMap<>(VoteStage.class);
+
+    public VoteStageTimers(MeterRegistry meterRegistry) {
+        for (VoteStage stage : VoteStage.values()) {
+            timers.put(stage, Timer.builder("votes.cast.stage")
+                    .description("Time spent in each stage of casting a vote")
+                    .tag("stage", stage.getTag())
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T record(VoteStage stage, Supplier<T> work) {
+        return timers.get(stage).record(work);
+    }
+
+    public void record(VoteStage stage, Runnable work) {
+        timers.get(stage).record(work);
+    }
+
+    /**
+     * Mide desde la suscripción hasta que work termina, con error o cancelado.
+     */
+    public <T> Mono<T> record(VoteStage stage, Mono<T> work) {
+        Timer timer = timers.get(stage);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
@@ -0,0 +1,418 @@
+package com.votes.service;
+
+import com.votes.dto.CandidateResultResponse;
+import com.votes.entity.postgres.Candidate;
+import com.votes.repository.cassandra.VoteCountRepository;
+import com.votes.repository.postgres.CandidateRepository;
+import com.votes.service.TallyCheckpointService.RecoveredTally;
+import com.votes.util.StripedUuidSet;
+import com.votes.util.VoteHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Resultados por candidato servidos desde memoria.
+ *
+ * Cada elección tiene sus contadores y una versión que crece con cada voto
+ * persistido. La primera consulta de una elección (o el arranque, para la
+ * elección por defecto) la inicializa desde el último checkpoint más los votos
+ * posteriores (TallyCheckpointService) o, si no hay, contando
+ * votes_by_candidate por candidato; la lista de resultados se construye una
+ * vez por versión. El tiempo de cada inicialización se publica en
+ * votes.tally.recovery.
+ *
+ * Los votos registrados mientras una elección se inicializa se guardan aparte
+ * y se aplican al terminar, salvo los que el conteo inicial ya incluyó, que se
+ * reconocen por vote_id: con checkpoint, los votos repasados desde él; sin
+ * checkpoint, las filas de votes_by_candidate anteriores al instante de inicio
+ * se recorren (no solo se cuentan) y sus vote_id se guardan mientras dura la
+ * inicialización.
+ *
+ * Con app.votes.counts.enabled los resultados se leen de
+ * vote_counts_by_candidate, compartida por todas las instancias (una lectura
+ * de partición por elección cada app.votes.tally.shared-refresh-ms), en lugar
+ * del conteo en memoria, que solo suma los votos persistidos por esta
+ * instancia. Sin esa tabla, con varias réplicas cada una responde con su
+ * propio conteo. En ambos casos el ETag se deriva del contenido (candidatos y
+ * votos), así que dos instancias con los mismos resultados dan el mismo ETag.
+ *
+ * Solo se inicializan elecciones con candidatos activos en PostgreSQL (una
+ * elección desconocida no reserva memoria ni lanza conteos en Cassandra), de
+ * una en una, y como mucho app.votes.tally.max-elections: al llegar al límite
+ * se descarta otra elección distinta de la por defecto, que se volverá a
+ * inicializar desde Cassandra si se consulta de nuevo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoteTallyService {
+
+    // Más votado primero; a igualdad, por candidato para que el orden (y el ETag) no dependa de la instancia
+    private static final Comparator<CandidateResultResponse> RESULT_ORDER =
+            Comparator.comparingLong(CandidateResultResponse::getVoteCount).reversed()
+                    .thenComparing(CandidateResultResponse::getCandidateId);
+
+    private final VoteCountRepository voteCountRepository;
+    private final CandidateRepository candidateRepository;
+    private final TallyCheckpointService tallyCheckpointService;
+    private final VoteCountAggregator voteCountAggregator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.default-election-id}")
+    private String defaultElectionId;
+
+    @Value("${app.votes.tally.max-elections:64}")
+    private int maxElections;
+
+    @Value("${app.votes.tally.shared-refresh-ms:1000}")
+    private long sharedRefreshMillis;
+
+    private final Map<UUID, ElectionTally> tallies = new ConcurrentHashMap<>();
+
+    // Resultados leídos de vote_counts_by_candidate (app.votes.counts.enabled)
+    private final Map<UUID, SharedTally> sharedTallies = new ConcurrentHashMap<>();
+    private final Object sharedLock = new Object();
+
+    // Una inicialización a la vez: peticiones concurrentes no repiten los conteos
+    private final Object seedLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedDefaultElection() {
+        try {
+            getResults(UUID.fromString(defaultElectionId));
+        } catch (RuntimeException e) {
+            log.error("Error seeding vote tally for default election: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Suma un voto persistido. Si la elección se está inicializando se guarda
+     * para aplicarlo al terminar; si aún no se ha inicializado se ignora: su
+     * conteo inicial empezará después y ya incluirá el voto.
+     */
+    public void record(UUID electionId, UUID candidateId, UUID voteId) {
+        ElectionTally tally = tallies.get(electionId);
+        if (tally == null) {
+            return;
+        }
+        if (!tally.ready) {
+            synchronized (tally) {
+                if (!tally.ready) {
+                    tally.recordedWhileSeeding.add(new RecordedVote(voteId, candidateId));
+                    return;
+                }
+            }
+        }
+        tally.increment(candidateId);
+    }
+
+    /**
+     * Resultados de la elección; vacío si no tiene candidatos activos.
+     */
+    public Optional<TallySnapshot> getResults(UUID electionId) {
+        if (voteCountAggregator.isEnabled()) {
+            return sharedResults(electionId);
+        }
+
+        Optional<ElectionTally> found = tally(electionId);
+        if (!found.isPresent()) {
+            return Optional.empty();
+        }
+        ElectionTally tally = found.get();
+
+        TallySnapshot cached = tally.snapshot;
+        long version = tally.version.get();
+        if (cached != null && cached.getVersion() == version) {
+            return Optional.of(cached);
+        }
+
+        // Los contadores se leen después de la versión: incluyen al menos todos sus votos
+        List<CandidateResultResponse> results = new ArrayList<>(tally.counts.size());
+        for (Map.Entry<UUID, LongAdder> entry : tally.counts.entrySet()) {
+            UUID candidateId = entry.getKey();
+            results.add(new CandidateResultResponse(candidateId, tally.candidateName(candidateId), entry.getValue().sum()));
+        }
+        results.sort(RESULT_ORDER);
+
+        TallySnapshot snapshot = new TallySnapshot(contentTag(results), version, Collections.unmodifiableList(results));
+        tally.snapshot = snapshot;
+        return Optional.of(snapshot);
+    }
+
+    private Optional<TallySnapshot> sharedResults(UUID electionId) {
+        SharedTally cached = sharedTallies.get(electionId);
+        if (cached != null && cached.isFresh()) {
+            return Optional.of(cached.snapshot);
+        }
+
+        synchronized (sharedLock) {
+            cached = sharedTallies.get(electionId);
+            if (cached != null && cached.isFresh()) {
+                return Optional.of(cached.snapshot);
+            }
+
+            Map<UUID, String> names;
+            if (cached != null) {
+                names = cached.names;
+            } else {
+                List<Candidate> candidates = candidateRepository.findByElectionIdAndIsActiveTrue(electionId);
+                if (candidates.isEmpty()) {
+                    return Optional.empty();
+                }
+                if (sharedTallies.size() >= maxElections) {
+                    evictOne(sharedTallies, other -> true);
+                }
+                names = new ConcurrentHashMap<>();
+                for (Candidate candidate : candidates) {
+                    names.put(candidate.getId(), candidate.getName());
+                }
+            }
+
+            Map<UUID, Long> counts;
+            try {
+                counts = voteCountRepository.findCountsByElectionId(electionId);
+            } catch (RuntimeException e) {
+                if (cached == null) {
+                    throw e;
+                }
+                // Se sirven los últimos resultados leídos hasta que la lectura vuelva a funcionar
+                log.warn("Error reading vote counters for election {}, serving previous results: {}",
+                        electionId, e.getMessage());
+                return Optional.of(cached.snapshot);
+            }
+
+            List<CandidateResultResponse> results = new ArrayList<>(names.size());
+            for (UUID candidateId : names.keySet()) {
+                results.add(new CandidateResultResponse(candidateId, names.get(candidateId), counts.getOrDefault(candidateId, 0L)));
+            }
+            for (Map.Entry<UUID, Long> entry : counts.entrySet()) {
+                if (!names.containsKey(entry.getKey())) {
+                    String name = names.computeIfAbsent(entry.getKey(), this::inactiveCandidateName);
+                    results.add(new CandidateResultResponse(entry.getKey(), name, entry.getValue()));
+                }
+            }
+            results.sort(RESULT_ORDER);
+
+            String etag = contentTag(results);
+            TallySnapshot snapshot = cached != null && cached.snapshot.getEtag().equals(etag)
+                    ? cached.snapshot
+                    : new TallySnapshot(etag, cached != null ? cached.snapshot.getVersion() + 1 : 0,
+                            Collections.unmodifiableList(results));
+            sharedTallies.put(electionId, new SharedTally(names, snapshot, System.nanoTime()));
+            return Optional.of(snapshot);
+        }
+    }
+
+    /**
+     * ETag a partir de los resultados: SHA-256 de (candidato, votos) en el
+     * orden de la lista, truncado a 16 bytes.
+     */
+    static String contentTag(List<CandidateResultResponse> results) {
+        ByteBuffer entry = ByteBuffer.allocate(24);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (CandidateResultResponse result : results) {
+            entry.clear();
+            entry.putLong(result.getCandidateId().getMostSignificantBits())
+                    .putLong(result.getCandidateId().getLeastSignificantBits())
+                    .putLong(result.getVoteCount());
+            digest.update(entry.array());
+        }
+        return VoteHasher.toHex(Arrays.copyOf(digest.digest(), 16));
+    }
+
+    private String inactiveCandidateName(UUID candidateId) {
+        // Candidatos fuera del catálogo activo: se buscan una vez
+        return candidateRepository.findById(candidateId)
+                .map(Candidate::getName)
+                .orElse("Unknown candidate");
+    }
+
+    private Optional<ElectionTally> tally(UUID electionId) {
+        ElectionTally tally = tallies.get(electionId);
+        if (tally != null && tally.ready) {
+            return Optional.of(tally);
+        }
+
+        synchronized (seedLock) {
+            tally = tallies.get(electionId);
+            if (tally != null && tally.ready) {
+                return Optional.of(tally);
+            }
+            List<Candidate> candidates = candidateRepository.findByElectionIdAndIsActiveTrue(electionId);
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            if (tallies.size() >= maxElections) {
+                evictOne(tallies, other -> tallies.get(other).ready);
+            }
+            return Optional.of(seed(electionId, candidates));
+        }
+    }
+
+    /**
+     * Descarta del mapa una elección que cumpla evictable, nunca la elección por defecto.
+     */
+    private void evictOne(Map<UUID, ?> byElection, Predicate<UUID> evictable) {
+        UUID defaultElection = UUID.fromString(defaultElectionId);
+        for (UUID electionId : byElection.keySet()) {
+            if (!electionId.equals(defaultElection) && evictable.test(electionId)) {
+                byElection.remove(electionId);
+                log.info("Vote tally for election {} evicted (limit of {} elections)", electionId, maxElections);
+                return;
+            }
+        }
+    }
+
+    private ElectionTally seed(UUID electionId, List<Candidate> candidates) {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now();
+        ElectionTally tally = new ElectionTally();
+        for (Candidate candidate : candidates) {
+            tally.names.put(candidate.getId(), candidate.getName());
+            tally.counts.put(candidate.getId(), new LongAdder());
+        }
+        // Desde aquí los votos registrados se guardan en recordedWhileSeeding
+        tallies.put(electionId, tally);
+
+        Predicate<RecordedVote> counted;
+        Optional<RecoveredTally> recovered;
+        try {
+            recovered = recoverFromCheckpoint(electionId);
+            if (recovered.isPresent()) {
+                recovered.get().getCounts().forEach((candidateId, count) ->
+                        tally.counts.computeIfAbsent(candidateId, id -> new LongAdder()).add(count));
+                Set<UUID> replayed = recovered.get().getReplayedVoteIds();
+                counted = vote -> replayed.contains(vote.voteId);
+            } else {
+                StripedUuidSet countedIds = new StripedUuidSet();
+                for (Map.Entry<UUID, LongAdder> entry : tally.counts.entrySet()) {
+                    LongAdder count = entry.getValue();
+                    voteCountRepository.forEachVoteIdByCandidateBefore(electionId, entry.getKey(), cutoff, voteId -> {
+                        countedIds.add(voteId);
+                        count.increment();
+                    });
+                }
+                counted = vote -> countedIds.contains(vote.voteId);
+            }
+        } catch (RuntimeException e) {
+            tallies.remove(electionId);
+            throw e;
+        }
+
+        int applied = 0;
+        synchronized (tally) {
+            for (RecordedVote vote : tally.recordedWhileSeeding) {
+                if (!counted.test(vote)) {
+                    tally.increment(vote.candidateId);
+                    applied++;
+                }
+            }
+            tally.recordedWhileSeeding.clear();
+            tally.ready = true;
+        }
+
+        String source = recovered.isPresent() ? "checkpoint" : "full-scan";
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("votes.tally.recovery")
+                .description("Time to rebuild an election's in-memory vote tally")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Vote tally for election {} seeded with {} candidates from {} plus {} votes recorded meanwhile in {} ms",
+                electionId, tally.counts.size(), source, applied, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return tally;
+    }
+
+    private Optional<RecoveredTally> recoverFromCheckpoint(UUID electionId) {
+        if (!tallyCheckpointService.isEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            return tallyCheckpointService.recover(electionId);
+        } catch (RuntimeException e) {
+            log.error("Error recovering vote tally for election {} from checkpoint, recounting: {}",
+                    electionId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Resultados de una elección en una versión concreta.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class TallySnapshot {
+        private final String etag;
+        private final long version;
+        private final List<CandidateResultResponse> results;
+    }
+
+    @RequiredArgsConstructor
+    private final class SharedTally {
+        private final Map<UUID, String> names;
+        private final TallySnapshot snapshot;
+        private final long loadedAt;
+
+        boolean isFresh() {
+            return System.nanoTime() - loadedAt < TimeUnit.MILLISECONDS.toNanos(sharedRefreshMillis);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class RecordedVote {
+        private final UUID voteId;
+        private final UUID candidateId;
+    }
+
+    private final class ElectionTally {
+
+        private final Map<UUID, LongAdder> counts = new ConcurrentHashMap<>();
+        private final Map<UUID, String> names = new ConcurrentHashMap<>();
+        private final AtomicLong version = new AtomicLong();
+        private volatile TallySnapshot snapshot;
+
+        // Falso mientras se inicializa; entonces los votos van a recordedWhileSeeding (protegido por el propio objeto)
+        private volatile boolean ready;
+        private final List<RecordedVote> recordedWhileSeeding = new ArrayList<>();
+
+        void increment(UUID candidateId) {
+            counts.computeIfAbsent(candidateId, id -> new LongAdder()).increment();
+            version.incrementAndGet();
+        }
+
+        String candidateName(UUID candidateId) {
+            return names.computeIfAbsent(candidateId, VoteTallyService.this::inactiveCandidateName);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.votes.service;
+
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.util.StripedUuidSet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Usuarios que ya votaron, por elección, en memoria.
+ *
+ * Solo sirve para respuestas positivas: si el usuario está en el índice ya
+ * votó; si no está, la decisión sigue en PostgreSQL/Cassandra. Por eso puede
+ * cargarse desde user_votes_log en segundo plano mientras el servicio atiende.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VotedUserIndex {
+
+    private final VoteCqlRepository voteCqlRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.voted-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.voted-index.stripes:64}")
+    private int stripes;
+
+    @Value("${app.votes.voted-index.expected-voters:100000}")
+    private int expectedVoters;
+
+    private final Map<UUID, StripedUuidSet> votersByElection = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        Gauge.builder("votes.voted-index.size", this, VotedUserIndex::size)
+                .description("Users held in the in-memory voted-user index")
+                .register(meterRegistry);
+
+        Thread loader = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                voteCqlRepository.forEachUserVote(userVote -> add(userVote.getElectionId(), userVote.getUserId()));
+                log.info("Voted-user index loaded: {} users in {} ms", size(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("Error loading voted-user index from user_votes_log: {}", e.getMessage(), e);
+            }
+        }, "voted-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true solo si se sabe que el usuario ya votó en la elección
+     */
+    public boolean hasVoted(UUID electionId, UUID userId) {
+        if (!enabled) {
+            return false;
+        }
+        StripedUuidSet voters = votersByElection.get(electionId);
+        return voters != null && voters.contains(userId);
+    }
+
+    public void add(UUID electionId, UUID userId) {
+        if (enabled) {
+            votersByElection.computeIfAbsent(electionId, id -> new StripedUuidSet(stripes, expectedVoters)).add(userId);
+        }
+    }
+
+    private double size() {
+        long size = 0;
+        for (StripedUuidSet voters : votersByElection.values()) {
+            size += voters.size();
+        }
+        return size;
+    }
+}
@@ -1,26 +1,27 @@
 package com.votes.service;
 
+import com.votes.audit.AuditEventStream;
 import com.votes.dto.VoteRequest;
 import com.votes.dto.VoteResponse;
 import com.votes.dto.VotingStatusResponse;
-import com.votes.entity.cassandra.UserVoteLog;
-import com.votes.entity.cassandra.Vote;
-import com.votes.entity.cassandra.VoteByCandidate;
-import com.votes.entity.postgres.UserVotingStatus;
+import com.votes.exception.InvalidCandidateException;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
 import com.votes.repository.cassandra.UserVoteLogRepository;
 import com.votes.repository.cassandra.VoteByCandidateRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
 import com.votes.repository.cassandra.VoteRepository;
 import com.votes.repository.postgres.UserVotingStatusRepository;
-import jakarta.transaction.Transactional;
+import com.votes.util.CassandraWriteErrors;
+import com.votes.util.LogSampler;
+import com.votes.util.VoteHasher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Service
@@ -30,88 +31,148 @@ public class VotingService {
 
     private final VoteRepository voteRepository;
     private final VoteByCandidateRepository voteByCandidateRepository;
+    private final BucketedVoteByCandidateRepository bucketedVoteByCandidateRepository;
+    private final VoteMinuteRepository voteMinuteRepository;
     private final UserVoteLogRepository userVoteLogRepository;
     private final UserVotingStatusRepository userVotingStatusRepository;
+    private final VoteCqlRepository voteCqlRepository;
+    private final VoteCountAggregator voteCountAggregator;
+    private final VoteTallyService voteTallyService;
+    private final VotedUserIndex votedUserIndex;
+    private final VotingStatusProjector votingStatusProjector;
+    private final VoteAuditLog voteAuditLog;
+    private final CandidateCatalog candidateCatalog;
+    private final AuditEventStream auditEventStream;
+    private final VoteRateSeries voteRateSeries;
+    private final VoteStageTimers voteStageTimers;
 
     @Value("${app.default-election-id}")
     private String defaultElectionId;
 
-    @Transactional
+    @Value("${app.votes.batch-write.enabled:false}")
+    private boolean batchWriteEnabled;
+
+    @Value("${app.votes.claim-mode.enabled:false}")
+    private boolean claimModeEnabled;
+
+    // Reintentos de las filas de un voto reclamado cuando la escritura agota el tiempo
+    @Value("${app.votes.claim-mode.write-retries:2}")
+    private int claimWriteRetries;
+
+    // Logs del camino del voto: uno de cada N en DEBUG
+    @Value("${app.votes.logging.debug-sample-rate:100}")
+    private int debugSampleRate;
+
     public VoteResponse castVote(UUID userId, VoteRequest voteRequest) {
         try {
-            UUID electionId = voteRequest.getElectionId() != null ? 
-                voteRequest.getElectionId() : UUID.fromString(defaultElectionId);
+            UUID electionId = resolveElectionId(voteRequest.getElectionId());
+
+            auditEventStream.voteReceived(electionId);
+            if (log.isDebugEnabled() && LogSampler.sample(debugSampleRate)) {
+                log.debug("Processing vote for user {} in election {} for candidate {}",
+                        userId, electionId, voteRequest.getCandidateId());
+            }
 
-            log.info("Processing vote for user {} in election {} for candidate {}", 
-                userId, electionId, voteRequest.getCandidateId());
+            // 1. Validar el candidato contra el catálogo en memoria
+            candidateCatalog.validate(electionId, voteRequest.getCandidateId());
 
-            // 1. Verificar si el usuario ya votó
-            if (hasUserVoted(userId, electionId)) {
-                log.warn("User {} already voted in election {}", userId, electionId);
-                return VoteResponse.error("User has already voted in this election");
+            // 2. Verificar si el usuario ya votó (en modo reclamo lo decide el INSERT ... IF NOT EXISTS)
+            if (voteStageTimers.record(VoteStage.DEDUP_CHECK, () -> claimModeEnabled
+                    ? votedUserIndex.hasVoted(electionId, userId)
+                    : hasUserVoted(userId, electionId))) {
+                return alreadyVoted(userId, electionId);
             }
 
-            // 2. Registrar voto anónimo en Cassandra
-            UUID voteId = UUID.randomUUID();
-            Instant votedAt = Instant.now();
-            
-            String voteHash = generateVoteHash(voteId, voteRequest.getCandidateId(), electionId, votedAt);
-
-            // Guardar voto principal
-            Vote vote = new Vote();
-            vote.setVoteId(voteId);
-            vote.setCandidateId(voteRequest.getCandidateId());
-            vote.setElectionId(electionId);
-            vote.setVotedAt(votedAt);
-            vote.setVoteHash(voteHash);
-            vote.setMetadata("{}"); // JSON metadata vacío por ahora
-            
-            voteRepository.save(vote);
-            log.info("Vote saved in main table: {}", voteId);
-
-            // Guardar para conteo por candidato
-            VoteByCandidate voteByCandidate = new VoteByCandidate();
-            voteByCandidate.setCandidateId(voteRequest.getCandidateId());
-            voteByCandidate.setElectionId(electionId);
-            voteByCandidate.setVoteId(voteId);
-            voteByCandidate.setVotedAt(votedAt);
-            
-            voteByCandidateRepository.save(voteByCandidate);
-            log.info("Vote saved in candidate table for candidate: {}", voteRequest.getCandidateId());
-
-            // Guardar log de usuario (para verificar duplicados)
-            UserVoteLog userVoteLog = new UserVoteLog();
-            userVoteLog.setUserId(userId);
-            userVoteLog.setElectionId(electionId);
-            userVoteLog.setVoteId(voteId);
-            userVoteLog.setCandidateId(voteRequest.getCandidateId());
-            userVoteLog.setVotedAt(votedAt);
-            
-            userVoteLogRepository.save(userVoteLog);
-            log.info("User vote log saved for user: {}", userId);
-
-            // 3. Marcar usuario como votado en PostgreSQL
-            markUserAsVoted(userId, electionId, votedAt);
-            log.info("User {} marked as voted in PostgreSQL", userId);
-
-            return VoteResponse.success(voteId, voteRequest.getCandidateId(), electionId, votedAt);
+            // 3. Registrar voto anónimo en Cassandra
+            PendingVote pendingVote = voteStageTimers.record(VoteStage.HASH,
+                    () -> prepareVote(userId, electionId, voteRequest.getCandidateId()));
+
+            if (claimModeEnabled) {
+                if (!voteStageTimers.record(VoteStage.CASSANDRA_CLAIM,
+                        () -> voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog()))) {
+                    return alreadyVoted(userId, electionId);
+                }
+                if (!saveClaimedVoteRows(pendingVote)) {
+                    auditEventStream.voteFailed(pendingVote.getVoteId(), electionId, AuditEventStream.REASON_OUTCOME_UNKNOWN);
+                    return VoteResponse.outcomeUnknown(pendingVote.getVoteId(), voteRequest.getCandidateId(), electionId,
+                            pendingVote.getVotedAt());
+                }
+            } else {
+                saveVoteRows(pendingVote);
+            }
+            auditEventStream.votePersisted(pendingVote.getVoteId(), electionId, voteRequest.getCandidateId());
+            voteCountAggregator.record(electionId, voteRequest.getCandidateId());
+            voteRateSeries.record(electionId, pendingVote.getVotedAt());
+            voteTallyService.record(electionId, voteRequest.getCandidateId(), pendingVote.getVoteId());
+            votedUserIndex.add(electionId, userId);
+            voteAuditLog.track(electionId);
 
+            // 4. Marcar usuario como votado en PostgreSQL (transacción corta, después de Cassandra);
+            //    con el proyector lleno se escribe aquí mismo
+            boolean projected = votingStatusProjector.isEnabled() && voteStageTimers.record(VoteStage.POSTGRES_STATUS_ENQUEUE,
+                    () -> votingStatusProjector.project(pendingVote.getUserVoteLog()));
+            if (!projected) {
+                voteStageTimers.record(VoteStage.POSTGRES_STATUS,
+                        () -> userVotingStatusRepository.upsertVoted(userId, electionId, pendingVote.getVotedAt()));
+            }
+
+            return VoteResponse.success(pendingVote.getVoteId(), voteRequest.getCandidateId(), electionId, pendingVote.getVotedAt());
+
+        } catch (InvalidCandidateException e) {
+            auditEventStream.voteRejected(userId, resolveElectionId(voteRequest.getElectionId()), AuditEventStream.REASON_INVALID_CANDIDATE);
+            if (log.isDebugEnabled() && LogSampler.sample(debugSampleRate)) {
+                log.debug("Rejected vote from user {} for candidate {}: {}", userId, voteRequest.getCandidateId(), e.getMessage());
+            }
+            return VoteResponse.error(e.getMessage());
         } catch (Exception e) {
             log.error("Error casting vote for user {}: {}", userId, e.getMessage(), e);
             return VoteResponse.error("Error processing vote: " + e.getMessage());
         }
     }
 
-    public VotingStatusResponse checkVotingStatus(UUID userId, UUID electionId) {
-        if (electionId == null) {
-            electionId = UUID.fromString(defaultElectionId);
+    private VoteResponse alreadyVoted(UUID userId, UUID electionId) {
+        auditEventStream.voteRejected(userId, electionId, AuditEventStream.REASON_ALREADY_VOTED);
+        if (log.isDebugEnabled() && LogSampler.sample(debugSampleRate)) {
+            log.debug("User {} already voted in election {}", userId, electionId);
         }
+        return VoteResponse.error("User has already voted in this election");
+    }
+
+    public VotingStatusResponse checkVotingStatus(UUID userId, UUID electionId) {
+        electionId = resolveElectionId(electionId);
 
         boolean hasVoted = hasUserVoted(userId, electionId);
         return hasVoted ? VotingStatusResponse.hasVoted() : VotingStatusResponse.hasNotVoted();
     }
 
+    UUID resolveElectionId(UUID electionId) {
+        return electionId != null ? electionId : UUID.fromString(defaultElectionId);
+    }
+
+    /**
+     * Genera id, fecha y hash de un voto nuevo junto con sus filas de Cassandra.
+     */
+    PendingVote prepareVote(UUID userId, UUID electionId, UUID candidateId) {
+        return prepareVote(userId, electionId, candidateId, Instant.now());
+    }
+
+    /**
+     * Igual que prepareVote, con la fecha de emisión dada (votos importados).
+     */
+    PendingVote prepareVote(UUID userId, UUID electionId, UUID candidateId, Instant votedAt) {
+        UUID voteId = UUID.randomUUID();
+        // Cassandra guarda voted_at en milisegundos: el hash se calcula sobre ese mismo valor para poder verificarlo
+        votedAt = votedAt.truncatedTo(ChronoUnit.MILLIS);
+        String voteHash = VoteHasher.voteHash(voteId, candidateId, electionId, votedAt);
+        return new PendingVote(userId, electionId, candidateId, voteId, votedAt, voteHash);
+    }
+
     private boolean hasUserVoted(UUID userId, UUID electionId) {
+        // Índice en memoria: solo responde afirmativamente
+        if (votedUserIndex.hasVoted(electionId, userId)) {
+            return true;
+        }
+
         // Verificar primero en PostgreSQL (más rápido)
         boolean votedInPostgres = userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId);
         
@@ -119,48 +180,79 @@ public class VotingService {
             return true;
         }
 
-        // Verificar en Cassandra como backup
-        return userVoteLogRepository.findByUserIdAndElectionId(userId, electionId).isPresent();
+        // Verificar en Cassandra como backup (también cubre filas aún sin proyectar en PostgreSQL)
+        return voteCqlRepository.hasUserVote(userId, electionId);
     }
 
-    private void markUserAsVoted(UUID userId, UUID electionId, Instant votedAt) {
-        UserVotingStatus userStatus = userVotingStatusRepository
-                .findByUserIdAndElectionId(userId, electionId)
-                .orElse(new UserVotingStatus());
-
-        userStatus.setUserId(userId);
-        userStatus.setElectionId(electionId);
-        userStatus.setHasVoted(true);
-        userStatus.setVotedAt(votedAt);
-
-        if (userStatus.getCreatedAt() == null) {
-            userStatus.setCreatedAt(Instant.now());
+    private void saveVoteRows(PendingVote pendingVote) {
+        if (batchWriteEnabled) {
+            // Una sola ida y vuelta: batch LOGGED con sentencias preparadas
+            voteStageTimers.record(VoteStage.CASSANDRA_BATCH, () -> voteCqlRepository.saveAll(
+                    pendingVote.getVote(), pendingVote.getVoteByCandidate(), pendingVote.getUserVoteLog()));
+            return;
         }
-        userStatus.setUpdatedAt(Instant.now());
 
-        userVotingStatusRepository.save(userStatus);
+        voteStageTimers.record(VoteStage.CASSANDRA_VOTES, () -> voteRepository.save(pendingVote.getVote()));
+        saveVoteByCandidate(pendingVote);
+        voteStageTimers.record(VoteStage.CASSANDRA_USER_VOTES_LOG,
+                () -> userVoteLogRepository.save(pendingVote.getUserVoteLog()));
     }
 
-    private String generateVoteHash(UUID voteId, UUID candidateId, UUID electionId, Instant votedAt) {
-        try {
-            String input = voteId.toString() + candidateId.toString() + 
-                          electionId.toString() + votedAt.toString();
-            
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
+    /**
+     * Escribe las filas de un voto ya reclamado en user_votes_log.
+     *
+     * El reclamo solo se libera si Cassandra rechazó la escritura antes de
+     * aplicarse la fila de votes; liberarlo tras un timeout permitiría votar
+     * dos veces si la escritura llegó a aplicarse. Los timeouts se reintentan
+     * (los ids son fijos, así que repetir la escritura es idempotente).
+     *
+     * @return false si el resultado sigue siendo desconocido: el reclamo se
+     *         conserva y el estado de votación lo reflejará
+     */
+    private boolean saveClaimedVoteRows(PendingVote pendingVote) {
+        boolean voteRowWritten = false;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (batchWriteEnabled) {
+                    voteStageTimers.record(VoteStage.CASSANDRA_BATCH,
+                            () -> voteCqlRepository.saveClaimedVote(pendingVote.getVote(), pendingVote.getVoteByCandidate()));
+                } else {
+                    if (!voteRowWritten) {
+                        voteStageTimers.record(VoteStage.CASSANDRA_VOTES, () -> voteRepository.save(pendingVote.getVote()));
+                        voteRowWritten = true;
+                    }
+                    saveVoteByCandidate(pendingVote);
+                }
+                return true;
+            } catch (RuntimeException e) {
+                if (!voteRowWritten && CassandraWriteErrors.isRejected(e)) {
+                    // No se aplicó nada: sin liberar el reclamo el usuario quedaría bloqueado sin voto
+                    voteCqlRepository.releaseClaim(pendingVote.getUserVoteLog());
+                    throw e;
                 }
-                hexString.append(hex);
+                if (!CassandraWriteErrors.isTimeout(e) || attempt > claimWriteRetries) {
+                    log.error("Outcome of vote {} unknown after {} attempts, keeping its claim: {}",
+                            pendingVote.getVoteId(), attempt, e.getMessage());
+                    return false;
+                }
+                log.warn("Timeout writing vote {} (attempt {}), retrying: {}",
+                        pendingVote.getVoteId(), attempt, e.getMessage());
             }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("Error generating vote hash", e);
-            return UUID.randomUUID().toString();
+        }
+    }
+
+    private void saveVoteByCandidate(PendingVote pendingVote) {
+        if (bucketedVoteByCandidateRepository.writesLegacy()) {
+            voteStageTimers.record(VoteStage.CASSANDRA_VOTES_BY_CANDIDATE,
+                    () -> voteByCandidateRepository.save(pendingVote.getVoteByCandidate()));
+        }
+        if (bucketedVoteByCandidateRepository.isEnabled()) {
+            voteStageTimers.record(VoteStage.CASSANDRA_VOTES_BY_CANDIDATE_BUCKETED,
+                    () -> bucketedVoteByCandidateRepository.save(pendingVote.getVoteByCandidate()));
+        }
+        if (voteMinuteRepository.isEnabled()) {
+            voteStageTimers.record(VoteStage.CASSANDRA_VOTES_BY_MINUTE,
+                    () -> voteMinuteRepository.save(pendingVote.getVote()));
         }
     }
 }
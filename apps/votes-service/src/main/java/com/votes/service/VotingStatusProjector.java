@@ -0,0 +1,301 @@
+package com.votes.service;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.repository.postgres.ProjectionDeadLetterRepository;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import com.votes.wal.SegmentedWriteAheadLog;
+import com.votes.wal.StatusProjectionJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Proyecta user_votes_log (Cassandra) sobre user_voting_status (PostgreSQL)
+ * fuera del camino del voto.
+ *
+ * castVote anexa la fila ya confirmada en Cassandra a StatusProjectionJournal
+ * y la encola; cada app.votes.status-projector.flush-interval-ms se escriben
+ * los pendientes con upserts JDBC en batch y se confirman en el journal. Al
+ * arrancar solo se vuelven a encolar las filas sin confirmar del journal, sin
+ * recorrer user_votes_log. El upsert es idempotente, así que repetir filas no
+ * cambia el resultado.
+ *
+ * La cola admite como mucho app.votes.status-projector.queue-capacity filas:
+ * llena (por ejemplo con PostgreSQL caído), project devuelve false y el
+ * llamador escribe el estado de forma síncrona, como sin proyector.
+ *
+ * Si un batch falla se reintenta fila a fila: las filas que violan una
+ * restricción (por ejemplo la FK de users) van a projection_dead_letters y se
+ * confirman; ante cualquier otro error la fila y las siguientes quedan para
+ * el próximo volcado.
+ *
+ * Mientras una fila está pendiente, hasUserVoted la encuentra en user_votes_log.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VotingStatusProjector {
+
+    static final String PROJECTION_NAME = "user_voting_status";
+
+    private final UserVotingStatusBatchRepository userVotingStatusBatchRepository;
+    private final ProjectionDeadLetterRepository projectionDeadLetterRepository;
+    private final StatusProjectionJournal statusProjectionJournal;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.votes.status-projector.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.status-projector.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.votes.status-projector.queue-capacity:100000}")
+    private int queueCapacity;
+
+    private BlockingQueue<ProjectedVote> pending;
+
+    // Filas de un volcado fallido por un error transitorio, las primeras del siguiente (solo las toca flush)
+    private volatile List<ProjectedVote> retrying = Collections.emptyList();
+
+    private Timer flushTimer;
+    private Counter failedCounter;
+    private Counter overflowCounter;
+    private Counter deadLetterCounter;
+
+    @PostConstruct
+    void init() {
+        pending = new LinkedBlockingQueue<>(queueCapacity);
+        if (!enabled) {
+            return;
+        }
+
+        Gauge.builder("votes.status-projector.pending", this, VotingStatusProjector::pendingCount)
+                .description("Confirmed votes not yet projected onto user_voting_status")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("votes.status-projector.flush")
+                .description("Time to write pending user_voting_status rows")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("votes.status-projector.flush.failed")
+                .description("user_voting_status batches that failed and were retried row by row")
+                .register(meterRegistry);
+        overflowCounter = Counter.builder("votes.status-projector.overflow")
+                .description("Votes written synchronously because the projector queue was full")
+                .register(meterRegistry);
+        deadLetterCounter = Counter.builder("votes.status-projector.dead-letters")
+                .description("user_voting_status rows that failed permanently and were dead-lettered")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        List<SegmentedWriteAheadLog.Entry> unflushed = statusProjectionJournal.recover();
+        if (unflushed.isEmpty()) {
+            return;
+        }
+        // put() espera a que los volcados hagan sitio si hay más filas que capacidad
+        Thread replayer = new Thread(() -> replay(unflushed), "status-projector-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Anexa al journal y encola un voto ya confirmado en user_votes_log.
+     *
+     * @return false si la cola está llena o el journal falla: el llamador
+     *         debe escribir user_voting_status por su cuenta
+     */
+    public boolean project(UserVoteLog userVoteLog) {
+        if (pending.remainingCapacity() == 0) {
+            overflowCounter.increment();
+            return false;
+        }
+
+        long sequence;
+        try {
+            sequence = statusProjectionJournal.append(userVoteLog);
+        } catch (RuntimeException e) {
+            log.error("Error appending vote to status projection journal: {}", e.getMessage());
+            return false;
+        }
+        if (!pending.offer(new ProjectedVote(userVoteLog, sequence))) {
+            statusProjectionJournal.acknowledge(sequence);
+            overflowCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Como project, para varias filas con una sola espera del journal.
+     *
+     * @return filas que no se encolaron y el llamador debe escribir por su cuenta
+     */
+    public List<UserVoteLog> projectAll(List<UserVoteLog> userVotes) {
+        if (pending.remainingCapacity() < userVotes.size()) {
+            overflowCounter.increment(userVotes.size());
+            return userVotes;
+        }
+
+        long[] sequences;
+        try {
+            sequences = statusProjectionJournal.appendAll(userVotes);
+        } catch (RuntimeException e) {
+            log.error("Error appending {} votes to status projection journal: {}", userVotes.size(), e.getMessage());
+            return userVotes;
+        }
+        List<UserVoteLog> rejected = new ArrayList<>();
+        for (int i = 0; i < userVotes.size(); i++) {
+            if (!pending.offer(new ProjectedVote(userVotes.get(i), sequences[i]))) {
+                statusProjectionJournal.acknowledge(sequences[i]);
+                rejected.add(userVotes.get(i));
+            }
+        }
+        if (!rejected.isEmpty()) {
+            overflowCounter.increment(rejected.size());
+        }
+        return rejected;
+    }
+
+    void replay(List<SegmentedWriteAheadLog.Entry> entries) {
+        long start = System.currentTimeMillis();
+        try {
+            for (SegmentedWriteAheadLog.Entry entry : entries) {
+                pending.put(new ProjectedVote(StatusProjectionJournal.decode(entry.payload()), entry.sequence()));
+            }
+            log.info("Status projector re-enqueued {} unflushed votes from the journal in {} ms",
+                    entries.size(), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            // Las filas que faltan siguen sin confirmar en el journal para el próximo arranque
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.status-projector.flush-interval-ms:250}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flushTimer.record(this::flush);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    synchronized void flush() {
+        List<ProjectedVote> batch = new ArrayList<>(retrying);
+        retrying = Collections.emptyList();
+
+        // Solo lo encolado antes de empezar: con carga sostenida el volcado no se alarga indefinidamente
+        int remaining = pending.size();
+        while (true) {
+            if (batch.size() < batchSize && remaining > 0) {
+                int drained = pending.drainTo(batch, Math.min(batchSize - batch.size(), remaining));
+                remaining = drained > 0 ? remaining - drained : 0;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!write(batch)) {
+                return;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private boolean write(List<ProjectedVote> batch) {
+        try {
+            userVotingStatusBatchRepository.markAllAsVoted(rows(batch));
+            acknowledge(batch);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Error projecting {} votes onto user_voting_status, retrying row by row: {}",
+                    batch.size(), e.getMessage());
+            failedCounter.increment();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            ProjectedVote vote = batch.get(i);
+            try {
+                userVotingStatusBatchRepository.markAllAsVoted(Collections.singletonList(vote.userVote));
+                statusProjectionJournal.acknowledge(vote.sequence);
+            } catch (DataIntegrityViolationException e) {
+                if (!deadLetter(vote, e)) {
+                    retrying = new ArrayList<>(batch.subList(i, batch.size()));
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                // Error transitorio (p. ej. PostgreSQL caído): esta fila y las siguientes, en el próximo volcado
+                retrying = new ArrayList<>(batch.subList(i, batch.size()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean deadLetter(ProjectedVote vote, DataIntegrityViolationException e) {
+        String error = e.getMostSpecificCause().getMessage();
+        try {
+            projectionDeadLetterRepository.save(PROJECTION_NAME, vote.userVote, error);
+        } catch (RuntimeException saveError) {
+            log.error("Error dead-lettering user_voting_status row: {}", saveError.getMessage());
+            return false;
+        }
+        statusProjectionJournal.acknowledge(vote.sequence);
+        deadLetterCounter.increment();
+        log.error("user_voting_status row for user {} in election {} dead-lettered: {}",
+                vote.userVote.getUserId(), vote.userVote.getElectionId(), error);
+        return true;
+    }
+
+    private void acknowledge(List<ProjectedVote> batch) {
+        for (ProjectedVote vote : batch) {
+            statusProjectionJournal.acknowledge(vote.sequence);
+        }
+    }
+
+    private static List<UserVoteLog> rows(List<ProjectedVote> batch) {
+        List<UserVoteLog> rows = new ArrayList<>(batch.size());
+        for (ProjectedVote vote : batch) {
+            rows.add(vote.userVote);
+        }
+        return rows;
+    }
+
+    int pendingCount() {
+        return pending.size() + retrying.size();
+    }
+
+    @RequiredArgsConstructor
+    private static final class ProjectedVote {
+        private final UserVoteLog userVote;
+        private final long sequence;
+    }
+}
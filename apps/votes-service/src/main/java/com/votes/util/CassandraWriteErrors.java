@@ -0,0 +1,43 @@
+package com.votes.util;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+
+/**
+ * Clasificación de los errores de escritura en Cassandra según si la
+ * escritura pudo aplicarse.
+ *
+ * Solo un rechazo de validación (QueryValidationException) garantiza que no
+ * se aplicó; tras un timeout la escritura puede haberse aplicado o aplicarse
+ * más tarde. Se recorre la cadena de causas porque Spring Data y los futuros
+ * envuelven la excepción del driver.
+ */
+public final class CassandraWriteErrors {
+
+    private CassandraWriteErrors() {
+    }
+
+    /**
+     * @return true si Cassandra rechazó la escritura de forma definitiva (no se aplicó)
+     */
+    public static boolean isRejected(Throwable error) {
+        return find(error, QueryValidationException.class);
+    }
+
+    /**
+     * @return true si la escritura agotó el tiempo y su resultado es desconocido
+     */
+    public static boolean isTimeout(Throwable error) {
+        return find(error, WriteTimeoutException.class) || find(error, DriverTimeoutException.class);
+    }
+
+    private static boolean find(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,12 +1,15 @@
 package com.votes.util;
 
+import com.votes.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Date;
 import java.util.UUID;
 
 @Component
@@ -15,10 +18,26 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
+    // El parser es inmutable y seguro entre hilos: se construye una vez
+    private volatile JwtParser parser;
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
 
+    /**
+     * Verifica firma y expiración con un único parseo del token.
+     *
+     * @throws io.jsonwebtoken.JwtException si el token no es válido o expiró
+     * @throws IllegalArgumentException si el token está vacío o su subject no es un UUID
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(UUID.fromString(claims.getSubject()),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
     public UUID extractUserId(String token) {
         Claims claims = extractAllClaims(token);
         String userIdStr = claims.getSubject();
@@ -31,11 +50,18 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser().parseClaimsJws(token).getBody();
+    }
+
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = current;
+        }
+        return current;
     }
 
     public boolean isTokenExpired(String token) {
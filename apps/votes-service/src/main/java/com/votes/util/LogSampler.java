@@ -0,0 +1,20 @@
+package com.votes.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Muestreo de logs del camino de la petición: a miles de votos por segundo
+ * registrar cada uno cuesta CPU y contención en el appender.
+ */
+public final class LogSampler {
+
+    private LogSampler() {
+    }
+
+    /**
+     * @return true aproximadamente una de cada oneIn llamadas (siempre si oneIn <= 1)
+     */
+    public static boolean sample(int oneIn) {
+        return oneIn <= 1 || ThreadLocalRandom.current().nextInt(oneIn) == 0;
+    }
+}
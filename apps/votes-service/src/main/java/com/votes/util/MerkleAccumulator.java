@@ -0,0 +1,176 @@
+package com.votes.util;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Árbol de Merkle de solo anexado con la forma de RFC 6962 (Certificate Transparency).
+ *
+ * Se guardan todos los subárboles completos por nivel en arreglos planos de
+ * 32 bytes por nodo. Anexar una hoja completa como mucho log2(n) padres y
+ * recalcula la raíz plegando los subárboles de la frontera derecha, también
+ * O(log n). Las pruebas de inclusión se arman con los nodos ya guardados.
+ *
+ * No es seguro para uso concurrente; quien lo use debe sincronizar.
+ */
+public final class MerkleAccumulator {
+
+    private static final byte[] EMPTY_ROOT = VoteHasher.emptyHash();
+
+    private final List<HashLevel> levels = new ArrayList<>();
+
+    private int size;
+    private byte[] root = EMPTY_ROOT;
+
+    /**
+     * @param leafHash hash de hoja (ver {@link VoteHasher#leafHash(byte[])})
+     * @return índice de la hoja anexada
+     */
+    public int append(byte[] leafHash) {
+        int index = size;
+        level(0).add(leafHash);
+
+        // Cada hoja en posición impar cierra un subárbol: se sube mientras siga siendo hijo derecho
+        byte[] node = leafHash;
+        int position = index;
+        int height = 0;
+        while ((position & 1) == 1) {
+            node = VoteHasher.nodeHash(level(height).get(position - 1), node);
+            position >>= 1;
+            height++;
+            level(height).add(node);
+        }
+
+        size++;
+        root = frontierRoot();
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] root() {
+        return root.clone();
+    }
+
+    public byte[] leaf(int index) {
+        checkIndex(index);
+        return level(0).get(index);
+    }
+
+    /**
+     * Camino de auditoría de la hoja en el árbol actual (PATH(m, D[n]) de RFC 6962),
+     * desde el hermano más profundo hasta el más cercano a la raíz.
+     */
+    public List<byte[]> auditPath(int index) {
+        checkIndex(index);
+        List<byte[]> path = new ArrayList<>();
+        path(index, 0, size, path);
+        return path;
+    }
+
+    /**
+     * Verifica una prueba de inclusión (algoritmo de RFC 9162, sección 2.1.3.2).
+     */
+    public static boolean verify(byte[] leafHash, int index, int treeSize, List<byte[]> auditPath, byte[] expectedRoot) {
+        if (index < 0 || index >= treeSize) {
+            return false;
+        }
+
+        long fn = index;
+        long sn = treeSize - 1L;
+        byte[] hash = leafHash;
+        for (byte[] sibling : auditPath) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                hash = VoteHasher.nodeHash(sibling, hash);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                hash = VoteHasher.nodeHash(hash, sibling);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && MessageDigest.isEqual(hash, expectedRoot);
+    }
+
+    private void path(int index, int start, int count, List<byte[]> path) {
+        if (count == 1) {
+            return;
+        }
+        int split = Integer.highestOneBit(count - 1);
+        if (index < split) {
+            path(index, start, split, path);
+            path.add(subtreeHash(start + split, count - split));
+        } else {
+            path(index - split, start + split, count - split, path);
+            path.add(subtreeHash(start, split));
+        }
+    }
+
+    /**
+     * MTH(D[start:start+count]). Los tramos de tamaño potencia de dos que
+     * aparecen en la recursión están alineados y ya guardados en su nivel.
+     */
+    private byte[] subtreeHash(int start, int count) {
+        if (Integer.bitCount(count) == 1) {
+            int height = Integer.numberOfTrailingZeros(count);
+            return level(height).get(start >> height);
+        }
+        int split = Integer.highestOneBit(count - 1);
+        return VoteHasher.nodeHash(subtreeHash(start, split), subtreeHash(start + split, count - split));
+    }
+
+    private byte[] frontierRoot() {
+        // Cada bit activo de size es un subárbol completo; se pliegan de menor a mayor
+        byte[] hash = null;
+        for (int height = 0; height < levels.size(); height++) {
+            if ((size >>> height & 1) == 1) {
+                byte[] subtree = level(height).get((size >>> height) - 1);
+                hash = hash == null ? subtree : VoteHasher.nodeHash(subtree, hash);
+            }
+        }
+        return hash == null ? EMPTY_ROOT : hash;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Leaf " + index + " outside tree of size " + size);
+        }
+    }
+
+    private HashLevel level(int height) {
+        while (levels.size() <= height) {
+            levels.add(new HashLevel());
+        }
+        return levels.get(height);
+    }
+
+    private static final class HashLevel {
+
+        private byte[] hashes = new byte[16 * VoteHasher.HASH_LENGTH];
+        private int count;
+
+        void add(byte[] hash) {
+            int offset = count * VoteHasher.HASH_LENGTH;
+            if (offset == hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            }
+            System.arraycopy(hash, 0, hashes, offset, VoteHasher.HASH_LENGTH);
+            count++;
+        }
+
+        byte[] get(int index) {
+            int offset = index * VoteHasher.HASH_LENGTH;
+            return Arrays.copyOfRange(hashes, offset, offset + VoteHasher.HASH_LENGTH);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.votes.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores por segundo de los últimos N segundos, sin bloqueos.
+ *
+ * Cada casilla es un único long con el segundo epoch en los 34 bits altos y
+ * la cuenta en los 30 bajos, así el cambio de segundo y el incremento son un
+ * solo compareAndSet: una casilla que aún guarda un segundo antiguo se
+ * reinicia al primer incremento del segundo nuevo sin perder cuentas.
+ */
+public class SecondCounterRing {
+
+    private static final int COUNT_BITS = 30;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+
+    /**
+     * @param seconds segundos que conserva el anillo
+     */
+    public SecondCounterRing(int seconds) {
+        this.slots = new AtomicLongArray(seconds);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Suma uno al segundo indicado. Los segundos ya fuera del anillo se ignoran.
+     */
+    public void increment(long epochSecond) {
+        int index = index(epochSecond);
+        while (true) {
+            long current = slots.get(index);
+            long slotSecond = current >>> COUNT_BITS;
+            long next;
+            if (slotSecond == epochSecond) {
+                if ((current & COUNT_MASK) == COUNT_MASK) {
+                    return;
+                }
+                next = current + 1;
+            } else if (slotSecond < epochSecond) {
+                next = (epochSecond << COUNT_BITS) | 1;
+            } else {
+                // La casilla ya pertenece a un segundo posterior
+                return;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cuenta del segundo indicado, 0 si la casilla ya se reutilizó o no tuvo votos.
+     */
+    public long count(long epochSecond) {
+        long current = slots.get(index(epochSecond));
+        return (current >>> COUNT_BITS) == epochSecond ? current & COUNT_MASK : 0;
+    }
+
+    /**
+     * Suma de los segundos [fromSecond, toSecond).
+     */
+    public long sum(long fromSecond, long toSecond) {
+        long total = 0;
+        for (long second = fromSecond; second < toSecond; second++) {
+            total += count(second);
+        }
+        return total;
+    }
+
+    private int index(long epochSecond) {
+        return (int) Math.floorMod(epochSecond, (long) slots.length());
+    }
+}
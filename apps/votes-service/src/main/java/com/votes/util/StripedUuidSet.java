@@ -0,0 +1,198 @@
+package com.votes.util;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Conjunto concurrente de UUID sin objetos por elemento.
+ *
+ * Cada UUID se guarda como dos long en arreglos paralelos (bits altos y bajos)
+ * con direccionamiento abierto y sondeo lineal; el par (0, 0) marca la casilla
+ * vacía, por lo que el UUID nulo se guarda aparte. El conjunto se reparte en
+ * franjas independientes, cada una con su propio StampedLock: las inserciones
+ * bloquean solo su franja y las búsquedas usan lectura optimista. No admite
+ * borrados.
+ */
+public class StripedUuidSet {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private volatile boolean containsNil;
+
+    public StripedUuidSet() {
+        this(16, 1024);
+    }
+
+    /**
+     * @param stripes          número de franjas, se redondea a potencia de dos
+     * @param expectedElements elementos previstos, para dimensionar sin redimensionar
+     */
+    public StripedUuidSet(int stripes, int expectedElements) {
+        int stripeCount = powerOfTwoAtLeast(stripes);
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+
+        int perStripe = (int) Math.ceil(expectedElements / (double) stripeCount / LOAD_FACTOR);
+        int capacity = powerOfTwoAtLeast(Math.max(8, perStripe));
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * @return true si el UUID no estaba en el conjunto
+     */
+    public boolean add(UUID value) {
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            boolean added = !containsNil;
+            containsNil = true;
+            return added;
+        }
+        int hash = hash(msb, lsb);
+        return stripeFor(hash).add(msb, lsb, hash);
+    }
+
+    public boolean contains(UUID value) {
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            return containsNil;
+        }
+        int hash = hash(msb, lsb);
+        return stripeFor(hash).contains(msb, lsb, hash);
+    }
+
+    public long size() {
+        long size = containsNil ? 1 : 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(int hash) {
+        // Bits altos para la franja, bits bajos para la casilla
+        return stripeShift == 32 ? stripes[0] : stripes[hash >>> stripeShift];
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static int hash(long msb, long lsb) {
+        // Finalizador de MurmurHash3 sobre la mezcla de ambas mitades
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+        private long[] msbs;
+        private long[] lsbs;
+        private int size;
+
+        Stripe(int capacity) {
+            this.msbs = new long[capacity];
+            this.lsbs = new long[capacity];
+        }
+
+        boolean contains(long msb, long lsb, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                long[] m = msbs;
+                long[] l = lsbs;
+                if (m.length == l.length) {
+                    boolean found = probe(m, l, msb, lsb, hash);
+                    if (lock.validate(stamp)) {
+                        return found;
+                    }
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return probe(msbs, lsbs, msb, lsb, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        boolean add(long msb, long lsb, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                if (probe(msbs, lsbs, msb, lsb, hash)) {
+                    return false;
+                }
+                if (size + 1 > msbs.length * LOAD_FACTOR) {
+                    resize();
+                }
+                insert(msbs, lsbs, msb, lsb, hash);
+                size++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void resize() {
+            long[] oldMsbs = msbs;
+            long[] oldLsbs = lsbs;
+            long[] newMsbs = new long[oldMsbs.length << 1];
+            long[] newLsbs = new long[oldLsbs.length << 1];
+            for (int i = 0; i < oldMsbs.length; i++) {
+                if (oldMsbs[i] != 0 || oldLsbs[i] != 0) {
+                    insert(newMsbs, newLsbs, oldMsbs[i], oldLsbs[i], hash(oldMsbs[i], oldLsbs[i]));
+                }
+            }
+            msbs = newMsbs;
+            lsbs = newLsbs;
+        }
+
+        private static boolean probe(long[] msbs, long[] lsbs, long msb, long lsb, int hash) {
+            int mask = msbs.length - 1;
+            int slot = hash & mask;
+            // La tabla nunca se llena (factor de carga < 1), siempre hay una casilla vacía
+            for (int i = 0; i <= mask; i++) {
+                long m = msbs[slot];
+                long l = lsbs[slot];
+                if (m == msb && l == lsb) {
+                    return true;
+                }
+                if (m == 0 && l == 0) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private static void insert(long[] msbs, long[] lsbs, long msb, long lsb, int hash) {
+            int mask = msbs.length - 1;
+            int slot = hash & mask;
+            while (msbs[slot] != 0 || lsbs[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            msbs[slot] = msb;
+            lsbs[slot] = lsb;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.votes.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * SHA-256 de votos y nodos de árbol de Merkle con un MessageDigest y un buffer
+ * por hilo.
+ *
+ * El hash del voto se calcula sobre los bytes crudos de vote_id, candidate_id,
+ * election_id (16 bytes cada uno, big-endian) y voted_at (segundos epoch en 8
+ * bytes y nanosegundos en 4), sin construir cadenas intermedias.
+ *
+ * votes.hash_version indica el formato: VERSION para este (sobre voted_at ya
+ * truncado a milisegundos). Las filas sin versión son anteriores y usan
+ * legacyVoteHash o este mismo formato sobre voted_at con nanosegundos, que
+ * Cassandra no conserva.
+ */
+public final class VoteHasher {
+
+    public static final int HASH_LENGTH = 32;
+
+    /** Formato actual de votes.vote_hash (votes.hash_version) */
+    public static final int VERSION = 1;
+
+    private static final int VOTE_INPUT_LENGTH = 3 * 16 + 8 + 4;
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(VoteHasher::newDigest);
+
+    private static final ThreadLocal<ByteBuffer> VOTE_INPUT =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(VOTE_INPUT_LENGTH));
+
+    private VoteHasher() {
+    }
+
+    /**
+     * @return hash del voto en hexadecimal (64 caracteres), como se guarda en votes.vote_hash
+     */
+    public static String voteHash(UUID voteId, UUID candidateId, UUID electionId, Instant votedAt) {
+        ByteBuffer input = VOTE_INPUT.get();
+        input.clear();
+        input.putLong(voteId.getMostSignificantBits()).putLong(voteId.getLeastSignificantBits())
+                .putLong(candidateId.getMostSignificantBits()).putLong(candidateId.getLeastSignificantBits())
+                .putLong(electionId.getMostSignificantBits()).putLong(electionId.getLeastSignificantBits())
+                .putLong(votedAt.getEpochSecond()).putInt(votedAt.getNano());
+
+        MessageDigest digest = DIGEST.get();
+        digest.update(input.array(), 0, VOTE_INPUT_LENGTH);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Formato anterior a VERSION: SHA-256 en hexadecimal de
+     * voteId + candidateId + electionId + votedAt.toString().
+     */
+    public static String legacyVoteHash(UUID voteId, UUID candidateId, UUID electionId, Instant votedAt) {
+        String input = voteId.toString() + candidateId + electionId + votedAt;
+        return toHex(DIGEST.get().digest(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Hoja del árbol de Merkle (RFC 6962): SHA-256(0x00 || hash del voto).
+     */
+    public static byte[] leafHash(byte[] voteHash) {
+        MessageDigest digest = DIGEST.get();
+        digest.update(LEAF_PREFIX);
+        digest.update(voteHash);
+        return digest.digest();
+    }
+
+    /**
+     * Nodo interno del árbol de Merkle (RFC 6962): SHA-256(0x01 || izquierdo || derecho).
+     */
+    public static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = DIGEST.get();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    /**
+     * Raíz del árbol vacío (RFC 6962): SHA-256 de la cadena vacía.
+     */
+    public static byte[] emptyHash() {
+        return DIGEST.get().digest();
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    public static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Invalid hex string length: " + hex.length());
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid hex string: " + hex);
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
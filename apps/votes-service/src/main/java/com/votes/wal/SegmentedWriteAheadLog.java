@@ -0,0 +1,469 @@
+package com.votes.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log de solo anexado sobre segmentos mapeados en memoria.
+ *
+ * Cada registro lleva longitud, CRC32C, tipo y número de secuencia. Los
+ * registros DATA se confirman con registros ACK cuando su contenido ya está
+ * en el almacenamiento definitivo; al abrir el log se devuelven los DATA sin
+ * ACK para volver a aplicarlos. Los segmentos más antiguos se borran en orden
+ * cuando todos sus DATA están confirmados.
+ *
+ * Con un intervalo de group commit mayor que cero, un hilo hace fsync
+ * periódicamente y append() espera a que su registro quede cubierto; con
+ * intervalo cero cada append() hace su propio fsync.
+ */
+@Slf4j
+public class SegmentedWriteAheadLog implements Closeable {
+
+    static final int HEADER_SIZE = 4 + 4 + 1 + 8;
+    static final byte TYPE_DATA = 1;
+    static final byte TYPE_ACK = 2;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitIntervalNanos;
+
+    // Segmentos abiertos en orden de creación
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    // Segmento dueño de cada rango de DATA, por su primera secuencia
+    private final TreeMap<Long, Segment> owners = new TreeMap<>();
+    private final Object durableMonitor = new Object();
+    private final List<Entry> recovered = new ArrayList<>();
+
+    private Segment current;
+    private long nextSegmentId;
+    private long nextSequence;
+    private long writtenSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+    private Thread flusher;
+
+    public SegmentedWriteAheadLog(Path directory, int segmentSize, Duration groupCommitInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitIntervalNanos = groupCommitInterval.toNanos();
+    }
+
+    /**
+     * Abre el log, recupera los registros de ejecuciones anteriores y empieza
+     * un segmento nuevo para los anexados.
+     */
+    public synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            recover();
+            rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-ahead log in " + directory, e);
+        }
+
+        if (groupCommitIntervalNanos > 0) {
+            flusher = new Thread(this::flushLoop, "wal-group-commit");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Registros DATA sin confirmar encontrados al abrir el log, en orden de secuencia.
+     */
+    public synchronized List<Entry> recoveredEntries() {
+        return new ArrayList<>(recovered);
+    }
+
+    /**
+     * Anexa un registro DATA y espera a que sea durable.
+     *
+     * @return número de secuencia asignado, que se usa para confirmarlo
+     */
+    public long append(byte[] payload) {
+        Segment segment;
+        long sequence;
+        synchronized (this) {
+            ensureOpen();
+            // Se rota antes de asignar la secuencia: cada segmento empieza en la suya
+            ensureCapacity(payload.length);
+            sequence = nextSequence++;
+            segment = write(TYPE_DATA, sequence, payload);
+            segment.outstanding++;
+            writtenSequence = sequence;
+        }
+
+        if (groupCommitIntervalNanos <= 0) {
+            segment.force();
+            advanceDurable(sequence);
+        } else {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Anexa varios registros DATA y espera una sola vez a que todos sean durables.
+     *
+     * @return números de secuencia asignados, en el orden de payloads
+     */
+    public long[] appendAll(List<byte[]> payloads) {
+        long[] sequences = new long[payloads.size()];
+        if (payloads.isEmpty()) {
+            return sequences;
+        }
+
+        Segment last;
+        synchronized (this) {
+            ensureOpen();
+            last = null;
+            for (int i = 0; i < payloads.size(); i++) {
+                ensureCapacity(payloads.get(i).length);
+                sequences[i] = nextSequence++;
+                last = write(TYPE_DATA, sequences[i], payloads.get(i));
+                last.outstanding++;
+                writtenSequence = sequences[i];
+            }
+        }
+
+        long sequence = sequences[sequences.length - 1];
+        if (groupCommitIntervalNanos <= 0) {
+            // Los segmentos anteriores se sincronizaron al rotar
+            last.force();
+            advanceDurable(sequence);
+        } else {
+            awaitDurable(sequence);
+        }
+        return sequences;
+    }
+
+    /**
+     * Confirma un registro DATA. El ACK no se sincroniza: si se pierde, el
+     * registro simplemente se vuelve a aplicar al recuperar.
+     */
+    public void acknowledge(long sequence) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            Map.Entry<Long, Segment> owner = owners.floorEntry(sequence);
+            if (owner == null) {
+                return;
+            }
+            ensureCapacity(0);
+            write(TYPE_ACK, sequence, new byte[0]);
+            owner.getValue().outstanding--;
+            deleteAcknowledgedSegments();
+        }
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (current != null) {
+                current.force();
+            }
+            advanceDurable(writtenSequence);
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        synchronized (this) {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    private void ensureCapacity(int payloadLength) {
+        int recordSize = HEADER_SIZE + payloadLength;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of " + recordSize + " bytes exceeds segment size " + segmentSize);
+        }
+        if (current.buffer.remaining() < recordSize) {
+            rotate();
+        }
+    }
+
+    private Segment write(byte type, long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(longBytes(sequence));
+        crc.update(payload);
+
+        MappedByteBuffer buffer = current.buffer;
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(type);
+        buffer.putLong(sequence);
+        buffer.put(payload);
+        return current;
+    }
+
+    private void rotate() {
+        try {
+            if (current != null) {
+                // Todo lo escrito en el segmento saliente pasa a ser durable
+                current.force();
+                advanceDurable(writtenSequence);
+            }
+            Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+            current = Segment.create(path, segmentSize);
+            current.firstSequence = nextSequence;
+            segments.addLast(current);
+            // Si el segmento anterior no llegó a tener DATA, el nuevo lo sustituye como dueño
+            owners.put(nextSequence, current);
+            deleteAcknowledgedSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create write-ahead log segment", e);
+        }
+    }
+
+    private void deleteAcknowledgedSegments() {
+        Iterator<Segment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment == current || segment.outstanding > 0) {
+                return;
+            }
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("Cannot delete write-ahead log segment {}: {}", segment.path, e.getMessage());
+            }
+            iterator.remove();
+            owners.remove(segment.firstSequence, segment);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        Map<Long, Entry> unacknowledged = new LinkedHashMap<>();
+        Map<Long, Segment> dataOwners = new TreeMap<>();
+        Set<Long> acknowledged = new HashSet<>();
+        long maxSequence = -1;
+
+        for (Path file : files) {
+            Segment segment = Segment.open(file);
+            segments.addLast(segment);
+            nextSegmentId = Math.max(nextSegmentId, parseSegmentId(file) + 1);
+            MappedByteBuffer buffer = segment.buffer;
+
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                byte type = buffer.get();
+                long sequence = buffer.getLong();
+                if ((type != TYPE_DATA && type != TYPE_ACK) || length < 0 || length > buffer.remaining()) {
+                    buffer.position(start);
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+
+                CRC32C crc = new CRC32C();
+                crc.update(type);
+                crc.update(longBytes(sequence));
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    // Registro incompleto al final del segmento (caída a mitad de escritura)
+                    log.warn("Write-ahead log record {} in {} failed CRC check, ignoring rest of segment", sequence, file);
+                    buffer.position(start);
+                    break;
+                }
+
+                maxSequence = Math.max(maxSequence, sequence);
+                if (type == TYPE_DATA) {
+                    unacknowledged.put(sequence, new Entry(sequence, payload));
+                    dataOwners.put(sequence, segment);
+                    if (segment.firstSequence < 0) {
+                        segment.firstSequence = sequence;
+                        owners.put(sequence, segment);
+                    }
+                } else {
+                    acknowledged.add(sequence);
+                }
+            }
+        }
+
+        for (Long sequence : acknowledged) {
+            unacknowledged.remove(sequence);
+        }
+        for (Entry entry : unacknowledged.values()) {
+            dataOwners.get(entry.sequence()).outstanding++;
+            recovered.add(entry);
+        }
+
+        nextSequence = maxSequence + 1;
+        writtenSequence = maxSequence;
+        durableSequence = maxSequence;
+        if (!files.isEmpty()) {
+            log.info("Write-ahead log recovered {} segments, {} unacknowledged records", files.size(), recovered.size());
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(groupCommitIntervalNanos);
+            Segment segment;
+            long target;
+            synchronized (this) {
+                if (closed || writtenSequence <= durableSequence) {
+                    continue;
+                }
+                segment = current;
+                target = writtenSequence;
+            }
+            // Los registros de segmentos anteriores ya se sincronizaron al rotar
+            segment.force();
+            advanceDurable(target);
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence) {
+                if (closed) {
+                    throw new IllegalStateException("Write-ahead log closed before record " + sequence + " became durable");
+                }
+                try {
+                    durableMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for write-ahead log sync", e);
+                }
+            }
+        }
+    }
+
+    private void advanceDurable(long sequence) {
+        synchronized (durableMonitor) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+            }
+            durableMonitor.notifyAll();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed || current == null) {
+            throw new IllegalStateException("Write-ahead log is not open");
+        }
+    }
+
+    private static long parseSegmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] longBytes(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * Registro DATA sin confirmar.
+     */
+    public static final class Entry {
+
+        private final long sequence;
+        private final byte[] payload;
+
+        Entry(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long sequence() {
+            return sequence;
+        }
+
+        public byte[] payload() {
+            return payload;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        // Primera secuencia DATA del segmento, -1 si no tiene
+        private long firstSequence = -1;
+        private int outstanding;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        static Segment open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close write-ahead log segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.votes.wal;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Journal local de filas de user_votes_log pendientes de proyectar sobre
+ * user_voting_status.
+ *
+ * VotingStatusProjector anexa cada fila antes de encolarla y la confirma
+ * cuando está escrita en PostgreSQL (o descartada como dead letter); al
+ * arrancar, las filas sin confirmar se devuelven para volver a encolarlas sin
+ * recorrer user_votes_log.
+ */
+@Component
+@Slf4j
+public class StatusProjectionJournal {
+
+    private static final int ENTRY_LENGTH = 4 * 16 + 8 + 4;
+
+    @Value("${app.votes.status-projector.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.status-projector.journal-directory:./data/status-projector-wal}")
+    private String directory;
+
+    @Value("${app.votes.wal.segment-size-bytes:67108864}")
+    private int segmentSize;
+
+    @Value("${app.votes.wal.group-commit-interval-ms:2}")
+    private long groupCommitIntervalMs;
+
+    private SegmentedWriteAheadLog wal;
+
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+        wal = new SegmentedWriteAheadLog(Paths.get(directory), segmentSize, Duration.ofMillis(groupCommitIntervalMs));
+        wal.open();
+        log.info("Status projection journal opened in {}", directory);
+    }
+
+    @PreDestroy
+    void close() {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /**
+     * Anexa la fila y espera a que sea durable.
+     *
+     * @return número de secuencia para confirmarla
+     */
+    public long append(UserVoteLog userVote) {
+        return wal.append(encode(userVote));
+    }
+
+    /**
+     * Anexa las filas con una sola espera de durabilidad.
+     */
+    public long[] appendAll(List<UserVoteLog> userVotes) {
+        List<byte[]> payloads = new ArrayList<>(userVotes.size());
+        for (UserVoteLog userVote : userVotes) {
+            payloads.add(encode(userVote));
+        }
+        return wal.appendAll(payloads);
+    }
+
+    public void acknowledge(long sequence) {
+        wal.acknowledge(sequence);
+    }
+
+    /**
+     * Filas que quedaron sin confirmar en la ejecución anterior, con su secuencia.
+     */
+    public List<SegmentedWriteAheadLog.Entry> recover() {
+        return wal.recoveredEntries();
+    }
+
+    static byte[] encode(UserVoteLog userVote) {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_LENGTH);
+        putUuid(buffer, userVote.getUserId());
+        putUuid(buffer, userVote.getElectionId());
+        putUuid(buffer, userVote.getVoteId());
+        putUuid(buffer, userVote.getCandidateId());
+        buffer.putLong(userVote.getVotedAt().getEpochSecond());
+        buffer.putInt(userVote.getVotedAt().getNano());
+        return buffer.array();
+    }
+
+    public static UserVoteLog decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        UUID userId = getUuid(buffer);
+        UUID electionId = getUuid(buffer);
+        UUID voteId = getUuid(buffer);
+        UUID candidateId = getUuid(buffer);
+        Instant votedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return new UserVoteLog(userId, electionId, voteId, candidateId, votedAt);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,125 @@
+package com.votes.wal;
+
+import com.votes.service.PendingVote;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Journal local de votos aceptados y aún no escritos en Cassandra.
+ *
+ * La ingesta asíncrona anexa cada voto antes de responder 202 y lo confirma
+ * cuando los escritores lo persisten; al arrancar, los votos sin confirmar se
+ * devuelven para reescribirlos.
+ */
+@Component
+@Slf4j
+public class VoteJournal {
+
+    @Value("${app.votes.wal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.wal.directory:./data/wal}")
+    private String directory;
+
+    @Value("${app.votes.wal.segment-size-bytes:67108864}")
+    private int segmentSize;
+
+    @Value("${app.votes.wal.group-commit-interval-ms:2}")
+    private long groupCommitIntervalMs;
+
+    private SegmentedWriteAheadLog wal;
+
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+        wal = new SegmentedWriteAheadLog(Paths.get(directory), segmentSize, Duration.ofMillis(groupCommitIntervalMs));
+        wal.open();
+        log.info("Vote journal opened in {} (group commit every {} ms)", directory, groupCommitIntervalMs);
+    }
+
+    @PreDestroy
+    void close() {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Anexa el voto y espera a que sea durable.
+     *
+     * @return número de secuencia para confirmar el voto
+     */
+    public long append(PendingVote vote) {
+        return wal.append(encode(vote));
+    }
+
+    public void acknowledge(long sequence) {
+        wal.acknowledge(sequence);
+    }
+
+    /**
+     * Votos que quedaron sin confirmar en la ejecución anterior.
+     */
+    public List<PendingVote> recover() {
+        List<PendingVote> votes = new ArrayList<>();
+        for (SegmentedWriteAheadLog.Entry entry : wal.recoveredEntries()) {
+            PendingVote vote = decode(entry.payload());
+            vote.setJournalSequence(entry.sequence());
+            votes.add(vote);
+        }
+        return votes;
+    }
+
+    static byte[] encode(PendingVote vote) {
+        byte[] hash = vote.getVoteHash().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 16 + 8 + 4 + 2 + hash.length);
+        putUuid(buffer, vote.getUserId());
+        putUuid(buffer, vote.getElectionId());
+        putUuid(buffer, vote.getCandidateId());
+        putUuid(buffer, vote.getVoteId());
+        buffer.putLong(vote.getVotedAt().getEpochSecond());
+        buffer.putInt(vote.getVotedAt().getNano());
+        buffer.putShort((short) hash.length);
+        buffer.put(hash);
+        return buffer.array();
+    }
+
+    static PendingVote decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        UUID userId = getUuid(buffer);
+        UUID electionId = getUuid(buffer);
+        UUID candidateId = getUuid(buffer);
+        UUID voteId = getUuid(buffer);
+        Instant votedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        byte[] hash = new byte[buffer.getShort()];
+        buffer.get(hash);
+        return new PendingVote(userId, electionId, candidateId, voteId, votedAt, new String(hash, StandardCharsets.UTF_8));
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,93 @@
+package com.votes.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditEventRingTest {
+
+    @Test
+    void testDrain_ReturnsEventsInPublicationOrder() {
+        // Given
+        AuditEventRing ring = new AuditEventRing(8);
+        UUID electionId = UUID.randomUUID();
+        List<UUID> published = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UUID subjectId = UUID.randomUUID();
+            published.add(subjectId);
+            ring.publish(AuditEventType.VOTE_RECEIVED, electionId, subjectId, null, null);
+        }
+
+        // When
+        List<UUID> drained = new ArrayList<>();
+        int count = ring.drain(event -> drained.add(event.getSubjectId()), 100);
+
+        // Then
+        assertEquals(5, count);
+        assertEquals(published, drained);
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    void testPublish_DropsWhenFullAndReusesSlotsAfterDrain() {
+        // Given
+        AuditEventRing ring = new AuditEventRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.publish(AuditEventType.VOTE_PERSISTED, null, UUID.randomUUID(), null, null));
+        }
+
+        // When
+        boolean overflow = ring.publish(AuditEventType.VOTE_PERSISTED, null, UUID.randomUUID(), null, null);
+        ring.drain(event -> { }, 2);
+        boolean afterDrain = ring.publish(AuditEventType.VOTE_PERSISTED, null, UUID.randomUUID(), null, null);
+
+        // Then
+        assertFalse(overflow);
+        assertTrue(afterDrain);
+        assertEquals(1, ring.dropped());
+        assertEquals(3, ring.backlog());
+    }
+
+    @Test
+    void testPublish_ConcurrentProducersSingleConsumer() throws Exception {
+        // Given
+        AuditEventRing ring = new AuditEventRing(1024);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        Set<UUID> received = new HashSet<>();
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    UUID subjectId = UUID.randomUUID();
+                    while (!ring.publish(AuditEventType.VOTE_RECEIVED, null, subjectId, null, null)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        while (received.size() < producers * perProducer) {
+            ring.drain(event -> received.add(event.getSubjectId()), 256);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(producers * perProducer, received.size());
+        assertEquals(0, ring.backlog());
+    }
+}
@@ -0,0 +1,70 @@
+package com.votes.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditEventStreamTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEvents_CannotBeJoinedBackToUserAndCandidate() throws IOException {
+        // Given
+        AuditEventStream stream = new AuditEventStream(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(stream, "enabled", true);
+        ReflectionTestUtils.setField(stream, "capacity", 64);
+        ReflectionTestUtils.setField(stream, "directory", directory.toString());
+        ReflectionTestUtils.setField(stream, "maxFileBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(stream, "maxFiles", 2);
+        UUID electionId = UUID.randomUUID();
+        UUID voteId = UUID.randomUUID();
+        UUID candidateId = UUID.randomUUID();
+        UUID rejectedUser = UUID.randomUUID();
+
+        // When: un voto aceptado y un rechazo, publicados uno tras otro
+        stream.start();
+        stream.voteReceived(electionId);
+        stream.votePersisted(voteId, electionId, candidateId);
+        stream.voteReceived(electionId);
+        stream.voteRejected(rejectedUser, electionId, AuditEventStream.REASON_ALREADY_VOTED);
+        stream.stop();
+
+        // Then: solo el rechazo lleva usuario, y ni él ni sus vecinos llevan un voto de ese usuario
+        List<String> lines = readLines();
+        assertEquals(4, lines.size());
+        for (String line : lines) {
+            boolean hasUser = line.contains(rejectedUser.toString());
+            assertEquals(line.contains("VOTE_REJECTED"), hasUser);
+            if (hasUser) {
+                assertFalse(line.contains("candidateId"));
+            }
+            if (line.contains("VOTE_RECEIVED")) {
+                assertFalse(line.contains("subjectId"));
+            }
+        }
+        assertEquals(1, lines.stream().filter(line -> line.contains(candidateId.toString())).count());
+    }
+
+    private List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                lines.addAll(Files.readAllLines(file));
+            }
+        }
+        return lines;
+    }
+}
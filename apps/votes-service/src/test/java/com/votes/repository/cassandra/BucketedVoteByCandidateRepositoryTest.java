@@ -0,0 +1,159 @@
+package com.votes.repository.cassandra;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BucketedVoteByCandidateRepositoryTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private CqlSession session;
+
+    @Mock
+    private PreparedStatementRegistry statements;
+
+    @Mock
+    private PreparedStatement selectSlots;
+
+    @Mock
+    private PreparedStatement countBucket;
+
+    @Mock
+    private PreparedStatement countBucketBefore;
+
+    private BucketedVoteByCandidateRepository repository;
+
+    private UUID electionId;
+    private UUID candidateId;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+        candidateId = UUID.randomUUID();
+
+        repository = new BucketedVoteByCandidateRepository(session, statements);
+        ReflectionTestUtils.setField(repository, "enabled", true);
+        ReflectionTestUtils.setField(repository, "shards", 8);
+        // El intervalo actual difiere del de las franjas ya registradas
+        ReflectionTestUtils.setField(repository, "slotIntervalMillis", HOUR / 2);
+        ReflectionTestUtils.setField(repository, "readParallelism", 32);
+    }
+
+    @Test
+    void testBucket_StaysWithinItsSlotAndIsStablePerVote() {
+        // Given
+        UUID voteId = UUID.randomUUID();
+        Instant slotStart = Instant.ofEpochMilli(10 * HOUR);
+
+        // When
+        long first = BucketedVoteByCandidateRepository.bucket(slotStart, voteId, HOUR, 8);
+        long last = BucketedVoteByCandidateRepository.bucket(slotStart.plusMillis(HOUR - 1), voteId, HOUR, 8);
+        long next = BucketedVoteByCandidateRepository.bucket(slotStart.plusMillis(HOUR), voteId, HOUR, 8);
+
+        // Then
+        assertEquals(first, last);
+        assertTrue(first >= 80 && first < 88);
+        assertEquals(first + 8, next);
+    }
+
+    @Test
+    void testReadsBucketed_OnlyWithReadSwitch() {
+        // Given: escrituras en la tabla con buckets, lecturas aún en la original
+        ReflectionTestUtils.setField(repository, "writeLegacy", false);
+
+        // When / Then
+        assertTrue(repository.isEnabled());
+        assertFalse(repository.readsBucketed());
+        assertTrue(repository.writesLegacy());
+
+        ReflectionTestUtils.setField(repository, "readEnabled", true);
+        assertTrue(repository.readsBucketed());
+        assertFalse(repository.writesLegacy());
+    }
+
+    @Test
+    void testCountVotes_QueriesEachBucketOnce() {
+        // Given: dos franjas con shards distintos que comparten el bucket 20
+        givenSlots(slot(10, 2, HOUR), slot(20, 1, HOUR / 2));
+        when(statements.get(BucketedVoteByCandidateRepository.COUNT_BUCKET)).thenReturn(countBucket);
+        givenCount(countBucket, 3L, candidateId, electionId, 20L);
+        givenCount(countBucket, 4L, candidateId, electionId, 21L);
+
+        // When
+        long total = repository.countVotes(electionId, candidateId);
+
+        // Then
+        assertEquals(7L, total);
+        verify(countBucket, times(2)).bind(any(), any(), anyLong());
+    }
+
+    @Test
+    void testCountVotesBefore_SkipsSlotsByTheirOwnInterval() {
+        // Given: la franja 15 de una hora empieza después de before (con el intervalo actual no)
+        Instant before = Instant.ofEpochMilli(10 * HOUR);
+        givenSlots(slot(5, 2, HOUR), slot(15, 1, HOUR));
+        when(statements.get(BucketedVoteByCandidateRepository.COUNT_BUCKET_BEFORE)).thenReturn(countBucketBefore);
+        givenCount(countBucketBefore, 2L, candidateId, electionId, 10L, before);
+        givenCount(countBucketBefore, 5L, candidateId, electionId, 11L, before);
+
+        // When
+        long total = repository.countVotesBefore(electionId, candidateId, before);
+
+        // Then
+        assertEquals(7L, total);
+        verify(countBucketBefore, never()).bind(candidateId, electionId, 15L, before);
+    }
+
+    private void givenSlots(Row... rows) {
+        BoundStatement bound = mock(BoundStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(statements.get(BucketedVoteByCandidateRepository.SELECT_SLOTS)).thenReturn(selectSlots);
+        when(selectSlots.bind(electionId)).thenReturn(bound);
+        when(statements.withProfile(any(BoundStatement.class), eq("consistent-scan")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(session.execute(bound)).thenReturn(resultSet);
+        when(resultSet.iterator()).thenReturn(List.of(rows).iterator());
+    }
+
+    private void givenCount(PreparedStatement prepared, long count, Object... values) {
+        BoundStatement bound = mock(BoundStatement.class);
+        when(prepared.bind(values)).thenReturn(bound);
+        Row row = mock(Row.class);
+        when(row.getLong(0)).thenReturn(count);
+        AsyncResultSet resultSet = mock(AsyncResultSet.class);
+        when(resultSet.one()).thenReturn(row);
+        when(session.executeAsync(bound)).thenReturn(CompletableFuture.completedFuture(resultSet));
+    }
+
+    private static Row slot(long timeSlot, int shards, long intervalMillis) {
+        Row row = mock(Row.class);
+        when(row.getLong("time_slot")).thenReturn(timeSlot);
+        // Sin before no se lee el intervalo, y una franja descartada no lee sus shards
+        lenient().when(row.getInt("shards")).thenReturn(shards);
+        lenient().when(row.getLong("slot_interval_ms")).thenReturn(intervalMillis);
+        return row;
+    }
+}
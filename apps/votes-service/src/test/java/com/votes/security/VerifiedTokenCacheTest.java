@@ -0,0 +1,94 @@
+package com.votes.security;
+
+import com.votes.util.JwtUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", true);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 10);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxTtlMillis", 3_600_000L);
+        verifiedTokenCache.registerMetrics();
+    }
+
+    @Test
+    void testVerify_RepeatedTokenSkipsSignatureCheck() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(jwtUtil.verify("token")).thenReturn(new VerifiedToken(userId, System.currentTimeMillis() + 60_000));
+
+        // When
+        VerifiedToken first = verifiedTokenCache.verify("token");
+        VerifiedToken second = verifiedTokenCache.verify("token");
+
+        // Then
+        assertEquals(userId, first.getUserId());
+        assertEquals(userId, second.getUserId());
+        verify(jwtUtil, times(1)).verify("token");
+    }
+
+    @Test
+    void testVerify_ExpiredEntryIsVerifiedAgain() {
+        // Given
+        when(jwtUtil.verify("token"))
+                .thenReturn(new VerifiedToken(UUID.randomUUID(), System.currentTimeMillis() - 1))
+                .thenThrow(new ExpiredJwtException(null, null, "JWT expired"));
+
+        // When
+        verifiedTokenCache.verify("token");
+
+        // Then
+        assertThrows(ExpiredJwtException.class, () -> verifiedTokenCache.verify("token"));
+        verify(jwtUtil, times(2)).verify("token");
+    }
+
+    @Test
+    void testVerify_StaysWithinMaxEntries() {
+        // Given
+        when(jwtUtil.verify(anyString()))
+                .thenAnswer(invocation -> new VerifiedToken(UUID.randomUUID(), System.currentTimeMillis() + 60_000));
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            verifiedTokenCache.verify("token-" + i);
+        }
+
+        // Then
+        assertTrue(verifiedTokenCache.size() <= 10);
+    }
+
+    @Test
+    void testVerify_DisabledAlwaysVerifies() {
+        // Given
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", false);
+        when(jwtUtil.verify("token")).thenReturn(new VerifiedToken(UUID.randomUUID(), Long.MAX_VALUE));
+
+        // When
+        verifiedTokenCache.verify("token");
+        verifiedTokenCache.verify("token");
+
+        // Then
+        verify(jwtUtil, times(2)).verify("token");
+    }
+}
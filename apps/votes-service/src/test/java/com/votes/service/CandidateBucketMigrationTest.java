@@ -0,0 +1,84 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.entity.cassandra.VoteByCandidate;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateBucketMigrationTest {
+
+    @Mock
+    private BucketedVoteByCandidateRepository bucketedVoteByCandidateRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CandidateBucketMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        migration = new CandidateBucketMigration(bucketedVoteByCandidateRepository, meterRegistry);
+        ReflectionTestUtils.setField(migration, "migrateOnStartup", true);
+        ReflectionTestUtils.setField(migration, "maxInFlight", 2);
+    }
+
+    @Test
+    void testMigrate_CopiesRowsAndSkipsThoseWithoutVotedAt() {
+        // Given
+        UUID electionId = UUID.randomUUID();
+        VoteByCandidate first = row(electionId, Instant.now());
+        VoteByCandidate second = row(electionId, Instant.now());
+        VoteByCandidate failing = row(electionId, Instant.now());
+        VoteByCandidate withoutVotedAt = row(electionId, null);
+        doAnswer(invocation -> {
+            Consumer<VoteByCandidate> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(withoutVotedAt);
+            consumer.accept(failing);
+            consumer.accept(second);
+            return null;
+        }).when(bucketedVoteByCandidateRepository).forEachLegacyRow(any());
+        when(bucketedVoteByCandidateRepository.saveAsync(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0) == failing
+                        ? CompletableFuture.failedFuture(new IllegalStateException("write timeout"))
+                        : CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+
+        // When
+        migration.migrate();
+
+        // Then
+        verify(bucketedVoteByCandidateRepository, times(3)).saveAsync(any());
+        verify(bucketedVoteByCandidateRepository, never()).saveAsync(withoutVotedAt);
+        assertEquals(2.0, meterRegistry.get("votes.candidate-buckets.migrated").counter().count());
+    }
+
+    @Test
+    void testStart_RefusesToRunWhileReadsUseBucketedTable() {
+        // Given
+        when(bucketedVoteByCandidateRepository.isEnabled()).thenReturn(true);
+        when(bucketedVoteByCandidateRepository.readsBucketed()).thenReturn(true);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> migration.start());
+        verify(bucketedVoteByCandidateRepository, never()).forEachLegacyRow(any());
+    }
+
+    private static VoteByCandidate row(UUID electionId, Instant votedAt) {
+        return new VoteByCandidate(UUID.randomUUID(), electionId, UUID.randomUUID(), votedAt);
+    }
+}
@@ -0,0 +1,151 @@
+package com.votes.service;
+
+import com.votes.entity.postgres.Candidate;
+import com.votes.exception.InvalidCandidateException;
+import com.votes.repository.postgres.CandidateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateCatalogTest {
+
+    @Mock
+    private CandidateRepository candidateRepository;
+
+    private CandidateCatalog catalog;
+
+    private UUID electionId;
+    private UUID candidateId;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+        candidateId = UUID.randomUUID();
+
+        catalog = new CandidateCatalog(candidateRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(catalog, "enabled", true);
+        ReflectionTestUtils.setField(catalog, "minReloadIntervalMillis", 60_000L);
+        ReflectionTestUtils.setField(catalog, "maxElections", 64);
+        ReflectionTestUtils.setField(catalog, "maxUnknownElections", 16);
+        ReflectionTestUtils.setField(catalog, "defaultElectionId", electionId.toString());
+        catalog.registerMetrics();
+    }
+
+    @Test
+    void testValidate_LoadsElectionOnceAndAnswersFromMemory() {
+        // Given
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId))
+                .thenReturn(Collections.singletonList(candidate(candidateId)));
+
+        // When
+        catalog.validate(electionId, candidateId);
+        catalog.validate(electionId, candidateId);
+
+        // Then
+        verify(candidateRepository, times(1)).findByElectionIdAndIsActiveTrue(electionId);
+        assertTrue(catalog.isCachedActiveCandidate(electionId, candidateId));
+    }
+
+    @Test
+    void testValidate_UnknownCandidateRejectedWithoutReloadWithinInterval() {
+        // Given
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId))
+                .thenReturn(Collections.singletonList(candidate(candidateId)));
+        catalog.validate(electionId, candidateId);
+        UUID unknown = UUID.randomUUID();
+
+        // When / Then
+        assertThrows(InvalidCandidateException.class, () -> catalog.validate(electionId, unknown));
+        assertThrows(InvalidCandidateException.class, () -> catalog.validate(electionId, unknown));
+        verify(candidateRepository, times(1)).findByElectionIdAndIsActiveTrue(electionId);
+    }
+
+    @Test
+    void testRefresh_PicksUpNewCandidates() {
+        // Given
+        UUID added = UUID.randomUUID();
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId))
+                .thenReturn(Collections.singletonList(candidate(candidateId)))
+                .thenReturn(Arrays.asList(candidate(candidateId), candidate(added)));
+        catalog.load();
+
+        // When
+        catalog.refresh();
+
+        // Then
+        assertTrue(catalog.isCachedActiveCandidate(electionId, added));
+    }
+
+    @Test
+    void testValidate_UnknownElectionIsNotCachedAndQueriedOncePerInterval() {
+        // Given
+        UUID unknownElection = UUID.randomUUID();
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(unknownElection)).thenReturn(Collections.emptyList());
+
+        // When
+        assertThrows(InvalidCandidateException.class, () -> catalog.validate(unknownElection, candidateId));
+        assertThrows(InvalidCandidateException.class, () -> catalog.validate(unknownElection, candidateId));
+        catalog.refresh();
+
+        // Then: ni se repite la consulta ni la recarga programada la incluye
+        verify(candidateRepository, times(1)).findByElectionIdAndIsActiveTrue(unknownElection);
+        assertFalse(catalog.isCachedActiveCandidate(unknownElection, candidateId));
+    }
+
+    @Test
+    void testValidate_EvictsOldestElectionButNotTheDefault() {
+        // Given
+        ReflectionTestUtils.setField(catalog, "maxElections", 2);
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId))
+                .thenReturn(Collections.singletonList(candidate(candidateId)));
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(second))
+                .thenReturn(Collections.singletonList(candidate(candidateId)));
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(third))
+                .thenReturn(Collections.singletonList(candidate(candidateId)));
+
+        // When
+        catalog.validate(electionId, candidateId);
+        catalog.validate(second, candidateId);
+        catalog.validate(third, candidateId);
+
+        // Then
+        assertTrue(catalog.isCachedActiveCandidate(electionId, candidateId));
+        assertFalse(catalog.isCachedActiveCandidate(second, candidateId));
+        assertTrue(catalog.isCachedActiveCandidate(third, candidateId));
+    }
+
+    @Test
+    void testRefresh_BeforeApplicationReadyIsRecorded() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CandidateCatalog early = new CandidateCatalog(candidateRepository, meterRegistry);
+        ReflectionTestUtils.setField(early, "enabled", true);
+        early.registerMetrics();
+
+        // When: la recarga programada puede correr antes de ApplicationReadyEvent
+        early.refresh();
+
+        // Then
+        assertEquals(1, meterRegistry.get("votes.candidate-catalog.refresh").timer().count());
+    }
+
+    private static Candidate candidate(UUID id) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        return candidate;
+    }
+}
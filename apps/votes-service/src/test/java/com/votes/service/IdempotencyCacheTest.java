@@ -0,0 +1,160 @@
+package com.votes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votes.dto.IdempotentResponse;
+import com.votes.dto.VoteResponse;
+import com.votes.repository.cassandra.IdempotencyCqlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyCacheTest {
+
+    @Mock
+    private IdempotencyCqlRepository idempotencyCqlRepository;
+
+    private IdempotencyCache idempotencyCache;
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyCache = new IdempotencyCache(idempotencyCqlRepository, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(idempotencyCache, "enabled", true);
+        ReflectionTestUtils.setField(idempotencyCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(idempotencyCache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(idempotencyCache, "waitTimeoutMillis", 2000L);
+        idempotencyCache.start();
+    }
+
+    @Test
+    void testRetry_ReturnsOriginalResponseWithoutExecutingAgain() {
+        // When
+        IdempotentResponse first = idempotencyCache.execute(userId, "key-1", "c|e", this::castVote);
+        IdempotentResponse retry = idempotencyCache.execute(userId, "key-1", "c|e", this::castVote);
+        IdempotentResponse otherRequest = idempotencyCache.execute(userId, "key-1", "other|e", this::castVote);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(200, first.getStatus());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), otherRequest.getStatus());
+        verifyNoInteractions(idempotencyCqlRepository);
+    }
+
+    @Test
+    void testConcurrentRequests_CollapseIntoOneExecution() throws Exception {
+        // Given
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyCache.execute(userId, "key-1", "c|e", () -> {
+                    executing.countDown();
+                    await(release);
+                    return castVote();
+                }));
+        assertTrue(executing.await(2, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<IdempotentResponse> second = CompletableFuture.supplyAsync(() ->
+                idempotencyCache.execute(userId, "key-1", "c|e", this::castVote));
+        release.countDown();
+
+        // Then
+        assertEquals(first.get(2, TimeUnit.SECONDS).getBody(), second.get(2, TimeUnit.SECONDS).getBody());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testConcurrentRequest_TimesOutWithConflict() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(idempotencyCache, "waitTimeoutMillis", 50L);
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyCache.execute(userId, "key-1", "c|e", () -> {
+                    executing.countDown();
+                    await(release);
+                    return castVote();
+                }));
+        assertTrue(executing.await(2, TimeUnit.SECONDS));
+
+        // When
+        IdempotentResponse waiting = idempotencyCache.execute(userId, "key-1", "c|e", this::castVote);
+        release.countDown();
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT.value(), waiting.getStatus());
+        assertEquals(200, first.get(2, TimeUnit.SECONDS).getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testConcurrentRequest_OwnerFailureIsRetryable() throws Exception {
+        // Given
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyCache.execute(userId, "key-1", "c|e", () -> {
+                    executing.countDown();
+                    await(release);
+                    throw new IllegalStateException("write timeout");
+                }));
+        assertTrue(executing.await(2, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<IdempotentResponse> waiting = CompletableFuture.supplyAsync(() ->
+                idempotencyCache.execute(userId, "key-1", "c|e", this::castVote));
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), waiting.get(2, TimeUnit.SECONDS).getStatus());
+        assertThrows(Exception.class, () -> first.get(2, TimeUnit.SECONDS));
+        assertEquals(200, idempotencyCache.execute(userId, "key-1", "c|e", this::castVote).getStatus());
+    }
+
+    @Test
+    void testServerError_IsNotCached() {
+        // When
+        IdempotentResponse failed = idempotencyCache.execute(userId, "key-1", "c|e",
+                () -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(VoteResponse.error("Internal server error")));
+        IdempotentResponse retry = idempotencyCache.execute(userId, "key-1", "c|e", this::castVote);
+
+        // Then
+        assertEquals(500, failed.getStatus());
+        assertEquals(200, retry.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    private ResponseEntity<?> castVote() {
+        executions.incrementAndGet();
+        return ResponseEntity.ok(VoteResponse.error("ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
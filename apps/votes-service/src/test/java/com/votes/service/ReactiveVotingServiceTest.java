@@ -0,0 +1,276 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.votes.audit.AuditEventStream;
+import com.votes.dto.VoteRequest;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.repository.postgres.UserVotingStatusRepository;
+import com.votes.repository.reactive.ReactiveUserVoteLogRepository;
+import com.votes.repository.reactive.ReactiveVoteByCandidateRepository;
+import com.votes.repository.reactive.ReactiveVoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.cassandra.core.EntityWriteResult;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveVotingServiceTest {
+
+    @Mock
+    private VotingService votingService;
+
+    @Mock
+    private ReactiveVoteRepository voteRepository;
+
+    @Mock
+    private ReactiveVoteByCandidateRepository voteByCandidateRepository;
+
+    @Mock
+    private ReactiveUserVoteLogRepository userVoteLogRepository;
+
+    @Mock
+    private ReactiveCassandraOperations reactiveCassandraOperations;
+
+    @Mock
+    private VoteCqlRepository voteCqlRepository;
+
+    @Mock
+    private UserVotingStatusRepository userVotingStatusRepository;
+
+    @Mock
+    private VoteCountAggregator voteCountAggregator;
+
+    @Mock
+    private VoteTallyService voteTallyService;
+
+    @Mock
+    private VotedUserIndex votedUserIndex;
+
+    @Mock
+    private VotingStatusProjector votingStatusProjector;
+
+    @Mock
+    private VoteAuditLog voteAuditLog;
+
+    @Mock
+    private CandidateCatalog candidateCatalog;
+
+    @Mock
+    private AuditEventStream auditEventStream;
+
+    @Mock
+    private VoteRateSeries voteRateSeries;
+
+    @Mock
+    private BucketedVoteByCandidateRepository bucketedVoteByCandidateRepository;
+
+    @Mock
+    private VoteMinuteRepository voteMinuteRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private VoteStageTimers voteStageTimers = new VoteStageTimers(meterRegistry);
+
+    @InjectMocks
+    private ReactiveVotingService reactiveVotingService;
+
+    private UUID userId;
+    private UUID electionId;
+    private VoteRequest voteRequest;
+    private PendingVote pendingVote;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        electionId = UUID.randomUUID();
+        voteRequest = new VoteRequest(UUID.randomUUID(), electionId);
+        pendingVote = new PendingVote(userId, electionId, voteRequest.getCandidateId(),
+                UUID.randomUUID(), Instant.now(), "hash");
+
+        ReflectionTestUtils.setField(reactiveVotingService, "blockingThreads", 2);
+        ReflectionTestUtils.setField(reactiveVotingService, "blockingQueueCapacity", 10);
+        reactiveVotingService.start();
+
+        when(votingService.resolveElectionId(electionId)).thenReturn(electionId);
+        lenient().when(bucketedVoteByCandidateRepository.writesLegacy()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveVotingService.stop();
+    }
+
+    @Test
+    void testCastVote_Success() {
+        // Given
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId)).thenReturn(false);
+        when(userVoteLogRepository.findByUserIdAndElectionId(userId, electionId)).thenReturn(Mono.empty());
+        when(votingService.prepareVote(userId, electionId, voteRequest.getCandidateId())).thenReturn(pendingVote);
+        when(voteRepository.save(pendingVote.getVote())).thenReturn(Mono.just(pendingVote.getVote()));
+        when(voteByCandidateRepository.save(pendingVote.getVoteByCandidate()))
+                .thenReturn(Mono.just(pendingVote.getVoteByCandidate()));
+        when(userVoteLogRepository.save(pendingVote.getUserVoteLog())).thenReturn(Mono.just(pendingVote.getUserVoteLog()));
+
+        // When / Then
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> response.isSuccess() && pendingVote.getVoteId().equals(response.getVoteId()))
+                .verifyComplete();
+        verify(userVotingStatusRepository).upsertVoted(userId, electionId, pendingVote.getVotedAt());
+        verify(votedUserIndex).add(electionId, userId);
+        verify(auditEventStream).voteReceived(electionId);
+        verify(auditEventStream).votePersisted(pendingVote.getVoteId(), electionId, voteRequest.getCandidateId());
+        verifyNoMoreInteractions(auditEventStream);
+        for (VoteStage stage : List.of(VoteStage.DEDUP_CHECK, VoteStage.HASH, VoteStage.CASSANDRA_VOTES,
+                VoteStage.CASSANDRA_VOTES_BY_CANDIDATE, VoteStage.CASSANDRA_USER_VOTES_LOG, VoteStage.POSTGRES_STATUS)) {
+            assertEquals(1, meterRegistry.get("votes.cast.stage").tag("stage", stage.getTag()).timer().count(), stage.getTag());
+        }
+    }
+
+    @Test
+    void testCastVote_UserAlreadyVoted() {
+        // Given
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId)).thenReturn(true);
+
+        // When / Then
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> !response.isSuccess()
+                        && "User has already voted in this election".equals(response.getMessage()))
+                .verifyComplete();
+        verify(voteRepository, never()).save(any());
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
+        verify(auditEventStream).voteReceived(electionId);
+        verify(auditEventStream).voteRejected(userId, electionId, AuditEventStream.REASON_ALREADY_VOTED);
+    }
+
+    @Test
+    void testCastVote_InvalidCandidateIsRejected() {
+        // Given
+        when(candidateCatalog.isEnabled()).thenReturn(true);
+        when(candidateCatalog.isCachedActiveCandidate(electionId, voteRequest.getCandidateId())).thenReturn(false);
+        when(candidateCatalog.isActiveCandidate(electionId, voteRequest.getCandidateId())).thenReturn(false);
+
+        // When / Then
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> !response.isSuccess())
+                .verifyComplete();
+        verify(auditEventStream).voteReceived(electionId);
+        verify(auditEventStream).voteRejected(userId, electionId, AuditEventStream.REASON_INVALID_CANDIDATE);
+        verify(voteRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCastVote_ClaimMode_ClaimRejected() {
+        // Given
+        ReflectionTestUtils.setField(reactiveVotingService, "claimModeEnabled", true);
+        EntityWriteResult<UserVoteLog> notApplied = mock(EntityWriteResult.class);
+        when(notApplied.wasApplied()).thenReturn(false);
+        when(notApplied.getRows()).thenReturn(Collections.emptyList());
+        when(votingService.prepareVote(userId, electionId, voteRequest.getCandidateId())).thenReturn(pendingVote);
+        when(reactiveCassandraOperations.insert(eq(pendingVote.getUserVoteLog()), any(InsertOptions.class)))
+                .thenReturn(Mono.just(notApplied));
+
+        // When / Then
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> !response.isSuccess())
+                .verifyComplete();
+        verify(userVotingStatusRepository, never()).existsByUserIdAndElectionIdAndHasVotedTrue(any(), any());
+        verify(voteRepository, never()).save(any());
+    }
+
+    @Test
+    void testCastVote_StatusWriteFailureStillSucceeds() {
+        // Given
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId)).thenReturn(false);
+        when(userVoteLogRepository.findByUserIdAndElectionId(userId, electionId)).thenReturn(Mono.empty());
+        when(votingService.prepareVote(userId, electionId, voteRequest.getCandidateId())).thenReturn(pendingVote);
+        when(voteRepository.save(pendingVote.getVote())).thenReturn(Mono.just(pendingVote.getVote()));
+        when(voteByCandidateRepository.save(pendingVote.getVoteByCandidate()))
+                .thenReturn(Mono.just(pendingVote.getVoteByCandidate()));
+        when(userVoteLogRepository.save(pendingVote.getUserVoteLog())).thenReturn(Mono.just(pendingVote.getUserVoteLog()));
+        when(userVotingStatusRepository.upsertVoted(userId, electionId, pendingVote.getVotedAt()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        // When / Then: el voto ya está en Cassandra y sus contadores se actualizan igualmente
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> response.isSuccess())
+                .verifyComplete();
+        verify(voteCountAggregator).record(electionId, voteRequest.getCandidateId());
+        verify(votedUserIndex).add(electionId, userId);
+        verify(auditEventStream).votePersisted(pendingVote.getVoteId(), electionId, voteRequest.getCandidateId());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_KeepsClaimWhenWriteTimesOut() {
+        // Given
+        ReflectionTestUtils.setField(reactiveVotingService, "claimModeEnabled", true);
+        ReflectionTestUtils.setField(reactiveVotingService, "claimWriteRetries", 2);
+        claimApplied();
+        AtomicInteger attempts = new AtomicInteger();
+        when(voteRepository.save(pendingVote.getVote())).thenReturn(Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new DriverTimeoutException("write timeout"));
+        }));
+
+        // When / Then
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> !response.isSuccess() && response.isOutcomeUnknown())
+                .verifyComplete();
+        assertEquals(3, attempts.get());
+        verify(voteCqlRepository, never()).releaseClaim(any());
+        verify(voteCountAggregator, never()).record(any(), any());
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_ReleasesClaimWhenWriteIsRejected() {
+        // Given
+        ReflectionTestUtils.setField(reactiveVotingService, "claimModeEnabled", true);
+        claimApplied();
+        when(voteRepository.save(pendingVote.getVote()))
+                .thenReturn(Mono.error(new InvalidQueryException(null, "unconfigured table votes")));
+
+        // When / Then
+        StepVerifier.create(reactiveVotingService.castVote(userId, voteRequest))
+                .expectNextMatches(response -> !response.isSuccess() && !response.isOutcomeUnknown())
+                .verifyComplete();
+        verify(voteCqlRepository).releaseClaim(pendingVote.getUserVoteLog());
+        verify(voteByCandidateRepository, never()).save(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claimApplied() {
+        EntityWriteResult<UserVoteLog> applied = mock(EntityWriteResult.class);
+        when(applied.wasApplied()).thenReturn(true);
+        when(votingService.prepareVote(userId, electionId, voteRequest.getCandidateId())).thenReturn(pendingVote);
+        when(reactiveCassandraOperations.insert(eq(pendingVote.getUserVoteLog()), any(InsertOptions.class)))
+                .thenReturn(Mono.just(applied));
+    }
+}
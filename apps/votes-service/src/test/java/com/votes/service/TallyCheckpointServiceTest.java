@@ -0,0 +1,149 @@
+package com.votes.service;
+
+import com.votes.entity.postgres.Candidate;
+import com.votes.repository.cassandra.TallyCheckpointRepository;
+import com.votes.repository.cassandra.TallyCheckpointRepository.TallyCheckpoint;
+import com.votes.repository.cassandra.VoteCountRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.repository.postgres.CandidateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TallyCheckpointServiceTest {
+
+    @Mock
+    private TallyCheckpointRepository tallyCheckpointRepository;
+
+    @Mock
+    private VoteMinuteRepository voteMinuteRepository;
+
+    @Mock
+    private VoteCountRepository voteCountRepository;
+
+    @Mock
+    private CandidateRepository candidateRepository;
+
+    @InjectMocks
+    private TallyCheckpointService tallyCheckpointService;
+
+    private UUID electionId;
+    private UUID candidateId;
+    private Instant highWater;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+        candidateId = UUID.randomUUID();
+        highWater = Instant.parse("2026-10-18T10:00:00Z");
+    }
+
+    @Test
+    void testRecover_AddsVotesAfterHighWater() {
+        // Given
+        when(tallyCheckpointRepository.findLatest(electionId))
+                .thenReturn(Optional.of(new TallyCheckpoint(highWater, Collections.singletonMap(candidateId, 10L))));
+        Map<UUID, UUID> replayed = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            replayed.put(UUID.randomUUID(), candidateId);
+        }
+        when(voteMinuteRepository.candidateByVote(eq(electionId), eq(highWater), any())).thenReturn(replayed);
+
+        // When
+        Optional<TallyCheckpointService.RecoveredTally> recovered = tallyCheckpointService.recover(electionId);
+
+        // Then
+        assertTrue(recovered.isPresent());
+        assertEquals(13L, recovered.get().getCounts().get(candidateId));
+        assertEquals(replayed.keySet(), recovered.get().getReplayedVoteIds());
+        verifyNoInteractions(voteCountRepository);
+    }
+
+    @Test
+    void testCheckpoint_FirstOneCountsVotesBeforeHighWater() {
+        // Given
+        Candidate candidate = new Candidate();
+        candidate.setId(candidateId);
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId)).thenReturn(Collections.singletonList(candidate));
+        when(voteCountRepository.countVotesByCandidateBefore(electionId, candidateId, highWater)).thenReturn(42L);
+
+        // When
+        tallyCheckpointService.checkpoint(electionId, new TallyCheckpoint(null, Collections.<UUID, Long>emptyMap()), highWater);
+
+        // Then
+        verify(tallyCheckpointRepository).save(electionId, highWater, Collections.singletonMap(candidateId, 42L));
+        verifyNoInteractions(voteMinuteRepository);
+    }
+
+    @Test
+    void testCheckpoint_AdvancesWithVotesBetweenHighWaters() {
+        // Given
+        Instant next = highWater.plusSeconds(120);
+        UUID otherCandidateId = UUID.randomUUID();
+        Map<UUID, Long> delta = new HashMap<>();
+        delta.put(candidateId, 2L);
+        delta.put(otherCandidateId, 1L);
+        when(voteMinuteRepository.countByCandidate(electionId, highWater, next)).thenReturn(delta);
+
+        // When
+        tallyCheckpointService.checkpoint(electionId,
+                new TallyCheckpoint(highWater, Collections.singletonMap(candidateId, 10L)), next);
+
+        // Then
+        Map<UUID, Long> expected = new HashMap<>();
+        expected.put(candidateId, 12L);
+        expected.put(otherCandidateId, 1L);
+        verify(tallyCheckpointRepository).save(electionId, next, expected);
+        verifyNoInteractions(voteCountRepository);
+    }
+
+    @Test
+    void testCheckpoint_RecountsWhenLateVotesWereWritten() {
+        // Given: un voto importado con voted_at anterior a highWater, escrito después del checkpoint
+        Instant next = highWater.plusSeconds(120);
+        Candidate candidate = new Candidate();
+        candidate.setId(candidateId);
+        when(voteMinuteRepository.hasLateVotes(electionId, highWater, next)).thenReturn(true);
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId)).thenReturn(Collections.singletonList(candidate));
+        when(voteCountRepository.countVotesByCandidateBefore(electionId, candidateId, next)).thenReturn(13L);
+
+        // When
+        tallyCheckpointService.checkpoint(electionId,
+                new TallyCheckpoint(highWater, Collections.singletonMap(candidateId, 10L)), next);
+
+        // Then
+        verify(tallyCheckpointRepository).save(electionId, next, Collections.singletonMap(candidateId, 13L));
+        verify(voteMinuteRepository, never()).countByCandidate(any(), any(), any());
+    }
+
+    @Test
+    void testCurrentCounts_IgnoresCheckpointWithLateVotesAfterIt() {
+        // Given
+        when(tallyCheckpointRepository.findLatest(electionId))
+                .thenReturn(Optional.of(new TallyCheckpoint(highWater, Collections.singletonMap(candidateId, 10L))));
+        when(voteMinuteRepository.hasLateVotes(eq(electionId), eq(highWater), any())).thenReturn(true);
+
+        // When
+        Optional<Map<UUID, Long>> counts = tallyCheckpointService.currentCounts(electionId);
+
+        // Then: el llamador cuenta desde votes_by_candidate
+        assertFalse(counts.isPresent());
+        verify(voteMinuteRepository, never()).countByCandidate(any(), any(), any());
+    }
+}
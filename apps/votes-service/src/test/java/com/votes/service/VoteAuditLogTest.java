@@ -0,0 +1,211 @@
+package com.votes.service;
+
+import com.votes.dto.AuditRootResponse;
+import com.votes.dto.InclusionProofResponse;
+import com.votes.entity.cassandra.Vote;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.util.VoteHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteAuditLogTest {
+
+    @Mock
+    private VoteCqlRepository voteCqlRepository;
+
+    @Mock
+    private VoteMinuteRepository voteMinuteRepository;
+
+    private UUID electionId;
+    private Instant firstMinute;
+    private Vote early;
+    private Vote tiedLow;
+    private Vote tiedHigh;
+    private Vote late;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+        firstMinute = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(10, ChronoUnit.MINUTES);
+
+        // Dos votos en el mismo instante: el desempate es vote_id
+        Instant tie = firstMinute.plusSeconds(40);
+        early = vote(new UUID(0, 9), firstMinute.plusSeconds(5));
+        tiedLow = vote(new UUID(0, 1), tie);
+        tiedHigh = vote(new UUID(0, 2), tie);
+        late = vote(new UUID(0, 3), firstMinute.plusSeconds(70));
+    }
+
+    @Test
+    void testRebuildAndSealing_ProduceSameRootAndLeafIndices() {
+        // Given: una instancia reconstruye desde votes, otra sella los minutos desde votes_by_minute
+        VoteAuditLog rebuilt = auditLog();
+        feedVotes(late, tiedHigh, early, tiedLow);
+        rebuilt.load(firstMinute.plus(2, ChronoUnit.MINUTES));
+
+        VoteAuditLog sealed = auditLog();
+        sealed.load(firstMinute);
+        when(voteMinuteRepository.findVotes(electionId, firstMinute)).thenReturn(minute(tiedHigh, early, tiedLow));
+        when(voteMinuteRepository.findVotes(electionId, firstMinute.plus(1, ChronoUnit.MINUTES)))
+                .thenReturn(minute(late));
+        sealed.track(electionId);
+
+        // When
+        sealed.seal(firstMinute.plus(2, ChronoUnit.MINUTES));
+
+        // Then
+        AuditRootResponse rebuiltRoot = rebuilt.getRoot(electionId);
+        AuditRootResponse sealedRoot = sealed.getRoot(electionId);
+        assertEquals(4, sealedRoot.getTreeSize());
+        assertEquals(rebuiltRoot.getRootHash(), sealedRoot.getRootHash());
+        assertEquals(rebuiltRoot.getSealedUpTo(), sealedRoot.getSealedUpTo());
+
+        List<Vote> leafOrder = List.of(early, tiedLow, tiedHigh, late);
+        for (int i = 0; i < leafOrder.size(); i++) {
+            UUID voteId = leafOrder.get(i).getVoteId();
+            InclusionProofResponse fromRebuild = rebuilt.getInclusionProof(electionId, voteId).orElseThrow();
+            InclusionProofResponse fromSeal = sealed.getInclusionProof(electionId, voteId).orElseThrow();
+            assertEquals(i, fromRebuild.getLeafIndex());
+            assertEquals(i, fromSeal.getLeafIndex());
+            assertEquals(fromRebuild.getAuditPath(), fromSeal.getAuditPath());
+        }
+    }
+
+    @Test
+    void testLateVote_IsAppendedWhenItsWriteMinuteIsSealed() {
+        // Given: tiedLow se escribió con retraso, en el minuto de late (su propio minuto ya estaba sellado)
+        Instant writtenMinute = firstMinute.plus(1, ChronoUnit.MINUTES);
+        VoteAuditLog rebuilt = auditLog();
+        when(voteMinuteRepository.lateVoteMinutes()).thenReturn(Map.of(tiedLow.getVoteId(), writtenMinute));
+        feedVotes(late, tiedHigh, early, tiedLow);
+        rebuilt.load(firstMinute.plus(2, ChronoUnit.MINUTES));
+
+        VoteAuditLog sealed = auditLog();
+        sealed.load(firstMinute);
+        when(voteMinuteRepository.findVotes(electionId, firstMinute)).thenReturn(minute(tiedHigh, early));
+        when(voteMinuteRepository.findVotes(electionId, writtenMinute)).thenReturn(minute(late));
+        when(voteMinuteRepository.findLateVotes(electionId, firstMinute)).thenReturn(minute());
+        when(voteMinuteRepository.findLateVotes(electionId, writtenMinute)).thenReturn(minute(tiedLow));
+        sealed.track(electionId);
+
+        // When: el primer minuto se sella antes de que llegue el voto tardío
+        sealed.seal(writtenMinute);
+        AuditRootResponse before = sealed.getRoot(electionId);
+        sealed.seal(firstMinute.plus(2, ChronoUnit.MINUTES));
+
+        // Then: las hojas ya selladas no cambian y ambas instancias coinciden
+        assertEquals(2, before.getTreeSize());
+        assertEquals(0, sealed.getInclusionProof(electionId, early.getVoteId()).orElseThrow().getLeafIndex());
+        assertEquals(rebuilt.getRoot(electionId).getRootHash(), sealed.getRoot(electionId).getRootHash());
+        List<Vote> leafOrder = List.of(early, tiedHigh, late, tiedLow);
+        for (int i = 0; i < leafOrder.size(); i++) {
+            UUID voteId = leafOrder.get(i).getVoteId();
+            assertEquals(i, rebuilt.getInclusionProof(electionId, voteId).orElseThrow().getLeafIndex());
+            assertEquals(i, sealed.getInclusionProof(electionId, voteId).orElseThrow().getLeafIndex());
+        }
+    }
+
+    @Test
+    void testSeal_UnsealedMinuteHasNoProofYet() {
+        // Given
+        VoteAuditLog auditLog = auditLog();
+        auditLog.load(firstMinute);
+        when(voteMinuteRepository.findVotes(electionId, firstMinute)).thenReturn(minute(early));
+        auditLog.track(electionId);
+
+        // When
+        auditLog.seal(firstMinute.plus(1, ChronoUnit.MINUTES));
+
+        // Then
+        assertTrue(auditLog.getInclusionProof(electionId, early.getVoteId()).isPresent());
+        assertTrue(auditLog.getInclusionProof(electionId, late.getVoteId()).isEmpty());
+        assertEquals(firstMinute.plus(1, ChronoUnit.MINUTES), auditLog.getRoot(electionId).getSealedUpTo());
+    }
+
+    @Test
+    void testSeal_FailedMinuteIsRetriedOnNextPass() {
+        // Given
+        VoteAuditLog auditLog = auditLog();
+        auditLog.load(firstMinute);
+        when(voteMinuteRepository.findVotes(electionId, firstMinute))
+                .thenThrow(new IllegalStateException("read timeout"))
+                .thenReturn(minute(early));
+        auditLog.track(electionId);
+        auditLog.seal(firstMinute.plus(1, ChronoUnit.MINUTES));
+        assertEquals(firstMinute, auditLog.getRoot(electionId).getSealedUpTo());
+
+        // When
+        auditLog.seal(firstMinute.plus(1, ChronoUnit.MINUTES));
+
+        // Then
+        assertEquals(1, auditLog.getRoot(electionId).getTreeSize());
+        assertEquals(firstMinute.plus(1, ChronoUnit.MINUTES), auditLog.getRoot(electionId).getSealedUpTo());
+    }
+
+    @Test
+    void testLoadWithRetry_RetriesFailedRebuildUntilReady() {
+        // Given
+        VoteAuditLog auditLog = auditLog();
+        ReflectionTestUtils.setField(auditLog, "rebuildRetryBaseDelayMs", 1L);
+        ReflectionTestUtils.setField(auditLog, "rebuildRetryMaxDelayMs", 1L);
+        doThrow(new IllegalStateException("no node available"))
+                .doAnswer(invocation -> {
+                    Consumer<Vote> consumer = invocation.getArgument(0);
+                    consumer.accept(early);
+                    return null;
+                })
+                .when(voteCqlRepository).forEachVote(any());
+
+        // When
+        auditLog.loadWithRetry();
+
+        // Then
+        assertTrue(auditLog.isAvailable());
+        assertEquals(1, auditLog.getRoot(electionId).getTreeSize());
+        verify(voteCqlRepository, times(2)).forEachVote(any());
+    }
+
+    private VoteAuditLog auditLog() {
+        VoteAuditLog auditLog = new VoteAuditLog(voteCqlRepository, voteMinuteRepository);
+        ReflectionTestUtils.setField(auditLog, "enabled", true);
+        return auditLog;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void feedVotes(Vote... votes) {
+        doAnswer(invocation -> {
+            Consumer<Vote> consumer = invocation.getArgument(0);
+            for (Vote vote : votes) {
+                consumer.accept(vote);
+            }
+            return null;
+        }).when(voteCqlRepository).forEachVote(any());
+    }
+
+    private static List<Vote> minute(Vote... votes) {
+        return new ArrayList<>(List.of(votes));
+    }
+
+    private Vote vote(UUID voteId, Instant votedAt) {
+        String hash = String.format("%064x", voteId.getLeastSignificantBits());
+        return new Vote(voteId, UUID.randomUUID(), electionId, votedAt, hash, null, VoteHasher.VERSION);
+    }
+}
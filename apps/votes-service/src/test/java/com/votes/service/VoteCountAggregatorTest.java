@@ -0,0 +1,178 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.NoNodeAvailableException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.repository.cassandra.VoteCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteCountAggregatorTest {
+
+    @Mock
+    private VoteCountRepository voteCountRepository;
+
+    @Mock
+    private TallyCheckpointService tallyCheckpointService;
+
+    private VoteCountAggregator aggregator;
+
+    private UUID electionId;
+    private UUID candidateId;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+        candidateId = UUID.randomUUID();
+
+        aggregator = new VoteCountAggregator(voteCountRepository, tallyCheckpointService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(aggregator, "enabled", true);
+        aggregator.registerMetrics();
+    }
+
+    @Test
+    void testFlush_WritesOneDeltaPerCandidate() {
+        // Given
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 3L))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        aggregator.record(electionId, candidateId);
+        aggregator.record(electionId, candidateId);
+        aggregator.record(electionId, candidateId);
+
+        // When
+        aggregator.flush();
+        aggregator.flush();
+
+        // Then
+        verify(voteCountRepository, times(1)).incrementAsync(eq(electionId), eq(candidateId), anyLong());
+        assertEquals(0, aggregator.flushLagMillis());
+    }
+
+    @Test
+    void testFlush_UnappliedDeltaIsKeptForNextFlush() {
+        // Given
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 2L))
+                .thenReturn(CompletableFuture.failedFuture(new NoNodeAvailableException()));
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 3L))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        aggregator.record(electionId, candidateId);
+        aggregator.record(electionId, candidateId);
+
+        // When
+        aggregator.flush();
+        aggregator.record(electionId, candidateId);
+        aggregator.flush();
+
+        // Then
+        verify(voteCountRepository).incrementAsync(electionId, candidateId, 2L);
+        verify(voteCountRepository).incrementAsync(electionId, candidateId, 3L);
+        assertFalse(aggregator.isUnreconciled(electionId, candidateId));
+    }
+
+    @Test
+    void testFlush_TimedOutDeltaIsReconciledInsteadOfReAdded() {
+        // Given
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 2L))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write timeout")));
+        aggregator.record(electionId, candidateId);
+        aggregator.record(electionId, candidateId);
+        aggregator.flush();
+
+        // El timeout sí se aplicó: el contador ya tiene los 2 votos de la fuente
+        when(voteCountRepository.countVotesByCandidate(electionId, candidateId)).thenReturn(2L);
+        when(voteCountRepository.findCountsByElectionId(electionId)).thenReturn(Map.of(candidateId, 2L));
+
+        // When: dos pasadas con la misma medida
+        aggregator.reconcile();
+        aggregator.reconcile();
+
+        // Then
+        verify(voteCountRepository, times(1)).incrementAsync(eq(electionId), eq(candidateId), anyLong());
+        assertFalse(aggregator.isUnreconciled(electionId, candidateId));
+    }
+
+    @Test
+    void testReconcile_WritesDifferenceOnceTwoPassesAgree() {
+        // Given
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 1L))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write timeout")));
+        aggregator.record(electionId, candidateId);
+        aggregator.flush();
+
+        // El timeout no se aplicó; un voto posterior sigue sin volcar y la conciliación lo vuelca antes de medir
+        aggregator.record(electionId, candidateId);
+        when(tallyCheckpointService.isEnabled()).thenReturn(true);
+        when(tallyCheckpointService.currentCounts(electionId)).thenReturn(Optional.of(Map.of(candidateId, 6L)));
+        when(voteCountRepository.findCountsByElectionId(electionId))
+                .thenReturn(Map.of(candidateId, 5L), Map.of(candidateId, 5L), Map.of(candidateId, 6L));
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 1L))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+
+        // When
+        aggregator.reconcile();
+        verify(voteCountRepository, times(2)).incrementAsync(electionId, candidateId, 1L);
+        aggregator.reconcile();
+
+        // Then: fuente 6 - contador 5 = 1, escrito solo cuando la segunda pasada confirma la medida
+        verify(voteCountRepository, times(3)).incrementAsync(electionId, candidateId, 1L);
+        verify(voteCountRepository, never()).countVotesByCandidate(any(), any());
+        assertTrue(aggregator.isUnreconciled(electionId, candidateId));
+
+        // Y dos pasadas más confirman el contador corregido
+        aggregator.reconcile();
+        aggregator.reconcile();
+        verify(voteCountRepository, times(3)).incrementAsync(electionId, candidateId, 1L);
+        assertFalse(aggregator.isUnreconciled(electionId, candidateId));
+    }
+
+    @Test
+    void testReconcile_DoesNotCorrectWhileCountsChange() {
+        // Given: un volcado con timeout y otra instancia con votos aún sin volcar
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 1L))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write timeout")));
+        aggregator.record(electionId, candidateId);
+        aggregator.flush();
+        when(voteCountRepository.countVotesByCandidate(electionId, candidateId)).thenReturn(6L);
+        when(voteCountRepository.findCountsByElectionId(electionId))
+                .thenReturn(Map.of(candidateId, 4L), Map.of(candidateId, 6L));
+
+        // When: la otra instancia vuelca entre la primera y la segunda pasada
+        aggregator.reconcile();
+        aggregator.reconcile();
+        aggregator.reconcile();
+
+        // Then: sus votos no se suman dos veces
+        verify(voteCountRepository, times(1)).incrementAsync(eq(electionId), eq(candidateId), anyLong());
+        assertFalse(aggregator.isUnreconciled(electionId, candidateId));
+    }
+
+    @Test
+    void testShutdown_FlushesRemainingDeltas() {
+        // Given
+        when(voteCountRepository.incrementAsync(electionId, candidateId, 1L))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        aggregator.record(electionId, candidateId);
+
+        // When
+        aggregator.flushOnShutdown();
+
+        // Then
+        verify(voteCountRepository).incrementAsync(electionId, candidateId, 1L);
+    }
+}
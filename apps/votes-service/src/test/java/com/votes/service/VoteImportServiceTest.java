@@ -0,0 +1,259 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votes.audit.AuditEventStream;
+import com.votes.dto.ImportVoteResult;
+import com.votes.dto.ImportVoteStatus;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import com.votes.util.VoteHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteImportServiceTest {
+
+    private static final String SECRET = "kiosk-secret";
+
+    @Mock
+    private VotingService votingService;
+
+    @Mock
+    private VoteCqlRepository voteCqlRepository;
+
+    @Mock
+    private UserVotingStatusBatchRepository userVotingStatusBatchRepository;
+
+    @Mock
+    private VotingStatusProjector votingStatusProjector;
+
+    @Mock
+    private CandidateCatalog candidateCatalog;
+
+    @Mock
+    private VoteCountAggregator voteCountAggregator;
+
+    @Mock
+    private VoteTallyService voteTallyService;
+
+    @Mock
+    private VotedUserIndex votedUserIndex;
+
+    @Mock
+    private VoteAuditLog voteAuditLog;
+
+    @Mock
+    private AuditEventStream auditEventStream;
+
+    @Mock
+    private VoteRateSeries voteRateSeries;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private VoteImportService importService;
+
+    private UUID electionId;
+    private UUID candidateId;
+    private Instant votedAt;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+        candidateId = UUID.randomUUID();
+        votedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.HOURS);
+
+        importService = new VoteImportService(votingService, voteCqlRepository, userVotingStatusBatchRepository,
+                votingStatusProjector, candidateCatalog, voteCountAggregator, voteTallyService, votedUserIndex,
+                voteAuditLog, auditEventStream, voteRateSeries, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(importService, "enabled", true);
+        ReflectionTestUtils.setField(importService, "hmacSecret", SECRET);
+        ReflectionTestUtils.setField(importService, "claimModeEnabled", true);
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "parallelism", 2);
+        ReflectionTestUtils.setField(importService, "maxLineLength", 4096);
+        ReflectionTestUtils.setField(importService, "maxAgeMillis", 86_400_000L);
+        ReflectionTestUtils.setField(importService, "maxFutureMillis", 5_000L);
+        ReflectionTestUtils.setField(importService, "writeRetries", 2);
+        importService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.stop();
+    }
+
+    @Test
+    void testStart_RefusesImportWithoutClaimMode() {
+        // Given: sin claim mode el camino del voto escribe user_votes_log sin LWT
+        VoteImportService withoutClaims = new VoteImportService(votingService, voteCqlRepository,
+                userVotingStatusBatchRepository, votingStatusProjector, candidateCatalog, voteCountAggregator,
+                voteTallyService, votedUserIndex, voteAuditLog, auditEventStream, voteRateSeries, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(withoutClaims, "enabled", true);
+        ReflectionTestUtils.setField(withoutClaims, "hmacSecret", SECRET);
+
+        // When / Then
+        IllegalStateException e = assertThrows(IllegalStateException.class, withoutClaims::start);
+        assertTrue(e.getMessage().contains("app.votes.claim-mode.enabled"));
+    }
+
+    @Test
+    void testImport_WritesClaimedVotesAndReportsDuplicates() throws Exception {
+        // Given
+        UUID firstUser = UUID.randomUUID();
+        UUID secondUser = UUID.randomUUID();
+        PendingVote first = pendingVote(firstUser);
+        PendingVote second = pendingVote(secondUser);
+        when(votingService.prepareVote(firstUser, electionId, candidateId, votedAt)).thenReturn(first);
+        when(votingService.prepareVote(secondUser, electionId, candidateId, votedAt)).thenReturn(second);
+        when(voteCqlRepository.claimUserVoteAsync(first.getUserVoteLog()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(voteCqlRepository.claimUserVoteAsync(second.getUserVoteLog()))
+                .thenReturn(CompletableFuture.completedFuture(false));
+        when(voteCqlRepository.saveClaimedVoteAsync(first.getVote(), first.getVoteByCandidate()))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+
+        // When
+        List<ImportVoteResult> results = importLines(signedLine(firstUser), signedLine(secondUser));
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals(ImportVoteStatus.IMPORTED, results.get(0).getStatus());
+        assertEquals(first.getVoteId(), results.get(0).getVoteId());
+        assertEquals(ImportVoteStatus.DUPLICATE, results.get(1).getStatus());
+        verify(voteCqlRepository, never()).saveClaimedVoteAsync(second.getVote(), second.getVoteByCandidate());
+        verify(userVotingStatusBatchRepository).markAllAsVoted(List.of(first.getUserVoteLog()));
+        verify(voteCountAggregator).record(electionId, candidateId);
+        verify(voteRateSeries).record(electionId, votedAt);
+    }
+
+    @Test
+    void testImport_RejectsBadSignatureAndMalformedLines() throws Exception {
+        // Given
+        String tampered = signedLine(UUID.randomUUID()).replace(candidateId.toString(), UUID.randomUUID().toString());
+
+        // When
+        List<ImportVoteResult> results = importLines(tampered, "", "{not json");
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getLine());
+        assertEquals(ImportVoteStatus.INVALID_SIGNATURE, results.get(0).getStatus());
+        assertEquals(3, results.get(1).getLine());
+        assertEquals(ImportVoteStatus.INVALID, results.get(1).getStatus());
+        verifyNoInteractions(voteCqlRepository);
+    }
+
+    @Test
+    void testImport_RejectsVotedAtOutsideWindow() throws Exception {
+        // Given: un voto del futuro y otro más antiguo que max-age-ms
+        String future = signedLine(UUID.randomUUID(), Instant.now().plus(1, ChronoUnit.HOURS));
+        String stale = signedLine(UUID.randomUUID(), Instant.now().minus(2, ChronoUnit.DAYS));
+
+        // When
+        List<ImportVoteResult> results = importLines(future, stale);
+
+        // Then
+        assertEquals(ImportVoteStatus.INVALID, results.get(0).getStatus());
+        assertEquals(ImportVoteStatus.INVALID, results.get(1).getStatus());
+        verifyNoInteractions(voteCqlRepository);
+    }
+
+    @Test
+    void testImport_WriteTimeoutKeepsClaimAndReportsUnknown() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+        PendingVote vote = pendingVote(userId);
+        when(votingService.prepareVote(userId, electionId, candidateId, votedAt)).thenReturn(vote);
+        when(voteCqlRepository.claimUserVoteAsync(vote.getUserVoteLog()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new DriverTimeoutException("write timeout")));
+
+        // When
+        List<ImportVoteResult> results = importLines(signedLine(userId));
+
+        // Then: se reintenta y, sin confirmación, el reclamo se conserva
+        assertEquals(ImportVoteStatus.UNKNOWN, results.get(0).getStatus());
+        assertEquals(vote.getVoteId(), results.get(0).getVoteId());
+        verify(voteCqlRepository, times(3)).saveClaimedVoteAsync(any(), any());
+        verify(voteCqlRepository, never()).releaseClaim(any());
+        verify(userVotingStatusBatchRepository, never()).markAllAsVoted(any());
+    }
+
+    @Test
+    void testImport_RejectedWriteReleasesClaim() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+        PendingVote vote = pendingVote(userId);
+        when(votingService.prepareVote(userId, electionId, candidateId, votedAt)).thenReturn(vote);
+        when(voteCqlRepository.claimUserVoteAsync(vote.getUserVoteLog()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new InvalidQueryException(null, "unconfigured table votes")));
+
+        // When
+        List<ImportVoteResult> results = importLines(signedLine(userId));
+
+        // Then
+        assertEquals(ImportVoteStatus.FAILED, results.get(0).getStatus());
+        verify(voteCqlRepository).saveClaimedVoteAsync(any(), any());
+        verify(voteCqlRepository).releaseClaim(vote.getUserVoteLog());
+        verify(userVotingStatusBatchRepository, never()).markAllAsVoted(any());
+    }
+
+    private List<ImportVoteResult> importLines(String... lines) throws Exception {
+        byte[] body = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importVotes(new ByteArrayInputStream(body), out);
+
+        List<ImportVoteResult> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                results.add(objectMapper.readValue(line, ImportVoteResult.class));
+            }
+        }
+        return results;
+    }
+
+    private PendingVote pendingVote(UUID userId) {
+        return new PendingVote(userId, electionId, candidateId, UUID.randomUUID(), votedAt, "hash");
+    }
+
+    private String signedLine(UUID userId) throws Exception {
+        return signedLine(userId, votedAt);
+    }
+
+    private String signedLine(UUID userId, Instant votedAt) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String payload = userId + "|" + electionId + "|" + candidateId + "|" + votedAt;
+        String signature = VoteHasher.toHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        return String.format("{\"userId\":\"%s\",\"electionId\":\"%s\",\"candidateId\":\"%s\",\"votedAt\":\"%s\",\"signature\":\"%s\"}",
+                userId, electionId, candidateId, votedAt, signature);
+    }
+}
@@ -0,0 +1,242 @@
+package com.votes.service;
+
+import com.votes.audit.AuditEventStream;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.votes.dto.VoteReceiptResponse;
+import com.votes.dto.VoteReceiptStatus;
+import com.votes.dto.VoteRequest;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteRepository;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import com.votes.wal.VoteJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteIngestionServiceTest {
+
+    @Mock
+    private VotingService votingService;
+
+    @Mock
+    private VoteCqlRepository voteCqlRepository;
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private UserVotingStatusBatchRepository userVotingStatusBatchRepository;
+
+    @Mock
+    private VoteJournal voteJournal;
+
+    @Mock
+    private VoteCountAggregator voteCountAggregator;
+
+    @Mock
+    private VoteTallyService voteTallyService;
+
+    @Mock
+    private VotedUserIndex votedUserIndex;
+
+    @Mock
+    private VoteAuditLog voteAuditLog;
+
+    @Mock
+    private CandidateCatalog candidateCatalog;
+
+    @Mock
+    private AuditEventStream auditEventStream;
+
+    @Mock
+    private VoteRateSeries voteRateSeries;
+
+    private VoteIngestionService ingestionService;
+
+    private UUID userId;
+    private UUID electionId;
+    private VoteRequest voteRequest;
+    private PendingVote pendingVote;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        electionId = UUID.randomUUID();
+        voteRequest = new VoteRequest(UUID.randomUUID(), electionId);
+        pendingVote = new PendingVote(userId, electionId, voteRequest.getCandidateId(),
+                UUID.randomUUID(), Instant.now(), "hash");
+
+        ingestionService = new VoteIngestionService(votingService, voteCqlRepository, voteRepository,
+                userVotingStatusBatchRepository, voteJournal, voteCountAggregator, voteTallyService,
+                votedUserIndex, voteAuditLog, candidateCatalog, auditEventStream, voteRateSeries, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionService, "enabled", true);
+        ReflectionTestUtils.setField(ingestionService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(ingestionService, "workers", 1);
+        ReflectionTestUtils.setField(ingestionService, "batchSize", 10);
+        ReflectionTestUtils.setField(ingestionService, "shutdownTimeoutMs", 1000L);
+
+        when(votingService.resolveElectionId(electionId)).thenReturn(electionId);
+        when(votingService.prepareVote(userId, electionId, voteRequest.getCandidateId())).thenReturn(pendingVote);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestionService.stop();
+    }
+
+    @Test
+    void testSubmit_AcceptedAndPersisted() {
+        // Given
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(true);
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        ingestionService.start();
+
+        // When
+        VoteReceiptResponse receipt = ingestionService.submit(userId, voteRequest);
+
+        // Then
+        assertEquals(VoteReceiptStatus.PENDING, receipt.getStatus());
+        assertEquals(pendingVote.getVoteId(), receipt.getVoteId());
+        assertEquals("hash", receipt.getVoteHash());
+        verify(userVotingStatusBatchRepository, timeout(2000)).markAllAsVoted(any());
+        verify(voteCountAggregator, timeout(2000)).record(electionId, voteRequest.getCandidateId());
+    }
+
+    @Test
+    void testSubmit_UserAlreadyVoted() {
+        // Given
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(false);
+        ingestionService.start();
+
+        // When
+        VoteReceiptResponse receipt = ingestionService.submit(userId, voteRequest);
+
+        // Then
+        assertEquals(VoteReceiptStatus.REJECTED, receipt.getStatus());
+        verify(voteCqlRepository, never()).saveClaimedVoteAsync(any(), any());
+    }
+
+    @Test
+    void testWriteRejected_ReleasesClaimAndMarksReceiptFailed() {
+        // Given
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(true);
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new InvalidQueryException(null, "unconfigured table")));
+        ingestionService.start();
+
+        // When
+        ingestionService.submit(userId, voteRequest);
+
+        // Then
+        verify(voteCqlRepository, timeout(2000)).releaseClaim(pendingVote.getUserVoteLog());
+        assertEquals(VoteReceiptStatus.FAILED, ingestionService.getReceipt(pendingVote.getVoteId()).getStatus());
+        verify(userVotingStatusBatchRepository, never()).markAllAsVoted(any());
+    }
+
+    @Test
+    void testTransientWriteFailure_RetriesWithoutAcknowledging() {
+        // Given
+        ReflectionTestUtils.setField(ingestionService, "retryBaseDelayMs", 10L);
+        ReflectionTestUtils.setField(ingestionService, "retryMaxDelayMs", 50L);
+        when(voteJournal.isEnabled()).thenReturn(true);
+        when(voteJournal.recover()).thenReturn(java.util.Collections.emptyList());
+        when(voteJournal.append(pendingVote)).thenReturn(7L);
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(true);
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write timeout")))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        ingestionService.start();
+
+        // When
+        ingestionService.submit(userId, voteRequest);
+
+        // Then
+        verify(voteCountAggregator, timeout(2000)).record(electionId, voteRequest.getCandidateId());
+        verify(voteCqlRepository, times(2)).saveClaimedVoteAsync(any(), any());
+        verify(voteCqlRepository, never()).releaseClaim(any());
+        verify(voteJournal, timeout(2000).times(1)).acknowledge(7L);
+        assertEquals(1, pendingVote.getWriteAttempts());
+    }
+
+    @Test
+    void testRetryingWrites_ReportedOnReceiptAndStopIntakeAtCapacity() throws InterruptedException {
+        // Given: las escrituras siguen fallando y el reintento queda lejos
+        ReflectionTestUtils.setField(ingestionService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(ingestionService, "retryBaseDelayMs", 60_000L);
+        ReflectionTestUtils.setField(ingestionService, "retryMaxDelayMs", 60_000L);
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(true);
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write timeout")));
+        ingestionService.start();
+        ingestionService.submit(userId, voteRequest);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (pendingVote.getWriteAttempts() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // When
+        VoteReceiptResponse receipt = ingestionService.getReceipt(pendingVote.getVoteId());
+        VoteReceiptResponse next = ingestionService.submit(userId, voteRequest);
+
+        // Then
+        assertEquals(VoteReceiptStatus.RETRYING, receipt.getStatus());
+        assertEquals(1, receipt.getAttempts());
+        assertEquals(VoteReceiptStatus.OVERLOADED, next.getStatus());
+        verify(votingService, times(1)).prepareVote(userId, electionId, voteRequest.getCandidateId());
+        verify(voteCqlRepository, never()).releaseClaim(any());
+    }
+
+    @Test
+    void testJournal_AppendedBeforeAcceptAndAcknowledgedAfterWrite() {
+        // Given
+        when(voteJournal.isEnabled()).thenReturn(true);
+        when(voteJournal.recover()).thenReturn(java.util.Collections.emptyList());
+        when(voteJournal.append(pendingVote)).thenReturn(7L);
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(true);
+        when(voteCqlRepository.saveClaimedVoteAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        ingestionService.start();
+
+        // When
+        VoteReceiptResponse receipt = ingestionService.submit(userId, voteRequest);
+
+        // Then
+        assertEquals(VoteReceiptStatus.PENDING, receipt.getStatus());
+        verify(voteJournal).append(pendingVote);
+        verify(voteJournal, timeout(2000)).acknowledge(7L);
+    }
+
+    @Test
+    void testJournalAppendFailure_ReleasesClaim() {
+        // Given
+        when(voteJournal.isEnabled()).thenReturn(true);
+        when(voteJournal.recover()).thenReturn(java.util.Collections.emptyList());
+        when(voteJournal.append(pendingVote)).thenThrow(new java.io.UncheckedIOException(new java.io.IOException("disk full")));
+        when(voteCqlRepository.claimUserVote(pendingVote.getUserVoteLog())).thenReturn(true);
+        ingestionService.start();
+
+        // When
+        VoteReceiptResponse receipt = ingestionService.submit(userId, voteRequest);
+
+        // Then
+        assertEquals(VoteReceiptStatus.OVERLOADED, receipt.getStatus());
+        verify(voteCqlRepository).releaseClaim(pendingVote.getUserVoteLog());
+        verify(voteCqlRepository, never()).saveClaimedVoteAsync(any(), any());
+    }
+}
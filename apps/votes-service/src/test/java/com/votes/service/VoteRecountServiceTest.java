@@ -0,0 +1,205 @@
+package com.votes.service;
+
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.votes.dto.CandidateResultResponse;
+import com.votes.dto.RecountCandidateResult;
+import com.votes.dto.RecountReport;
+import com.votes.dto.RecountState;
+import com.votes.dto.RecountStatusResponse;
+import com.votes.entity.cassandra.Vote;
+import com.votes.repository.cassandra.VoteCountRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.util.VoteHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteRecountServiceTest {
+
+    private static final String SECRET = "recount-secret";
+
+    @Mock
+    private VoteCqlRepository voteCqlRepository;
+
+    @Mock
+    private VoteCountRepository voteCountRepository;
+
+    @Mock
+    private VoteTallyService voteTallyService;
+
+    @Mock
+    private TokenRange firstRange;
+
+    @Mock
+    private TokenRange secondRange;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private VoteRecountService recountService;
+    private UUID electionId;
+    private UUID candidateId;
+
+    @BeforeEach
+    void setUp() {
+        recountService = new VoteRecountService(voteCqlRepository, voteCountRepository, voteTallyService,
+                objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(recountService, "enabled", true);
+        ReflectionTestUtils.setField(recountService, "adminToken", "admin-token");
+        ReflectionTestUtils.setField(recountService, "signingSecret", SECRET);
+        ReflectionTestUtils.setField(recountService, "splits", 2);
+        ReflectionTestUtils.setField(recountService, "parallelism", 2);
+        ReflectionTestUtils.setField(recountService, "maxReportedMismatches", 10);
+
+        electionId = UUID.randomUUID();
+        candidateId = UUID.randomUUID();
+    }
+
+    @Test
+    void testRun_RecountsAcrossRangesAndVerifiesHashes() throws Exception {
+        // Given
+        Vote valid = vote(candidateId);
+        Vote tampered = vote(candidateId);
+        tampered.setVoteHash(VoteHasher.voteHash(tampered.getVoteId(), UUID.randomUUID(), electionId, tampered.getVotedAt()));
+        Vote otherElection = new Vote(UUID.randomUUID(), candidateId, UUID.randomUUID(), Instant.now(), "x", null, VoteHasher.VERSION);
+        emit(firstRange, valid, otherElection);
+        emit(secondRange, tampered);
+        when(voteCountRepository.findCountsByElectionId(electionId)).thenReturn(Collections.singletonMap(candidateId, 2L));
+        when(voteTallyService.getResults(electionId)).thenReturn(Optional.of(new VoteTallyService.TallySnapshot("e-1", 1,
+                Collections.singletonList(new CandidateResultResponse(candidateId, "Candidate A", 2L)))));
+
+        // When
+        RecountStatusResponse started = recountService.start(electionId);
+        RecountStatusResponse status = awaitFinished();
+
+        // Then
+        assertEquals(started.getJobId(), status.getJobId());
+        assertEquals(RecountState.COMPLETED, status.getState());
+        assertEquals(2, status.getRangesCompleted());
+        assertEquals(3, status.getRowsScanned());
+
+        RecountReport report = status.getReport();
+        assertEquals(2, report.getVotesCounted());
+        assertEquals(1, report.getHashMismatches());
+        assertEquals(Collections.singletonList(tampered.getVoteId()), report.getMismatchedVoteIds());
+        assertTrue(report.isDiscrepancy());
+
+        RecountCandidateResult candidate = report.getCandidates().get(0);
+        assertEquals(2L, candidate.getRecounted());
+        assertFalse(candidate.isDiscrepancy());
+    }
+
+    @Test
+    void testRun_FlagsCounterDiscrepancyAndSignsReport() throws Exception {
+        // Given
+        emit(firstRange, vote(candidateId));
+        emit(secondRange);
+        when(voteCountRepository.findCountsByElectionId(electionId)).thenReturn(Collections.singletonMap(candidateId, 5L));
+        when(voteTallyService.getResults(electionId)).thenReturn(Optional.of(new VoteTallyService.TallySnapshot("e-1", 1,
+                Collections.<CandidateResultResponse>emptyList())));
+
+        // When
+        recountService.start(electionId);
+        RecountReport report = awaitFinished().getReport();
+
+        // Then
+        assertTrue(report.getCandidates().get(0).isDiscrepancy());
+        assertTrue(report.isDiscrepancy());
+        String signature = report.getSignature();
+        report.setSignature(null);
+        assertEquals(recountService.sign(report), signature);
+    }
+
+    @Test
+    void testRun_ReportsLegacyHashesSeparatelyFromMismatches() throws Exception {
+        // Given: filas sin hash_version en formato de cadena y en binario con nanosegundos, y una manipulada
+        Instant storedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        Vote legacyString = legacyVote(storedAt, VoteHasher::legacyVoteHash, storedAt);
+        Vote legacyNanos = legacyVote(storedAt, VoteHasher::voteHash, storedAt.plusNanos(123456));
+        Vote tampered = vote(candidateId);
+        tampered.setCandidateId(UUID.randomUUID());
+        emit(firstRange, legacyString, legacyNanos);
+        emit(secondRange, tampered);
+        when(voteCountRepository.findCountsByElectionId(electionId)).thenReturn(Collections.emptyMap());
+        when(voteTallyService.getResults(electionId)).thenReturn(Optional.empty());
+
+        // When
+        recountService.start(electionId);
+        RecountReport report = awaitFinished().getReport();
+
+        // Then
+        assertEquals(1, report.getLegacyHashes());
+        assertEquals(1, report.getUnverifiableHashes());
+        assertEquals(1, report.getHashMismatches());
+        assertEquals(Collections.singletonList(tampered.getVoteId()), report.getMismatchedVoteIds());
+    }
+
+    @Test
+    void testIsAuthorized() {
+        assertTrue(recountService.isAuthorized("admin-token"));
+        assertFalse(recountService.isAuthorized("other"));
+        assertFalse(recountService.isAuthorized(null));
+    }
+
+    private Vote vote(UUID candidate) {
+        UUID voteId = UUID.randomUUID();
+        Instant votedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        return new Vote(voteId, candidate, electionId, votedAt, VoteHasher.voteHash(voteId, candidate, electionId, votedAt),
+                null, VoteHasher.VERSION);
+    }
+
+    private Vote legacyVote(Instant storedAt, LegacyHash hash, Instant hashedAt) {
+        UUID voteId = UUID.randomUUID();
+        return new Vote(voteId, candidateId, electionId, storedAt, hash.apply(voteId, candidateId, electionId, hashedAt),
+                null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void emit(TokenRange range, Vote... votes) {
+        lenient().when(voteCqlRepository.splitTokenRing(2)).thenReturn(Arrays.asList(firstRange, secondRange));
+        List<Vote> rows = Arrays.asList(votes);
+        doAnswer(invocation -> {
+            Consumer<Vote> consumer = invocation.getArgument(1);
+            rows.forEach(consumer);
+            return null;
+        }).when(voteCqlRepository).forEachVoteInRange(eq(range), any(Consumer.class));
+    }
+
+    private RecountStatusResponse awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            RecountStatusResponse status = recountService.getStatus().orElseThrow(IllegalStateException::new);
+            if (status.getState() != RecountState.RUNNING) {
+                return status;
+            }
+            Thread.sleep(25);
+        }
+        fail("Recount did not finish");
+        return null;
+    }
+
+    private interface LegacyHash {
+        String apply(UUID voteId, UUID candidateId, UUID electionId, Instant votedAt);
+    }
+}
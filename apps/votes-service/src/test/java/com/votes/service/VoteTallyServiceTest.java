@@ -0,0 +1,294 @@
+package com.votes.service;
+
+import com.votes.entity.postgres.Candidate;
+import com.votes.repository.cassandra.VoteCountRepository;
+import com.votes.repository.postgres.CandidateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteTallyServiceTest {
+
+    @Mock
+    private VoteCountRepository voteCountRepository;
+
+    @Mock
+    private CandidateRepository candidateRepository;
+
+    @Mock
+    private TallyCheckpointService tallyCheckpointService;
+
+    @Mock
+    private VoteCountAggregator voteCountAggregator;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VoteTallyService voteTallyService;
+
+    private UUID electionId;
+    private Candidate candidate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        voteTallyService = newVoteTallyService();
+
+        electionId = UUID.randomUUID();
+        candidate = new Candidate();
+        candidate.setId(UUID.randomUUID());
+        candidate.setName("Candidate A");
+        candidate.setElectionId(electionId);
+
+        lenient().when(candidateRepository.findByElectionIdAndIsActiveTrue(electionId))
+                .thenReturn(Collections.singletonList(candidate));
+    }
+
+    @Test
+    void testGetResults_SeededFromCassandra() {
+        // Given
+        givenCountedVotes(5);
+
+        // When
+        VoteTallyService.TallySnapshot snapshot = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertEquals(1, snapshot.getResults().size());
+        assertEquals("Candidate A", snapshot.getResults().get(0).getCandidateName());
+        assertEquals(5L, snapshot.getResults().get(0).getVoteCount());
+        assertEquals(1, meterRegistry.get("votes.tally.recovery").tag("source", "full-scan").timer().count());
+    }
+
+    @Test
+    void testGetResults_SameSnapshotUntilNextVote() {
+        // Given
+        givenCountedVotes(5);
+        VoteTallyService.TallySnapshot first = voteTallyService.getResults(electionId).orElseThrow();
+
+        // When
+        VoteTallyService.TallySnapshot unchanged = voteTallyService.getResults(electionId).orElseThrow();
+        voteTallyService.record(electionId, candidate.getId(), UUID.randomUUID());
+        VoteTallyService.TallySnapshot changed = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertSame(first, unchanged);
+        assertNotEquals(first.getEtag(), changed.getEtag());
+        assertTrue(changed.getVersion() > first.getVersion());
+        assertEquals(6L, changed.getResults().get(0).getVoteCount());
+        verify(voteCountRepository, times(1)).forEachVoteIdByCandidateBefore(eq(electionId), eq(candidate.getId()), any(), any());
+    }
+
+    @Test
+    void testGetResults_RecoveredFromCheckpointWithoutRecount() {
+        // Given
+        Map<UUID, Long> recovered = new HashMap<>();
+        recovered.put(candidate.getId(), 7L);
+        when(tallyCheckpointService.isEnabled()).thenReturn(true);
+        when(tallyCheckpointService.recover(electionId)).thenReturn(Optional.of(
+                new TallyCheckpointService.RecoveredTally(recovered, Collections.<UUID>emptySet())));
+
+        // When
+        VoteTallyService.TallySnapshot snapshot = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertEquals(7L, snapshot.getResults().get(0).getVoteCount());
+        verify(voteCountRepository, never()).forEachVoteIdByCandidateBefore(any(), any(), any(), any());
+        assertEquals(1, meterRegistry.get("votes.tally.recovery").tag("source", "checkpoint").timer().count());
+    }
+
+    @Test
+    void testGetResults_RecountsWhenCheckpointFails() {
+        // Given
+        when(tallyCheckpointService.isEnabled()).thenReturn(true);
+        when(tallyCheckpointService.recover(electionId)).thenThrow(new IllegalStateException("read timeout"));
+        givenCountedVotes(5);
+
+        // When
+        VoteTallyService.TallySnapshot snapshot = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertEquals(5L, snapshot.getResults().get(0).getVoteCount());
+    }
+
+    @Test
+    void testGetResults_UnknownElectionIsNotSeeded() {
+        // Given
+        UUID unknownElection = UUID.randomUUID();
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(unknownElection)).thenReturn(Collections.emptyList());
+
+        // When
+        Optional<VoteTallyService.TallySnapshot> snapshot = voteTallyService.getResults(unknownElection);
+        voteTallyService.record(unknownElection, candidate.getId(), UUID.randomUUID());
+
+        // Then
+        assertFalse(snapshot.isPresent());
+        verifyNoInteractions(voteCountRepository, tallyCheckpointService);
+    }
+
+    @Test
+    void testGetResults_EvictsWhenElectionLimitReached() {
+        // Given
+        ReflectionTestUtils.setField(voteTallyService, "maxElections", 1);
+        UUID otherElection = UUID.randomUUID();
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(otherElection))
+                .thenReturn(Collections.singletonList(candidate));
+        voteTallyService.getResults(electionId).orElseThrow();
+
+        // When
+        voteTallyService.getResults(otherElection).orElseThrow();
+        voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then: la primera elección se descartó y se volvió a contar
+        verify(voteCountRepository, times(2)).forEachVoteIdByCandidateBefore(eq(electionId), eq(candidate.getId()), any(), any());
+    }
+
+    @Test
+    void testGetResults_AppliesOnlyRecordedVotesThatWereNotCounted() {
+        // Given: votos registrados mientras se recorre el candidato; uno de ellos ya estaba en el recorrido
+        UUID counted = UUID.randomUUID();
+        UUID notCounted = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<UUID> consumer = invocation.getArgument(3);
+            for (int i = 0; i < 4; i++) {
+                consumer.accept(UUID.randomUUID());
+            }
+            consumer.accept(counted);
+            voteTallyService.record(electionId, candidate.getId(), counted);
+            voteTallyService.record(electionId, candidate.getId(), notCounted);
+            return null;
+        }).when(voteCountRepository).forEachVoteIdByCandidateBefore(eq(electionId), eq(candidate.getId()), any(), any());
+
+        // When
+        VoteTallyService.TallySnapshot snapshot = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then: 5 recorridos más el que no se recorrió
+        assertEquals(6L, snapshot.getResults().get(0).getVoteCount());
+    }
+
+    @Test
+    void testGetResults_SkipsRecordedVotesAlreadyReplayedFromCheckpoint() {
+        // Given
+        UUID replayedVote = UUID.randomUUID();
+        UUID newVote = UUID.randomUUID();
+        when(tallyCheckpointService.isEnabled()).thenReturn(true);
+        when(tallyCheckpointService.recover(electionId)).thenAnswer(invocation -> {
+            voteTallyService.record(electionId, candidate.getId(), replayedVote);
+            voteTallyService.record(electionId, candidate.getId(), newVote);
+            return Optional.of(new TallyCheckpointService.RecoveredTally(
+                    Collections.singletonMap(candidate.getId(), 7L), Collections.singleton(replayedVote)));
+        });
+
+        // When
+        VoteTallyService.TallySnapshot snapshot = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertEquals(8L, snapshot.getResults().get(0).getVoteCount());
+    }
+
+    @Test
+    void testGetResults_EtagDependsOnlyOnContent() {
+        // Given: dos instancias con el mismo conteo
+        givenCountedVotes(5);
+        VoteTallyService otherInstance = newVoteTallyService();
+
+        // When
+        VoteTallyService.TallySnapshot snapshot = voteTallyService.getResults(electionId).orElseThrow();
+        VoteTallyService.TallySnapshot other = otherInstance.getResults(electionId).orElseThrow();
+
+        // Then
+        assertEquals(snapshot.getEtag(), other.getEtag());
+    }
+
+    @Test
+    void testGetResults_ReadsSharedCountersWhenEnabled() {
+        // Given
+        ReflectionTestUtils.setField(voteTallyService, "sharedRefreshMillis", 60000L);
+        when(voteCountAggregator.isEnabled()).thenReturn(true);
+        when(voteCountRepository.findCountsByElectionId(electionId)).thenReturn(Collections.singletonMap(candidate.getId(), 9L));
+
+        // When
+        VoteTallyService.TallySnapshot first = voteTallyService.getResults(electionId).orElseThrow();
+        voteTallyService.record(electionId, candidate.getId(), UUID.randomUUID());
+        VoteTallyService.TallySnapshot cached = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then: no se cuenta en memoria y la partición se lee una vez por intervalo
+        assertEquals(9L, first.getResults().get(0).getVoteCount());
+        assertSame(first, cached);
+        verify(voteCountRepository, times(1)).findCountsByElectionId(electionId);
+        verify(voteCountRepository, never()).forEachVoteIdByCandidateBefore(any(), any(), any(), any());
+        verifyNoInteractions(tallyCheckpointService);
+    }
+
+    @Test
+    void testGetResults_ServesPreviousSharedResultsWhenReadFails() {
+        // Given
+        ReflectionTestUtils.setField(voteTallyService, "sharedRefreshMillis", 0L);
+        when(voteCountAggregator.isEnabled()).thenReturn(true);
+        when(voteCountRepository.findCountsByElectionId(electionId))
+                .thenReturn(Collections.singletonMap(candidate.getId(), 9L))
+                .thenThrow(new IllegalStateException("read timeout"));
+        VoteTallyService.TallySnapshot first = voteTallyService.getResults(electionId).orElseThrow();
+
+        // When
+        VoteTallyService.TallySnapshot stale = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertSame(first, stale);
+    }
+
+    @Test
+    void testGetResults_SharedEvictionKeepsDefaultElection() {
+        // Given
+        ReflectionTestUtils.setField(voteTallyService, "sharedRefreshMillis", 60000L);
+        ReflectionTestUtils.setField(voteTallyService, "defaultElectionId", electionId.toString());
+        ReflectionTestUtils.setField(voteTallyService, "maxElections", 1);
+        UUID otherElection = UUID.randomUUID();
+        when(voteCountAggregator.isEnabled()).thenReturn(true);
+        when(candidateRepository.findByElectionIdAndIsActiveTrue(otherElection))
+                .thenReturn(Collections.singletonList(candidate));
+        when(voteCountRepository.findCountsByElectionId(electionId)).thenReturn(Collections.singletonMap(candidate.getId(), 9L));
+        when(voteCountRepository.findCountsByElectionId(otherElection)).thenReturn(Collections.emptyMap());
+        VoteTallyService.TallySnapshot first = voteTallyService.getResults(electionId).orElseThrow();
+
+        // When
+        voteTallyService.getResults(otherElection).orElseThrow();
+        VoteTallyService.TallySnapshot cached = voteTallyService.getResults(electionId).orElseThrow();
+
+        // Then
+        assertSame(first, cached);
+        verify(voteCountRepository, times(1)).findCountsByElectionId(electionId);
+    }
+
+    private void givenCountedVotes(int count) {
+        doAnswer(invocation -> {
+            Consumer<UUID> consumer = invocation.getArgument(3);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(UUID.randomUUID());
+            }
+            return null;
+        }).when(voteCountRepository).forEachVoteIdByCandidateBefore(eq(electionId), eq(candidate.getId()), any(), any());
+    }
+
+    private VoteTallyService newVoteTallyService() {
+        VoteTallyService service = new VoteTallyService(voteCountRepository, candidateRepository, tallyCheckpointService,
+                voteCountAggregator, meterRegistry);
+        ReflectionTestUtils.setField(service, "defaultElectionId", UUID.randomUUID().toString());
+        ReflectionTestUtils.setField(service, "maxElections", 64);
+        return service;
+    }
+}
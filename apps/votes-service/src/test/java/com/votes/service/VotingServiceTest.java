@@ -1,16 +1,25 @@
 package com.votes.service;
 
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.votes.audit.AuditEventStream;
 import com.votes.dto.VoteRequest;
 import com.votes.dto.VoteResponse;
+import com.votes.exception.InvalidCandidateException;
 import com.votes.repository.cassandra.UserVoteLogRepository;
 import com.votes.repository.cassandra.VoteByCandidateRepository;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
 import com.votes.repository.cassandra.VoteRepository;
 import com.votes.repository.postgres.UserVotingStatusRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -35,6 +44,44 @@ class VotingServiceTest {
     @Mock
     private UserVotingStatusRepository userVotingStatusRepository;
 
+    @Mock
+    private VoteCqlRepository voteCqlRepository;
+
+    @Mock
+    private VoteCountAggregator voteCountAggregator;
+
+    @Mock
+    private VoteTallyService voteTallyService;
+
+    @Mock
+    private VotedUserIndex votedUserIndex;
+
+    @Mock
+    private VotingStatusProjector votingStatusProjector;
+
+    @Mock
+    private VoteAuditLog voteAuditLog;
+
+    @Mock
+    private CandidateCatalog candidateCatalog;
+
+    @Mock
+    private AuditEventStream auditEventStream;
+
+    @Mock
+    private VoteRateSeries voteRateSeries;
+
+    @Mock
+    private BucketedVoteByCandidateRepository bucketedVoteByCandidateRepository;
+
+    @Mock
+    private VoteMinuteRepository voteMinuteRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private VoteStageTimers voteStageTimers = new VoteStageTimers(meterRegistry);
+
     @InjectMocks
     private VotingService votingService;
 
@@ -53,6 +100,8 @@ class VotingServiceTest {
         voteRequest.setCandidateId(candidateId);
         voteRequest.setElectionId(electionId);
 
+        lenient().when(bucketedVoteByCandidateRepository.writesLegacy()).thenReturn(true);
+
         // Set the default election ID
         ReflectionTestUtils.setField(votingService, "defaultElectionId", electionId.toString());
     }
@@ -62,8 +111,7 @@ class VotingServiceTest {
         // Given
         when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId))
                 .thenReturn(false);
-        when(userVoteLogRepository.findByUserIdAndElectionId(userId, electionId))
-                .thenReturn(java.util.Optional.empty());
+        when(voteCqlRepository.hasUserVote(userId, electionId)).thenReturn(false);
 
         // When
         VoteResponse response = votingService.castVote(userId, voteRequest);
@@ -77,7 +125,86 @@ class VotingServiceTest {
         verify(voteRepository).save(any());
         verify(voteByCandidateRepository).save(any());
         verify(userVoteLogRepository).save(any());
-        verify(userVotingStatusRepository).save(any());
+        verify(userVotingStatusRepository).upsertVoted(eq(userId), eq(electionId), any());
+        verify(voteCountAggregator).record(electionId, candidateId);
+        verify(voteTallyService).record(electionId, candidateId, response.getVoteId());
+        verify(voteAuditLog).track(electionId);
+        // El usuario no llega a ningún evento de auditoría de un voto aceptado
+        verify(auditEventStream).voteReceived(electionId);
+        verify(auditEventStream).votePersisted(response.getVoteId(), electionId, candidateId);
+        verifyNoMoreInteractions(auditEventStream);
+    }
+
+    @Test
+    void testCastVote_RecordsStageTimers() {
+        // Given
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId))
+                .thenReturn(false);
+        when(voteCqlRepository.hasUserVote(userId, electionId)).thenReturn(false);
+
+        // When
+        votingService.castVote(userId, voteRequest);
+
+        // Then
+        for (VoteStage stage : new VoteStage[] {VoteStage.DEDUP_CHECK, VoteStage.HASH, VoteStage.CASSANDRA_VOTES,
+                VoteStage.CASSANDRA_VOTES_BY_CANDIDATE, VoteStage.CASSANDRA_USER_VOTES_LOG, VoteStage.POSTGRES_STATUS}) {
+            assertEquals(1, meterRegistry.get("votes.cast.stage").tag("stage", stage.getTag()).timer().count(),
+                    stage.getTag());
+        }
+        assertEquals(0, meterRegistry.get("votes.cast.stage").tag("stage", VoteStage.CASSANDRA_BATCH.getTag())
+                .timer().count());
+    }
+
+    @Test
+    void testCastVote_StatusProjectorEnabled_EnqueuesInsteadOfUpsert() {
+        // Given
+        when(votingStatusProjector.isEnabled()).thenReturn(true);
+        when(votingStatusProjector.project(any())).thenReturn(true);
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId))
+                .thenReturn(false);
+        when(voteCqlRepository.hasUserVote(userId, electionId)).thenReturn(false);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertTrue(response.isSuccess());
+        verify(votingStatusProjector).project(argThat(userVote ->
+                userVote.getUserId().equals(userId) && userVote.getElectionId().equals(electionId)));
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
+    }
+
+    @Test
+    void testCastVote_StatusProjectorFull_UpsertsSynchronously() {
+        // Given
+        when(votingStatusProjector.isEnabled()).thenReturn(true);
+        when(votingStatusProjector.project(any())).thenReturn(false);
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId))
+                .thenReturn(false);
+        when(voteCqlRepository.hasUserVote(userId, electionId)).thenReturn(false);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertTrue(response.isSuccess());
+        verify(userVotingStatusRepository).upsertVoted(eq(userId), eq(electionId), any());
+    }
+
+    @Test
+    void testCastVote_InactiveCandidate() {
+        // Given
+        doThrow(new InvalidCandidateException("Candidate is not active in this election"))
+                .when(candidateCatalog).validate(electionId, candidateId);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals("Candidate is not active in this election", response.getMessage());
+        verify(voteRepository, never()).save(any());
+        verify(userVotingStatusRepository, never()).existsByUserIdAndElectionIdAndHasVotedTrue(any(), any());
     }
 
     @Test
@@ -96,6 +223,135 @@ class VotingServiceTest {
         verify(voteRepository, never()).save(any());
         verify(voteByCandidateRepository, never()).save(any());
         verify(userVoteLogRepository, never()).save(any());
-        verify(userVotingStatusRepository, never()).save(any());
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
+    }
+
+    @Test
+    void testCastVote_UserInVotedIndex() {
+        // Given
+        when(votedUserIndex.hasVoted(electionId, userId)).thenReturn(true);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals("User has already voted in this election", response.getMessage());
+        verify(userVotingStatusRepository, never()).existsByUserIdAndElectionIdAndHasVotedTrue(any(), any());
+        verify(voteCqlRepository, never()).hasUserVote(any(), any());
+        verify(voteRepository, never()).save(any());
+    }
+
+    @Test
+    void testCastVote_BatchWrite() {
+        // Given
+        ReflectionTestUtils.setField(votingService, "batchWriteEnabled", true);
+        when(userVotingStatusRepository.existsByUserIdAndElectionIdAndHasVotedTrue(userId, electionId))
+                .thenReturn(false);
+        when(voteCqlRepository.hasUserVote(userId, electionId)).thenReturn(false);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertTrue(response.isSuccess());
+        verify(voteCqlRepository).saveAll(any(), any(), any());
+        verify(voteRepository, never()).save(any());
+        verify(voteByCandidateRepository, never()).save(any());
+        verify(userVoteLogRepository, never()).save(any());
+        verify(userVotingStatusRepository).upsertVoted(eq(userId), eq(electionId), any());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_Success() {
+        // Given
+        ReflectionTestUtils.setField(votingService, "claimModeEnabled", true);
+        when(voteCqlRepository.claimUserVote(any())).thenReturn(true);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertTrue(response.isSuccess());
+        verify(voteRepository).save(any());
+        verify(voteByCandidateRepository).save(any());
+        verify(userVoteLogRepository, never()).save(any());
+        verify(userVotingStatusRepository, never()).existsByUserIdAndElectionIdAndHasVotedTrue(any(), any());
+        verify(voteCqlRepository, never()).hasUserVote(any(), any());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_UserAlreadyVoted() {
+        // Given
+        ReflectionTestUtils.setField(votingService, "claimModeEnabled", true);
+        when(voteCqlRepository.claimUserVote(any())).thenReturn(false);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals("User has already voted in this election", response.getMessage());
+        verify(voteRepository, never()).save(any());
+        verify(voteByCandidateRepository, never()).save(any());
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_KeepsClaimWhenWriteTimesOut() {
+        // Given
+        ReflectionTestUtils.setField(votingService, "claimModeEnabled", true);
+        ReflectionTestUtils.setField(votingService, "claimWriteRetries", 2);
+        when(voteCqlRepository.claimUserVote(any())).thenReturn(true);
+        when(voteRepository.save(any())).thenThrow(new DriverTimeoutException("write timeout"));
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then: la escritura pudo aplicarse, así que el reclamo se conserva
+        assertFalse(response.isSuccess());
+        assertTrue(response.isOutcomeUnknown());
+        assertNotNull(response.getVoteId());
+        verify(voteRepository, times(3)).save(any());
+        verify(voteCqlRepository, never()).releaseClaim(any());
+        verify(voteCountAggregator, never()).record(any(), any());
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_RetriesWriteAfterTimeout() {
+        // Given
+        ReflectionTestUtils.setField(votingService, "claimModeEnabled", true);
+        ReflectionTestUtils.setField(votingService, "claimWriteRetries", 2);
+        when(voteCqlRepository.claimUserVote(any())).thenReturn(true);
+        when(voteByCandidateRepository.save(any()))
+                .thenThrow(new DriverTimeoutException("write timeout"))
+                .thenReturn(null);
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then: la fila de votes no se repite, solo la que agotó el tiempo
+        assertTrue(response.isSuccess());
+        verify(voteRepository).save(any());
+        verify(voteByCandidateRepository, times(2)).save(any());
+        verify(voteCqlRepository, never()).releaseClaim(any());
+    }
+
+    @Test
+    void testCastVote_ClaimMode_ReleasesClaimWhenWriteIsRejected() {
+        // Given
+        ReflectionTestUtils.setField(votingService, "claimModeEnabled", true);
+        when(voteCqlRepository.claimUserVote(any())).thenReturn(true);
+        when(voteRepository.save(any())).thenThrow(new InvalidQueryException(null, "unconfigured table votes"));
+
+        // When
+        VoteResponse response = votingService.castVote(userId, voteRequest);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertFalse(response.isOutcomeUnknown());
+        verify(voteCqlRepository).releaseClaim(any());
+        verify(userVotingStatusRepository, never()).upsertVoted(any(), any(), any());
     }
 }
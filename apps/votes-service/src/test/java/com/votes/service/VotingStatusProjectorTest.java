@@ -0,0 +1,149 @@
+package com.votes.service;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.repository.postgres.ProjectionDeadLetterRepository;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import com.votes.wal.StatusProjectionJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VotingStatusProjectorTest {
+
+    @Mock
+    private UserVotingStatusBatchRepository userVotingStatusBatchRepository;
+
+    @Mock
+    private ProjectionDeadLetterRepository projectionDeadLetterRepository;
+
+    @Mock
+    private StatusProjectionJournal statusProjectionJournal;
+
+    private VotingStatusProjector projector;
+
+    private UUID electionId;
+
+    @BeforeEach
+    void setUp() {
+        electionId = UUID.randomUUID();
+
+        projector = new VotingStatusProjector(userVotingStatusBatchRepository, projectionDeadLetterRepository,
+                statusProjectionJournal, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(projector, "enabled", true);
+        ReflectionTestUtils.setField(projector, "batchSize", 2);
+        ReflectionTestUtils.setField(projector, "queueCapacity", 3);
+        projector.init();
+    }
+
+    @Test
+    void testFlush_WritesBatchesAndAcknowledgesJournal() {
+        // Given
+        when(statusProjectionJournal.append(any())).thenReturn(1L, 2L, 3L);
+        projector.project(userVote());
+        projector.project(userVote());
+        projector.project(userVote());
+
+        // When
+        projector.flush();
+
+        // Then
+        verify(userVotingStatusBatchRepository, times(2)).markAllAsVoted(any());
+        verify(statusProjectionJournal).acknowledge(1L);
+        verify(statusProjectionJournal).acknowledge(2L);
+        verify(statusProjectionJournal).acknowledge(3L);
+        assertEquals(0, projector.pendingCount());
+    }
+
+    @Test
+    void testProject_FullQueueIsRejectedForSynchronousWrite() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            assertTrue(projector.project(userVote()));
+        }
+
+        // When
+        boolean projected = projector.project(userVote());
+
+        // Then
+        assertFalse(projected);
+        assertEquals(3, projector.pendingCount());
+        verify(statusProjectionJournal, times(3)).append(any());
+    }
+
+    @Test
+    void testFlush_TransientFailureKeepsVotesWithoutAcknowledging() {
+        // Given
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(userVotingStatusBatchRepository).markAllAsVoted(any());
+        projector.project(userVote());
+
+        // When
+        projector.flush();
+
+        // Then
+        assertEquals(1, projector.pendingCount());
+        verify(statusProjectionJournal, never()).acknowledge(anyLong());
+        verifyNoInteractions(projectionDeadLetterRepository);
+    }
+
+    @Test
+    void testFlush_PermanentRowFailureIsDeadLetteredAndOthersWritten() {
+        // Given: una fila con un usuario inexistente rompe el batch
+        UserVoteLog orphan = userVote();
+        UserVoteLog valid = userVote();
+        when(statusProjectionJournal.append(orphan)).thenReturn(1L);
+        when(statusProjectionJournal.append(valid)).thenReturn(2L);
+        doThrow(new DataIntegrityViolationException("violates foreign key constraint"))
+                .when(userVotingStatusBatchRepository).markAllAsVoted(anyList());
+        doNothing().when(userVotingStatusBatchRepository).markAllAsVoted(Collections.singletonList(valid));
+        projector.project(orphan);
+        projector.project(valid);
+
+        // When
+        projector.flush();
+
+        // Then
+        verify(projectionDeadLetterRepository).save(eq(VotingStatusProjector.PROJECTION_NAME), eq(orphan), any());
+        verify(userVotingStatusBatchRepository).markAllAsVoted(Collections.singletonList(valid));
+        verify(statusProjectionJournal).acknowledge(1L);
+        verify(statusProjectionJournal).acknowledge(2L);
+        assertEquals(0, projector.pendingCount());
+    }
+
+    @Test
+    void testProjectAll_JournalsBatchAndWritesIt() {
+        // Given
+        UserVoteLog imported = userVote();
+        when(statusProjectionJournal.appendAll(List.of(imported))).thenReturn(new long[]{7L});
+        assertTrue(projector.projectAll(List.of(imported)).isEmpty());
+
+        // When
+        projector.flush();
+
+        // Then
+        verify(userVotingStatusBatchRepository).markAllAsVoted(List.of(imported));
+        verify(statusProjectionJournal).acknowledge(7L);
+    }
+
+    private UserVoteLog userVote() {
+        return new UserVoteLog(UUID.randomUUID(), electionId, UUID.randomUUID(), UUID.randomUUID(), Instant.now());
+    }
+}
@@ -0,0 +1,86 @@
+package com.votes.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleAccumulatorTest {
+
+    @Test
+    void testRoot_MatchesRecursiveDefinition() {
+        // Given
+        MerkleAccumulator accumulator = new MerkleAccumulator();
+        List<byte[]> leaves = new ArrayList<>();
+
+        for (int i = 0; i < 37; i++) {
+            // When
+            byte[] leaf = VoteHasher.leafHash(("vote-" + i).getBytes(StandardCharsets.UTF_8));
+            leaves.add(leaf);
+            accumulator.append(leaf);
+
+            // Then
+            assertArrayEquals(mth(leaves, 0, leaves.size()), accumulator.root(), "size " + leaves.size());
+        }
+    }
+
+    @Test
+    void testAuditPath_VerifiesForEveryLeaf() {
+        // Given
+        MerkleAccumulator accumulator = new MerkleAccumulator();
+        for (int i = 0; i < 21; i++) {
+            accumulator.append(VoteHasher.leafHash(new byte[]{(byte) i}));
+        }
+
+        for (int index = 0; index < accumulator.size(); index++) {
+            // When
+            List<byte[]> path = accumulator.auditPath(index);
+
+            // Then
+            assertTrue(MerkleAccumulator.verify(accumulator.leaf(index), index, accumulator.size(), path, accumulator.root()));
+            assertFalse(MerkleAccumulator.verify(accumulator.leaf((index + 1) % accumulator.size()), index,
+                    accumulator.size(), path, accumulator.root()));
+        }
+    }
+
+    @Test
+    void testEmptyTree_RootIsHashOfEmptyString() {
+        // Given
+        MerkleAccumulator accumulator = new MerkleAccumulator();
+
+        // Then
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                VoteHasher.toHex(accumulator.root()));
+    }
+
+    @Test
+    void testVoteHash_IsStableAndHexRoundTrips() {
+        // Given
+        UUID voteId = UUID.randomUUID();
+        UUID candidateId = UUID.randomUUID();
+        UUID electionId = UUID.randomUUID();
+        Instant votedAt = Instant.parse("2024-06-01T12:00:00.123456789Z");
+
+        // When
+        String hash = VoteHasher.voteHash(voteId, candidateId, electionId, votedAt);
+
+        // Then
+        assertEquals(64, hash.length());
+        assertEquals(hash, VoteHasher.voteHash(voteId, candidateId, electionId, votedAt));
+        assertNotEquals(hash, VoteHasher.voteHash(voteId, candidateId, electionId, votedAt.plusNanos(1)));
+        assertEquals(hash, VoteHasher.toHex(VoteHasher.fromHex(hash)));
+    }
+
+    private static byte[] mth(List<byte[]> leaves, int start, int count) {
+        if (count == 1) {
+            return leaves.get(start);
+        }
+        int split = Integer.highestOneBit(count - 1);
+        return VoteHasher.nodeHash(mth(leaves, start, split), mth(leaves, start + split, count - split));
+    }
+}
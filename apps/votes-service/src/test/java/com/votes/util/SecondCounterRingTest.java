@@ -0,0 +1,70 @@
+package com.votes.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondCounterRingTest {
+
+    @Test
+    void testIncrement_CountsPerSecondAndSums() {
+        // Given
+        SecondCounterRing ring = new SecondCounterRing(60);
+
+        // When
+        ring.increment(1000);
+        ring.increment(1000);
+        ring.increment(1001);
+
+        // Then
+        assertEquals(2, ring.count(1000));
+        assertEquals(1, ring.count(1001));
+        assertEquals(0, ring.count(1002));
+        assertEquals(3, ring.sum(1000, 1060));
+    }
+
+    @Test
+    void testIncrement_ReusedSlotForgetsOldSecond() {
+        // Given
+        SecondCounterRing ring = new SecondCounterRing(60);
+        ring.increment(1000);
+
+        // When: 1060 cae en la misma casilla que 1000
+        ring.increment(1060);
+        ring.increment(1000);
+
+        // Then
+        assertEquals(0, ring.count(1000));
+        assertEquals(1, ring.count(1060));
+    }
+
+    @Test
+    void testIncrement_ConcurrentIncrementsAreNotLost() throws InterruptedException {
+        // Given
+        SecondCounterRing ring = new SecondCounterRing(60);
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ring.increment(5000);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Then
+        assertEquals((long) threads * perThread, ring.count(5000));
+    }
+}
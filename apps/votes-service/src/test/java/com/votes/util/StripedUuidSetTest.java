@@ -0,0 +1,92 @@
+package com.votes.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedUuidSetTest {
+
+    @Test
+    void testAdd_ContainsAndRejectsDuplicates() {
+        // Given
+        StripedUuidSet set = new StripedUuidSet();
+        UUID value = UUID.randomUUID();
+
+        // When
+        boolean first = set.add(value);
+        boolean second = set.add(value);
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(set.contains(value));
+        assertFalse(set.contains(UUID.randomUUID()));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testAdd_NilUuid() {
+        // Given
+        StripedUuidSet set = new StripedUuidSet();
+        UUID nil = new UUID(0, 0);
+
+        // When
+        set.add(nil);
+
+        // Then
+        assertTrue(set.contains(nil));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testAdd_ResizesBeyondExpectedElements() {
+        // Given: una franja de 8 casillas
+        StripedUuidSet set = new StripedUuidSet(1, 1);
+        List<UUID> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add(UUID.randomUUID());
+        }
+
+        // When
+        values.forEach(set::add);
+
+        // Then
+        assertEquals(values.size(), set.size());
+        values.forEach(value -> assertTrue(set.contains(value)));
+    }
+
+    @Test
+    void testAdd_ConcurrentInserts() throws Exception {
+        // Given
+        StripedUuidSet set = new StripedUuidSet(8, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<UUID>>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                List<UUID> added = new ArrayList<>();
+                for (int i = 0; i < 5_000; i++) {
+                    UUID value = UUID.randomUUID();
+                    set.add(value);
+                    added.add(value);
+                }
+                return added;
+            }));
+        }
+
+        // Then
+        for (Future<List<UUID>> result : results) {
+            result.get().forEach(value -> assertTrue(set.contains(value)));
+        }
+        assertEquals(8 * 5_000, set.size());
+        executor.shutdown();
+    }
+}
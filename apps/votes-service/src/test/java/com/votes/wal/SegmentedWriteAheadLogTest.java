@@ -0,0 +1,153 @@
+package com.votes.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecover_ReturnsOnlyUnacknowledgedRecords() {
+        // Given
+        SegmentedWriteAheadLog wal = open(Duration.ofMillis(1));
+        long first = wal.append(bytes("vote-1"));
+        long second = wal.append(bytes("vote-2"));
+        long third = wal.append(bytes("vote-3"));
+        wal.acknowledge(second);
+        wal.close();
+
+        // When
+        SegmentedWriteAheadLog reopened = open(Duration.ofMillis(1));
+        List<SegmentedWriteAheadLog.Entry> entries = reopened.recoveredEntries();
+        reopened.close();
+
+        // Then
+        assertEquals(2, entries.size());
+        assertEquals(first, entries.get(0).sequence());
+        assertEquals("vote-1", text(entries.get(0).payload()));
+        assertEquals(third, entries.get(1).sequence());
+        assertEquals("vote-3", text(entries.get(1).payload()));
+    }
+
+    @Test
+    void testAppend_PerRecordSyncIsDurableOnReturn() {
+        // Given
+        SegmentedWriteAheadLog wal = open(Duration.ZERO);
+
+        // When
+        long sequence = wal.append(bytes("vote"));
+
+        // Then
+        assertTrue(wal.durableSequence() >= sequence);
+        wal.close();
+    }
+
+    @Test
+    void testAppendAll_RecordsAreDurableAndRecoveredInOrder() {
+        // Given: segmentos de 128 bytes, el lote rota de segmento
+        SegmentedWriteAheadLog wal = new SegmentedWriteAheadLog(directory, 128, Duration.ZERO);
+        wal.open();
+
+        // When
+        long[] sequences = wal.appendAll(List.of(bytes("vote-1"), bytes("vote-2"), new byte[80], bytes("vote-4")));
+        wal.acknowledge(sequences[2]);
+        boolean durable = wal.durableSequence() >= sequences[3];
+        wal.close();
+        SegmentedWriteAheadLog reopened = open(Duration.ZERO);
+        List<SegmentedWriteAheadLog.Entry> entries = reopened.recoveredEntries();
+        reopened.close();
+
+        // Then
+        assertTrue(durable);
+        assertEquals(3, entries.size());
+        assertEquals("vote-1", text(entries.get(0).payload()));
+        assertEquals("vote-2", text(entries.get(1).payload()));
+        assertEquals("vote-4", text(entries.get(2).payload()));
+    }
+
+    @Test
+    void testRotation_DeletesFullyAcknowledgedSegments() throws IOException {
+        // Given: segmentos de 128 bytes, caben dos registros por segmento
+        SegmentedWriteAheadLog wal = new SegmentedWriteAheadLog(directory, 128, Duration.ofMillis(1));
+        wal.open();
+        long[] sequences = new long[6];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = wal.append(new byte[40]);
+        }
+
+        // When
+        for (long sequence : sequences) {
+            wal.acknowledge(sequence);
+        }
+        wal.append(new byte[40]);
+
+        // Then
+        assertFalse(Files.exists(directory.resolve("wal-00000000000000000000.log")));
+        assertTrue(segmentCount() <= 2);
+        wal.close();
+    }
+
+    @Test
+    void testRecover_IgnoresRecordWithBadChecksum() throws IOException {
+        // Given
+        SegmentedWriteAheadLog wal = open(Duration.ZERO);
+        wal.append(bytes("vote-1"));
+        wal.append(bytes("vote-2"));
+        wal.close();
+
+        // When: se corrompe el payload del segundo registro
+        Path segment = onlySegment();
+        int secondPayload = SegmentedWriteAheadLog.HEADER_SIZE + "vote-1".length() + SegmentedWriteAheadLog.HEADER_SIZE;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), secondPayload);
+        }
+        SegmentedWriteAheadLog reopened = open(Duration.ZERO);
+        List<SegmentedWriteAheadLog.Entry> entries = reopened.recoveredEntries();
+        reopened.close();
+
+        // Then
+        assertEquals(1, entries.size());
+        assertEquals("vote-1", text(entries.get(0).payload()));
+    }
+
+    private SegmentedWriteAheadLog open(Duration groupCommitInterval) {
+        SegmentedWriteAheadLog wal = new SegmentedWriteAheadLog(directory, 4096, groupCommitInterval);
+        wal.open();
+        return wal;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
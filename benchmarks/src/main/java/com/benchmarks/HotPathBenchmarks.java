@@ -0,0 +1,44 @@
+package com.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta los benchmarks del trabajo por petición (hash del voto, JWT,
+ * mapeo de candidatos y reportes, serialización JSON) y guarda los
+ * resultados en JSON para comparar entre commits.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.benchmarks.HotPathBenchmarks [resultado.json]
+ *
+ * Por defecto escribe benchmarks/target/jmh-hot-paths.json. Para una
+ * ejecución suelta con JSON: java -jar benchmarks/target/benchmarks.jar
+ * JwtParsingBenchmark -rf json -rff jwt.json
+ */
+public final class HotPathBenchmarks {
+
+    private static final String[] HOT_PATHS = {
+            "VoteHashBenchmark",
+            "JwtParsingBenchmark",
+            "CandidateMappingBenchmark",
+            "ReportMappingBenchmark",
+            "ResponseSerializationBenchmark"
+    };
+
+    private HotPathBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        for (String benchmark : HOT_PATHS) {
+            options.include("\\." + benchmark + "\\.");
+        }
+        Options built = options
+                .resultFormat(ResultFormatType.JSON)
+                .result(args.length > 0 ? args[0] : "benchmarks/target/jmh-hot-paths.json")
+                .build();
+        new Runner(built).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.benchmarks.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reports.dto.CandidateVotesDTO;
+import com.reports.dto.OverallResultsDTO;
+import com.users.dto.CandidateResponse;
+import com.votes.dto.VoteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson de las respuestas de los endpoints más
+ * llamados: VoteResponse (POST de voto), la lista de CandidateResponse
+ * (listado de candidatos) y OverallResultsDTO (resultados generales).
+ *
+ * El ObjectMapper se configura como el de Spring Boot (módulos registrados,
+ * fechas en ISO-8601).
+ *
+ * java -jar benchmarks/target/benchmarks.jar ResponseSerializationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10"})
+    public int candidates;
+
+    private ObjectMapper objectMapper;
+    private VoteResponse voteResponse;
+    private List<CandidateResponse> candidateResponses;
+    private OverallResultsDTO overallResults;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        voteResponse = VoteResponse.success(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), Instant.now());
+
+        LocalDateTime now = LocalDateTime.now();
+        candidateResponses = new ArrayList<>(candidates);
+        List<CandidateVotesDTO> candidateResults = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            candidateResponses.add(new CandidateResponse((long) i, "Candidato " + i, "Partido " + (i % 8),
+                    "Presidente", "#1E88E5",
+                    "Propuesta de educación, salud y empleo para todos los ciudadanos. ".repeat(8),
+                    "Experiencia en gestión pública y privada. ".repeat(4),
+                    "Descripción breve del candidato " + i, "candidato" + i + "@example.com",
+                    "+51 999 000 " + i, "Arequipa", "Universidad Nacional de San Agustín",
+                    "https://example.com/candidatos/" + i, "https://example.com/candidatos/" + i + ".png",
+                    now, now));
+            candidateResults.add(new CandidateVotesDTO(UUID.randomUUID().toString(), "Candidato " + i,
+                    1000L + i * 137L, 100.0 / candidates));
+        }
+
+        overallResults = new OverallResultsDTO();
+        overallResults.setTotalVotesCast(1_000_000L);
+        overallResults.setTotalRegisteredUsers(2_000_000L);
+        overallResults.setParticipationPercentage(50.0);
+        overallResults.setCandidateResults(candidateResults);
+        overallResults.setWinningCandidateId(candidateResults.get(0).getCandidateId());
+        overallResults.setWinningCandidateName(candidateResults.get(0).getCandidateName());
+        overallResults.setVotingStatus("ACTIVE");
+    }
+
+    @Benchmark
+    public byte[] voteResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(voteResponse);
+    }
+
+    @Benchmark
+    public byte[] candidateResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(candidateResponses);
+    }
+
+    @Benchmark
+    public byte[] overallResults() throws Exception {
+        return objectMapper.writeValueAsBytes(overallResults);
+    }
+}
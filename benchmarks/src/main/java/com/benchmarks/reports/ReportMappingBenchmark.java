@@ -0,0 +1,167 @@
+package com.benchmarks.reports;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reports.dto.CandidateVotesDTO;
+import com.reports.dto.OverallResultsDTO;
+import com.reports.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportService sin red: el RestTemplate del servicio responde con cuerpos
+ * JSON fijos, así se mide la deserialización de la respuesta del
+ * votes-service, el mapeo a CandidateVotesDTO, los porcentajes y el armado
+ * de OverallResultsDTO.
+ *
+ * El logging de com.reports se sube a WARN para no mezclar la salida de
+ * consola con la medida.
+ *
+ * java -jar benchmarks/target/benchmarks.jar ReportMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportMappingBenchmark {
+
+    @Param({"5", "50"})
+    public int candidates;
+
+    private ReportService reportService;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("com.reports").setLevel(Level.WARN);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Map<String, Object>> votes = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("candidateId", UUID.randomUUID().toString());
+            row.put("candidateName", "Candidato " + i);
+            row.put("voteCount", 1000L + i * 137L);
+            votes.add(row);
+        }
+        Map<String, byte[]> bodies = Map.of(
+                "/api/v1/votes/results/by-candidate", objectMapper.writeValueAsBytes(votes),
+                "/api/v1/users/count", objectMapper.writeValueAsBytes(Map.of("count", 1_000_000L)));
+
+        reportService = new ReportService();
+        Field field = ReportService.class.getDeclaredField("restTemplate");
+        field.setAccessible(true);
+        ((RestTemplate) field.get(reportService)).setRequestFactory(cannedResponses(bodies));
+        setField("votesServiceUrl", "http://votes");
+        setField("usersServiceUrl", "http://users");
+    }
+
+    @Benchmark
+    public List<CandidateVotesDTO> votesByCandidate() {
+        return reportService.getVotesByCandidate();
+    }
+
+    @Benchmark
+    public OverallResultsDTO overallResults() {
+        return reportService.getOverallResults();
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = ReportService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(reportService, value);
+    }
+
+    private static ClientHttpRequestFactory cannedResponses(Map<String, byte[]> bodies) {
+        return (uri, method) -> new AbstractClientHttpRequest() {
+            @Override
+            protected OutputStream getBodyInternal(HttpHeaders headers) {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            protected ClientHttpResponse executeInternal(HttpHeaders headers) {
+                return new CannedResponse(bodies.get(uri.getPath()));
+            }
+
+            @Override
+            public HttpMethod getMethod() {
+                return method;
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+        };
+    }
+
+    private static final class CannedResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private CannedResponse(byte[] body) {
+            this.body = body;
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return "OK";
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
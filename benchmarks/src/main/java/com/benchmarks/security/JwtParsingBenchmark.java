@@ -0,0 +1,152 @@
+package com.benchmarks.security;
+
+import com.auth.model.User;
+import com.votes.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación HMAC de JWT en cada servicio.
+ *
+ * Por servicio se mide una sola verificación y la secuencia de llamadas que
+ * hace su filtro en cada petición, que hoy vuelve a parsear y verificar el
+ * token en cada llamada:
+ *
+ * - auth: extractAllClaims; filtro = extractUsername, extractJti, validateToken.
+ * - votes: validateToken; filtro = verify (un solo parseo, ver JwtFilterBenchmark).
+ * - users: validateToken; filtro = validateToken, extractUsername, extractRoles.
+ * - reports: getUsernameFromToken; filtro = getUsernameFromToken, validateToken(token, username).
+ *
+ * java -jar benchmarks/target/benchmarks.jar JwtParsingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-for-hs256";
+    private static final long EXPIRATION_MS = TimeUnit.HOURS.toMillis(1);
+
+    private com.auth.security.JwtUtil authJwtUtil;
+    private com.votes.util.JwtUtil votesJwtUtil;
+    private com.users.security.JwtUtil usersJwtUtil;
+    private com.reports.security.JwtUtil reportsJwtUtil;
+
+    private String authToken;
+    private String votesToken;
+    private String usersToken;
+    private String reportsToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        authJwtUtil = new com.auth.security.JwtUtil();
+        setField(authJwtUtil, "jwtSecret", SECRET);
+        setField(authJwtUtil, "jwtExpiration", EXPIRATION_MS);
+        votesJwtUtil = new com.votes.util.JwtUtil();
+        setField(votesJwtUtil, "secret", SECRET);
+        usersJwtUtil = new com.users.security.JwtUtil(SECRET, EXPIRATION_MS);
+        reportsJwtUtil = new com.reports.security.JwtUtil();
+        setField(reportsJwtUtil, "secret", SECRET);
+        setField(reportsJwtUtil, "expiration", EXPIRATION_MS);
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("voter@example.com")
+                .email("voter@example.com")
+                .fullName("Benchmark Voter")
+                .roles(Set.of("USER"))
+                .build();
+        authToken = authJwtUtil.generateTokenWithPayload(user, false);
+        usersToken = usersJwtUtil.generateToken(org.springframework.security.core.userdetails.User
+                .withUsername("voter@example.com").password("").roles("USER").build());
+        // votes usa el subject como id de usuario
+        votesToken = token(UUID.randomUUID().toString());
+        reportsToken = token("voter@example.com");
+    }
+
+    @Benchmark
+    public Claims authExtractAllClaims() {
+        return authJwtUtil.extractAllClaims(authToken);
+    }
+
+    @Benchmark
+    public void authFilter(Blackhole blackhole) {
+        blackhole.consume(authJwtUtil.extractUsername(authToken));
+        blackhole.consume(authJwtUtil.extractJti(authToken));
+        blackhole.consume(authJwtUtil.validateToken(authToken));
+    }
+
+    @Benchmark
+    public boolean votesValidateToken() {
+        return votesJwtUtil.validateToken(votesToken);
+    }
+
+    @Benchmark
+    public VerifiedToken votesFilter() {
+        return votesJwtUtil.verify(votesToken);
+    }
+
+    @Benchmark
+    public boolean usersValidateToken() {
+        return usersJwtUtil.validateToken(usersToken);
+    }
+
+    @Benchmark
+    public void usersFilter(Blackhole blackhole) {
+        blackhole.consume(usersJwtUtil.validateToken(usersToken));
+        blackhole.consume(usersJwtUtil.extractUsername(usersToken));
+        List<String> roles = usersJwtUtil.extractRoles(usersToken);
+        blackhole.consume(roles);
+    }
+
+    @Benchmark
+    public String reportsGetUsername() {
+        return reportsJwtUtil.getUsernameFromToken(reportsToken);
+    }
+
+    @Benchmark
+    public void reportsFilter(Blackhole blackhole) {
+        String username = reportsJwtUtil.getUsernameFromToken(reportsToken);
+        blackhole.consume(reportsJwtUtil.validateToken(reportsToken, username));
+    }
+
+    private static String token(String subject) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(subject)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + EXPIRATION_MS))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
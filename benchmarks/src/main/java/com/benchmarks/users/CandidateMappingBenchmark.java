@@ -0,0 +1,90 @@
+package com.benchmarks.users;
+
+import com.users.dto.CandidateResponse;
+import com.users.entity.Candidate;
+import com.users.service.CandidateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CandidateService.mapToResponse sobre el listado completo de candidatos,
+ * como en getAllCandidates (sin la consulta a la base de datos).
+ *
+ * mapToResponse es privado: se invoca con un MethodHandle, que tras el
+ * calentamiento no añade coste apreciable frente a la llamada directa.
+ *
+ * java -jar benchmarks/target/benchmarks.jar CandidateMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateMappingBenchmark {
+
+    @Param({"10", "100"})
+    public int candidates;
+
+    private CandidateService candidateService;
+    private MethodHandle mapToResponse;
+    private List<Candidate> entities;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // mapToResponse no usa el repositorio
+        candidateService = new CandidateService(null);
+        mapToResponse = MethodHandles.privateLookupIn(CandidateService.class, MethodHandles.lookup())
+                .findVirtual(CandidateService.class, "mapToResponse",
+                        MethodType.methodType(CandidateResponse.class, Candidate.class));
+
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            Candidate candidate = new Candidate();
+            candidate.setId((long) i);
+            candidate.setNombre("Candidato " + i);
+            candidate.setPartidoPolitico("Partido " + (i % 8));
+            candidate.setCargo("Presidente");
+            candidate.setColor("#1E88E5");
+            candidate.setPropuestas("Propuesta de educación, salud y empleo para todos los ciudadanos. ".repeat(8));
+            candidate.setExperiencia("Experiencia en gestión pública y privada. ".repeat(4));
+            candidate.setDescripcion("Descripción breve del candidato " + i);
+            candidate.setEmail("candidato" + i + "@example.com");
+            candidate.setTelefono("+51 999 000 " + i);
+            candidate.setLugarNacimiento("Arequipa");
+            candidate.setEducacion("Universidad Nacional de San Agustín");
+            candidate.setSitioWeb("https://example.com/candidatos/" + i);
+            candidate.setImagen("https://example.com/candidatos/" + i + ".png");
+            candidate.setCreatedAt(now);
+            candidate.setUpdatedAt(now);
+            entities.add(candidate);
+        }
+    }
+
+    @Benchmark
+    public List<CandidateResponse> mapAllCandidates() throws Throwable {
+        List<CandidateResponse> responses = new ArrayList<>(entities.size());
+        for (Candidate candidate : entities) {
+            responses.add((CandidateResponse) mapToResponse.invokeExact(candidateService, candidate));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,152 @@
+package com.benchmarks.votes;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.votes.audit.AuditEventRing;
+import com.votes.audit.AuditEventStream;
+import com.votes.util.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Votos por segundo que permite solo el logging del camino del voto.
+ *
+ * - infoLogging: las seis líneas INFO que escribían VoteController y castVote
+ *   por voto, a un FileAppender de logback con el patrón por defecto de Spring Boot.
+ * - auditStream: los dos eventos (recibido, persistido) publicados en el
+ *   anillo de AuditEventStream, que un hilo aparte escribe en NDJSON, más el
+ *   DEBUG muestreado (desactivado a nivel INFO).
+ *
+ * Al terminar se imprimen los eventos escritos y descartados por anillo
+ * lleno: si hay descartes, el ritmo sostenible lo marca el hilo escritor
+ * (votos/s sostenidos) y no el score de publicación.
+ *
+ * java -jar benchmarks/target/benchmarks.jar AuditLoggingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AuditLoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger("com.votes.service.VotingService");
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID electionId = UUID.randomUUID();
+    private final UUID candidateId = UUID.randomUUID();
+    private final UUID voteId = UUID.randomUUID();
+
+    private Path directory;
+    private FileAppender<ILoggingEvent> appender;
+    private AuditEventStream auditEventStream;
+    private long startNanos;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("audit-bench");
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(directory.resolve("votes.log").toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+
+        auditEventStream = new AuditEventStream(new SimpleMeterRegistry());
+        set("enabled", true);
+        set("capacity", 65536);
+        set("directory", directory.resolve("audit").toString());
+        set("maxFileBytes", 64L * 1024 * 1024);
+        set("maxFiles", 4);
+        invoke("start");
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        invoke("stop");
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        AuditEventRing ring = (AuditEventRing) get("ring");
+        double written = ((Counter) get("writtenCounter")).count();
+        System.out.printf("%naudit writer: %.0f events written (%.0f votes/s sustained), %d dropped (ring full)%n",
+                written, written / 2 / seconds, ring.dropped());
+        appender.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void infoLogging() {
+        log.info("Vote request received from user: {} for candidate: {}", userId, candidateId);
+        log.info("Processing vote for user {} in election {} for candidate {}", userId, electionId, candidateId);
+        log.info("Vote saved in main table: {}", voteId);
+        log.info("Vote saved in candidate table for candidate: {}", candidateId);
+        log.info("User vote log saved for user: {}", userId);
+        log.info("User {} marked as voted in PostgreSQL", userId);
+    }
+
+    @Benchmark
+    public void auditStream() {
+        if (log.isDebugEnabled() && LogSampler.sample(100)) {
+            log.debug("Processing vote for user {} in election {} for candidate {}", userId, electionId, candidateId);
+        }
+        auditEventStream.voteReceived(electionId);
+        auditEventStream.votePersisted(voteId, electionId, candidateId);
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = AuditEventStream.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(auditEventStream, value);
+    }
+
+    private Object get(String name) throws ReflectiveOperationException {
+        Field field = AuditEventStream.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(auditEventStream);
+    }
+
+    private void invoke(String name) throws ReflectiveOperationException {
+        Method method = AuditEventStream.class.getDeclaredMethod(name);
+        method.setAccessible(true);
+        method.invoke(auditEventStream);
+    }
+}
@@ -0,0 +1,220 @@
+package com.benchmarks.votes;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo que cada voto retiene una conexión de Hikari (hikaricp.connections.usage)
+ * con el flujo anterior de castVote y con el actual.
+ *
+ * - wide-transaction: la transacción se abre al entrar (la conexión se toma
+ *   ahí), se consulta si ya votó, se esperan las escrituras de Cassandra y se
+ *   hace find + insert/update antes del commit.
+ * - short-upsert: la consulta y el upsert ON CONFLICT van cada uno en su propia
+ *   transacción corta y la espera de Cassandra ocurre sin conexión.
+ *
+ * Las escrituras de Cassandra se simulan con una espera de
+ * cassandra-round-trips x cassandra-latency-ms. Se usa una tabla temporal con
+ * la misma forma que user_voting_status (sin claves foráneas) que se borra al
+ * terminar.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.benchmarks.votes.ConnectionHoldTimeComparison \
+ *     --jdbc-url=jdbc:postgresql://localhost:5432/voting_system --user=user --password=user --votes=5000 --threads=50
+ */
+public class ConnectionHoldTimeComparison {
+
+    private static final String TABLE = "user_voting_status_hold_bench";
+
+    private static final String EXISTS =
+            "SELECT EXISTS (SELECT 1 FROM " + TABLE + " WHERE user_id = ? AND election_id = ? AND has_voted)";
+
+    private static final String FIND =
+            "SELECT user_id FROM " + TABLE + " WHERE user_id = ? AND election_id = ?";
+
+    private static final String INSERT =
+            "INSERT INTO " + TABLE + " (user_id, election_id, has_voted, voted_at, created_at, updated_at) " +
+            "VALUES (?, ?, TRUE, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final String UPSERT =
+            "INSERT INTO " + TABLE + " (user_id, election_id, has_voted, voted_at, created_at, updated_at) " +
+            "VALUES (?, ?, TRUE, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET election_id = EXCLUDED.election_id, has_voted = TRUE, " +
+            "voted_at = EXCLUDED.voted_at, updated_at = CURRENT_TIMESTAMP";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        String jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/voting_system");
+        String user = options.getOrDefault("user", "user");
+        String password = options.getOrDefault("password", "user");
+        int votes = Integer.parseInt(options.getOrDefault("votes", "5000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "50"));
+        int poolSize = Integer.parseInt(options.getOrDefault("pool-size", "10"));
+        long cassandraMillis = Long.parseLong(options.getOrDefault("cassandra-latency-ms", "2"))
+                * Integer.parseInt(options.getOrDefault("cassandra-round-trips", "3"));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return id.getName().equals("hikaricp.connections.usage")
+                        ? DistributionStatisticConfig.builder().percentiles(0.5, 0.95, 0.99).build().merge(config)
+                        : config;
+            }
+        });
+
+        // Un pool por modo: cada uno tiene su propio timer de uso
+        try (HikariDataSource wide = dataSource("wide-transaction", jdbcUrl, user, password, poolSize, registry);
+             HikariDataSource shortLived = dataSource("short-upsert", jdbcUrl, user, password, poolSize, registry)) {
+            createTable(wide);
+            try {
+                run(votes, threads, wide, registry, () -> wideTransaction(wide, cassandraMillis));
+                run(votes, threads, shortLived, registry, () -> shortUpsert(shortLived, cassandraMillis));
+            } finally {
+                dropTable(wide);
+            }
+        }
+    }
+
+    private static void run(int votes, int threads, HikariDataSource dataSource,
+                            SimpleMeterRegistry registry, SqlTask vote) throws InterruptedException {
+        String mode = dataSource.getPoolName();
+        Timer usage = registry.find("hikaricp.connections.usage").tag("pool", mode).timer();
+        HistogramSnapshot before = usage.takeSnapshot();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < votes; i++) {
+            executor.execute(() -> {
+                try {
+                    vote.run();
+                } catch (SQLException | InterruptedException e) {
+                    System.err.println(mode + ": " + e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        HistogramSnapshot after = usage.takeSnapshot();
+        long borrows = after.count() - before.count();
+        double heldMillis = (after.total(TimeUnit.MILLISECONDS) - before.total(TimeUnit.MILLISECONDS));
+        System.out.printf("%n%s: %d votes, %d threads, %.1f votes/s%n", mode, votes, threads, votes / seconds);
+        System.out.printf("  connection borrows per vote   %.2f%n", borrows / (double) votes);
+        System.out.printf("  connection held per vote      %.2f ms%n", heldMillis / votes);
+        for (ValueAtPercentile percentile : after.percentileValues()) {
+            System.out.printf("  usage p%-4s                   %.2f ms%n",
+                    percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static void wideTransaction(HikariDataSource dataSource, long cassandraMillis)
+            throws SQLException, InterruptedException {
+        UUID userId = UUID.randomUUID();
+        UUID electionId = UUID.randomUUID();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            exists(connection, userId, electionId);
+            Thread.sleep(cassandraMillis);
+            try (PreparedStatement find = connection.prepareStatement(FIND)) {
+                find.setObject(1, userId);
+                find.setObject(2, electionId);
+                try (ResultSet rs = find.executeQuery()) {
+                    rs.next();
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                bind(insert, userId, electionId);
+                insert.executeUpdate();
+            }
+            connection.commit();
+        }
+    }
+
+    private static void shortUpsert(HikariDataSource dataSource, long cassandraMillis)
+            throws SQLException, InterruptedException {
+        UUID userId = UUID.randomUUID();
+        UUID electionId = UUID.randomUUID();
+        try (Connection connection = dataSource.getConnection()) {
+            exists(connection, userId, electionId);
+        }
+        Thread.sleep(cassandraMillis);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement upsert = connection.prepareStatement(UPSERT)) {
+            bind(upsert, userId, electionId);
+            upsert.executeUpdate();
+        }
+    }
+
+    private static void exists(Connection connection, UUID userId, UUID electionId) throws SQLException {
+        try (PreparedStatement exists = connection.prepareStatement(EXISTS)) {
+            exists.setObject(1, userId);
+            exists.setObject(2, electionId);
+            try (ResultSet rs = exists.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, UUID userId, UUID electionId) throws SQLException {
+        statement.setObject(1, userId);
+        statement.setObject(2, electionId);
+        statement.setTimestamp(3, Timestamp.from(Instant.now()));
+    }
+
+    private static HikariDataSource dataSource(String poolName, String jdbcUrl, String user, String password, int poolSize,
+                                               SimpleMeterRegistry registry) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setPoolName(poolName);
+        config.setMetricRegistry(registry);
+        return new HikariDataSource(config);
+    }
+
+    private static void createTable(HikariDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE UNLOGGED TABLE " + TABLE + " (LIKE user_voting_status INCLUDING DEFAULTS INCLUDING INDEXES)");
+        }
+    }
+
+    private static void dropTable(HikariDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlTask {
+        void run() throws SQLException, InterruptedException;
+    }
+}
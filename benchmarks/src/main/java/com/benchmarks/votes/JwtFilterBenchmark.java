@@ -0,0 +1,135 @@
+package com.benchmarks.votes;
+
+import com.votes.security.VerifiedToken;
+import com.votes.security.VerifiedTokenCache;
+import com.votes.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de la autenticación JWT del votes-service.
+ *
+ * - legacyFilter: lo que hacía JwtAuthenticationFilter antes, extractUserId
+ *   y validateToken con clave y parser nuevos en cada llamada (tres parseos
+ *   y verificaciones HMAC por petición).
+ * - singleVerify: VerifiedTokenCache sin caché, una verificación con el
+ *   parser compartido.
+ * - cachedVerify: VerifiedTokenCache con caché, con `sessions` tokens
+ *   distintos repartidos entre las peticiones (status polls y votos de
+ *   sesiones ya vistas).
+ *
+ * java -jar benchmarks/target/benchmarks.jar JwtFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-for-hs256";
+
+    @Param({"10000"})
+    public int sessions;
+
+    private String[] tokens;
+    private VerifiedTokenCache uncached;
+    private VerifiedTokenCache cached;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokens = new String[sessions];
+        Date now = new Date();
+        for (int i = 0; i < sessions; i++) {
+            tokens[i] = Jwts.builder()
+                    .setSubject(UUID.randomUUID().toString())
+                    .setIssuedAt(now)
+                    .setExpiration(new Date(now.getTime() + TimeUnit.HOURS.toMillis(1)))
+                    .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                    .compact();
+        }
+
+        JwtUtil jwtUtil = new JwtUtil();
+        setField(jwtUtil, "secret", SECRET);
+        uncached = cache(jwtUtil, false);
+        cached = cache(jwtUtil, true);
+        for (String token : tokens) {
+            cached.verify(token);
+        }
+    }
+
+    @Benchmark
+    public void legacyFilter(Blackhole blackhole) {
+        String token = nextToken();
+        // JwtUtil.extractUserId
+        blackhole.consume(UUID.fromString(legacyParse(token).getSubject()));
+        // JwtUtil.validateToken: extractAllClaims + isTokenExpired
+        legacyParse(token);
+        blackhole.consume(legacyParse(token).getExpiration().getTime() < System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public VerifiedToken singleVerify() {
+        return uncached.verify(nextToken());
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return cached.verify(nextToken());
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static VerifiedTokenCache cache(JwtUtil jwtUtil, boolean enabled) throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry());
+        setField(cache, "enabled", enabled);
+        setField(cache, "maxEntries", 100_000);
+        setField(cache, "maxTtlMillis", TimeUnit.HOURS.toMillis(1));
+        Method registerMetrics = VerifiedTokenCache.class.getDeclaredMethod("registerMetrics");
+        registerMetrics.setAccessible(true);
+        registerMetrics.invoke(cache);
+        return cache;
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
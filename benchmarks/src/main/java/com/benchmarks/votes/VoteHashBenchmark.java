@@ -0,0 +1,49 @@
+package com.benchmarks.votes;
+
+import com.votes.util.VoteHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por voto del hash que calcula VotingService.prepareVote
+ * (VoteHasher.voteHash, antes generateVoteHash) y de la hoja del árbol de
+ * Merkle que se deriva de él.
+ *
+ * java -jar benchmarks/target/benchmarks.jar VoteHashBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteHashBenchmark {
+
+    private final UUID voteId = UUID.randomUUID();
+    private final UUID candidateId = UUID.randomUUID();
+    private final UUID electionId = UUID.randomUUID();
+    private final Instant votedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    private final String voteHash = VoteHasher.voteHash(voteId, candidateId, electionId, votedAt);
+
+    @Benchmark
+    public String voteHash() {
+        return VoteHasher.voteHash(voteId, candidateId, electionId, votedAt);
+    }
+
+    @Benchmark
+    public byte[] leafHash() {
+        return VoteHasher.leafHash(VoteHasher.fromHex(voteHash));
+    }
+}
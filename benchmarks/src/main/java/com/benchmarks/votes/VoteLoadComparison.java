@@ -0,0 +1,144 @@
+package com.benchmarks.votes;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compara bajo carga el POST de votos servlet (/api/v1/votes) con el reactivo
+ * (/api/v1/votes/reactive) contra un votes-service ya levantado con
+ * app.votes.reactive.enabled=true.
+ *
+ * Cada petición usa un usuario nuevo (token firmado con el mismo secreto que
+ * el servicio) para que ninguna termine como voto duplicado. Se informa
+ * throughput, percentiles de latencia, códigos de respuesta y los hilos vivos
+ * del servicio según actuator.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.benchmarks.votes.VoteLoadComparison \
+ *     --url=http://localhost:8083 --secret=... --candidate=... --requests=20000 --concurrency=500
+ */
+public class VoteLoadComparison {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8083");
+        String secret = options.getOrDefault("secret", "mySecretKey123456789012345678901234567890");
+        String candidateId = required(options, "candidate");
+        String electionId = options.getOrDefault("election", "550e8400-e29b-41d4-a716-446655440000");
+        int requests = Integer.parseInt(options.getOrDefault("requests", "20000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "500"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        String body = "{\"candidateId\":\"" + candidateId + "\",\"electionId\":\"" + electionId + "\"}";
+
+        for (String path : new String[]{"/api/v1/votes", "/api/v1/votes/reactive"}) {
+            run(client, baseUrl, path, body, secret, requests, concurrency);
+        }
+    }
+
+    private static void run(HttpClient client, String baseUrl, String path, String body, String secret,
+                            int requests, int concurrency) throws InterruptedException {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        long[] latencies = new long[requests];
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            String token = Jwts.builder()
+                    .setSubject(UUID.randomUUID().toString())
+                    .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                    .signWith(Keys.hmacShaKeyFor(key))
+                    .compact();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            int index = i;
+            long sent = System.nanoTime();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        int status = error == null ? response.statusCode() : -1;
+                        statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                        inFlight.release();
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(calls).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%n%s: %d requests, concurrency %d%n", path, requests, concurrency);
+        System.out.printf("  throughput   %.1f req/s%n", requests / (elapsed / 1e9));
+        System.out.printf("  latency ms   p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                millis(latencies, 0.50), millis(latencies, 0.90), millis(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6);
+        System.out.printf("  statuses     %s (-1 = transport error)%n", new TreeMap<>(statuses));
+        System.out.printf("  server threads live %s, peak %s%n",
+                metric(client, baseUrl, "jvm.threads.live"), metric(client, baseUrl, "jvm.threads.peak"));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String metric(HttpClient client, String baseUrl, String name) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            Matcher matcher = METRIC_VALUE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return matcher.find() ? String.valueOf((long) Double.parseDouble(matcher.group(1))) : "n/a";
+        } catch (Exception e) {
+            return "n/a";
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            System.err.println("Missing --" + name + "=...");
+            System.exit(2);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,127 @@
+package com.benchmarks.votes;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.entity.cassandra.Vote;
+import com.votes.entity.cassandra.VoteByCandidate;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+import com.votes.repository.cassandra.UserVoteLogRepository;
+import com.votes.repository.cassandra.VoteByCandidateRepository;
+import com.votes.repository.cassandra.VoteCqlRepository;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import com.votes.repository.cassandra.VoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+import org.springframework.data.cassandra.repository.support.CassandraRepositoryFactory;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de escritura de un voto contra un Cassandra real: tres save() de
+ * Spring Data frente a un único batch LOGGED preparado.
+ *
+ * El modo SampleTime reporta los percentiles p0.50 y p0.99 de cada ruta.
+ *
+ * Ejecución (con el keyspace de config/docker/scripts/db/cassandra/init.cql):
+ * java -jar benchmarks/target/benchmarks.jar VoteWriteBenchmark -p contactPoint=127.0.0.1
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class VoteWriteBenchmark {
+
+    @Param("127.0.0.1")
+    public String contactPoint;
+
+    @Param("9042")
+    public int port;
+
+    @Param("datacenter1")
+    public String localDatacenter;
+
+    @Param("voting_system")
+    public String keyspace;
+
+    private CqlSession session;
+    private VoteRepository voteRepository;
+    private VoteByCandidateRepository voteByCandidateRepository;
+    private UserVoteLogRepository userVoteLogRepository;
+    private VoteCqlRepository voteCqlRepository;
+
+    private final UUID electionId = UUID.randomUUID();
+    private final UUID candidateId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() {
+        session = CqlSession.builder()
+                .addContactPoint(new InetSocketAddress(contactPoint, port))
+                .withLocalDatacenter(localDatacenter)
+                .withKeyspace(keyspace)
+                .build();
+
+        CassandraRepositoryFactory factory = new CassandraRepositoryFactory(new CassandraTemplate(session));
+        voteRepository = factory.getRepository(VoteRepository.class);
+        voteByCandidateRepository = factory.getRepository(VoteByCandidateRepository.class);
+        userVoteLogRepository = factory.getRepository(UserVoteLogRepository.class);
+        PreparedStatementRegistry statements = new PreparedStatementRegistry(session);
+        voteCqlRepository = new VoteCqlRepository(session, statements, new BucketedVoteByCandidateRepository(session, statements),
+                new VoteMinuteRepository(session, statements));
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public void threeRepositorySaves() {
+        VoteRows rows = new VoteRows(electionId, candidateId);
+        voteRepository.save(rows.vote);
+        voteByCandidateRepository.save(rows.voteByCandidate);
+        userVoteLogRepository.save(rows.userVoteLog);
+    }
+
+    @Benchmark
+    public void preparedLoggedBatch() {
+        VoteRows rows = new VoteRows(electionId, candidateId);
+        voteCqlRepository.saveAll(rows.vote, rows.voteByCandidate, rows.userVoteLog);
+    }
+
+    /**
+     * Filas de un voto nuevo, con los mismos valores que genera VotingService.
+     */
+    private static final class VoteRows {
+
+        private final Vote vote;
+        private final VoteByCandidate voteByCandidate;
+        private final UserVoteLog userVoteLog;
+
+        private VoteRows(UUID electionId, UUID candidateId) {
+            UUID voteId = UUID.randomUUID();
+            Instant votedAt = Instant.now();
+            vote = new Vote(voteId, candidateId, electionId, votedAt, voteId.toString(), "{}", 1);
+            voteByCandidate = new VoteByCandidate(candidateId, electionId, voteId, votedAt);
+            userVoteLog = new UserVoteLog(UUID.randomUUID(), electionId, voteId, candidateId, votedAt);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.benchmarks.votes;
+
+import com.votes.util.StripedUuidSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice de usuarios que ya votaron: StripedUuidSet frente a
+ * ConcurrentHashMap.newKeySet().
+ *
+ * El setup imprime la memoria retenida por elemento de cada estructura (heap
+ * usado antes y después de llenarla, tras forzar GC); los benchmarks miden
+ * búsquedas concurrentes con la mitad de las claves presentes.
+ *
+ * java -jar benchmarks/target/benchmarks.jar VotedUserSetBenchmark -p voters=1000000
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class VotedUserSetBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int voters;
+
+    private UUID[] probes;
+    private StripedUuidSet stripedSet;
+    private Set<UUID> concurrentSet;
+
+    @Setup
+    public void setUp() {
+        UUID[] present = new UUID[voters];
+        for (int i = 0; i < voters; i++) {
+            present[i] = UUID.randomUUID();
+        }
+
+        long before = usedHeap();
+        stripedSet = new StripedUuidSet(64, 16);
+        for (UUID value : present) {
+            stripedSet.add(value);
+        }
+        report("StripedUuidSet", usedHeap() - before);
+
+        // Como al cargar desde Cassandra, cada fila produce un UUID nuevo que el key set retiene
+        before = usedHeap();
+        concurrentSet = ConcurrentHashMap.newKeySet();
+        for (UUID value : present) {
+            concurrentSet.add(new UUID(value.getMostSignificantBits(), value.getLeastSignificantBits()));
+        }
+        report("ConcurrentHashMap.newKeySet", usedHeap() - before);
+
+        probes = new UUID[voters * 2];
+        for (int i = 0; i < voters; i++) {
+            // Copias nuevas: la búsqueda no puede aprovechar la identidad del objeto
+            probes[2 * i] = new UUID(present[i].getMostSignificantBits(), present[i].getLeastSignificantBits());
+            probes[2 * i + 1] = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public boolean stripedUuidSetContains() {
+        return stripedSet.contains(probes[ThreadLocalRandom.current().nextInt(probes.length)]);
+    }
+
+    @Benchmark
+    public boolean concurrentKeySetContains() {
+        return concurrentSet.contains(probes[ThreadLocalRandom.current().nextInt(probes.length)]);
+    }
+
+    private void report(String name, long retained) {
+        System.out.printf("%n%s: %d elements, ~%d bytes retained, ~%.1f bytes/element%n",
+                name, voters, retained, retained / (double) voters);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,80 @@
+package com.benchmarks.votes;
+
+import com.votes.wal.SegmentedWriteAheadLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput del journal de votos según el intervalo de group commit.
+ *
+ * groupCommitIntervalMicros = 0 es fsync por registro; el resto agrupa los
+ * registros de todos los hilos en un fsync por intervalo. Cada append se
+ * confirma enseguida, como hacen los escritores tras persistir el voto.
+ *
+ * java -jar benchmarks/target/benchmarks.jar WriteAheadLogBenchmark -p directory=/ruta/en/el/disco/real
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    @Param({"0", "500", "2000", "10000"})
+    public long groupCommitIntervalMicros;
+
+    @Param("")
+    public String directory;
+
+    // Tamaño de un voto codificado por VoteJournal (4 UUID, instante y hash hex)
+    private final byte[] payload = new byte[4 * 16 + 8 + 4 + 2 + 64];
+
+    private Path walDirectory;
+    private SegmentedWriteAheadLog wal;
+
+    @Setup
+    public void setUp() throws IOException {
+        walDirectory = directory.isEmpty()
+                ? Files.createTempDirectory("wal-bench")
+                : Files.createTempDirectory(Path.of(directory), "wal-bench");
+        wal = new SegmentedWriteAheadLog(walDirectory, 64 * 1024 * 1024,
+                Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(groupCommitIntervalMicros)));
+        wal.open();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        wal.close();
+        try (Stream<Path> files = Files.walk(walDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long appendAndAcknowledge() {
+        long sequence = wal.append(payload);
+        wal.acknowledge(sequence);
+        return sequence;
+    }
+}
@@ -0,0 +1,42 @@
+#!/bin/bash
+# Migraciones de esquema para keyspaces creados con una versión anterior de init.cql.
+#
+# init.cql solo crea lo que no existe (CREATE ... IF NOT EXISTS): las columnas
+# nuevas de tablas ya existentes se añaden aquí. Cassandra 4.1 no admite
+# ALTER TABLE ... ADD IF NOT EXISTS, así que cada paso consulta system_schema
+# y solo altera la tabla si falta la columna; el script puede ejecutarse en
+# cada arranque, después de init.cql.
+#
+# Uso: bash migrate.sh [host]   (por defecto, cassandra)
+
+set -e
+
+HOST="${1:-cassandra}"
+KEYSPACE=voting_system
+
+add_column() {
+  local table="$1" column="$2" type="$3"
+  if cqlsh "$HOST" -e "SELECT column_name FROM system_schema.columns WHERE keyspace_name = '$KEYSPACE' AND table_name = '$table' AND column_name = '$column';" | grep -qw "$column"; then
+    return
+  fi
+  echo "Adding column $column to $KEYSPACE.$table"
+  cqlsh "$HOST" -e "ALTER TABLE $KEYSPACE.$table ADD $column $type;"
+}
+
+# 1. Formato de vote_hash: sin esta columna los INSERT en votes fallan
+add_column votes hash_version int
+
+# 2. Sellado del árbol de auditoría desde votes_by_minute
+add_column votes_by_minute voted_at timestamp
+add_column votes_by_minute vote_hash text
+add_column votes_by_minute late boolean
+
+# 3. vote_bucket_slots guarda el intervalo de cada franja en la clave primaria.
+#    La clave no se puede alterar: la tabla anterior se vuelve a crear vacía y
+#    CandidateBucketMigration la rellena al copiar de nuevo votes_by_candidate
+#    (las lecturas no usan la tabla con buckets hasta read-enabled).
+if ! cqlsh "$HOST" -e "SELECT column_name FROM system_schema.columns WHERE keyspace_name = '$KEYSPACE' AND table_name = 'vote_bucket_slots' AND column_name = 'slot_interval_ms';" | grep -qw slot_interval_ms; then
+  echo "Recreating $KEYSPACE.vote_bucket_slots with slot_interval_ms; run the candidate bucket migration again"
+  cqlsh "$HOST" -e "DROP TABLE IF EXISTS $KEYSPACE.vote_bucket_slots;"
+  cqlsh "$HOST" -e "CREATE TABLE $KEYSPACE.vote_bucket_slots (election_id UUID, time_slot BIGINT, shards INT, slot_interval_ms BIGINT, PRIMARY KEY (election_id, time_slot, shards, slot_interval_ms));"
+fi
@@ -3,6 +3,7 @@
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
 -- Eliminar todo para reinicio limpio
+DROP TABLE IF EXISTS projection_dead_letters CASCADE;
 DROP TABLE IF EXISTS revoked_tokens CASCADE;
 DROP TABLE IF EXISTS user_voting_status CASCADE;
 DROP TABLE IF EXISTS candidates CASCADE;
@@ -68,6 +69,18 @@ CREATE TABLE revoked_tokens (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
 );
 
+-- Filas que una proyección asíncrona no pudo aplicar de forma permanente (p. ej. FK de users)
+CREATE TABLE projection_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    user_id UUID NOT NULL,
+    election_id UUID NOT NULL,
+    vote_id UUID,
+    voted_at TIMESTAMP,
+    error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Índices
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_active ON users(is_active);
@@ -0,0 +1,67 @@
+package com.loadtest;
+
+import org.h2.tools.Server;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Sustituto local de PostgreSQL: base H2 en memoria, en modo PostgreSQL,
+ * servida por TCP desde el proceso de la prueba.
+ *
+ * Al arrancar crea el esquema de standin/postgres-schema.sql (el de
+ * 01-init.sql con la elección por defecto y sus candidatos); las tablas que
+ * auth-service y users-service crean con ddl-auto=update se crean igual que
+ * contra PostgreSQL. Los servicios se conectan con el driver de H2 del jar de
+ * sustitutos y el dialecto H2 de Hibernate (ServiceLauncher), y el proxy de
+ * latencia de postgres se pone delante del puerto TCP.
+ */
+public class H2PostgresStandIn implements AutoCloseable {
+
+    public static final String USER = "loadtest";
+    public static final String PASSWORD = "loadtest";
+
+    private static final String DATABASE = "mem:voting_system";
+    private static final String SETTINGS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private final int port;
+    private Connection keepAlive;
+    private Server server;
+
+    public H2PostgresStandIn(int port) {
+        this.port = port;
+    }
+
+    /**
+     * URL JDBC para los servicios, a través del puerto indicado (el del proxy si lo hay).
+     */
+    public static String jdbcUrl(int port) {
+        return "jdbc:h2:tcp://localhost:" + port + "/" + DATABASE + SETTINGS;
+    }
+
+    public void start() throws SQLException {
+        // La conexión local mantiene viva la base en memoria mientras dure la prueba
+        keepAlive = DriverManager.getConnection("jdbc:h2:" + DATABASE + SETTINGS, USER, PASSWORD);
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:/standin/postgres-schema.sql' CHARSET 'UTF-8'");
+        }
+        server = Server.createTcpServer("-tcpPort", Integer.toString(port), "-tcpDaemon").start();
+        System.out.printf("PostgreSQL stand-in (H2) listening on %d%n", port);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (server != null) {
+            server.stop();
+        }
+        if (keepAlive != null) {
+            keepAlive.close();
+        }
+    }
+}
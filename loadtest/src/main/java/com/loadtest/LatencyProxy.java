@@ -0,0 +1,114 @@
+package com.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proxy TCP que añade latencia entre un servicio y uno de sus almacenes
+ * (PostgreSQL, Cassandra o Redis).
+ *
+ * Cada bloque que el servicio envía se retrasa latencyMillis antes de
+ * reenviarlo, así cada petición (y cada ida y vuelta de un protocolo de varias)
+ * paga la latencia una vez. Las respuestas se reenvían sin retraso. Los
+ * servicios se arrancan apuntando al puerto del proxy en lugar del real.
+ */
+public class LatencyProxy implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final String name;
+    private final int listenPort;
+    private final InetSocketAddress target;
+    private final long latencyMillis;
+
+    private final AtomicInteger connectionNumber = new AtomicInteger();
+    private final ExecutorService pumps;
+    private ServerSocket serverSocket;
+
+    public LatencyProxy(String name, int listenPort, InetSocketAddress target, long latencyMillis) {
+        this.name = name;
+        this.listenPort = listenPort;
+        this.target = target;
+        this.latencyMillis = latencyMillis;
+        this.pumps = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "proxy-" + name + "-" + connectionNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(listenPort);
+        Thread acceptor = new Thread(this::acceptLoop, "proxy-" + name + "-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.printf("Proxy %s listening on %d -> %s (+%d ms)%n", name, listenPort, target, latencyMillis);
+    }
+
+    public int getListenPort() {
+        return listenPort;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket upstream = new Socket(target.getHostString(), target.getPort());
+                client.setTcpNoDelay(true);
+                upstream.setTcpNoDelay(true);
+                pumps.execute(() -> pump(client, upstream, latencyMillis));
+                pumps.execute(() -> pump(upstream, client, 0));
+            } catch (SocketException e) {
+                // Proxy cerrado
+                return;
+            } catch (IOException e) {
+                System.err.printf("Proxy %s: error opening connection to %s: %s%n", name, target, e.getMessage());
+            }
+        }
+    }
+
+    private static void pump(Socket from, Socket to, long delayMillis) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Conexión cerrada por uno de los extremos
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ya cerrado
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        pumps.shutdownNow();
+    }
+}
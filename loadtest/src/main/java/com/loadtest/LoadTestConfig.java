@@ -0,0 +1,87 @@
+package com.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Configuración de la prueba de carga.
+ *
+ * Se leen, en este orden y sobrescribiendo, loadtest.properties del
+ * classpath, el archivo indicado como primer argumento y las propiedades de
+ * sistema que empiezan por "loadtest." (-Dloadtest.voters=5000).
+ */
+public class LoadTestConfig {
+
+    private static final String PREFIX = "loadtest.";
+
+    private final Properties properties = new Properties();
+
+    public static LoadTestConfig load(String[] args) throws IOException {
+        LoadTestConfig config = new LoadTestConfig();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                config.properties.load(new InputStreamReader(defaults, StandardCharsets.UTF_8));
+            }
+        }
+        if (args.length > 0) {
+            try (Reader file = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+                config.properties.load(file);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                config.properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return config;
+    }
+
+    public String getString(String key) {
+        String value = properties.getProperty(PREFIX + key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing property " + PREFIX + key);
+        }
+        return value.trim();
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(PREFIX + key);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(PREFIX + key);
+        return value != null && !value.isBlank() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(PREFIX + key);
+        return value != null && !value.isBlank() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(PREFIX + key);
+        return value != null && !value.isBlank() ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Lista separada por comas, sin elementos vacíos.
+     */
+    public List<String> getList(String key) {
+        List<String> values = new ArrayList<>();
+        for (String value : getString(key, "").split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+}
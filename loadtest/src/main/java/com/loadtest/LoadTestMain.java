@@ -0,0 +1,91 @@
+package com.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prueba de carga de extremo a extremo.
+ *
+ * Levanta los proxies de latencia delante de PostgreSQL, Cassandra y Redis,
+ * arranca los servicios contra ellos (loadtest.services.launch), lanza los
+ * votantes sintéticos contra el gateway y muestra latencias p50/p99 y
+ * rendimiento por endpoint.
+ *
+ * PostgreSQL y Cassandra pueden ser sustitutos locales en lugar de los de
+ * docker-compose: loadtest.postgres.standin levanta H2 en este proceso (con
+ * su proxy de latencia delante) y loadtest.cassandra.standin cambia los
+ * repositorios de Cassandra de los servicios por versiones en memoria, con
+ * loadtest.cassandra.latency-ms por operación. Redis sigue siendo el real.
+ *
+ * Uso: java -jar loadtest/target/loadtest.jar [fichero.properties] [-Dloadtest.clave=valor]
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        List<AutoCloseable> resources = new ArrayList<>();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeAll(resources)));
+
+        try {
+            int postgresPort;
+            if (config.getBoolean("postgres.standin", false)) {
+                H2PostgresStandIn postgres = new H2PostgresStandIn(config.getInt("postgres.standin-port", 19092));
+                postgres.start();
+                resources.add(postgres);
+                postgresPort = proxy(config, "postgres", "localhost", postgres.getPort(), resources);
+            } else {
+                postgresPort = proxy(config, "postgres", config.getString("postgres.host", "localhost"),
+                        config.getInt("postgres.port", 5432), resources);
+            }
+            // Con el sustituto de Cassandra los servicios no abren sesión: no hay proxy ni puerto
+            int cassandraPort = config.getBoolean("cassandra.standin", false) ? 0
+                    : proxy(config, "cassandra", config.getString("cassandra.host", "localhost"),
+                            config.getInt("cassandra.port", 9042), resources);
+            int redisPort = proxy(config, "redis", config.getString("redis.host", "localhost"),
+                    config.getInt("redis.port", 6379), resources);
+
+            if (config.getBoolean("services.launch", true)) {
+                ServiceLauncher launcher = new ServiceLauncher(config);
+                resources.add(launcher);
+                launcher.start(postgresPort, cassandraPort, redisPort);
+                launcher.awaitHealthy(config.getString("gateway-url", "http://localhost:8080"),
+                        Duration.ofSeconds(config.getLong("services.startup-timeout-seconds", 180)));
+            }
+
+            new VoterWorkload(config).run(System.out);
+        } finally {
+            closeAll(resources);
+        }
+    }
+
+    /**
+     * Arranca el proxy del backend en host:port si loadtest.<name>.proxy-port es
+     * mayor que 0; devuelve el puerto al que deben conectarse los servicios.
+     */
+    private static int proxy(LoadTestConfig config, String name, String host, int port, List<AutoCloseable> resources)
+            throws IOException {
+        int proxyPort = config.getInt(name + ".proxy-port", 0);
+        if (proxyPort <= 0) {
+            return port;
+        }
+        LatencyProxy proxy = new LatencyProxy(name, proxyPort, new InetSocketAddress(host, port),
+                config.getLong(name + ".latency-ms", 0));
+        proxy.start();
+        resources.add(proxy);
+        return proxy.getListenPort();
+    }
+
+    private static synchronized void closeAll(List<AutoCloseable> resources) {
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            try {
+                resources.get(i).close();
+            } catch (Exception e) {
+                System.err.println("Error closing " + resources.get(i) + ": " + e.getMessage());
+            }
+        }
+        resources.clear();
+    }
+}
@@ -0,0 +1,182 @@
+package com.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arranca los cinco servicios como procesos hijos a partir de sus jars de
+ * Spring Boot, apuntando PostgreSQL, Cassandra y Redis a los proxies de
+ * latencia, y espera a que el gateway los vea sanos.
+ *
+ * Con loadtest.postgres.standin o loadtest.cassandra.standin los servicios
+ * arrancan con PropertiesLauncher y el jar de sustitutos en loader.path: el
+ * driver de H2 y las configuraciones de com.loadtest.standin, que se añaden
+ * con spring.main.sources.
+ */
+public class ServiceLauncher implements AutoCloseable {
+
+    // Módulo (directorio bajo apps/) y ruta de salud a través del gateway; el gateway va el último
+    private static final String[][] SERVICES = {
+            {"auth-service", "/health/auth"},
+            {"users-service", "/health/users"},
+            {"votes-service", "/health/votes"},
+            {"reports-service", "/health/reports"},
+            {"gateway-service", null}
+    };
+
+    // Configuraciones de sustitutos por módulo
+    private static final Map<String, String> POSTGRES_STANDINS = Map.of(
+            "votes-service", "com.loadtest.standin.votes.H2VotingStatusConfig");
+    private static final Map<String, String> CASSANDRA_STANDINS = Map.of(
+            "auth-service", "com.loadtest.standin.auth.InMemoryCassandraConfig",
+            "votes-service", "com.loadtest.standin.votes.InMemoryCassandraConfig");
+
+    // Sin sesión de Cassandra: los repositorios los pone CASSANDRA_STANDINS
+    private static final String CASSANDRA_AUTOCONFIGURATION = String.join(",",
+            "org.springframework.boot.autoconfigure.cassandra.CassandraAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.cassandra.CassandraDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.cassandra.CassandraReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.cassandra.CassandraRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.cassandra.CassandraReactiveRepositoriesAutoConfiguration");
+
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final LoadTestConfig config;
+    private final List<Process> processes = new ArrayList<>();
+
+    public ServiceLauncher(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void start(int postgresPort, int cassandraPort, int redisPort) throws IOException {
+        Path appsDir = Path.of(config.getString("services.apps-dir", "apps"));
+        Path logDir = Path.of(config.getString("services.log-dir", "loadtest/target/logs"));
+        Files.createDirectories(logDir);
+
+        boolean postgresStandIn = config.getBoolean("postgres.standin", false);
+        boolean cassandraStandIn = config.getBoolean("cassandra.standin", false);
+        Path standInsJar = Path.of(config.getString("services.standins-jar", "loadtest/target/loadtest-standins.jar"));
+        if ((postgresStandIn || cassandraStandIn) && !Files.isRegularFile(standInsJar)) {
+            throw new IllegalStateException("No stand-ins jar at " + standInsJar + "; run mvn package first");
+        }
+
+        for (String[] service : SERVICES) {
+            String module = service[0];
+            Path jar = findJar(appsDir.resolve(module).resolve("target"));
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(config.getList("services.jvm-args"));
+            if (postgresStandIn || cassandraStandIn) {
+                command.add("-Dloader.path=" + standInsJar.toAbsolutePath());
+                command.add("-cp");
+                command.add(jar.toString());
+                command.add(PROPERTIES_LAUNCHER);
+            } else {
+                command.add("-jar");
+                command.add(jar.toString());
+            }
+
+            List<String> sources = new ArrayList<>();
+            if (postgresStandIn) {
+                command.add("--spring.datasource.url=" + H2PostgresStandIn.jdbcUrl(postgresPort));
+                command.add("--spring.datasource.username=" + H2PostgresStandIn.USER);
+                command.add("--spring.datasource.password=" + H2PostgresStandIn.PASSWORD);
+                command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+                command.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+                command.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+                if (POSTGRES_STANDINS.containsKey(module)) {
+                    sources.add(POSTGRES_STANDINS.get(module));
+                }
+            } else {
+                command.add("--spring.datasource.url=jdbc:postgresql://localhost:" + postgresPort + "/"
+                        + config.getString("postgres.database", "voting_system"));
+            }
+            if (cassandraStandIn) {
+                if (CASSANDRA_STANDINS.containsKey(module)) {
+                    command.add("--spring.autoconfigure.exclude=" + CASSANDRA_AUTOCONFIGURATION);
+                    command.add("--loadtest.standin.cassandra.latency-ms=" + config.getLong("cassandra.latency-ms", 0));
+                    sources.add(CASSANDRA_STANDINS.get(module));
+                }
+            } else {
+                command.add("--spring.cassandra.contact-points=localhost");
+                command.add("--spring.cassandra.port=" + cassandraPort);
+            }
+            if (!sources.isEmpty()) {
+                command.add("--spring.main.sources=" + String.join(",", sources));
+            }
+            command.add("--spring.data.redis.host=localhost");
+            command.add("--spring.data.redis.port=" + redisPort);
+            command.addAll(config.getList("services." + module + ".args"));
+
+            File log = logDir.resolve(module + ".log").toFile();
+            processes.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log)
+                    .start());
+            System.out.printf("Started %s (log: %s)%n", module, log);
+        }
+    }
+
+    /**
+     * Espera a que cada servicio responda a su ruta de salud en el gateway con
+     * un estado por debajo de 500: auth-service y users-service no tienen
+     * actuator y contestan 404 (o 401) en cuanto aceptan peticiones, mientras
+     * que el gateway da 5xx si el servicio no escucha y actuator 503 si está DOWN.
+     */
+    public void awaitHealthy(String gatewayUrl, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (String[] service : SERVICES) {
+            if (service[1] == null) {
+                continue;
+            }
+            URI uri = URI.create(gatewayUrl + service[1]);
+            while (!isHealthy(client, uri)) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(service[0] + " did not become healthy within " + timeout);
+                }
+                Thread.sleep(1000);
+            }
+            System.out.printf("%s is healthy%n", service[0]);
+        }
+    }
+
+    private static boolean isHealthy(HttpClient client, URI uri) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(2)).GET().build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path findJar(Path targetDir) throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(targetDir, "*.jar")) {
+            for (Path jar : jars) {
+                String name = jar.getFileName().toString();
+                if (!name.endsWith("-classes.jar") && !name.endsWith("-sources.jar")) {
+                    return jar;
+                }
+            }
+        }
+        throw new IllegalStateException("No Spring Boot jar in " + targetDir + "; run mvn package first");
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Votantes sintéticos contra las rutas del gateway.
+ *
+ * Cada votante se registra, inicia sesión, vota por un candidato de
+ * loadtest.candidate-ids (repartidos en turno), consulta su estado de voto y
+ * pide el informe de votos por candidato, con loadtest.concurrency votantes a
+ * la vez. Cada petición se mide en el EndpointStats de su ruta.
+ */
+public class VoterWorkload {
+
+    private static final String PASSWORD = "LoadTest123";
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String gatewayUrl;
+    private final Duration requestTimeout;
+    private final String electionId;
+    private final List<String> candidateIds;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final AtomicInteger completedVoters = new AtomicInteger();
+    private final AtomicLong failedVoters = new AtomicLong();
+
+    public VoterWorkload(LoadTestConfig config) {
+        this.config = config;
+        this.gatewayUrl = config.getString("gateway-url", "http://localhost:8080");
+        this.requestTimeout = Duration.ofMillis(config.getLong("request-timeout-ms", 10000));
+        this.electionId = config.getString("election-id", "");
+        this.candidateIds = config.getList("candidate-ids");
+        if (candidateIds.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.candidate-ids must list at least one candidate UUID");
+        }
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : new String[] {"register", "login", "cast", "status", "report"}) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    /**
+     * Ejecuta todos los votantes y escribe el informe en out.
+     */
+    public void run(PrintStream out) throws InterruptedException, IOException {
+        int voters = config.getInt("voters", 1000);
+        int concurrency = config.getInt("concurrency", 50);
+        int statusChecks = config.getInt("status-checks-per-voter", 1);
+        int reportFetches = config.getInt("report-fetches-per-voter", 1);
+        long thinkTimeMillis = config.getLong("think-time-ms", 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < voters; i++) {
+            int voter = i;
+            executor.execute(() -> {
+                try {
+                    vote(voter, statusChecks, reportFetches, thinkTimeMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failedVoters.incrementAndGet();
+                }
+                int done = completedVoters.incrementAndGet();
+                if (done % Math.max(1, voters / 10) == 0) {
+                    System.out.printf("%d/%d voters done%n", done, voters);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        out.printf("%n%d voters (%d failed) in %.1f s: %.1f voters/s with concurrency %d%n%n",
+                voters, failedVoters.get(), elapsedSeconds, voters / elapsedSeconds, concurrency);
+        EndpointStats.printHeader(out);
+        for (EndpointStats endpoint : stats.values()) {
+            endpoint.print(out, elapsedSeconds);
+        }
+
+        String histogramDir = config.getString("histogram-dir", "");
+        if (!histogramDir.isEmpty()) {
+            Path dir = Files.createDirectories(Path.of(histogramDir));
+            for (EndpointStats endpoint : stats.values()) {
+                try (PrintStream file = new PrintStream(dir.resolve(endpoint.getName() + ".hgrm").toFile(), "UTF-8")) {
+                    endpoint.printDistribution(file);
+                }
+            }
+            out.printf("%nHistograms written to %s%n", dir);
+        }
+    }
+
+    private void vote(int voter, int statusChecks, int reportFetches, long thinkTimeMillis) throws InterruptedException {
+        String email = "loadtest-" + runId + "-" + voter + "@example.com";
+
+        Map<String, Object> register = new LinkedHashMap<>();
+        register.put("fullName", "Load Test Voter " + voter);
+        register.put("email", email);
+        register.put("password", PASSWORD);
+        if (call("register", post("/api/auth/register", null, register)) == null) {
+            throw new IllegalStateException("register failed");
+        }
+        think(thinkTimeMillis);
+
+        Map<String, Object> login = new LinkedHashMap<>();
+        login.put("email", email);
+        login.put("password", PASSWORD);
+        JsonNode session = call("login", post("/api/auth/login", null, login));
+        if (session == null || !session.hasNonNull("token")) {
+            throw new IllegalStateException("login failed");
+        }
+        String token = session.get("token").asText();
+        think(thinkTimeMillis);
+
+        Map<String, Object> ballot = new LinkedHashMap<>();
+        ballot.put("candidateId", candidateIds.get(voter % candidateIds.size()));
+        if (!electionId.isEmpty()) {
+            ballot.put("electionId", electionId);
+        }
+        call("cast", post("/api/votes", token, ballot));
+
+        String electionQuery = electionId.isEmpty() ? "" : "?electionId=" + electionId;
+        for (int i = 0; i < statusChecks; i++) {
+            think(thinkTimeMillis);
+            call("status", get("/api/votes/status" + electionQuery, token));
+        }
+        for (int i = 0; i < reportFetches; i++) {
+            think(thinkTimeMillis);
+            call("report", get("/api/reports/votes-by-candidate", token));
+        }
+    }
+
+    /**
+     * Envía la petición y la mide; null si falló o no respondió 2xx.
+     */
+    private JsonNode call(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            success = response.statusCode() / 100 == 2;
+            if (!success) {
+                return null;
+            }
+            byte[] body = response.body();
+            return body.length > 0 ? objectMapper.readTree(body) : objectMapper.nullNode();
+        } catch (IOException e) {
+            return null;
+        } finally {
+            stats.get(endpoint).record(System.nanoTime() - start, success);
+        }
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Idempotency-Key", UUID.randomUUID().toString())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            return request.build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static void think(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.loadtest.standin;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+
+import java.util.Map;
+
+/**
+ * Sustituye beans del servicio por los de un sustituto: borra la definición
+ * original y deja su nombre como alias del bean en memoria.
+ *
+ * Un @Bean con el mismo nombre no basta: Spring descarta el método si ya hay
+ * una definición que no viene de un escaneo, como las fábricas de
+ * repositorios de Spring Data, y en cualquier caso habría que permitir la
+ * sobrescritura de definiciones en todo el contexto.
+ */
+public class BeanReplacements implements BeanDefinitionRegistryPostProcessor {
+
+    // Nombre del bean original -> nombre del bean que lo sustituye
+    private final Map<String, String> replacements;
+
+    public BeanReplacements(Map<String, String> replacements) {
+        this.replacements = replacements;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        replacements.forEach((original, replacement) -> {
+            if (registry.containsBeanDefinition(original)) {
+                registry.removeBeanDefinition(original);
+            }
+            registry.registerAlias(replacement, original);
+        });
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.loadtest.standin;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Implementaciones en memoria de interfaces de repositorio de Spring Data.
+ *
+ * Cada método se resuelve por nombre en el mapa recibido (los argumentos
+ * llegan como array); los que no están lanzan UnsupportedOperationException
+ * al llamarlos, no al arrancar, así un camino que la prueba no usa no impide
+ * levantar el servicio.
+ */
+public final class RepositoryProxies {
+
+    private RepositoryProxies() {
+    }
+
+    public static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    break;
+            }
+            Function<Object[], Object> implementation = methods.get(method.getName());
+            if (implementation == null) {
+                throw new UnsupportedOperationException(
+                        type.getSimpleName() + "." + method.getName() + " is not supported by the in-memory stand-in");
+            }
+            return implementation.apply(args);
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Repositorio sin ningún método disponible, para los que solo usa un modo desactivado.
+     */
+    public static <T> T unsupported(Class<T> type) {
+        return of(type, Map.of());
+    }
+}
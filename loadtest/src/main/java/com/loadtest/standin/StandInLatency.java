@@ -0,0 +1,47 @@
+package com.loadtest.standin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latencia simulada de un sustituto en memoria (loadtest.standin.cassandra.latency-ms).
+ *
+ * Las operaciones síncronas esperan en el hilo del llamante; las asíncronas
+ * se aplican en un temporizador al cumplirse la espera, así varias escrituras
+ * en vuelo se solapan como contra el servidor real.
+ */
+public class StandInLatency {
+
+    private final long latencyMillis;
+    private final Executor delayed;
+
+    public StandInLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        this.delayed = CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void pause() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating stand-in latency", e);
+        }
+    }
+
+    public <T> CompletableFuture<T> async(Supplier<T> operation) {
+        if (latencyMillis <= 0) {
+            try {
+                return CompletableFuture.completedFuture(operation.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(operation, delayed);
+    }
+}
@@ -0,0 +1,70 @@
+package com.loadtest.standin.auth;
+
+import com.auth.entity.cassandra.UserVoteLog;
+import com.auth.repository.cassandra.UserVoteLogRepository;
+import com.loadtest.standin.BeanReplacements;
+import com.loadtest.standin.RepositoryProxies;
+import com.loadtest.standin.StandInLatency;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cassandra en memoria para auth-service (loadtest.cassandra.standin).
+ *
+ * Cada proceso tiene sus propias tablas: auth-service no ve los votos que
+ * escribe votes-service, así que el hasVoted informativo del login queda en
+ * false. El estado de voto que consulta la prueba (/api/votes/status) lo
+ * responde votes-service.
+ */
+@Configuration(proxyBeanMethods = false)
+public class InMemoryCassandraConfig {
+
+    // user_votes_log por "userId:electionId"
+    private final Map<String, UserVoteLog> userVotes = new ConcurrentHashMap<>();
+
+    @Bean
+    public static BeanReplacements inMemoryCassandraReplacements() {
+        return new BeanReplacements(Map.of(
+                "userVoteLogCqlRepository", "inMemoryUserVoteLogCqlRepository",
+                "userVoteLogRepository", "inMemoryUserVoteLogRepository"));
+    }
+
+    @Bean
+    StandInLatency cassandraLatency(@Value("${loadtest.standin.cassandra.latency-ms:0}") long latencyMillis) {
+        return new StandInLatency(latencyMillis);
+    }
+
+    @Bean
+    InMemoryUserVoteLogCqlRepository inMemoryUserVoteLogCqlRepository(StandInLatency cassandraLatency) {
+        return new InMemoryUserVoteLogCqlRepository(cassandraLatency, userVotes);
+    }
+
+    @Bean
+    UserVoteLogRepository inMemoryUserVoteLogRepository(StandInLatency cassandraLatency) {
+        return RepositoryProxies.of(UserVoteLogRepository.class, Map.of(
+                "save", args -> {
+                    cassandraLatency.pause();
+                    UserVoteLog userVote = (UserVoteLog) args[0];
+                    userVotes.put(userVoteKey(userVote.getUserId(), userVote.getElectionId()), userVote);
+                    return userVote;
+                },
+                "findByUserIdAndElectionId", args -> {
+                    cassandraLatency.pause();
+                    return Optional.ofNullable(userVotes.get(userVoteKey((UUID) args[0], (UUID) args[1])));
+                },
+                "existsByUserIdAndElectionId", args -> {
+                    cassandraLatency.pause();
+                    return userVotes.containsKey(userVoteKey((UUID) args[0], (UUID) args[1]));
+                }));
+    }
+
+    static String userVoteKey(UUID userId, UUID electionId) {
+        return userId + ":" + electionId;
+    }
+}
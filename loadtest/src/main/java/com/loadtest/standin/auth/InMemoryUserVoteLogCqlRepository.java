@@ -0,0 +1,32 @@
+package com.loadtest.standin.auth;
+
+import com.auth.entity.cassandra.UserVoteLog;
+import com.auth.repository.cassandra.UserVoteLogCqlRepository;
+import com.loadtest.standin.StandInLatency;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lectura de user_votes_log sobre la tabla en memoria de auth-service.
+ *
+ * El @PostConstruct heredado intenta preparar la sentencia sin sesión y deja
+ * un aviso en el log al arrancar; no afecta a las lecturas.
+ */
+class InMemoryUserVoteLogCqlRepository extends UserVoteLogCqlRepository {
+
+    private final StandInLatency latency;
+    private final Map<String, UserVoteLog> userVotes;
+
+    InMemoryUserVoteLogCqlRepository(StandInLatency latency, Map<String, UserVoteLog> userVotes) {
+        super(null);
+        this.latency = latency;
+        this.userVotes = userVotes;
+    }
+
+    @Override
+    public boolean existsByUserIdAndElectionId(UUID userId, UUID electionId) {
+        latency.pause();
+        return userVotes.containsKey(InMemoryCassandraConfig.userVoteKey(userId, electionId));
+    }
+}
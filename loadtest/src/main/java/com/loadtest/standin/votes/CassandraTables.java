@@ -0,0 +1,117 @@
+package com.loadtest.standin.votes;
+
+import com.loadtest.standin.StandInLatency;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.entity.cassandra.Vote;
+import com.votes.entity.cassandra.VoteByCandidate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tablas de votes-service que escriben varios repositorios: votes,
+ * user_votes_log y votes_by_candidate, cada una como mapa por clave primaria
+ * (los INSERT repetidos sobrescriben la fila, como en Cassandra).
+ *
+ * votes_by_candidate_bucketed no existe aparte: las particiones por bucket
+ * solo importan en un clúster, así que la versión con buckets lee y escribe
+ * esta misma tabla.
+ */
+class CassandraTables {
+
+    private final StandInLatency latency;
+
+    private final Map<UUID, Vote> votes = new ConcurrentHashMap<>();
+
+    // user_votes_log por "userId:electionId"
+    private final Map<String, UserVoteLog> userVotes = new ConcurrentHashMap<>();
+
+    // votes_by_candidate por "candidateId:electionId" y vote_id
+    private final Map<String, Map<UUID, VoteByCandidate>> votesByCandidate = new ConcurrentHashMap<>();
+
+    CassandraTables(StandInLatency latency) {
+        this.latency = latency;
+    }
+
+    StandInLatency latency() {
+        return latency;
+    }
+
+    void saveVote(Vote vote) {
+        votes.put(vote.getVoteId(), vote);
+    }
+
+    Optional<Vote> findVote(UUID voteId) {
+        return Optional.ofNullable(votes.get(voteId));
+    }
+
+    void forEachVote(Consumer<Vote> consumer) {
+        votes.values().forEach(consumer);
+    }
+
+    void saveUserVote(UserVoteLog userVote) {
+        userVotes.put(userVoteKey(userVote.getUserId(), userVote.getElectionId()), userVote);
+    }
+
+    /**
+     * INSERT ... IF NOT EXISTS: la fila que queda, la nueva o la que ya existía.
+     */
+    UserVoteLog claimUserVote(UserVoteLog userVote) {
+        return userVotes.merge(userVoteKey(userVote.getUserId(), userVote.getElectionId()), userVote,
+                (existing, claimed) -> existing);
+    }
+
+    /**
+     * DELETE ... IF vote_id = ?: solo si la fila sigue siendo de ese voto.
+     */
+    void releaseUserVote(UserVoteLog userVote) {
+        userVotes.computeIfPresent(userVoteKey(userVote.getUserId(), userVote.getElectionId()),
+                (key, existing) -> existing.getVoteId().equals(userVote.getVoteId()) ? null : existing);
+    }
+
+    Optional<UserVoteLog> findUserVote(UUID userId, UUID electionId) {
+        return Optional.ofNullable(userVotes.get(userVoteKey(userId, electionId)));
+    }
+
+    void forEachUserVote(Consumer<UserVoteLog> consumer) {
+        userVotes.values().forEach(consumer);
+    }
+
+    void saveVoteByCandidate(VoteByCandidate row) {
+        votesByCandidate.computeIfAbsent(candidateKey(row.getCandidateId(), row.getElectionId()),
+                key -> new ConcurrentHashMap<>()).put(row.getVoteId(), row);
+    }
+
+    /**
+     * Filas de votes_by_candidate del candidato con voted_at anterior a before (todas si es null).
+     */
+    void forEachVoteByCandidate(UUID electionId, UUID candidateId, Instant before, Consumer<VoteByCandidate> consumer) {
+        Map<UUID, VoteByCandidate> rows = votesByCandidate.get(candidateKey(candidateId, electionId));
+        if (rows == null) {
+            return;
+        }
+        for (VoteByCandidate row : rows.values()) {
+            if (before == null || row.getVotedAt().isBefore(before)) {
+                consumer.accept(row);
+            }
+        }
+    }
+
+    void forEachVoteByCandidate(Consumer<VoteByCandidate> consumer) {
+        for (Map<UUID, VoteByCandidate> rows : votesByCandidate.values()) {
+            rows.values().forEach(consumer);
+        }
+    }
+
+    private static String userVoteKey(UUID userId, UUID electionId) {
+        return userId + ":" + electionId;
+    }
+
+    private static String candidateKey(UUID candidateId, UUID electionId) {
+        return candidateId + ":" + electionId;
+    }
+}
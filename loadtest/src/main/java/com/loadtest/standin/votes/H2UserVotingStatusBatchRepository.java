@@ -0,0 +1,49 @@
+package com.loadtest.standin.votes;
+
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.repository.postgres.UserVotingStatusBatchRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Upsert de user_voting_status con MERGE: H2 no admite INSERT ... ON CONFLICT
+ * ni siquiera en modo PostgreSQL. Mismo efecto que UPSERT_VOTED.
+ */
+class H2UserVotingStatusBatchRepository extends UserVotingStatusBatchRepository {
+
+    static final String MERGE_VOTED =
+            "MERGE INTO user_voting_status t " +
+            "USING (VALUES (CAST(? AS UUID), CAST(? AS UUID), CAST(? AS TIMESTAMP))) AS s (user_id, election_id, voted_at) " +
+            "ON t.user_id = s.user_id " +
+            "WHEN MATCHED THEN UPDATE SET election_id = s.election_id, has_voted = TRUE, voted_at = s.voted_at, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, election_id, has_voted, voted_at, created_at, updated_at) " +
+            "VALUES (s.user_id, s.election_id, TRUE, s.voted_at, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    H2UserVotingStatusBatchRepository(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void markAllAsVoted(List<UserVoteLog> userVotes) {
+        jdbcTemplate.batchUpdate(MERGE_VOTED, userVotes, userVotes.size(), (ps, userVote) -> {
+            ps.setObject(1, userVote.getUserId());
+            ps.setObject(2, userVote.getElectionId());
+            ps.setTimestamp(3, Timestamp.from(userVote.getVotedAt()));
+        });
+    }
+
+    /**
+     * Equivalente a UserVotingStatusRepository.upsertVoted para un solo usuario.
+     */
+    int upsertVoted(UUID userId, UUID electionId, Instant votedAt) {
+        return jdbcTemplate.update(MERGE_VOTED, userId, electionId, Timestamp.from(votedAt));
+    }
+}
@@ -0,0 +1,60 @@
+package com.loadtest.standin.votes;
+
+import com.loadtest.standin.BeanReplacements;
+import com.votes.repository.postgres.UserVotingStatusRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ajustes de votes-service para el sustituto H2 de PostgreSQL
+ * (loadtest.postgres.standin): los dos upserts con ON CONFLICT pasan a MERGE.
+ * El resto de consultas de votes-service funcionan igual en H2.
+ */
+@Configuration(proxyBeanMethods = false)
+public class H2VotingStatusConfig {
+
+    @Bean
+    public static BeanReplacements h2VotingStatusReplacements() {
+        return new BeanReplacements(Map.of("userVotingStatusBatchRepository", "h2UserVotingStatusBatchRepository"));
+    }
+
+    @Bean
+    H2UserVotingStatusBatchRepository h2UserVotingStatusBatchRepository(JdbcTemplate jdbcTemplate) {
+        return new H2UserVotingStatusBatchRepository(jdbcTemplate);
+    }
+
+    /**
+     * Envuelve el repositorio JPA para que upsertVoted use el MERGE; el resto de métodos van al original.
+     */
+    @Bean
+    static BeanPostProcessor h2UpsertVotedPostProcessor(ObjectProvider<H2UserVotingStatusBatchRepository> batchRepository) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof UserVotingStatusRepository repository)) {
+                    return bean;
+                }
+                return Proxy.newProxyInstance(UserVotingStatusRepository.class.getClassLoader(),
+                        new Class<?>[]{UserVotingStatusRepository.class}, (self, method, args) -> {
+                            if (method.getName().equals("upsertVoted")) {
+                                return batchRepository.getObject().upsertVoted((UUID) args[0], (UUID) args[1], (Instant) args[2]);
+                            }
+                            try {
+                                return method.invoke(repository, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+    }
+}
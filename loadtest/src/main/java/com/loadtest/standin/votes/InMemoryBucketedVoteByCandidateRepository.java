@@ -0,0 +1,83 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.entity.cassandra.VoteByCandidate;
+import com.votes.repository.cassandra.BucketedVoteByCandidateRepository;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * votes_by_candidate_bucketed sobre la única votes_by_candidate en memoria.
+ *
+ * Siempre informa de que los buckets están desactivados, así el voto se
+ * escribe una sola vez y las lecturas salen de la tabla original, sea cual
+ * sea app.votes.candidate-buckets.
+ */
+class InMemoryBucketedVoteByCandidateRepository extends BucketedVoteByCandidateRepository {
+
+    private final CassandraTables tables;
+
+    InMemoryBucketedVoteByCandidateRepository(CassandraTables tables, PreparedStatementRegistry statements) {
+        super(null, statements);
+        this.tables = tables;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean readsBucketed() {
+        return false;
+    }
+
+    @Override
+    public boolean writesLegacy() {
+        return true;
+    }
+
+    @Override
+    public void save(VoteByCandidate voteByCandidate) {
+        tables.latency().pause();
+        tables.saveVoteByCandidate(voteByCandidate);
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> saveAsync(VoteByCandidate voteByCandidate) {
+        return tables.latency().async(() -> {
+            tables.saveVoteByCandidate(voteByCandidate);
+            return null;
+        });
+    }
+
+    @Override
+    public long countVotes(UUID electionId, UUID candidateId) {
+        return countVotesBefore(electionId, candidateId, null);
+    }
+
+    @Override
+    public long countVotesBefore(UUID electionId, UUID candidateId, Instant before) {
+        tables.latency().pause();
+        AtomicLong count = new AtomicLong();
+        tables.forEachVoteByCandidate(electionId, candidateId, before, row -> count.incrementAndGet());
+        return count.get();
+    }
+
+    @Override
+    public void forEachVoteIdBefore(UUID electionId, UUID candidateId, Instant before, Consumer<UUID> consumer) {
+        tables.latency().pause();
+        tables.forEachVoteByCandidate(electionId, candidateId, before, row -> consumer.accept(row.getVoteId()));
+    }
+
+    @Override
+    public void forEachLegacyRow(Consumer<VoteByCandidate> consumer) {
+        tables.latency().pause();
+        tables.forEachVoteByCandidate(consumer);
+    }
+}
@@ -0,0 +1,185 @@
+package com.loadtest.standin.votes;
+
+import com.loadtest.standin.BeanReplacements;
+import com.loadtest.standin.RepositoryProxies;
+import com.loadtest.standin.StandInLatency;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.entity.cassandra.Vote;
+import com.votes.entity.cassandra.VoteByCandidate;
+import com.votes.repository.cassandra.UserVoteLogRepository;
+import com.votes.repository.cassandra.VoteByCandidateRepository;
+import com.votes.repository.cassandra.VoteRepository;
+import com.votes.repository.reactive.ReactiveUserVoteLogRepository;
+import com.votes.repository.reactive.ReactiveVoteByCandidateRepository;
+import com.votes.repository.reactive.ReactiveVoteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cassandra en memoria para votes-service (loadtest.cassandra.standin).
+ *
+ * ServiceLauncher la añade con spring.main.sources y excluye la
+ * autoconfiguración de Cassandra, así que no hay CqlSession: cada repositorio
+ * de com.votes.repository.cassandra se sustituye por su versión en memoria,
+ * con una latencia fija por operación (loadtest.standin.cassandra.latency-ms).
+ *
+ * No cubre el modo reactivo (app.votes.reactive.enabled) ni el recuento por
+ * rangos de token.
+ */
+@Configuration(proxyBeanMethods = false)
+public class InMemoryCassandraConfig {
+
+    public InMemoryCassandraConfig(@Value("${app.votes.reactive.enabled:false}") boolean reactiveEnabled) {
+        if (reactiveEnabled) {
+            throw new IllegalStateException("The in-memory Cassandra stand-in does not support app.votes.reactive.enabled");
+        }
+    }
+
+    @Bean
+    public static BeanReplacements inMemoryCassandraReplacements() {
+        return new BeanReplacements(Map.ofEntries(
+                Map.entry("preparedStatementRegistry", "inMemoryStatementRegistry"),
+                Map.entry("bucketedVoteByCandidateRepository", "inMemoryBucketedVoteByCandidateRepository"),
+                Map.entry("voteMinuteRepository", "inMemoryVoteMinuteRepository"),
+                Map.entry("voteCqlRepository", "inMemoryVoteCqlRepository"),
+                Map.entry("voteCountRepository", "inMemoryVoteCountRepository"),
+                Map.entry("tallyCheckpointRepository", "inMemoryTallyCheckpointRepository"),
+                Map.entry("voteRateRepository", "inMemoryVoteRateRepository"),
+                Map.entry("idempotencyCqlRepository", "inMemoryIdempotencyCqlRepository"),
+                Map.entry("voteRepository", "inMemoryVoteRepository"),
+                Map.entry("userVoteLogRepository", "inMemoryUserVoteLogRepository"),
+                Map.entry("voteByCandidateRepository", "inMemoryVoteByCandidateRepository"),
+                Map.entry("reactiveVoteRepository", "inMemoryReactiveVoteRepository"),
+                Map.entry("reactiveUserVoteLogRepository", "inMemoryReactiveUserVoteLogRepository"),
+                Map.entry("reactiveVoteByCandidateRepository", "inMemoryReactiveVoteByCandidateRepository")));
+    }
+
+    @Bean
+    CassandraTables cassandraTables(@Value("${loadtest.standin.cassandra.latency-ms:0}") long latencyMillis) {
+        return new CassandraTables(new StandInLatency(latencyMillis));
+    }
+
+    @Bean
+    InMemoryStatementRegistry inMemoryStatementRegistry() {
+        return new InMemoryStatementRegistry();
+    }
+
+    @Bean
+    InMemoryBucketedVoteByCandidateRepository inMemoryBucketedVoteByCandidateRepository(
+            CassandraTables tables, InMemoryStatementRegistry statements) {
+        return new InMemoryBucketedVoteByCandidateRepository(tables, statements);
+    }
+
+    @Bean
+    InMemoryVoteMinuteRepository inMemoryVoteMinuteRepository(CassandraTables tables, InMemoryStatementRegistry statements) {
+        return new InMemoryVoteMinuteRepository(tables, statements);
+    }
+
+    @Bean
+    InMemoryVoteCqlRepository inMemoryVoteCqlRepository(CassandraTables tables, InMemoryStatementRegistry statements,
+                                                        InMemoryBucketedVoteByCandidateRepository bucketedRepository,
+                                                        InMemoryVoteMinuteRepository voteMinuteRepository) {
+        return new InMemoryVoteCqlRepository(tables, statements, bucketedRepository, voteMinuteRepository);
+    }
+
+    @Bean
+    InMemoryVoteCountRepository inMemoryVoteCountRepository(CassandraTables tables, InMemoryStatementRegistry statements,
+                                                            InMemoryBucketedVoteByCandidateRepository bucketedRepository) {
+        return new InMemoryVoteCountRepository(tables, statements, bucketedRepository);
+    }
+
+    @Bean
+    InMemoryTallyCheckpointRepository inMemoryTallyCheckpointRepository(CassandraTables tables,
+                                                                        InMemoryStatementRegistry statements) {
+        return new InMemoryTallyCheckpointRepository(tables, statements);
+    }
+
+    @Bean
+    InMemoryVoteRateRepository inMemoryVoteRateRepository(CassandraTables tables, InMemoryStatementRegistry statements) {
+        return new InMemoryVoteRateRepository(tables, statements);
+    }
+
+    @Bean
+    InMemoryIdempotencyCqlRepository inMemoryIdempotencyCqlRepository(CassandraTables tables,
+                                                                      InMemoryStatementRegistry statements) {
+        return new InMemoryIdempotencyCqlRepository(tables, statements);
+    }
+
+    @Bean
+    VoteRepository inMemoryVoteRepository(CassandraTables tables) {
+        return RepositoryProxies.of(VoteRepository.class, Map.of(
+                "save", args -> saveVote(tables, (Vote) args[0]),
+                "insert", args -> saveVote(tables, (Vote) args[0]),
+                "existsById", args -> {
+                    tables.latency().pause();
+                    return tables.findVote((UUID) args[0]).isPresent();
+                },
+                "findById", args -> {
+                    tables.latency().pause();
+                    return tables.findVote((UUID) args[0]);
+                }));
+    }
+
+    @Bean
+    UserVoteLogRepository inMemoryUserVoteLogRepository(CassandraTables tables) {
+        return RepositoryProxies.of(UserVoteLogRepository.class, Map.of(
+                "save", args -> saveUserVote(tables, (UserVoteLog) args[0]),
+                "insert", args -> saveUserVote(tables, (UserVoteLog) args[0]),
+                "findByUserIdAndElectionId", args -> {
+                    tables.latency().pause();
+                    return tables.findUserVote((UUID) args[0], (UUID) args[1]);
+                }));
+    }
+
+    @Bean
+    VoteByCandidateRepository inMemoryVoteByCandidateRepository(CassandraTables tables) {
+        return RepositoryProxies.of(VoteByCandidateRepository.class, Map.of(
+                "save", args -> saveVoteByCandidate(tables, (VoteByCandidate) args[0]),
+                "insert", args -> saveVoteByCandidate(tables, (VoteByCandidate) args[0]),
+                "findByCandidateIdAndElectionId", args -> {
+                    tables.latency().pause();
+                    List<VoteByCandidate> rows = new ArrayList<>();
+                    tables.forEachVoteByCandidate((UUID) args[1], (UUID) args[0], null, rows::add);
+                    return rows;
+                }));
+    }
+
+    @Bean
+    ReactiveVoteRepository inMemoryReactiveVoteRepository() {
+        return RepositoryProxies.unsupported(ReactiveVoteRepository.class);
+    }
+
+    @Bean
+    ReactiveUserVoteLogRepository inMemoryReactiveUserVoteLogRepository() {
+        return RepositoryProxies.unsupported(ReactiveUserVoteLogRepository.class);
+    }
+
+    @Bean
+    ReactiveVoteByCandidateRepository inMemoryReactiveVoteByCandidateRepository() {
+        return RepositoryProxies.unsupported(ReactiveVoteByCandidateRepository.class);
+    }
+
+    private static Vote saveVote(CassandraTables tables, Vote vote) {
+        tables.latency().pause();
+        tables.saveVote(vote);
+        return vote;
+    }
+
+    private static UserVoteLog saveUserVote(CassandraTables tables, UserVoteLog userVote) {
+        tables.latency().pause();
+        tables.saveUserVote(userVote);
+        return userVote;
+    }
+
+    private static VoteByCandidate saveVoteByCandidate(CassandraTables tables, VoteByCandidate row) {
+        tables.latency().pause();
+        tables.saveVoteByCandidate(row);
+        return row;
+    }
+}
@@ -0,0 +1,68 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.dto.IdempotentResponse;
+import com.votes.repository.cassandra.IdempotencyCqlRepository;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * idempotency_keys en memoria. El TTL se respeta al leer: una fila caducada
+ * no se devuelve y se borra en ese momento.
+ */
+class InMemoryIdempotencyCqlRepository extends IdempotencyCqlRepository {
+
+    private final CassandraTables tables;
+
+    // Respuestas por "userId:idempotencyKey"
+    private final Map<String, StoredResponse> responses = new ConcurrentHashMap<>();
+
+    InMemoryIdempotencyCqlRepository(CassandraTables tables, PreparedStatementRegistry statements) {
+        super(null, statements);
+        this.tables = tables;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(UUID userId, String idempotencyKey) {
+        tables.latency().pause();
+        String key = key(userId, idempotencyKey);
+        StoredResponse stored = responses.get(key);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (stored.expiresAtMillis <= System.currentTimeMillis()) {
+            responses.remove(key, stored);
+            return Optional.empty();
+        }
+        return Optional.of(stored.response);
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> saveAsync(UUID userId, String idempotencyKey,
+                                                      IdempotentResponse response, int ttlSeconds) {
+        return tables.latency().async(() -> {
+            responses.put(key(userId, idempotencyKey),
+                    new StoredResponse(response, System.currentTimeMillis() + ttlSeconds * 1000L));
+            return null;
+        });
+    }
+
+    private static String key(UUID userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    private static final class StoredResponse {
+        private final IdempotentResponse response;
+        private final long expiresAtMillis;
+
+        private StoredResponse(IdempotentResponse response, long expiresAtMillis) {
+            this.response = response;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+
+/**
+ * Registro sin sesión: los repositorios en memoria no preparan sentencias,
+ * pero los de votes-service llaman a prepareAll al arrancar.
+ */
+class InMemoryStatementRegistry extends PreparedStatementRegistry {
+
+    InMemoryStatementRegistry() {
+        super(null);
+    }
+
+    @Override
+    public PreparedStatement get(String cql) {
+        throw new UnsupportedOperationException("The in-memory Cassandra stand-in does not prepare CQL: " + cql);
+    }
+
+    @Override
+    public void prepareAll(String... cqls) {
+    }
+
+    @Override
+    public boolean hasProfile(String profileName) {
+        return false;
+    }
+
+    @Override
+    public <S extends Statement<S>> S withProfile(S statement, String profileName) {
+        return statement;
+    }
+}
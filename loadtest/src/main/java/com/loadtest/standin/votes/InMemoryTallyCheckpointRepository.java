@@ -0,0 +1,53 @@
+package com.loadtest.standin.votes;
+
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+import com.votes.repository.cassandra.TallyCheckpointRepository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * vote_tally_checkpoints en memoria. El TTL no se aplica: una prueba de carga
+ * no dura lo suficiente para que caduque un checkpoint.
+ */
+class InMemoryTallyCheckpointRepository extends TallyCheckpointRepository {
+
+    private final CassandraTables tables;
+
+    // Checkpoints por elección y high_water, cada uno con sus conteos por candidato
+    private final Map<UUID, NavigableMap<Instant, Map<UUID, Long>>> checkpoints = new ConcurrentHashMap<>();
+
+    InMemoryTallyCheckpointRepository(CassandraTables tables, PreparedStatementRegistry statements) {
+        super(null, statements);
+        this.tables = tables;
+    }
+
+    @Override
+    public void save(UUID electionId, Instant highWater, Map<UUID, Long> counts) {
+        tables.latency().pause();
+        checkpoints.computeIfAbsent(electionId, id -> new ConcurrentSkipListMap<>())
+                .merge(highWater, Map.copyOf(counts), (existing, added) -> {
+                    Map<UUID, Long> merged = new HashMap<>(existing);
+                    merged.putAll(added);
+                    return Map.copyOf(merged);
+                });
+    }
+
+    @Override
+    public Optional<TallyCheckpoint> findLatest(UUID electionId) {
+        tables.latency().pause();
+        NavigableMap<Instant, Map<UUID, Long>> election = checkpoints.get(electionId);
+        if (election == null || election.isEmpty()) {
+            return Optional.empty();
+        }
+        Map.Entry<Instant, Map<UUID, Long>> latest = election.lastEntry();
+        return Optional.of(new TallyCheckpoint(latest.getKey(), Collections.unmodifiableMap(latest.getValue())));
+    }
+}
@@ -0,0 +1,67 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+import com.votes.repository.cassandra.VoteCountRepository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * vote_counts_by_candidate en memoria; los conteos directos recorren la
+ * votes_by_candidate compartida a través del repositorio con buckets.
+ */
+class InMemoryVoteCountRepository extends VoteCountRepository {
+
+    private final CassandraTables tables;
+    private final InMemoryBucketedVoteByCandidateRepository bucketedRepository;
+
+    // Contadores por elección y candidato
+    private final Map<UUID, Map<UUID, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    InMemoryVoteCountRepository(CassandraTables tables, PreparedStatementRegistry statements,
+                                InMemoryBucketedVoteByCandidateRepository bucketedRepository) {
+        super(null, statements, bucketedRepository);
+        this.tables = tables;
+        this.bucketedRepository = bucketedRepository;
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> incrementAsync(UUID electionId, UUID candidateId, long delta) {
+        return tables.latency().async(() -> {
+            counters.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(candidateId, id -> new LongAdder())
+                    .add(delta);
+            return null;
+        });
+    }
+
+    @Override
+    public Map<UUID, Long> findCountsByElectionId(UUID electionId) {
+        tables.latency().pause();
+        Map<UUID, Long> counts = new HashMap<>();
+        counters.getOrDefault(electionId, Map.of()).forEach((candidateId, count) -> counts.put(candidateId, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public long countVotesByCandidate(UUID electionId, UUID candidateId) {
+        return bucketedRepository.countVotes(electionId, candidateId);
+    }
+
+    @Override
+    public long countVotesByCandidateBefore(UUID electionId, UUID candidateId, Instant before) {
+        return bucketedRepository.countVotesBefore(electionId, candidateId, before);
+    }
+
+    @Override
+    public void forEachVoteIdByCandidateBefore(UUID electionId, UUID candidateId, Instant before, Consumer<UUID> consumer) {
+        bucketedRepository.forEachVoteIdBefore(electionId, candidateId, before, consumer);
+    }
+}
@@ -0,0 +1,119 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.votes.entity.cassandra.UserVoteLog;
+import com.votes.entity.cassandra.Vote;
+import com.votes.entity.cassandra.VoteByCandidate;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+import com.votes.repository.cassandra.VoteCqlRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Batch de votos y reclamo de user_votes_log sobre las tablas en memoria.
+ *
+ * Cada batch cuenta como una sola ida y vuelta (una pausa de latencia). El
+ * recorrido por rangos de token del recuento no tiene equivalente sin
+ * clúster y falla con UnsupportedOperationException.
+ */
+class InMemoryVoteCqlRepository extends VoteCqlRepository {
+
+    private final CassandraTables tables;
+    private final InMemoryVoteMinuteRepository voteMinuteRepository;
+
+    InMemoryVoteCqlRepository(CassandraTables tables, PreparedStatementRegistry statements,
+                              InMemoryBucketedVoteByCandidateRepository bucketedRepository,
+                              InMemoryVoteMinuteRepository voteMinuteRepository) {
+        super(null, statements, bucketedRepository, voteMinuteRepository);
+        this.tables = tables;
+        this.voteMinuteRepository = voteMinuteRepository;
+    }
+
+    @Override
+    public void saveAll(Vote vote, VoteByCandidate voteByCandidate, UserVoteLog userVoteLog) {
+        tables.latency().pause();
+        writeVote(vote, voteByCandidate);
+        tables.saveUserVote(userVoteLog);
+    }
+
+    @Override
+    public void saveClaimedVote(Vote vote, VoteByCandidate voteByCandidate) {
+        tables.latency().pause();
+        writeVote(vote, voteByCandidate);
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> saveClaimedVoteAsync(Vote vote, VoteByCandidate voteByCandidate) {
+        return tables.latency().async(() -> {
+            writeVote(vote, voteByCandidate);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean claimUserVote(UserVoteLog userVoteLog) {
+        tables.latency().pause();
+        return claim(userVoteLog);
+    }
+
+    @Override
+    public CompletionStage<Boolean> claimUserVoteAsync(UserVoteLog userVoteLog) {
+        return tables.latency().async(() -> claim(userVoteLog));
+    }
+
+    @Override
+    public boolean hasUserVote(UUID userId, UUID electionId) {
+        tables.latency().pause();
+        return tables.findUserVote(userId, electionId).isPresent();
+    }
+
+    @Override
+    public void releaseClaim(UserVoteLog userVoteLog) {
+        tables.latency().pause();
+        tables.releaseUserVote(userVoteLog);
+    }
+
+    @Override
+    public void forEachUserVote(Consumer<UserVoteLog> consumer) {
+        tables.latency().pause();
+        tables.forEachUserVote(consumer);
+    }
+
+    @Override
+    public void forEachVote(Consumer<Vote> consumer) {
+        tables.latency().pause();
+        tables.forEachVote(consumer);
+    }
+
+    @Override
+    public List<TokenRange> splitTokenRing(int splits) {
+        throw new UnsupportedOperationException("Token ranges are not available in the in-memory Cassandra stand-in");
+    }
+
+    @Override
+    public void forEachVoteInRange(TokenRange range, Consumer<Vote> consumer) {
+        throw new UnsupportedOperationException("Token ranges are not available in the in-memory Cassandra stand-in");
+    }
+
+    /**
+     * Filas de votes, votes_by_candidate y, si está activo, votes_by_minute.
+     */
+    private void writeVote(Vote vote, VoteByCandidate voteByCandidate) {
+        tables.saveVote(vote);
+        tables.saveVoteByCandidate(voteByCandidate);
+        if (voteMinuteRepository.isEnabled()) {
+            voteMinuteRepository.write(vote);
+        }
+    }
+
+    /**
+     * true si la fila se insertó o ya pertenecía a este mismo voto.
+     */
+    private boolean claim(UserVoteLog userVoteLog) {
+        return userVoteLog.getVoteId().equals(tables.claimUserVote(userVoteLog).getVoteId());
+    }
+}
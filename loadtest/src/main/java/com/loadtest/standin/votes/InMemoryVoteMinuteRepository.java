@@ -0,0 +1,153 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.entity.cassandra.Vote;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+import com.votes.repository.cassandra.VoteMinuteRepository;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * votes_by_minute y late_votes_by_minute en memoria, con la misma regla de
+ * voto tardío que VoteMinuteRepository.
+ */
+class InMemoryVoteMinuteRepository extends VoteMinuteRepository {
+
+    private final CassandraTables tables;
+
+    // votes_by_minute por "electionId:minute" y vote_id; los tardíos además en lateVoteIds
+    private final Map<String, Map<UUID, Vote>> votesByMinute = new ConcurrentHashMap<>();
+    private final Set<UUID> lateVoteIds = ConcurrentHashMap.newKeySet();
+
+    // late_votes_by_minute por "electionId:writtenMinute", y el primer minuto de escritura de cada voto
+    private final Map<String, Map<UUID, Vote>> lateVotesByMinute = new ConcurrentHashMap<>();
+    private final Map<UUID, Instant> lateVoteMinutes = new ConcurrentHashMap<>();
+
+    @Value("${app.votes.tally-checkpoints.enabled:false}")
+    private boolean checkpointsEnabled;
+
+    @Value("${app.votes.audit.enabled:false}")
+    private boolean auditEnabled;
+
+    @Value("${app.votes.tally-checkpoints.margin-ms:60000}")
+    private long checkpointMarginMillis;
+
+    @Value("${app.votes.audit.seal-margin-ms:120000}")
+    private long sealMarginMillis;
+
+    InMemoryVoteMinuteRepository(CassandraTables tables, PreparedStatementRegistry statements) {
+        super(null, statements);
+        this.tables = tables;
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> saveAsync(Vote vote) {
+        return tables.latency().async(() -> {
+            write(vote);
+            return null;
+        });
+    }
+
+    @Override
+    public void save(Vote vote) {
+        tables.latency().pause();
+        write(vote);
+    }
+
+    /**
+     * Filas del voto, sin latencia propia: también las escribe el batch de InMemoryVoteCqlRepository.
+     */
+    void write(Vote vote) {
+        Instant now = Instant.now();
+        votesByMinute.computeIfAbsent(key(vote.getElectionId(), minute(vote.getVotedAt())),
+                key -> new ConcurrentHashMap<>()).put(vote.getVoteId(), vote);
+        if (isLate(vote, now)) {
+            lateVoteIds.add(vote.getVoteId());
+            lateVotesByMinute.computeIfAbsent(key(vote.getElectionId(), minute(now)),
+                    key -> new ConcurrentHashMap<>()).put(vote.getVoteId(), vote);
+            lateVoteMinutes.merge(vote.getVoteId(), minute(now),
+                    (current, other) -> current.isBefore(other) ? current : other);
+        }
+    }
+
+    @Override
+    public boolean hasLateVotes(UUID electionId, Instant fromMinute, Instant toMinute) {
+        tables.latency().pause();
+        for (Instant minute = minute(fromMinute); minute.isBefore(toMinute); minute = minute.plus(1, ChronoUnit.MINUTES)) {
+            Map<UUID, Vote> late = lateVotesByMinute.get(key(electionId, minute));
+            if (late != null && !late.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Vote> findVotes(UUID electionId, Instant minute) {
+        tables.latency().pause();
+        List<Vote> votes = new ArrayList<>();
+        for (Vote vote : votesByMinute.getOrDefault(key(electionId, minute(minute)), Map.of()).values()) {
+            if (!lateVoteIds.contains(vote.getVoteId())) {
+                votes.add(vote);
+            }
+        }
+        return votes;
+    }
+
+    @Override
+    public List<Vote> findLateVotes(UUID electionId, Instant writtenMinute) {
+        tables.latency().pause();
+        return new ArrayList<>(lateVotesByMinute.getOrDefault(key(electionId, minute(writtenMinute)), Map.of()).values());
+    }
+
+    @Override
+    public Map<UUID, Instant> lateVoteMinutes() {
+        tables.latency().pause();
+        return new HashMap<>(lateVoteMinutes);
+    }
+
+    @Override
+    public Map<UUID, Long> countByCandidate(UUID electionId, Instant fromMinute, Instant toMinute) {
+        Map<UUID, Long> counts = new HashMap<>();
+        candidateByVote(electionId, fromMinute, toMinute).values()
+                .forEach(candidateId -> counts.merge(candidateId, 1L, Long::sum));
+        return counts;
+    }
+
+    @Override
+    public Map<UUID, UUID> candidateByVote(UUID electionId, Instant fromMinute, Instant toMinute) {
+        tables.latency().pause();
+        Map<UUID, UUID> votes = new HashMap<>();
+        for (Instant minute = minute(fromMinute); minute.isBefore(toMinute); minute = minute.plus(1, ChronoUnit.MINUTES)) {
+            for (Vote vote : votesByMinute.getOrDefault(key(electionId, minute), Map.of()).values()) {
+                votes.put(vote.getVoteId(), vote.getCandidateId());
+            }
+        }
+        return votes;
+    }
+
+    private boolean isLate(Vote vote, Instant now) {
+        long marginMillis = Long.MAX_VALUE;
+        if (checkpointsEnabled) {
+            marginMillis = checkpointMarginMillis;
+        }
+        if (auditEnabled) {
+            marginMillis = Math.min(marginMillis, sealMarginMillis);
+        }
+        return marginMillis != Long.MAX_VALUE && vote.getVotedAt().isBefore(minute(now.minusMillis(marginMillis)));
+    }
+
+    private static String key(UUID electionId, Instant minute) {
+        return electionId + ":" + minute;
+    }
+}
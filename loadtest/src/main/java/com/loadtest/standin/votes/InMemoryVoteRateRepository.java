@@ -0,0 +1,53 @@
+package com.loadtest.standin.votes;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.votes.repository.cassandra.PreparedStatementRegistry;
+import com.votes.repository.cassandra.VoteRateRepository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * vote_rate_by_minute en memoria: valor absoluto por minuto e instancia, y
+ * lecturas que suman todas las instancias.
+ */
+class InMemoryVoteRateRepository extends VoteRateRepository {
+
+    private final CassandraTables tables;
+
+    // Filas por elección, minuto e instance_id
+    private final Map<UUID, ConcurrentSkipListMap<Instant, Map<String, Long>>> minutes = new ConcurrentHashMap<>();
+
+    InMemoryVoteRateRepository(CassandraTables tables, PreparedStatementRegistry statements) {
+        super(null, statements);
+        this.tables = tables;
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> saveMinuteAsync(UUID electionId, Instant minute, String instanceId, long count) {
+        return tables.latency().async(() -> {
+            minutes.computeIfAbsent(electionId, id -> new ConcurrentSkipListMap<>())
+                    .computeIfAbsent(minute, key -> new ConcurrentHashMap<>())
+                    .put(instanceId, count);
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Instant, Long> findMinutes(UUID electionId, Instant from, Instant to) {
+        tables.latency().pause();
+        Map<Instant, Long> counts = new TreeMap<>();
+        ConcurrentSkipListMap<Instant, Map<String, Long>> election = minutes.get(electionId);
+        if (election == null || !from.isBefore(to)) {
+            return counts;
+        }
+        election.subMap(from, true, to, false).forEach((minute, instances) ->
+                counts.put(minute, instances.values().stream().mapToLong(Long::longValue).sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,86 @@
+-- Esquema de config/docker/scripts/db/postgres/01-init.sql para el sustituto H2 (modo PostgreSQL)
+-- Mismas tablas e índices, sin la extensión uuid-ossp, las funciones ni los bloques DO;
+-- los triggers de updated_at pasan a ON UPDATE. Los candidatos son los de 02-seed.sql.
+
+CREATE TABLE elections (
+    id UUID DEFAULT '550e8400-e29b-41d4-a716-446655440000' PRIMARY KEY,
+    name VARCHAR(255) DEFAULT 'Elección General 2024' NOT NULL,
+    description TEXT,
+    start_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    end_date TIMESTAMP DEFAULT (CURRENT_TIMESTAMP + INTERVAL '30' DAY),
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE users (
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    has_voted BOOLEAN DEFAULT FALSE,
+    is_eligible BOOLEAN DEFAULT TRUE,
+    is_active BOOLEAN DEFAULT TRUE,
+    roles VARCHAR(50) DEFAULT 'USER',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE user_voting_status (
+    user_id UUID PRIMARY KEY,
+    election_id UUID DEFAULT '550e8400-e29b-41d4-a716-446655440000' NOT NULL,
+    has_voted BOOLEAN DEFAULT FALSE,
+    voted_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (election_id) REFERENCES elections(id) ON DELETE CASCADE
+);
+
+CREATE TABLE candidates (
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    party VARCHAR(100),
+    election_id UUID DEFAULT '550e8400-e29b-41d4-a716-446655440000' NOT NULL,
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (election_id) REFERENCES elections(id) ON DELETE CASCADE
+);
+
+CREATE TABLE revoked_tokens (
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
+    token_hash VARCHAR(256) NOT NULL UNIQUE,
+    user_id UUID,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    reason VARCHAR(100) DEFAULT 'LOGOUT',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
+);
+
+CREATE TABLE projection_dead_letters (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    user_id UUID NOT NULL,
+    election_id UUID NOT NULL,
+    vote_id UUID,
+    voted_at TIMESTAMP,
+    error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_users_active ON users(is_active);
+CREATE INDEX idx_user_voting_status_election ON user_voting_status(election_id);
+CREATE INDEX idx_user_voting_status_voted ON user_voting_status(has_voted);
+CREATE INDEX idx_candidates_active ON candidates(is_active);
+CREATE INDEX idx_revoked_tokens_hash ON revoked_tokens(token_hash);
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens(expires_at);
+
+INSERT INTO elections (id, name, description, is_active)
+VALUES ('550e8400-e29b-41d4-a716-446655440000', 'Elección General 2024', 'Elección presidencial y legislativa', TRUE);
+
+INSERT INTO candidates (id, name, party, election_id, is_active)
+VALUES
+  ('aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa', 'Candidato A', 'Partido Azul', '550e8400-e29b-41d4-a716-446655440000', TRUE),
+  ('bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb', 'Candidato B', 'Partido Rojo', '550e8400-e29b-41d4-a716-446655440000', TRUE),
+  ('cccccccc-cccc-cccc-cccc-cccccccccccc', 'Candidato C', 'Partido Verde', '550e8400-e29b-41d4-a716-446655440000', TRUE),
+  ('dddddddd-dddd-dddd-dddd-dddddddddddd', 'Candidato D', 'Partido Amarillo', '550e8400-e29b-41d4-a716-446655440000', FALSE);